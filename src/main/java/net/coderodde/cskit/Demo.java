@@ -1,6 +1,13 @@
 package net.coderodde.cskit;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -30,27 +37,51 @@ import static net.coderodde.cskit.Utilities.title2;
 import net.coderodde.cskit.ds.list.TreeList;
 import net.coderodde.cskit.ds.pq.BinaryHeap;
 import net.coderodde.cskit.ds.pq.FibonacciHeap;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.ds.pq.IndexedRadixHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.ds.pq.RadixHeap;
 import net.coderodde.cskit.ds.tree.OrderStatisticTree;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.GraphLoader;
+import net.coderodde.cskit.graph.LoadedGraph;
+import net.coderodde.cskit.graph.PackedDirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.PackedUndirectedGraphWeightFunction;
 import net.coderodde.cskit.graph.UndirectedGraphEdge;
 import net.coderodde.cskit.graph.UndirectedGraphNode;
 import net.coderodde.cskit.graph.UndirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.VertexPermutation;
 import net.coderodde.cskit.graph.flow.BidirectionalEdmondKarpFlowFinder;
+import net.coderodde.cskit.graph.grid.GridAStarFinder;
+import net.coderodde.cskit.graph.grid.GridGraph;
+import net.coderodde.cskit.graph.grid.GridPathFinder;
+import net.coderodde.cskit.graph.grid.JumpPointSearchFinder;
 import net.coderodde.cskit.graph.flow.EdmondKarpFlowFinder;
 import net.coderodde.cskit.graph.flow.FlowFinder;
 import net.coderodde.cskit.graph.mst.KruskalMSTFinder;
 import net.coderodde.cskit.graph.mst.MinimumSpanningTreeFinder;
 import net.coderodde.cskit.graph.mst.PrimMSTFinder;
+import net.coderodde.cskit.graph.p2psp.QueryExecutor;
 import net.coderodde.cskit.graph.p2psp.general.AStarFinder;
 import net.coderodde.cskit.graph.p2psp.general.BHPAFinder;
 import net.coderodde.cskit.graph.p2psp.general.BidirectionalDijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.BucketManyToManyFinder;
 import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+import net.coderodde.cskit.graph.p2psp.general.ContractionHierarchy;
+import net.coderodde.cskit.graph.p2psp.general.ContractionHierarchyFinder;
+import net.coderodde.cskit.graph.p2psp.general.DeltaStepping;
 import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraManyToManyFinder;
 import net.coderodde.cskit.graph.p2psp.general.EuclidianMetric;
 import net.coderodde.cskit.graph.p2psp.general.FastSuboptimalFinder;
 import net.coderodde.cskit.graph.p2psp.general.GeneralPathFinder;
+import net.coderodde.cskit.graph.p2psp.general.LandmarkHeuristic;
+import net.coderodde.cskit.graph.p2psp.general.Landmarks;
+import net.coderodde.cskit.graph.p2psp.general.ManyToManyFinder;
+import net.coderodde.cskit.graph.p2psp.general.ParallelBidirectionalDijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.ShortestPathTree;
 import net.coderodde.cskit.graph.p2psp.general.WhangboFinder;
 import net.coderodde.cskit.graph.p2psp.uniform.BreadthFirstSearchFinder;
 import net.coderodde.cskit.graph.p2psp.uniform.BidirectionalBFSFinder;
@@ -94,6 +125,18 @@ public class Demo{
 //        profileMSTAlgorithms();
 //        debugMaxFlowAlgorithms();
 //        profileFibonacciHeap();
+//        profileAdjacencyMemory();
+//        profileGraphLoader();
+//        profileVertexReordering();
+//        profilePackedMSTAlgorithms();
+//        profileContractionHierarchies();
+//        profileLandmarks();
+//        profileDistanceTables();
+//        profileDeltaStepping();
+//        profileRadixHeap();
+//        profileQueryExecutor();
+//        profileJumpPointSearch();
+//        profileHeuristicBatch();
     }
 
     public static void profileOrderStatisticTree() {
@@ -324,6 +367,950 @@ public class Demo{
         System.gc();
     }
 
+    /**
+     * Reports the estimated memory use per node and per arc of a sparse graph
+     * built once with compact adjacency lists and once with hashed ones.
+     */
+    private static void profileAdjacencyMemory() {
+        title("Adjacency memory use");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIZE = 100000;
+        final int DEGREE = 6;
+
+        System.out.println("Nodes in the graph: " + SIZE
+                + ", out-degree: " + DEGREE);
+        System.out.println("Seed: " + SEED);
+
+        DirectedGraphNode[] compact = new DirectedGraphNode[SIZE];
+        DirectedGraphNode[] hashed = new DirectedGraphNode[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            compact[i] = new DirectedGraphNode("" + i);
+            hashed[i] = new DirectedGraphNode("" + i,
+                                     DirectedGraphNode.DEFAULT_INITIAL_CAPACITY);
+        }
+
+        long arcs = 0;
+
+        for (int i = 0; i < SIZE; ++i) {
+            for (int j = 0; j < DEGREE; ++j) {
+                int k = r.nextInt(SIZE);
+
+                if (compact[i].hasChild(compact[k]) == false) {
+                    compact[i].addChild(compact[k]);
+                    hashed[i].addChild(hashed[k]);
+                    ++arcs;
+                }
+            }
+        }
+
+        long emptyCompact = new DirectedGraphNode("").estimateMemoryUsage();
+        long emptyHashed = new DirectedGraphNode("",
+                DirectedGraphNode.DEFAULT_INITIAL_CAPACITY)
+                .estimateMemoryUsage();
+        long bytesCompact = 0;
+        long bytesHashed = 0;
+
+        for (int i = 0; i < SIZE; ++i) {
+            bytesCompact += compact[i].estimateMemoryUsage();
+            bytesHashed += hashed[i].estimateMemoryUsage();
+        }
+
+        System.out.println("Arcs in the graph: " + arcs);
+        line();
+        System.out.println("Compact: " + emptyCompact
+                + " bytes per empty node, "
+                + (bytesCompact - SIZE * emptyCompact) / arcs
+                + " bytes per arc, " + bytesCompact / SIZE
+                + " bytes per node in total.");
+        System.out.println("Hashed:  " + emptyHashed
+                + " bytes per empty node, "
+                + (bytesHashed - SIZE * emptyHashed) / arcs
+                + " bytes per arc, " + bytesHashed / SIZE
+                + " bytes per node in total.");
+        line();
+    }
+
+    /**
+     * Writes a random edge list to a temporary file and loads it with one
+     * thread and with all processors, reporting the throughput.
+     */
+    private static void profileGraphLoader() {
+        title("Graph loader");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIZE = 1000000;
+        final int ARCS = 8000000;
+
+        System.out.println("Nodes: " + SIZE + ", arcs: " + ARCS);
+        System.out.println("Seed: " + SEED);
+
+        try {
+            File file = File.createTempFile("cskit", ".txt");
+            file.deleteOnExit();
+            Writer out = new BufferedWriter(new FileWriter(file));
+
+            try {
+                for (int i = 0; i < ARCS; ++i) {
+                    out.write(r.nextInt(SIZE) + " " + r.nextInt(SIZE) + " "
+                            + r.nextInt(100000) / 100.0 + "\n");
+                }
+            } finally {
+                out.close();
+            }
+
+            int threads = Runtime.getRuntime().availableProcessors();
+            LoadedGraph g1 = new GraphLoader(1).loadEdgeList(file);
+            LoadedGraph g2 = new GraphLoader(threads).loadEdgeList(file);
+
+            line();
+            System.out.println("Threads: 1, " + g1);
+            System.out.println("Threads: " + threads + ", " + g2);
+
+            long ta = System.currentTimeMillis();
+            g2.toCompactGraph();
+            long tb = System.currentTimeMillis();
+
+            System.out.println("Snapshot built in " + (tb - ta) + " ms.");
+            line();
+        } catch (IOException e) {
+            System.out.println("Could not profile the loader: " + e);
+        }
+    }
+
+    /**
+     * Builds a grid road network with the nodes in random order and times
+     * Dijkstra and breadth-first search on it before and after reordering
+     * the nodes.
+     */
+    private static void profileVertexReordering() {
+        title("Vertex reordering");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 700;
+        final int QUERIES = 20;
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CoordinateMap map = grid.third;
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+        int[] sources = new int[QUERIES];
+        int[] targets = new int[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = r.nextInt(g.size());
+            targets[i] = r.nextInt(g.size());
+        }
+
+        String[] names = { "Input order", "BFS order", "RCM order",
+                           "Hilbert order" };
+        VertexPermutation[] permutations = {
+            new VertexPermutation(identity(g.size())),
+            VertexPermutation.breadthFirst(g, 0),
+            VertexPermutation.reverseCuthillMcKee(g),
+            VertexPermutation.hilbert(g, map)
+        };
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        BreadthFirstSearchFinder bfs = new BreadthFirstSearchFinder();
+        double[] costs = new double[QUERIES];
+
+        line();
+
+        for (int k = 0; k < permutations.length; ++k) {
+            VertexPermutation p = permutations[k];
+            CompactDirectedGraph pg = p.apply(g);
+            boolean ok = true;
+
+            // Warm up.
+            dijkstra.find(pg, p.toNew(sources[0]), p.toNew(targets[0]));
+
+            long ta = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                double cost = pg.getPathCost(
+                        dijkstra.find(pg,
+                                      p.toNew(sources[i]),
+                                      p.toNew(targets[i])));
+
+                if (k == 0) {
+                    costs[i] = cost;
+                } else {
+                    ok &= epsilonEquals(0.001, costs[i], cost);
+                }
+            }
+
+            long tb = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                bfs.find(pg, p.toNew(sources[i]), p.toNew(targets[i]));
+            }
+
+            long tc = System.currentTimeMillis();
+
+            System.out.println(names[k] + ": DijkstraFinder in " + (tb - ta)
+                    + " ms, BreadthFirstSearchFinder in " + (tc - tb)
+                    + " ms, costs agree: " + ok);
+        }
+
+        line();
+    }
+
+    /**
+     * Times the contraction of a grid road network and compares the queries
+     * over the hierarchy against Dijkstra's algorithm.
+     */
+    private static void profileContractionHierarchies() {
+        title("Contraction hierarchies");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 100;
+        final int QUERIES = 100;
+        final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+
+        line();
+
+        ContractionHierarchy ch = null;
+
+        for (int threads = 1; threads <= THREADS; threads <<= 1) {
+            long ta = System.currentTimeMillis();
+            ch = new ContractionHierarchy(g, threads);
+            long tb = System.currentTimeMillis();
+
+            System.out.println("Contraction on " + threads + " thread(s) in "
+                    + (tb - ta) + " ms, shortcuts: "
+                    + ch.getShortcutCount());
+        }
+
+        line();
+
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>()),
+            new BidirectionalDijkstraFinder(
+                    new BinaryHeap<DirectedGraphNode, Double>()),
+            new ParallelBidirectionalDijkstraFinder(
+                    new BinaryHeap<DirectedGraphNode, Double>()),
+            new ContractionHierarchyFinder(ch)
+        };
+        int[] sources = new int[QUERIES];
+        int[] targets = new int[QUERIES];
+        double[] costs = new double[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = r.nextInt(g.size());
+            targets[i] = r.nextInt(g.size());
+        }
+
+        for (GeneralPathFinder finder : finders) {
+            boolean ok = true;
+            long ta = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                double cost = g.getPathCost(
+                        finder.find(g, sources[i], targets[i]));
+
+                if (finder == finders[0]) {
+                    costs[i] = cost;
+                } else {
+                    ok &= epsilonEquals(0.001, costs[i], cost);
+                }
+            }
+
+            long tb = System.currentTimeMillis();
+
+            System.out.println(finder.getClass().getSimpleName() + ": "
+                    + (tb - ta) + " ms for " + QUERIES
+                    + " queries, costs agree: " + ok);
+        }
+
+        line();
+    }
+
+    /**
+     * Times the landmark selection strategies on a grid road network and
+     * compares <tt>A*</tt> guided by the landmarks against the Euclidean
+     * metric and Dijkstra's algorithm.
+     */
+    private static void profileLandmarks() {
+        title("ALT landmarks");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 300;
+        final int LANDMARKS = 16;
+        final int QUERIES = 100;
+        final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+
+        line();
+
+        long ta = System.currentTimeMillis();
+        Landmarks farthest = Landmarks.farthest(g, LANDMARKS, THREADS, r);
+        long tb = System.currentTimeMillis();
+
+        System.out.println("Farthest landmarks on " + THREADS
+                + " thread(s) in " + (tb - ta) + " ms");
+
+        ta = System.currentTimeMillis();
+        Landmarks avoid = Landmarks.avoid(g, LANDMARKS, THREADS, r);
+        tb = System.currentTimeMillis();
+
+        System.out.println("Avoid landmarks on " + THREADS
+                + " thread(s) in " + (tb - ta) + " ms");
+
+        line();
+
+        String[] names = { "Dijkstra", "A* (Euclidean)",
+                           "A* (ALT, farthest)", "A* (ALT, avoid)" };
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>()),
+            new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                            new EuclidianMetric(grid.third, null)),
+            new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                            new LandmarkHeuristic(farthest)),
+            new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                            new LandmarkHeuristic(avoid))
+        };
+        int[] sources = new int[QUERIES];
+        int[] targets = new int[QUERIES];
+        double[] costs = new double[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = r.nextInt(g.size());
+            targets[i] = r.nextInt(g.size());
+        }
+
+        for (int f = 0; f < finders.length; ++f) {
+            boolean ok = true;
+            ta = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                double cost = g.getPathCost(
+                        finders[f].find(g, sources[i], targets[i]));
+
+                if (f == 0) {
+                    costs[i] = cost;
+                } else {
+                    ok &= epsilonEquals(0.001, costs[i], cost);
+                }
+            }
+
+            tb = System.currentTimeMillis();
+
+            System.out.println(names[f] + ": " + (tb - ta) + " ms for "
+                    + QUERIES + " queries, costs agree: " + ok);
+        }
+
+        line();
+    }
+
+    /**
+     * Times the distance tables of a grid road network computed by
+     * point-to-point queries, by Dijkstra sweeps and by bucket scans over a
+     * contraction hierarchy.
+     */
+    private static void profileDistanceTables() {
+        title("Many-to-many distance tables");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 100;
+        final int SOURCES = 100;
+        final int TARGETS = 100;
+        final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Table: " + SOURCES + " x " + TARGETS);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+        int[] sources = new int[SOURCES];
+        int[] targets = new int[TARGETS];
+
+        for (int i = 0; i < SOURCES; ++i) {
+            sources[i] = r.nextInt(g.size());
+        }
+
+        for (int i = 0; i < TARGETS; ++i) {
+            targets[i] = r.nextInt(g.size());
+        }
+
+        line();
+
+        GeneralPathFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        double[][] expected = new double[SOURCES][TARGETS];
+        long ta = System.currentTimeMillis();
+
+        for (int i = 0; i < SOURCES; ++i) {
+            for (int j = 0; j < TARGETS; ++j) {
+                expected[i][j] = g.getPathCost(
+                        dijkstra.find(g, sources[i], targets[j]));
+            }
+        }
+
+        long tb = System.currentTimeMillis();
+
+        System.out.println("Point-to-point queries: " + (tb - ta) + " ms");
+
+        ta = System.currentTimeMillis();
+        ContractionHierarchy ch = new ContractionHierarchy(g, THREADS);
+        tb = System.currentTimeMillis();
+
+        System.out.println("Contraction: " + (tb - ta) + " ms");
+
+        line();
+
+        for (int threads = 1; threads <= THREADS; threads <<= 1) {
+            ManyToManyFinder[] finders = {
+                new DijkstraManyToManyFinder(threads),
+                new BucketManyToManyFinder(ch, threads)
+            };
+
+            for (ManyToManyFinder finder : finders) {
+                ta = System.currentTimeMillis();
+                double[][] table = finder.find(g, sources, targets);
+                tb = System.currentTimeMillis();
+                boolean ok = true;
+
+                for (int i = 0; i < SOURCES; ++i) {
+                    for (int j = 0; j < TARGETS; ++j) {
+                        ok &= epsilonEquals(0.001,
+                                            expected[i][j],
+                                            table[i][j]);
+                    }
+                }
+
+                System.out.println(finder.getClass().getSimpleName()
+                        + " on " + threads + " thread(s): " + (tb - ta)
+                        + " ms, distances agree: " + ok);
+            }
+        }
+
+        line();
+    }
+
+    /**
+     * Times delta-stepping on a grid road network over several bucket
+     * widths and thread counts against a single Dijkstra sweep.
+     */
+    private static void profileDeltaStepping() {
+        title("Delta-stepping");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 500;
+        final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+        int source = r.nextInt(g.size());
+
+        line();
+
+        long ta = System.currentTimeMillis();
+        double[] expected = new DijkstraManyToManyFinder(1).find(
+                g, new int[]{ source }, identity(g.size()))[0];
+        long tb = System.currentTimeMillis();
+
+        System.out.println("Dijkstra sweep: " + (tb - ta) + " ms");
+
+        line();
+
+        for (double delta : new double[]{ 0.5, 1.5, 5.0 }) {
+            for (int threads = 1; threads <= THREADS; threads <<= 1) {
+                ta = System.currentTimeMillis();
+                ShortestPathTree tree =
+                        new DeltaStepping(threads, delta).compute(g, source);
+                tb = System.currentTimeMillis();
+                boolean ok = true;
+
+                for (int u = 0; u < g.size(); ++u) {
+                    ok &= epsilonEquals(0.001,
+                                        expected[u],
+                                        tree.getDistance(u));
+                }
+
+                System.out.println("Delta " + delta + " on " + threads
+                        + " thread(s): " + (tb - ta)
+                        + " ms, distances agree: " + ok);
+            }
+        }
+
+        line();
+    }
+
+    /**
+     * Compares the radix heaps against the comparison-based heaps on
+     * Dijkstra's algorithm, on Prim's algorithm and on a raw sweep over a
+     * grid with integer weights.
+     */
+    private static void profileRadixHeap() {
+        title("Radix heap");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int N = 100000;
+        final int QUERIES = 20;
+        final int SIDE = 700;
+
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> triple =
+                getRandomGraph(N, 5.0f / N, r, new EuclidianMetric(null, null));
+        List<PriorityQueue<DirectedGraphNode, Double>> heaps =
+                new ArrayList<PriorityQueue<DirectedGraphNode, Double>>();
+
+        heaps.add(new BinaryHeap<DirectedGraphNode, Double>());
+        heaps.add(new FibonacciHeap<DirectedGraphNode, Double>());
+        heaps.add(new RadixHeap<DirectedGraphNode>());
+
+        DirectedGraphNode[] sources = new DirectedGraphNode[QUERIES];
+        DirectedGraphNode[] targets = new DirectedGraphNode[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = triple.first.get(r.nextInt(N));
+            targets[i] = triple.first.get(r.nextInt(N));
+        }
+
+        line();
+
+        for (PriorityQueue<DirectedGraphNode, Double> heap : heaps) {
+            double cost = 0.0;
+            long ta = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                cost += getPathCost(
+                        new DijkstraFinder(heap.newInstance())
+                            .find(sources[i], targets[i], triple.second),
+                        triple.second);
+            }
+
+            long tb = System.currentTimeMillis();
+
+            System.out.println("DijkstraFinder with "
+                    + heap.getClass().getSimpleName() + ": " + (tb - ta)
+                    + " ms for " + QUERIES + " queries, total cost: " + cost);
+        }
+
+        line();
+
+        Pair<List<UndirectedGraphNode>, UndirectedGraphWeightFunction> pair =
+                Utilities.getRandomUndirectedGraph(5000, 0.002f, r, 10.0);
+        List<PriorityQueue<UndirectedGraphNode, Double>> mstHeaps =
+                new ArrayList<PriorityQueue<UndirectedGraphNode, Double>>();
+
+        mstHeaps.add(new BinaryHeap<UndirectedGraphNode, Double>());
+        mstHeaps.add(new FibonacciHeap<UndirectedGraphNode, Double>());
+        mstHeaps.add(new RadixHeap<UndirectedGraphNode>());
+
+        for (PriorityQueue<UndirectedGraphNode, Double> heap : mstHeaps) {
+            long ta = System.currentTimeMillis();
+            double cost = new PrimMSTFinder(heap).find(pair.first,
+                                                        pair.second).second;
+            long tb = System.currentTimeMillis();
+
+            System.out.println("PrimMSTFinder with "
+                    + heap.getClass().getSimpleName() + ": " + (tb - ta)
+                    + " ms, cost: " + cost);
+        }
+
+        line();
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+        long[] weights = new long[g.arcCount()];
+
+        for (int a = 0; a < weights.length; ++a) {
+            weights[a] = Math.round(1000.0 * g.getWeight(a));
+        }
+
+        long ta = System.currentTimeMillis();
+        IndexedBinaryHeap binary = new IndexedBinaryHeap(g.size());
+        double[] dist = new double[g.size()];
+        java.util.Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[0] = 0.0;
+        binary.insert(0, 0.0);
+
+        while (binary.isEmpty() == false) {
+            int u = binary.extractMinimum();
+
+            for (int a = g.outBegin(u); a < g.outEnd(u); ++a) {
+                int v = g.getTarget(a);
+                double d = dist[u] + weights[a];
+
+                if (d < dist[v]) {
+                    if (dist[v] == Double.POSITIVE_INFINITY) {
+                        binary.insert(v, d);
+                    } else {
+                        binary.decreasePriority(v, d);
+                    }
+
+                    dist[v] = d;
+                }
+            }
+        }
+
+        long tb = System.currentTimeMillis();
+
+        System.out.println("Grid sweep with IndexedBinaryHeap: "
+                + (tb - ta) + " ms");
+
+        ta = System.currentTimeMillis();
+        IndexedRadixHeap radix = new IndexedRadixHeap(g.size());
+        long[] ldist = new long[g.size()];
+        java.util.Arrays.fill(ldist, Long.MAX_VALUE);
+        ldist[0] = 0L;
+        radix.insert(0, 0L);
+
+        while (radix.isEmpty() == false) {
+            int u = radix.extractMinimum();
+
+            for (int a = g.outBegin(u); a < g.outEnd(u); ++a) {
+                int v = g.getTarget(a);
+                long d = ldist[u] + weights[a];
+
+                if (d < ldist[v]) {
+                    if (ldist[v] == Long.MAX_VALUE) {
+                        radix.insert(v, d);
+                    } else {
+                        radix.decreasePriority(v, d);
+                    }
+
+                    ldist[v] = d;
+                }
+            }
+        }
+
+        tb = System.currentTimeMillis();
+        boolean ok = true;
+
+        for (int u = 0; u < g.size(); ++u) {
+            ok &= dist[u] == ldist[u];
+        }
+
+        System.out.println("Grid sweep with IndexedRadixHeap: "
+                + (tb - ta) + " ms, distances agree: " + ok);
+
+        line();
+    }
+
+    private static void profileQueryExecutor() {
+        title("Batch query executor");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 200;
+        final int QUERIES = 400;
+        final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Queries: " + QUERIES);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(grid.first, grid.second);
+        int[] sources = new int[QUERIES];
+        int[] targets = new int[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = r.nextInt(g.size());
+            targets[i] = r.nextInt(g.size());
+        }
+
+        line();
+
+        GeneralPathFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        double[] expected = new double[QUERIES];
+        long ta = System.currentTimeMillis();
+
+        for (int i = 0; i < QUERIES; ++i) {
+            expected[i] = g.getPathCost(finder.find(g, sources[i], targets[i]));
+        }
+
+        long tb = System.currentTimeMillis();
+
+        System.out.println("Sequential queries: " + (tb - ta) + " ms");
+
+        line();
+
+        for (int threads = 1; threads <= 2 * THREADS; threads <<= 1) {
+            QueryExecutor executor = new QueryExecutor(
+                    threads,
+                    QueryExecutor.shared(
+                        QueryExecutor.searcher(finder, grid.second)));
+            int[][] paths = executor.findAll(g, sources, targets);
+            boolean ok = true;
+
+            for (int i = 0; i < QUERIES; ++i) {
+                ok &= epsilonEquals(0.001,
+                                    expected[i],
+                                    g.getPathCost(paths[i]));
+            }
+
+            System.out.println(threads + " thread(s): "
+                    + (long) executor.getThroughput() + " queries/s, p50 "
+                    + executor.getLatencyPercentile(50.0) / 1000L
+                    + " us, p99 "
+                    + executor.getLatencyPercentile(99.0) / 1000L
+                    + " us, paths agree: " + ok);
+            executor.shutdown();
+        }
+
+        line();
+    }
+
+    /**
+     * Times plain <tt>A*</tt> against jump point search on a large implicit
+     * grid laid out like a warehouse: racks of random length separated by
+     * aisles.
+     */
+    private static void profileJumpPointSearch() {
+        title("Jump point search");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 2000;
+        final int QUERIES = 20;
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        GridGraph grid = new GridGraph(SIDE, SIDE);
+
+        // Racks two cells wide, with an aisle of three cells between them
+        // and a cross aisle every 40 rows.
+        for (int x = 3; x < SIDE - 2; x += 5) {
+            for (int y = 0; y < SIDE; y += 40) {
+                int length = 20 + r.nextInt(17);
+
+                for (int dy = 2; dy < length && y + dy < SIDE; ++dy) {
+                    grid.setBlocked(x, y + dy, true);
+                    grid.setBlocked(x + 1, y + dy, true);
+                }
+            }
+        }
+
+        System.out.println("Obstacle bitset: "
+                + grid.estimateMemoryUsage() / 1024 + " KiB");
+
+        int[] sources = new int[QUERIES];
+        int[] targets = new int[QUERIES];
+
+        for (int i = 0; i < QUERIES; ++i) {
+            do {
+                sources[i] = r.nextInt(grid.size());
+            } while (grid.isWalkable(grid.getX(sources[i]),
+                                     grid.getY(sources[i])) == false);
+
+            do {
+                targets[i] = r.nextInt(grid.size());
+            } while (grid.isWalkable(grid.getX(targets[i]),
+                                     grid.getY(targets[i])) == false);
+        }
+
+        String[] names = { "A*", "JPS" };
+        GridPathFinder[] finders = {
+            new GridAStarFinder(),
+            new JumpPointSearchFinder()
+        };
+        double[] costs = new double[QUERIES];
+
+        line();
+
+        for (int k = 0; k < finders.length; ++k) {
+            long expansions = 0L;
+            boolean ok = true;
+            long ta = System.currentTimeMillis();
+
+            for (int i = 0; i < QUERIES; ++i) {
+                double cost = grid.getPathCost(
+                        finders[k].find(grid, sources[i], targets[i]));
+
+                expansions += finders[k].getExpansions();
+
+                if (k == 0) {
+                    costs[i] = cost;
+                } else {
+                    ok &= epsilonEquals(0.001, costs[i], cost);
+                }
+            }
+
+            long tb = System.currentTimeMillis();
+
+            System.out.println(names[k] + ": " + (tb - ta) + " ms, "
+                    + expansions / QUERIES + " expansions per query"
+                    + (k == 0 ? "" : ", paths agree: " + ok));
+        }
+
+        line();
+    }
+
+    /**
+     * Times the estimates for the children of every node of a large grid,
+     * looked up one by one in a hash map of vectors against one batch per
+     * node over the flat arrays of a <code>CoordinateMap</code> bound to a
+     * snapshot of the grid.
+     */
+    private static void profileHeuristicBatch() {
+        title("Heuristic batch");
+        final long SEED = System.currentTimeMillis();
+        final Random r = new Random(SEED);
+        final int SIDE = 1000;
+        final int ROUNDS = 5;
+
+        System.out.println("Grid: " + SIDE + " x " + SIDE);
+        System.out.println("Seed: " + SEED);
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> grid = getGridGraph(SIDE, r);
+        CompactDirectedGraph graph =
+                new CompactDirectedGraph(grid.first, grid.second);
+        CoordinateMap map = new CoordinateMap(2, graph);
+        Map<DirectedGraphNode, double[]> hashed =
+                new HashMap<DirectedGraphNode, double[]>();
+
+        for (DirectedGraphNode u : grid.first) {
+            hashed.put(u, grid.third.get(u));
+            map.put(u, grid.third.get(u));
+        }
+
+        DirectedGraphNode target = grid.first.get(r.nextInt(SIDE * SIDE));
+        EuclidianMetric h = new EuclidianMetric(map, target);
+        int[] children = new int[8];
+        double[] estimates = new double[8];
+
+        h.setTarget(graph, graph.getId(target));
+
+        line();
+
+        for (int round = 0; round < ROUNDS; ++round) {
+            double[] p = hashed.get(target);
+            double sumA = 0.0;
+            long ta = System.currentTimeMillis();
+
+            for (DirectedGraphNode u : grid.first) {
+                for (DirectedGraphNode child : u) {
+                    sumA += h.get(p, hashed.get(child));
+                }
+            }
+
+            long tb = System.currentTimeMillis();
+            double sumB = 0.0;
+
+            for (int u = 0; u < graph.size(); ++u) {
+                int size = 0;
+
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    children[size++] = graph.getTarget(a);
+                }
+
+                h.get(graph, children, size, estimates);
+
+                for (int i = 0; i < size; ++i) {
+                    sumB += estimates[i];
+                }
+            }
+
+            long tc = System.currentTimeMillis();
+
+            System.out.println("Hashed: " + (tb - ta) + " ms, batch: "
+                    + (tc - tb) + " ms, estimates agree: "
+                    + epsilonEquals(0.001, sumA, sumB));
+        }
+
+        line();
+    }
+
+    /**
+     * Builds a grid of <code>side * side</code> nodes in which each node is
+     * connected to its four neighbors by arcs of random weight, and returns
+     * the nodes in random order along with the weights and the coordinates.
+     */
+    private static Triple<List<DirectedGraphNode>,
+                          DirectedGraphWeightFunction,
+                          CoordinateMap> getGridGraph(int side, Random r) {
+        DirectedGraphNode[] grid = new DirectedGraphNode[side * side];
+        DirectedGraphWeightFunction w =
+                new PackedDirectedGraphWeightFunction(4 * side * side);
+        CoordinateMap map = new CoordinateMap(2, side * side);
+
+        for (int i = 0; i < grid.length; ++i) {
+            grid[i] = new DirectedGraphNode("" + i);
+            map.put(grid[i], new double[]{ i % side, i / side });
+        }
+
+        for (int i = 0; i < grid.length; ++i) {
+            int x = i % side;
+            int y = i / side;
+            int[] neighbors = { x > 0 ? i - 1 : -1,
+                                x < side - 1 ? i + 1 : -1,
+                                y > 0 ? i - side : -1,
+                                y < side - 1 ? i + side : -1 };
+
+            for (int j : neighbors) {
+                if (j >= 0) {
+                    grid[i].addChild(grid[j]);
+                    w.put(grid[i], grid[j], 1.0 + r.nextDouble());
+                }
+            }
+        }
+
+        List<DirectedGraphNode> list = Arrays.asList(grid.clone());
+        java.util.Collections.shuffle(list, r);
+
+        return new Triple<List<DirectedGraphNode>,
+                          DirectedGraphWeightFunction,
+                          CoordinateMap>(list, w, map);
+    }
+
+    private static int[] identity(int n) {
+        int[] array = new int[n];
+
+        for (int i = 0; i < n; ++i) {
+            array[i] = i;
+        }
+
+        return array;
+    }
+
     private static void profileObjectSortingAlgorithms(
             ObjectSortingAlgorithm<Integer>... algos) {
         title("Object sorting algorithms");
@@ -556,6 +1543,23 @@ public class Demo{
                 + " ms, " + "path connected: " + isConnectedPath(path3)
                 + ", cost: " + getPathCost(path3, triple.second));
 
+        OPEN = pq.newInstance();
+
+        GeneralPathFinder finder3p =
+                new ParallelBidirectionalDijkstraFinder(OPEN);
+
+        ta = System.currentTimeMillis();
+
+        List<DirectedGraphNode> path3p =
+                finder3p.find(source, target, triple.second);
+
+        tb = System.currentTimeMillis();
+
+        System.out.println("ParallelBidirectionalDijkstraFinder in "
+                + (tb - ta) + " ms, " + "path connected: "
+                + isConnectedPath(path3p) + ", cost: "
+                + getPathCost(path3p, triple.second));
+
         GeneralPathFinder finder4 =
                 new BHPAFinder(OPEN,
                                new EuclidianMetric(
@@ -843,6 +1847,59 @@ public class Demo{
                                                               result2.first));
     }
 
+    /**
+     * Compares the minimum spanning tree finders on the default undirected
+     * weight function and on the packed one.
+     */
+    private static void profilePackedMSTAlgorithms() {
+        final int N = 3000;
+        final float ELF = 20.0f / N;
+        final long SEED = System.currentTimeMillis();
+
+        title("Minimum spanning trees over packed weights");
+        System.out.println("Seed: " + SEED);
+
+        Random r = new Random(SEED);
+
+        Pair<List<UndirectedGraphNode>, UndirectedGraphWeightFunction> pair =
+                Utilities.getRandomUndirectedGraph(N, ELF, r, 10.0);
+        PackedUndirectedGraphWeightFunction packed =
+                new PackedUndirectedGraphWeightFunction(pair.first,
+                                                        pair.second);
+
+        System.out.println("Edges: " + packed.size() + ", packed table: "
+                + packed.getTableBytes() + " bytes");
+
+        line();
+
+        MinimumSpanningTreeFinder[] finders = { new KruskalMSTFinder(),
+                                                new PrimMSTFinder() };
+        UndirectedGraphWeightFunction[] functions = { pair.second, packed };
+        String[] names = { "Kruskal", "Prim" };
+        List<UndirectedGraphEdge> reference = null;
+
+        for (int i = 0; i < finders.length; ++i) {
+            for (UndirectedGraphWeightFunction w : functions) {
+                long ta = System.currentTimeMillis();
+                Pair<List<UndirectedGraphEdge>, Double> result =
+                        finders[i].find(pair.first, w);
+                long tb = System.currentTimeMillis();
+
+                if (reference == null) {
+                    reference = result.first;
+                }
+
+                System.out.println(names[i]
+                        + (w == packed ? " (packed)" : "")
+                        + " in " + (tb - ta) + " ms, cost: " + result.second
+                        + ", same tree: "
+                        + spanningTreesEqual(reference, result.first));
+            }
+        }
+
+        line();
+    }
+
     private static void profileTreeList() {
         TreeList<Integer> list = new TreeList<Integer>();
         org.apache.commons.collections4.list.TreeList<Integer> enemyList =
@@ -154,6 +154,68 @@ public class Utilities {
         return path;
     }
 
+    /**
+     * Reconstructs a path of node ids. The parent of a root node must be
+     * negative.
+     *
+     * @param target the last node of the path.
+     * @param parents maps each node id to its parent id.
+     * @return the path of node ids ending at <code>target</code>.
+     */
+    public static int[] tracebackPath(int target, int[] parents) {
+        int length = 0;
+
+        for (int u = target; u >= 0; u = parents[u]) {
+            ++length;
+        }
+
+        int[] path = new int[length];
+
+        for (int u = target; u >= 0; u = parents[u]) {
+            path[--length] = u;
+        }
+
+        return path;
+    }
+
+    /**
+     * Reconstructs a path of node ids found by a bidirectional search.
+     *
+     * @param touch the node at which the two search frontiers met.
+     * @param parentsA the parent ids of the forward search.
+     * @param parentsB the parent ids of the backward search.
+     * @return the path of node ids through <code>touch</code>.
+     */
+    public static int[] tracebackPathBidirectional(int touch,
+                                                   int[] parentsA,
+                                                   int[] parentsB) {
+        int lengthA = 0;
+        int lengthB = 0;
+
+        for (int u = touch; u >= 0; u = parentsA[u]) {
+            ++lengthA;
+        }
+
+        for (int u = parentsB[touch]; u >= 0; u = parentsB[u]) {
+            ++lengthB;
+        }
+
+        int[] path = new int[lengthA + lengthB];
+        int index = lengthA;
+
+        for (int u = touch; u >= 0; u = parentsA[u]) {
+            path[--index] = u;
+        }
+
+        index = lengthA;
+
+        for (int u = parentsB[touch]; u >= 0; u = parentsB[u]) {
+            path[index++] = u;
+        }
+
+        return path;
+    }
+
     public static final void line() {
         System.out.println(
                 "________________________________________"
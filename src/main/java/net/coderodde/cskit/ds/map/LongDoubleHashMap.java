@@ -0,0 +1,273 @@
+package net.coderodde.cskit.ds.map;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a hash map from primitive <code>long</code> keys to
+ * primitive <code>double</code> values. The map uses open addressing with
+ * linear probing over two parallel arrays, so neither the keys nor the values
+ * are ever boxed, and a lookup usually touches a single slot.
+ * <p>
+ * The key {@link #EMPTY_KEY} is reserved and may not be stored.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class LongDoubleHashMap {
+
+    /**
+     * Marks a free slot.
+     */
+    public static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The table is grown as soon as it is more than half full.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The greatest amount of mappings.
+     */
+    public static final int MAXIMUM_SIZE =
+            (int)(MAXIMUM_CAPACITY * LOAD_FACTOR);
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+    private int mask;
+    private int shift;
+    private int threshold;
+
+    /**
+     * Constructs a map that can hold <code>expectedSize</code> mappings
+     * without growing.
+     *
+     * @param expectedSize the expected amount of mappings.
+     * @throws IllegalArgumentException if <code>expectedSize</code> exceeds
+     * {@link #MAXIMUM_SIZE}.
+     */
+    public LongDoubleHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public LongDoubleHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value mapped to <code>key</code>, or
+     * <code>defaultValue</code> if there is no such mapping.
+     *
+     * @param key the key to look up.
+     * @param defaultValue the value returned for absent keys.
+     * @return the mapped value.
+     */
+    public double get(long key, double defaultValue) {
+        int slot = slotOf(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Maps <code>key</code> to <code>value</code>, overwriting a possible
+     * previous value.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @throws IllegalStateException if the map holds {@link #MAXIMUM_SIZE}
+     * mappings and <code>key</code> is not one of them.
+     */
+    public void put(long key, double value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("The key " + key
+                    + " is reserved.");
+        }
+
+        int slot = hash(key);
+
+        for (;;) {
+            long k = keys[slot];
+
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+
+            if (k == EMPTY_KEY) {
+                if (size == MAXIMUM_SIZE) {
+                    throw new IllegalStateException(
+                            "The map is full: " + size + " mappings.");
+                }
+
+                keys[slot] = key;
+                values[slot] = value;
+
+                if (++size > threshold) {
+                    rehash(keys.length << 1);
+                }
+
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the mapping of <code>key</code>, if present.
+     *
+     * @param key the key to remove.
+     * @return <code>true</code> if there was a mapping.
+     */
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        // Backward shift deletion keeps the probe sequences intact.
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != EMPTY_KEY) {
+            int home = hash(keys[next]);
+
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = EMPTY_KEY;
+        --size;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+    }
+
+    /**
+     * Returns the amount of slots in the table. Together with
+     * {@link #keyAt(int)} and {@link #valueAt(int)} this allows iterating
+     * over all mappings without allocation.
+     *
+     * @return the amount of slots.
+     */
+    public int slotCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key stored in the slot <code>slot</code>, or
+     * {@link #EMPTY_KEY} if the slot is free.
+     */
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public double valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Returns the amount of bytes occupied by the tables of this map.
+     *
+     * @return the table footprint in bytes.
+     */
+    public long getTableBytes() {
+        return 16L * keys.length;
+    }
+
+    private int slotOf(long key) {
+        int slot = hash(key);
+
+        for (;;) {
+            long k = keys[slot];
+
+            if (k == key) {
+                return key == EMPTY_KEY ? -1 : slot;
+            }
+
+            if (k == EMPTY_KEY) {
+                return -1;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Fibonacci hashing: the multiplication spreads the bits of the key, the
+     * high bits of the product select the slot.
+     */
+    private int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            long key = oldKeys[i];
+
+            if (key != EMPTY_KEY) {
+                int slot = hash(key);
+
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        threshold = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        if (expectedSize > MAXIMUM_SIZE) {
+            throw new IllegalArgumentException(
+                    "The expected size exceeds " + MAXIMUM_SIZE + ": "
+                    + expectedSize);
+        }
+
+        int capacity = DEFAULT_CAPACITY;
+
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+}
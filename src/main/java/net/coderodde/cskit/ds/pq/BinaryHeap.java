@@ -195,6 +195,8 @@ implements PriorityQueue<E, W> {
 
     @Override
     public void clear() {
+        java.util.Arrays.fill(nodeArray, 0, size, null);
+        map.clear();
         size = 0;
     }
 
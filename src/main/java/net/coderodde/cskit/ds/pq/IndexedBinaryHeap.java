@@ -0,0 +1,208 @@
+package net.coderodde.cskit.ds.pq;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a binary minimum heap over integer elements from the
+ * range <code>0, 1, ..., capacity - 1</code> with <code>double</code>
+ * priorities. Unlike {@link BinaryHeap}, it keeps the positions of the
+ * elements in a plain array, so no hashing and no boxing takes place. Useful
+ * for searches running on compact graphs with integer node ids.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class IndexedBinaryHeap {
+
+    /**
+     * The position of an element that is not in this heap.
+     */
+    private static final int ABSENT = -1;
+
+    private int size;
+    private int[] elements;
+    private double[] priorities;
+    private int[] positions;
+
+    /**
+     * Constructs a heap that can hold elements <code>0, 1, ..., capacity -
+     * 1</code>.
+     *
+     * @param capacity the amount of possible elements.
+     */
+    public IndexedBinaryHeap(int capacity) {
+        this.elements = new int[capacity];
+        this.priorities = new double[capacity];
+        this.positions = new int[capacity];
+        java.util.Arrays.fill(positions, ABSENT);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the amount of possible elements this heap can hold.
+     *
+     * @return the capacity of this heap.
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Inserts an element if not already present.
+     *
+     * @param e the element to insert.
+     * @param priority the priority of the element.
+     */
+    public void insert(int e, double priority) {
+        if (positions[e] != ABSENT) {
+            return;
+        }
+
+        elements[size] = e;
+        priorities[e] = priority;
+        positions[e] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Decreases the priority of an element. Does nothing if the element is
+     * not in this heap or if <code>newPriority</code> is not smaller than the
+     * current priority.
+     *
+     * @param e the element whose priority to decrease.
+     * @param newPriority the new priority.
+     */
+    public void decreasePriority(int e, double newPriority) {
+        if (positions[e] == ABSENT || priorities[e] <= newPriority) {
+            return;
+        }
+
+        priorities[e] = newPriority;
+        siftUp(positions[e]);
+    }
+
+    public int min() {
+        if (size == 0) {
+            throw new NoSuchElementException("Reading from an empty heap.");
+        }
+
+        return elements[0];
+    }
+
+    /**
+     * Returns the priority of the top element.
+     *
+     * @return the least priority in this heap.
+     */
+    public double minPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException("Reading from an empty heap.");
+        }
+
+        return priorities[elements[0]];
+    }
+
+    public int extractMinimum() {
+        if (size == 0) {
+            throw new NoSuchElementException("Extracting from an empty heap.");
+        }
+
+        int e = elements[0];
+        positions[e] = ABSENT;
+
+        if (--size > 0) {
+            int last = elements[size];
+            elements[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+
+        return e;
+    }
+
+    public boolean contains(int e) {
+        return positions[e] != ABSENT;
+    }
+
+    /**
+     * Returns the priority of an element present in this heap.
+     *
+     * @param e the element to query.
+     * @return the priority of <code>e</code>.
+     */
+    public double getPriority(int e) {
+        return priorities[e];
+    }
+
+    /**
+     * Clears this heap. Runs in time proportional to the amount of elements
+     * present, not to the capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[elements[i]] = ABSENT;
+        }
+
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int e = elements[index];
+        double priority = priorities[e];
+
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = elements[parentIndex];
+
+            if (priority >= priorities[parent]) {
+                break;
+            }
+
+            elements[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+
+        elements[index] = e;
+        positions[e] = index;
+    }
+
+    private void siftDown(int index) {
+        int e = elements[index];
+        double priority = priorities[e];
+
+        for (;;) {
+            int childIndex = (index << 1) + 1;
+
+            if (childIndex >= size) {
+                break;
+            }
+
+            if (childIndex + 1 < size
+                    && priorities[elements[childIndex + 1]]
+                     < priorities[elements[childIndex]]) {
+                ++childIndex;
+            }
+
+            int child = elements[childIndex];
+
+            if (priority <= priorities[child]) {
+                break;
+            }
+
+            elements[index] = child;
+            positions[child] = index;
+            index = childIndex;
+        }
+
+        elements[index] = e;
+        positions[e] = index;
+    }
+}
@@ -0,0 +1,280 @@
+package net.coderodde.cskit.ds.pq;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a radix heap over integer elements from the range
+ * <code>0, 1, ..., capacity - 1</code> with non-negative <code>long</code>
+ * priorities. It is to {@link RadixHeap} what {@link IndexedBinaryHeap} is to
+ * {@link BinaryHeap}: the buckets and the positions are plain arrays, so no
+ * hashing and no boxing takes place. Suits searches on compact graphs with
+ * integer weights.
+ * <p>
+ * As with any radix heap, a priority should not drop below the last
+ * extracted minimum; if it does, the buckets are rebuilt in time
+ * proportional to the size of this heap.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class IndexedRadixHeap {
+
+    private static final int BUCKETS = 65;
+    private static final int DEFAULT_BUCKET_CAPACITY = 8;
+
+    /**
+     * The bucket of an element that is not in this heap.
+     */
+    private static final int ABSENT = -1;
+
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final long[] priorities;
+    private final int[] bucketOf;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * The priority of the last extracted minimum.
+     */
+    private long last;
+
+    /**
+     * Constructs a heap that can hold elements <code>0, 1, ..., capacity -
+     * 1</code>.
+     *
+     * @param capacity the amount of possible elements.
+     */
+    public IndexedRadixHeap(int capacity) {
+        this.buckets = new int[BUCKETS][];
+        this.bucketSizes = new int[BUCKETS];
+        this.priorities = new long[capacity];
+        this.bucketOf = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(bucketOf, ABSENT);
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets[i] = new int[DEFAULT_BUCKET_CAPACITY];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the amount of possible elements this heap can hold.
+     *
+     * @return the capacity of this heap.
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Inserts an element if not already present.
+     *
+     * @param e the element to insert.
+     * @param priority the priority of the element.
+     * @throws IllegalArgumentException if <code>priority</code> is negative.
+     */
+    public void insert(int e, long priority) {
+        if (bucketOf[e] != ABSENT) {
+            return;
+        }
+
+        checkPriority(priority);
+
+        if (priority < last) {
+            rebase(priority);
+        }
+
+        priorities[e] = priority;
+        add(e, bucketFor(priority));
+        ++size;
+    }
+
+    /**
+     * Decreases the priority of an element. Does nothing if the element is
+     * not in this heap or if <code>newPriority</code> is not smaller than the
+     * current priority.
+     *
+     * @param e the element whose priority to decrease.
+     * @param newPriority the new priority.
+     */
+    public void decreasePriority(int e, long newPriority) {
+        if (bucketOf[e] == ABSENT || priorities[e] <= newPriority) {
+            return;
+        }
+
+        checkPriority(newPriority);
+
+        if (newPriority < last) {
+            rebase(newPriority);
+        }
+
+        priorities[e] = newPriority;
+
+        int bucket = bucketFor(newPriority);
+
+        if (bucket != bucketOf[e]) {
+            remove(e);
+            add(e, bucket);
+        }
+    }
+
+    public int min() {
+        if (size == 0) {
+            throw new NoSuchElementException("Reading from an empty heap.");
+        }
+
+        pull();
+        return buckets[0][bucketSizes[0] - 1];
+    }
+
+    /**
+     * Returns the priority of the top element.
+     *
+     * @return the least priority in this heap.
+     */
+    public long minPriority() {
+        return priorities[min()];
+    }
+
+    public int extractMinimum() {
+        if (size == 0) {
+            throw new NoSuchElementException("Extracting from an empty heap.");
+        }
+
+        pull();
+
+        int e = buckets[0][--bucketSizes[0]];
+        bucketOf[e] = ABSENT;
+        --size;
+        return e;
+    }
+
+    public boolean contains(int e) {
+        return bucketOf[e] != ABSENT;
+    }
+
+    /**
+     * Returns the priority of an element present in this heap.
+     *
+     * @param e the element to query.
+     * @return the priority of <code>e</code>.
+     */
+    public long getPriority(int e) {
+        return priorities[e];
+    }
+
+    /**
+     * Clears this heap. Runs in time proportional to the amount of elements
+     * present, not to the capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            for (int j = 0; j < bucketSizes[i]; ++j) {
+                bucketOf[buckets[i][j]] = ABSENT;
+            }
+
+            bucketSizes[i] = 0;
+        }
+
+        size = 0;
+        last = 0L;
+    }
+
+    /**
+     * Makes bucket 0 nonempty; see {@link RadixHeap}.
+     */
+    private void pull() {
+        if (bucketSizes[0] > 0) {
+            return;
+        }
+
+        int i = 1;
+
+        while (bucketSizes[i] == 0) {
+            ++i;
+        }
+
+        int[] bucket = buckets[i];
+        int count = bucketSizes[i];
+        long min = priorities[bucket[0]];
+
+        for (int j = 1; j < count; ++j) {
+            if (priorities[bucket[j]] < min) {
+                min = priorities[bucket[j]];
+            }
+        }
+
+        last = min;
+        bucketSizes[i] = 0;
+
+        for (int j = 0; j < count; ++j) {
+            add(bucket[j], bucketFor(priorities[bucket[j]]));
+        }
+    }
+
+    /**
+     * Makes <code>priority</code> the last priority and rebuilds all
+     * buckets.
+     */
+    private void rebase(long priority) {
+        last = priority;
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            int j = 0;
+
+            while (j < bucketSizes[i]) {
+                int e = buckets[i][j];
+                int target = bucketFor(priorities[e]);
+
+                if (target == i) {
+                    ++j;
+                } else {
+                    // Moves the last element of the bucket to index j.
+                    remove(e);
+                    add(e, target);
+                }
+            }
+        }
+    }
+
+    private void add(int e, int bucket) {
+        if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket],
+                                            bucketSizes[bucket] << 1);
+        }
+
+        bucketOf[e] = bucket;
+        positions[e] = bucketSizes[bucket];
+        buckets[bucket][bucketSizes[bucket]++] = e;
+    }
+
+    private void remove(int e) {
+        int bucket = bucketOf[e];
+        int moved = buckets[bucket][--bucketSizes[bucket]];
+        buckets[bucket][positions[e]] = moved;
+        positions[moved] = positions[e];
+    }
+
+    private int bucketFor(long priority) {
+        return priority == last
+                ? 0
+                : 64 - Long.numberOfLeadingZeros(priority ^ last);
+    }
+
+    private static void checkPriority(long priority) {
+        if (priority < 0L) {
+            throw new IllegalArgumentException(
+                    "The priority must be non-negative: " + priority);
+        }
+    }
+}
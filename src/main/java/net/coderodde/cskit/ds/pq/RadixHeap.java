@@ -0,0 +1,284 @@
+package net.coderodde.cskit.ds.pq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a radix heap over non-negative <code>double</code>
+ * priorities. The bits of a non-negative <code>double</code> compare like an
+ * unsigned integer, so the elements are kept in 65 buckets by the position
+ * of the highest bit in which their key differs from the last extracted
+ * minimum. Inserting and decreasing a priority only move an element between
+ * buckets; extracting the minimum redistributes the lowest nonempty bucket,
+ * and an element can move down at most 64 times. No priorities are compared
+ * except when scanning a bucket for its minimum.
+ * <p>
+ * The heap is meant for monotone workloads, such as Dijkstra's algorithm,
+ * where no priority ever drops below the last extracted minimum. It also
+ * accepts such a priority, as <code>PrimMSTFinder</code> produces, but then
+ * rebuilds the buckets in time proportional to its size.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class RadixHeap<E> implements PriorityQueue<E, Double> {
+
+    private static final int BUCKETS = 65;
+    private static final int DEFAULT_BUCKET_CAPACITY = 8;
+
+    private static final class HeapNode<E> {
+        E element;
+        double priority;
+        long key;
+        int bucket;
+        int index;
+
+        HeapNode(E element, double priority, long key) {
+            this.element = element;
+            this.priority = priority;
+            this.key = key;
+        }
+    }
+
+    private final HeapNode<E>[][] buckets;
+    private final int[] bucketSizes;
+    private final Map<E, HeapNode<E>> map;
+    private int size;
+
+    /**
+     * The key of the last extracted minimum.
+     */
+    private long last;
+
+    public RadixHeap() {
+        this.buckets = newBuckets(BUCKETS);
+        this.bucketSizes = new int[BUCKETS];
+        this.map = new HashMap<E, HeapNode<E>>();
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets[i] = newBucket(DEFAULT_BUCKET_CAPACITY);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> HeapNode<E>[][] newBuckets(int amount) {
+        return new HeapNode[amount][];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> HeapNode<E>[] newBucket(int capacity) {
+        return new HeapNode[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts an element if not already present.
+     *
+     * @param e the element to insert.
+     * @param priority the priority of the element.
+     * @throws IllegalArgumentException if <code>priority</code> is negative or
+     * not a number.
+     */
+    @Override
+    public void insert(E e, Double priority) {
+        if (map.containsKey(e)) {
+            return;
+        }
+
+        long key = toKey(priority);
+        HeapNode<E> node = new HeapNode<E>(e, priority, key);
+
+        if (key < last) {
+            rebase(key);
+        }
+
+        add(node, bucketFor(key));
+        map.put(e, node);
+        ++size;
+    }
+
+    @Override
+    public void decreasePriority(E e, Double newPriority) {
+        HeapNode<E> node = map.get(e);
+
+        if (node == null || node.priority <= newPriority) {
+            return;
+        }
+
+        long key = toKey(newPriority);
+
+        if (key < last) {
+            rebase(key);
+        }
+
+        node.priority = newPriority;
+        node.key = key;
+
+        int bucket = bucketFor(key);
+
+        if (bucket != node.bucket) {
+            remove(node);
+            add(node, bucket);
+        }
+    }
+
+    @Override
+    public E min() {
+        if (size == 0) {
+            throw new NoSuchElementException("Reading from an empty heap.");
+        }
+
+        pull();
+        return buckets[0][bucketSizes[0] - 1].element;
+    }
+
+    @Override
+    public E extractMinimum() {
+        if (size == 0) {
+            throw new NoSuchElementException("Extracting from an empty heap.");
+        }
+
+        pull();
+
+        HeapNode<E> node = buckets[0][--bucketSizes[0]];
+        buckets[0][bucketSizes[0]] = null;
+        map.remove(node.element);
+        --size;
+        return node.element;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            java.util.Arrays.fill(buckets[i], 0, bucketSizes[i], null);
+            bucketSizes[i] = 0;
+        }
+
+        map.clear();
+        size = 0;
+        last = 0L;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return map.containsKey(element);
+    }
+
+    @Override
+    public Double getPriority(E element) {
+        HeapNode<E> node = map.get(element);
+        return node == null ? null : node.priority;
+    }
+
+    @Override
+    public PriorityQueue<E, Double> newInstance() {
+        return new RadixHeap<E>();
+    }
+
+    /**
+     * Makes bucket 0 nonempty: if it is empty, the minimum of the lowest
+     * nonempty bucket becomes the last key and that bucket is redistributed,
+     * its minimum landing in bucket 0.
+     */
+    private void pull() {
+        if (bucketSizes[0] > 0) {
+            return;
+        }
+
+        int i = 1;
+
+        while (bucketSizes[i] == 0) {
+            ++i;
+        }
+
+        HeapNode<E>[] bucket = buckets[i];
+        int count = bucketSizes[i];
+        long min = bucket[0].key;
+
+        for (int j = 1; j < count; ++j) {
+            if (bucket[j].key < min) {
+                min = bucket[j].key;
+            }
+        }
+
+        last = min;
+        bucketSizes[i] = 0;
+
+        for (int j = 0; j < count; ++j) {
+            HeapNode<E> node = bucket[j];
+            bucket[j] = null;
+            add(node, bucketFor(node.key));
+        }
+    }
+
+    /**
+     * Makes <code>key</code> the last key and rebuilds all buckets.
+     */
+    private void rebase(long key) {
+        last = key;
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            HeapNode<E>[] bucket = buckets[i];
+            int count = bucketSizes[i];
+            int j = 0;
+
+            while (j < count) {
+                HeapNode<E> node = bucket[j];
+                int target = bucketFor(node.key);
+
+                if (target == i) {
+                    ++j;
+                    continue;
+                }
+
+                // Moves the last node of the bucket to index j.
+                remove(node);
+                add(node, target);
+                --count;
+            }
+        }
+    }
+
+    private void add(HeapNode<E> node, int bucket) {
+        if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = java.util.Arrays.copyOf(
+                    buckets[bucket], bucketSizes[bucket] << 1);
+        }
+
+        node.bucket = bucket;
+        node.index = bucketSizes[bucket];
+        buckets[bucket][bucketSizes[bucket]++] = node;
+    }
+
+    private void remove(HeapNode<E> node) {
+        HeapNode<E>[] bucket = buckets[node.bucket];
+        HeapNode<E> moved = bucket[--bucketSizes[node.bucket]];
+        bucket[node.index] = moved;
+        moved.index = node.index;
+        bucket[bucketSizes[node.bucket]] = null;
+    }
+
+    private int bucketFor(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private static long toKey(double priority) {
+        if ((priority >= 0.0) == false) {
+            throw new IllegalArgumentException(
+                    "The priority must be non-negative: " + priority);
+        }
+
+        // Adding zero turns -0.0 into 0.0.
+        return Double.doubleToLongBits(priority + 0.0);
+    }
+}
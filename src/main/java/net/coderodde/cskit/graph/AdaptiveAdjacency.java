@@ -0,0 +1,349 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an insertion-ordered adjacency list of a
+ * {@link DirectedGraphNode}, mapping each adjacent node to the weight of the
+ * arc. As long as the degree does not exceed a threshold, the list is a pair
+ * of small growable arrays scanned linearly; once the threshold is crossed,
+ * the list switches for good to a <code>LinkedHashMap</code>, which keeps the
+ * order of the nodes.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+final class AdaptiveAdjacency {
+
+    /**
+     * The shared box of a zero weight.
+     */
+    private static final Double ZERO = 0.0;
+
+    private static final int INITIAL_ARRAY_CAPACITY = 2;
+
+    /**
+     * The maximum degree of the array representation. Zero means that the
+     * list is hashed from the start.
+     */
+    private final int threshold;
+
+    private final float loadFactor;
+
+    private final int initialCapacity;
+
+    // The array representation; null once hashed.
+    private DirectedGraphNode[] nodes;
+    private double[] weights;
+    private int size;
+
+    // The hashed representation; null until the threshold is crossed.
+    private LinkedHashMap<DirectedGraphNode, Double> map;
+
+    private int modCount;
+
+    /**
+     * Constructs an adaptive adjacency list.
+     *
+     * @param threshold the maximum degree of the array representation.
+     */
+    AdaptiveAdjacency(int threshold) {
+        this.threshold = threshold;
+        this.loadFactor = DirectedGraphNode.DEFAULT_LOAD_FACTOR;
+        this.initialCapacity = 0;
+        this.nodes = new DirectedGraphNode[0];
+        this.weights = new double[0];
+    }
+
+    /**
+     * Constructs an adjacency list that is hashed from the start.
+     *
+     * @param capacity the initial capacity of the hash map.
+     * @param loadFactor the load factor of the hash map.
+     */
+    AdaptiveAdjacency(int capacity, float loadFactor) {
+        this.threshold = 0;
+        this.loadFactor = loadFactor;
+        this.initialCapacity = capacity;
+        this.map = new LinkedHashMap<DirectedGraphNode, Double>(capacity,
+                                                                loadFactor);
+    }
+
+    int size() {
+        return map != null ? map.size() : size;
+    }
+
+    boolean isHashed() {
+        return map != null;
+    }
+
+    boolean contains(DirectedGraphNode node) {
+        return map != null ? map.containsKey(node) : indexOf(node) >= 0;
+    }
+
+    /**
+     * Returns the weight associated with <code>node</code>, or
+     * <code>NaN</code> if <code>node</code> is not adjacent.
+     */
+    double get(DirectedGraphNode node) {
+        if (map != null) {
+            Double weight = map.get(node);
+            return weight == null ? Double.NaN : weight;
+        }
+
+        int index = indexOf(node);
+        return index < 0 ? Double.NaN : weights[index];
+    }
+
+    /**
+     * Adds <code>node</code> with the weight <code>weight</code>, or updates
+     * the weight if <code>node</code> is already present.
+     *
+     * @return <code>true</code> if <code>node</code> was added.
+     */
+    boolean put(DirectedGraphNode node, double weight) {
+        if (map != null) {
+            Double old = map.put(node, weight == 0.0 ? ZERO : weight);
+
+            if (old == null) {
+                ++modCount;
+                return true;
+            }
+
+            return false;
+        }
+
+        int index = indexOf(node);
+
+        if (index >= 0) {
+            weights[index] = weight;
+            return false;
+        }
+
+        ++modCount;
+
+        if (size == threshold) {
+            toMap();
+            map.put(node, weight == 0.0 ? ZERO : weight);
+            return true;
+        }
+
+        if (size == nodes.length) {
+            int capacity = Math.min(threshold,
+                                    Math.max(INITIAL_ARRAY_CAPACITY,
+                                             size + (size >>> 1) + 1));
+            DirectedGraphNode[] newNodes = new DirectedGraphNode[capacity];
+            double[] newWeights = new double[capacity];
+            System.arraycopy(nodes, 0, newNodes, 0, size);
+            System.arraycopy(weights, 0, newWeights, 0, size);
+            nodes = newNodes;
+            weights = newWeights;
+        }
+
+        nodes[size] = node;
+        weights[size] = weight;
+        ++size;
+        return true;
+    }
+
+    /**
+     * Removes <code>node</code>, keeping the order of the rest.
+     *
+     * @return <code>true</code> if <code>node</code> was present.
+     */
+    boolean remove(DirectedGraphNode node) {
+        if (map != null) {
+            if (map.containsKey(node)) {
+                map.remove(node);
+                ++modCount;
+                return true;
+            }
+
+            return false;
+        }
+
+        int index = indexOf(node);
+
+        if (index < 0) {
+            return false;
+        }
+
+        removeAt(index);
+        return true;
+    }
+
+    // The cursor interface of the array representation.
+
+    DirectedGraphNode nodeAt(int index) {
+        return nodes[index];
+    }
+
+    double weightAt(int index) {
+        return weights[index];
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns an iterator over the map entries; valid only once hashed.
+     */
+    Iterator<Map.Entry<DirectedGraphNode, Double>> entryIterator() {
+        return map.entrySet().iterator();
+    }
+
+    Iterator<DirectedGraphNode> iterator() {
+        if (map != null) {
+            return new HashedIterator();
+        }
+
+        return new ArrayIterator();
+    }
+
+    /**
+     * Estimates the amount of bytes this list occupies on a 64-bit JVM with
+     * compressed references, not counting the adjacent nodes.
+     *
+     * @return the estimated footprint in bytes.
+     */
+    long estimateMemoryUsage() {
+        long bytes = 40; // This object.
+
+        if (map == null) {
+            bytes += 16 + 4L * nodes.length;  // Node array.
+            bytes += 16 + 8L * weights.length; // Weight array.
+            return bytes;
+        }
+
+        bytes += 56;                     // LinkedHashMap object.
+
+        if (map.isEmpty() == false) {
+            // The bucket table is allocated on the first insertion.
+            int capacity = Integer.highestOneBit(
+                    Math.max(initialCapacity,
+                             (int)(map.size() / loadFactor)) * 2 - 1);
+            bytes += 16 + 4L * capacity;
+        }
+
+        bytes += 40L * map.size();       // Entries.
+
+        for (Double weight : map.values()) {
+            if (weight != ZERO) {
+                bytes += 16;             // Boxed weight.
+            }
+        }
+
+        return bytes;
+    }
+
+    private int indexOf(DirectedGraphNode node) {
+        for (int i = 0; i < size; ++i) {
+            if (nodes[i] == node || nodes[i].equals(node)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int tail = size - index - 1;
+        System.arraycopy(nodes, index + 1, nodes, index, tail);
+        System.arraycopy(weights, index + 1, weights, index, tail);
+        nodes[--size] = null;
+        ++modCount;
+    }
+
+    private void toMap() {
+        map = new LinkedHashMap<DirectedGraphNode, Double>(
+                Math.max(16, (int)(2 * threshold / loadFactor) + 1),
+                loadFactor);
+
+        for (int i = 0; i < size; ++i) {
+            map.put(nodes[i], weights[i] == 0.0 ? ZERO : weights[i]);
+        }
+
+        nodes = null;
+        weights = null;
+        size = 0;
+    }
+
+    /**
+     * This class implements an iterator over the array representation.
+     */
+    private class ArrayIterator implements Iterator<DirectedGraphNode> {
+
+        private int expectedModCount = modCount;
+        private int index;
+        private boolean canRemove;
+
+        @Override
+        public boolean hasNext() {
+            checkModCount();
+            return index < size;
+        }
+
+        @Override
+        public DirectedGraphNode next() {
+            checkModCount();
+
+            if (index >= size) {
+                throw new NoSuchElementException("No more nodes.");
+            }
+
+            canRemove = true;
+            return nodes[index++];
+        }
+
+        @Override
+        public void remove() {
+            checkModCount();
+
+            if (canRemove == false) {
+                throw new IllegalStateException("No recently returned node.");
+            }
+
+            removeAt(--index);
+            expectedModCount = modCount;
+            canRemove = false;
+        }
+
+        private void checkModCount() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException(
+                        "Concurrent modification encountered.");
+            }
+        }
+    }
+
+    /**
+     * This class wraps the key iterator of the hashed representation so that
+     * removals through it are counted.
+     */
+    private class HashedIterator implements Iterator<DirectedGraphNode> {
+
+        private final Iterator<DirectedGraphNode> iterator =
+                map.keySet().iterator();
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public DirectedGraphNode next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+            ++modCount;
+        }
+    }
+}
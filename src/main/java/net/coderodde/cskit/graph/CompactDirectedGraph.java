@@ -0,0 +1,427 @@
+package net.coderodde.cskit.graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+
+/**
+ * This class implements an immutable snapshot of a weighted directed graph in
+ * compressed sparse row (CSR) form. Each node is identified by an integer id
+ * from <code>0, 1, ..., size() - 1</code>, which is the index of the node in
+ * the list the snapshot was built from. The out-going arcs of node
+ * <code>u</code> occupy the arc ids <code>outBegin(u), ..., outEnd(u) -
+ * 1</code>; the in-coming arcs are indexed likewise by a reverse CSR, each
+ * in-coming entry remembering the id of the forward arc it mirrors.
+ * <p>
+ * Subclasses may keep the arrays elsewhere, such as {@link MappedDirectedGraph}
+ * does, by overriding the accessors; the finders use nothing else.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class CompactDirectedGraph {
+
+    /**
+     * The id denoting "no node".
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Maps node ids to the original nodes. In a snapshot built from arc
+     * arrays, the nodes are created on first request; the atomic array
+     * publishes them safely to the other threads searching this snapshot.
+     */
+    private final AtomicReferenceArray<DirectedGraphNode> nodes;
+
+    /**
+     * Maps the original nodes to their ids, or is <code>null</code> in a
+     * snapshot built from arc arrays, whose node names are the labels
+     * <code>id + firstLabel</code>.
+     */
+    private final Map<DirectedGraphNode, Integer> idMap;
+
+    private final int firstLabel;
+
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final double[] outWeights;
+
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final double[] inWeights;
+    private final int[] inArcs;
+
+    /**
+     * Constructs a snapshot of the graph <code>graph</code> weighted by
+     * <code>w</code>. Every child of each node in <code>graph</code> must
+     * itself be in <code>graph</code>.
+     *
+     * @param graph the list of all nodes of a graph.
+     * @param w the weight function.
+     */
+    public CompactDirectedGraph(List<DirectedGraphNode> graph,
+                                DirectedGraphWeightFunction w) {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(w, "'w' is null.");
+
+        final int n = graph.size();
+        final DirectedGraphNode[] nodes =
+                graph.toArray(new DirectedGraphNode[n]);
+        this.nodes = new AtomicReferenceArray<DirectedGraphNode>(nodes);
+        this.idMap = new HashMap<DirectedGraphNode, Integer>(n, 1.05f);
+        this.firstLabel = 0;
+
+        for (int i = 0; i < n; ++i) {
+            idMap.put(nodes[i], i);
+        }
+
+        this.outOffsets = new int[n + 1];
+
+        for (int i = 0; i < n; ++i) {
+            int degree = 0;
+
+            for (DirectedGraphNode child : nodes[i]) {
+                ++degree;
+            }
+
+            outOffsets[i + 1] = outOffsets[i] + degree;
+        }
+
+        final int m = outOffsets[n];
+        this.outTargets = new int[m];
+        this.outWeights = new double[m];
+
+        int arc = 0;
+
+        for (int i = 0; i < n; ++i) {
+            for (DirectedGraphNode child : nodes[i]) {
+                Integer id = idMap.get(child);
+
+                if (id == null) {
+                    throw new IllegalArgumentException(
+                            "Node " + child + " is not in the input graph.");
+                }
+
+                outTargets[arc] = id;
+                outWeights[arc] = w.get(nodes[i], child);
+                ++arc;
+            }
+        }
+
+        this.inOffsets = new int[n + 1];
+        this.inSources = new int[m];
+        this.inWeights = new double[m];
+        this.inArcs = new int[m];
+        buildReverse(n, outOffsets, outTargets, outWeights,
+                     inOffsets, inSources, inWeights, inArcs);
+    }
+
+    /**
+     * Constructs a snapshot of <code>n</code> nodes from the arc arrays
+     * <code>sources</code>, <code>targets</code> and <code>weights</code>,
+     * whose first <code>m</code> entries describe the arcs. The out-going arcs
+     * of each node keep their relative order. The node with id
+     * <code>u</code> is named by the decimal label <code>u +
+     * firstLabel</code>; it is created only when first asked for.
+     *
+     * @param n the amount of nodes.
+     * @param m the amount of arcs.
+     * @param sources the tail node ids.
+     * @param targets the head node ids.
+     * @param weights the arc weights.
+     * @param firstLabel the label of the node with id 0.
+     */
+    CompactDirectedGraph(int n,
+                         int m,
+                         int[] sources,
+                         int[] targets,
+                         double[] weights,
+                         int firstLabel) {
+        this.nodes = new AtomicReferenceArray<DirectedGraphNode>(n);
+        this.idMap = null;
+        this.firstLabel = firstLabel;
+        this.outOffsets = new int[n + 1];
+        this.outTargets = new int[m];
+        this.outWeights = new double[m];
+
+        for (int a = 0; a < m; ++a) {
+            ++outOffsets[sources[a] + 1];
+        }
+
+        for (int i = 0; i < n; ++i) {
+            outOffsets[i + 1] += outOffsets[i];
+        }
+
+        int[] fill = new int[n];
+        System.arraycopy(outOffsets, 0, fill, 0, n);
+
+        for (int a = 0; a < m; ++a) {
+            int index = fill[sources[a]]++;
+            outTargets[index] = targets[a];
+            outWeights[index] = weights[a];
+        }
+
+        this.inOffsets = new int[n + 1];
+        this.inSources = new int[m];
+        this.inWeights = new double[m];
+        this.inArcs = new int[m];
+        buildReverse(n, outOffsets, outTargets, outWeights,
+                     inOffsets, inSources, inWeights, inArcs);
+    }
+
+    /**
+     * Constructs a snapshot over the given forward CSR arrays, which the
+     * snapshot takes over, and computes the reverse arrays.
+     *
+     * @param nodes maps node ids to nodes.
+     * @param outOffsets the arc offsets of the nodes, of length
+     * <code>nodes.length + 1</code>.
+     * @param outTargets the head node ids of the arcs.
+     * @param outWeights the arc weights.
+     */
+    CompactDirectedGraph(DirectedGraphNode[] nodes,
+                         int[] outOffsets,
+                         int[] outTargets,
+                         double[] outWeights) {
+        final int n = nodes.length;
+        final int m = outTargets.length;
+        this.nodes = new AtomicReferenceArray<DirectedGraphNode>(nodes);
+        this.idMap = new HashMap<DirectedGraphNode, Integer>(n, 1.05f);
+        this.firstLabel = 0;
+
+        for (int i = 0; i < n; ++i) {
+            idMap.put(nodes[i], i);
+        }
+
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outWeights = outWeights;
+        this.inOffsets = new int[n + 1];
+        this.inSources = new int[m];
+        this.inWeights = new double[m];
+        this.inArcs = new int[m];
+        buildReverse(n, outOffsets, outTargets, outWeights,
+                     inOffsets, inSources, inWeights, inArcs);
+    }
+
+    /**
+     * Constructs a snapshot with no arrays of its own. A subclass using this
+     * constructor must override every accessor of the CSR arrays.
+     */
+    protected CompactDirectedGraph() {
+        this.nodes = null;
+        this.idMap = null;
+        this.firstLabel = 0;
+        this.outOffsets = null;
+        this.outTargets = null;
+        this.outWeights = null;
+        this.inOffsets = null;
+        this.inSources = null;
+        this.inWeights = null;
+        this.inArcs = null;
+    }
+
+    /**
+     * Fills the reverse CSR arrays by counting sort on arc heads.
+     */
+    static void buildReverse(int n,
+                             int[] outOffsets,
+                             int[] outTargets,
+                             double[] outWeights,
+                             int[] inOffsets,
+                             int[] inSources,
+                             double[] inWeights,
+                             int[] inArcs) {
+        for (int a = 0; a < outOffsets[n]; ++a) {
+            ++inOffsets[outTargets[a] + 1];
+        }
+
+        for (int i = 0; i < n; ++i) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+
+        int[] fill = new int[n];
+        System.arraycopy(inOffsets, 0, fill, 0, n);
+
+        for (int u = 0; u < n; ++u) {
+            for (int a = outOffsets[u]; a < outOffsets[u + 1]; ++a) {
+                int index = fill[outTargets[a]]++;
+                inSources[index] = u;
+                inWeights[index] = outWeights[a];
+                inArcs[index] = a;
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of nodes in this graph.
+     *
+     * @return the amount of nodes.
+     */
+    public int size() {
+        return nodes.length();
+    }
+
+    /**
+     * Returns the amount of arcs in this graph.
+     *
+     * @return the amount of arcs.
+     */
+    public int arcCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * Returns the id of <code>node</code>, or {@link #NO_NODE} if the node is
+     * not in this graph.
+     *
+     * @param node the node to query.
+     * @return the id of the node.
+     */
+    public int getId(DirectedGraphNode node) {
+        if (idMap == null) {
+            try {
+                long id = Long.parseLong(node.getName()) - firstLabel;
+                return id >= 0 && id < size() ? (int) id : NO_NODE;
+            } catch (NumberFormatException e) {
+                return NO_NODE;
+            }
+        }
+
+        Integer id = idMap.get(node);
+        return id == null ? NO_NODE : id;
+    }
+
+    public DirectedGraphNode getNode(int id) {
+        DirectedGraphNode node = nodes.get(id);
+
+        if (node == null) {
+            node = new DirectedGraphNode(
+                    Long.toString((long) id + firstLabel));
+
+            // Of two threads materializing the same node, both get the
+            // node of the first.
+            if (nodes.compareAndSet(id, null, node) == false) {
+                node = nodes.get(id);
+            }
+        }
+
+        return node;
+    }
+
+    public int outBegin(int u) {
+        return outOffsets[u];
+    }
+
+    public int outEnd(int u) {
+        return outOffsets[u + 1];
+    }
+
+    public int outDegree(int u) {
+        return outOffsets[u + 1] - outOffsets[u];
+    }
+
+    /**
+     * Returns the head node of the arc <code>arc</code>.
+     *
+     * @param arc the arc id.
+     * @return the node the arc points to.
+     */
+    public int getTarget(int arc) {
+        return outTargets[arc];
+    }
+
+    public double getWeight(int arc) {
+        return outWeights[arc];
+    }
+
+    public int inBegin(int u) {
+        return inOffsets[u];
+    }
+
+    public int inEnd(int u) {
+        return inOffsets[u + 1];
+    }
+
+    public int inDegree(int u) {
+        return inOffsets[u + 1] - inOffsets[u];
+    }
+
+    /**
+     * Returns the tail node of the in-coming entry <code>index</code>.
+     *
+     * @param index the index of the in-coming entry.
+     * @return the node the corresponding arc leaves.
+     */
+    public int getSource(int index) {
+        return inSources[index];
+    }
+
+    public double getInWeight(int index) {
+        return inWeights[index];
+    }
+
+    /**
+     * Returns the id of the forward arc mirrored by the in-coming entry
+     * <code>index</code>.
+     *
+     * @param index the index of the in-coming entry.
+     * @return the forward arc id.
+     */
+    public int getInArc(int index) {
+        return inArcs[index];
+    }
+
+    /**
+     * Returns the id of the arc <code>(from, to)</code>, or
+     * <code>-1</code> if there is no such arc.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @return the arc id.
+     */
+    public int findArc(int from, int to) {
+        for (int a = outBegin(from), end = outEnd(from); a < end; ++a) {
+            if (getTarget(a) == to) {
+                return a;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Converts a path of node ids to the path of original nodes.
+     *
+     * @param path the path of node ids.
+     * @return the path of nodes.
+     */
+    public List<DirectedGraphNode> toNodeList(int[] path) {
+        List<DirectedGraphNode> list =
+                new java.util.ArrayList<DirectedGraphNode>(path.length);
+
+        for (int id : path) {
+            list.add(getNode(id));
+        }
+
+        return list;
+    }
+
+    /**
+     * Returns the total weight of a path of node ids.
+     *
+     * @param path the path of node ids.
+     * @return the cost of the path.
+     */
+    public double getPathCost(int[] path) {
+        double cost = 0.0;
+
+        for (int i = 0; i < path.length - 1; ++i) {
+            cost += getWeight(findArc(path[i], path[i + 1]));
+        }
+
+        return cost;
+    }
+}
@@ -0,0 +1,178 @@
+package net.coderodde.cskit.graph;
+
+import java.util.Arrays;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+
+/**
+ * This class holds the state of a search over a {@link CompactDirectedGraph}
+ * in arrays indexed by node id, so that it can be reused from query to query
+ * instead of being allocated for each. Whether a node is reached or closed
+ * is told by a stamp: a node is reached in the current query if its stamp
+ * equals the current epoch, so {@link #reset()} forgets all marks by
+ * incrementing the epoch. Only when the epoch overflows are the stamps
+ * cleared. The closed stamps have an epoch of their own, so that
+ * {@link #reopen()} forgets the closed nodes alone, as the searches
+ * reusing their state over several iterations need.
+ * <p>
+ * The distance and parent arrays are not reset; an entry is meaningful only
+ * for a node written during the current query. The open queue is cleared in
+ * time proportional to its size, the BFS queue is not cleared at all. A
+ * state is used by one thread at a time.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class CompactSearchState {
+
+    private final int[] reached;
+    private final int[] closed;
+    private final double[] distances;
+    private final int[] parents;
+    private int[] queue;
+    private IndexedBinaryHeap open;
+    private int epoch;
+    private int closedEpoch;
+
+    /**
+     * Constructs a state for graphs of at most <code>capacity</code> nodes.
+     *
+     * @param capacity the greatest amount of nodes.
+     */
+    public CompactSearchState(int capacity) {
+        this.reached = new int[capacity];
+        this.closed = new int[capacity];
+        this.distances = new double[capacity];
+        this.parents = new int[capacity];
+        this.epoch = 1;
+        this.closedEpoch = 1;
+    }
+
+    /**
+     * Returns a reset state for <code>graph</code>: <code>state</code> if it
+     * is large enough, or a new one.
+     *
+     * @param state the state to reuse, or <code>null</code>.
+     * @param graph the graph to search.
+     * @return a reset state large enough for <code>graph</code>.
+     */
+    public static CompactSearchState reuse(CompactSearchState state,
+                                           CompactDirectedGraph graph) {
+        return reuse(state, graph.size());
+    }
+
+    /**
+     * Returns a reset state for graphs of <code>size</code> nodes:
+     * <code>state</code> if it is large enough, or a new one.
+     *
+     * @param state the state to reuse, or <code>null</code>.
+     * @param size the amount of nodes of the graph to search.
+     * @return a reset state large enough for <code>size</code> nodes.
+     */
+    public static CompactSearchState reuse(CompactSearchState state,
+                                           int size) {
+        if (state == null || state.capacity() < size) {
+            return new CompactSearchState(size);
+        }
+
+        state.reset();
+        return state;
+    }
+
+    /**
+     * Returns the greatest amount of nodes this state can handle.
+     *
+     * @return the capacity of this state.
+     */
+    public int capacity() {
+        return parents.length;
+    }
+
+    /**
+     * Forgets the reached and closed nodes and empties the open queue.
+     */
+    public void reset() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            epoch = 1;
+        }
+
+        reopen();
+
+        if (open != null) {
+            open.clear();
+        }
+    }
+
+    /**
+     * Forgets the closed nodes only.
+     */
+    public void reopen() {
+        if (++closedEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(closed, 0);
+            closedEpoch = 1;
+        }
+    }
+
+    public boolean isReached(int u) {
+        return reached[u] == epoch;
+    }
+
+    public void reach(int u) {
+        reached[u] = epoch;
+    }
+
+    public boolean isClosed(int u) {
+        return closed[u] == closedEpoch;
+    }
+
+    public void close(int u) {
+        closed[u] = closedEpoch;
+    }
+
+    /**
+     * Returns the distance array. An entry is valid only if written during
+     * the current query.
+     *
+     * @return the distance array.
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the parent array. An entry is valid only if written during the
+     * current query.
+     *
+     * @return the parent array.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * Returns an array large enough to serve as a breadth-first search
+     * queue.
+     *
+     * @return the queue array.
+     */
+    public int[] getQueue() {
+        if (queue == null) {
+            queue = new int[parents.length];
+        }
+
+        return queue;
+    }
+
+    /**
+     * Returns the open queue, which is empty after each reset.
+     *
+     * @return the open queue.
+     */
+    public IndexedBinaryHeap getOpen() {
+        if (open == null) {
+            open = new IndexedBinaryHeap(parents.length);
+        }
+
+        return open;
+    }
+}
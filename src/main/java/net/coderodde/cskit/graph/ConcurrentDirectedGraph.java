@@ -0,0 +1,445 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+
+/**
+ * This class implements a weighted directed graph that may be modified and
+ * read by many threads at once.
+ * <p>
+ * Each node keeps its adjacency lists as immutable arrays published through
+ * volatile fields (copy-on-write): a reader grabs the current list and
+ * iterates it without any locking, and never sees a
+ * <code>ConcurrentModificationException</code>. A writer copies the arrays
+ * of the two endpoints of an arc while holding the locks of their stripes,
+ * so writers on nodes of different stripes do not block each other. Each
+ * update costs time proportional to the degrees of the endpoints, which
+ * suits sparse graphs.
+ * <p>
+ * {@link #snapshot()} holds all the stripes for the duration of a copy and
+ * thus yields a {@link CompactDirectedGraph} consistent across all nodes, on
+ * which any snapshot finder may run while ingestion goes on.
+ * <p>
+ * Nodes are told apart by their names, as in {@link DirectedGraphNode}; the
+ * node objects only serve as keys and are never modified.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ConcurrentDirectedGraph {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private static final Adjacency EMPTY =
+            new Adjacency(new Vertex[0], new double[0]);
+
+    private final ReentrantLock[] stripes;
+
+    private final ConcurrentHashMap<DirectedGraphNode, Vertex> vertexMap;
+
+    /**
+     * Lists the vertices in order of their ids. Guarded by itself.
+     */
+    private final List<Vertex> vertices;
+
+    private final AtomicInteger arcCount;
+
+    /**
+     * Constructs an empty graph with at least <code>stripes</code> locks.
+     *
+     * @param stripes the minimum amount of lock stripes.
+     */
+    public ConcurrentDirectedGraph(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of stripes must be positive: " + stripes);
+        }
+
+        int size = Integer.highestOneBit(stripes);
+        size = size < stripes ? size << 1 : size;
+        this.stripes = new ReentrantLock[size];
+
+        for (int i = 0; i < size; ++i) {
+            this.stripes[i] = new ReentrantLock();
+        }
+
+        this.vertexMap = new ConcurrentHashMap<DirectedGraphNode, Vertex>();
+        this.vertices = new ArrayList<Vertex>();
+        this.arcCount = new AtomicInteger();
+    }
+
+    public ConcurrentDirectedGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Adds <code>node</code> to this graph unless already there.
+     *
+     * @param node the node to add.
+     * @return <code>true</code> if the node was added.
+     */
+    public boolean addNode(DirectedGraphNode node) {
+        checkNotNull(node, "'node' is null.");
+
+        if (vertexMap.containsKey(node)) {
+            return false;
+        }
+
+        synchronized (vertices) {
+            if (vertexMap.containsKey(node)) {
+                return false;
+            }
+
+            Vertex vertex = new Vertex(node, vertices.size());
+            vertices.add(vertex);
+            vertexMap.put(node, vertex);
+            return true;
+        }
+    }
+
+    public boolean containsNode(DirectedGraphNode node) {
+        return vertexMap.containsKey(node);
+    }
+
+    /**
+     * Returns the amount of nodes in this graph.
+     *
+     * @return the amount of nodes.
+     */
+    public int size() {
+        return vertexMap.size();
+    }
+
+    /**
+     * Returns the amount of arcs in this graph.
+     *
+     * @return the amount of arcs.
+     */
+    public int arcCount() {
+        return arcCount.get();
+    }
+
+    /**
+     * Adds the arc <code>(from, to)</code> with the weight
+     * <code>weight</code>, adding the endpoints as needed. If the arc exists,
+     * only its weight is updated.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @param weight the weight of the arc.
+     * @return <code>true</code> if the arc was added.
+     */
+    public boolean addArc(DirectedGraphNode from,
+                          DirectedGraphNode to,
+                          double weight) {
+        addNode(from);
+        addNode(to);
+        Vertex u = vertexMap.get(from);
+        Vertex v = vertexMap.get(to);
+        lock(u, v);
+
+        try {
+            int index = u.out.indexOf(v);
+
+            if (index >= 0) {
+                u.out = u.out.withWeight(index, weight);
+                v.in = v.in.withWeight(v.in.indexOf(u), weight);
+                return false;
+            }
+
+            u.out = u.out.append(v, weight);
+            v.in = v.in.append(u, weight);
+            arcCount.incrementAndGet();
+            return true;
+        } finally {
+            unlock(u, v);
+        }
+    }
+
+    /**
+     * Removes the arc <code>(from, to)</code>, if present.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @return <code>true</code> if the arc was removed.
+     */
+    public boolean removeArc(DirectedGraphNode from, DirectedGraphNode to) {
+        Vertex u = vertexMap.get(from);
+        Vertex v = vertexMap.get(to);
+
+        if (u == null || v == null) {
+            return false;
+        }
+
+        lock(u, v);
+
+        try {
+            int index = u.out.indexOf(v);
+
+            if (index < 0) {
+                return false;
+            }
+
+            u.out = u.out.remove(index);
+            v.in = v.in.remove(v.in.indexOf(u));
+            arcCount.decrementAndGet();
+            return true;
+        } finally {
+            unlock(u, v);
+        }
+    }
+
+    public boolean hasArc(DirectedGraphNode from, DirectedGraphNode to) {
+        Vertex u = vertexMap.get(from);
+        Vertex v = vertexMap.get(to);
+        return u != null && v != null && u.out.indexOf(v) >= 0;
+    }
+
+    /**
+     * Returns the weight of the arc <code>(from, to)</code>, or 0.0 if there
+     * is no such arc.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @return the weight of the arc.
+     */
+    public double getWeight(DirectedGraphNode from, DirectedGraphNode to) {
+        Vertex u = vertexMap.get(from);
+        Vertex v = vertexMap.get(to);
+
+        if (u == null || v == null) {
+            return 0.0;
+        }
+
+        Adjacency out = u.out;
+        int index = out.indexOf(v);
+        return index < 0 ? 0.0 : out.weights[index];
+    }
+
+    public int outDegree(DirectedGraphNode node) {
+        Vertex u = vertexMap.get(node);
+        return u == null ? 0 : u.out.vertices.length;
+    }
+
+    public int inDegree(DirectedGraphNode node) {
+        Vertex u = vertexMap.get(node);
+        return u == null ? 0 : u.in.vertices.length;
+    }
+
+    /**
+     * Returns the children of <code>node</code> as they were at the time of
+     * the call; later modifications do not affect the returned view.
+     *
+     * @param node the node whose children to view.
+     * @return an iterable over the children.
+     */
+    public Iterable<DirectedGraphNode> children(DirectedGraphNode node) {
+        Vertex u = vertexMap.get(node);
+        return new NodeView(u == null ? EMPTY : u.out);
+    }
+
+    /**
+     * Returns the parents of <code>node</code> as they were at the time of
+     * the call; later modifications do not affect the returned view.
+     *
+     * @param node the node whose parents to view.
+     * @return an iterable over the parents.
+     */
+    public Iterable<DirectedGraphNode> parents(DirectedGraphNode node) {
+        Vertex u = vertexMap.get(node);
+        return new NodeView(u == null ? EMPTY : u.in);
+    }
+
+    /**
+     * Returns a snapshot of this graph consistent across all nodes. Writers
+     * are blocked for the duration of the copy, readers are not.
+     *
+     * @return a CSR snapshot of this graph.
+     */
+    public CompactDirectedGraph snapshot() {
+        synchronized (vertices) {
+            for (ReentrantLock stripe : stripes) {
+                stripe.lock();
+            }
+
+            try {
+                final int n = vertices.size();
+                final int m = arcCount.get();
+                DirectedGraphNode[] nodes = new DirectedGraphNode[n];
+                int[] outOffsets = new int[n + 1];
+                int[] outTargets = new int[m];
+                double[] outWeights = new double[m];
+                int arc = 0;
+
+                for (int i = 0; i < n; ++i) {
+                    Vertex u = vertices.get(i);
+                    Adjacency out = u.out;
+                    nodes[i] = u.node;
+
+                    for (int j = 0; j < out.vertices.length; ++j) {
+                        outTargets[arc] = out.vertices[j].id;
+                        outWeights[arc] = out.weights[j];
+                        ++arc;
+                    }
+
+                    outOffsets[i + 1] = arc;
+                }
+
+                return new CompactDirectedGraph(nodes,
+                                                outOffsets,
+                                                outTargets,
+                                                outWeights);
+            } finally {
+                for (ReentrantLock stripe : stripes) {
+                    stripe.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Locks the stripes of <code>u</code> and <code>v</code> in the order of
+     * their indices, so that no two writers may deadlock.
+     */
+    private void lock(Vertex u, Vertex v) {
+        int i = u.id & (stripes.length - 1);
+        int j = v.id & (stripes.length - 1);
+
+        if (i == j) {
+            stripes[i].lock();
+        } else {
+            stripes[Math.min(i, j)].lock();
+            stripes[Math.max(i, j)].lock();
+        }
+    }
+
+    private void unlock(Vertex u, Vertex v) {
+        int i = u.id & (stripes.length - 1);
+        int j = v.id & (stripes.length - 1);
+
+        stripes[i].unlock();
+
+        if (i != j) {
+            stripes[j].unlock();
+        }
+    }
+
+    /**
+     * This class holds a node, its id and its adjacency lists.
+     */
+    private static final class Vertex {
+
+        final DirectedGraphNode node;
+        final int id;
+
+        // Replaced only under the lock of the stripe of this vertex.
+        volatile Adjacency out = EMPTY;
+        volatile Adjacency in = EMPTY;
+
+        Vertex(DirectedGraphNode node, int id) {
+            this.node = node;
+            this.id = id;
+        }
+    }
+
+    /**
+     * This class implements an immutable adjacency list: an array of
+     * adjacent vertices and an array of the weights of the arcs.
+     */
+    private static final class Adjacency {
+
+        final Vertex[] vertices;
+        final double[] weights;
+
+        Adjacency(Vertex[] vertices, double[] weights) {
+            this.vertices = vertices;
+            this.weights = weights;
+        }
+
+        int indexOf(Vertex vertex) {
+            for (int i = 0; i < vertices.length; ++i) {
+                if (vertices[i] == vertex) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        Adjacency append(Vertex vertex, double weight) {
+            final int n = vertices.length;
+            Vertex[] newVertices = new Vertex[n + 1];
+            double[] newWeights = new double[n + 1];
+            System.arraycopy(vertices, 0, newVertices, 0, n);
+            System.arraycopy(weights, 0, newWeights, 0, n);
+            newVertices[n] = vertex;
+            newWeights[n] = weight;
+            return new Adjacency(newVertices, newWeights);
+        }
+
+        Adjacency withWeight(int index, double weight) {
+            double[] newWeights = weights.clone();
+            newWeights[index] = weight;
+            return new Adjacency(vertices, newWeights);
+        }
+
+        Adjacency remove(int index) {
+            final int n = vertices.length - 1;
+            Vertex[] newVertices = new Vertex[n];
+            double[] newWeights = new double[n];
+            System.arraycopy(vertices, 0, newVertices, 0, index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(vertices, index + 1,
+                             newVertices, index, n - index);
+            System.arraycopy(weights, index + 1,
+                             newWeights, index, n - index);
+            return new Adjacency(newVertices, newWeights);
+        }
+    }
+
+    /**
+     * This class implements a view over a fixed adjacency array.
+     */
+    private static final class NodeView implements Iterable<DirectedGraphNode> {
+
+        private final Vertex[] array;
+
+        NodeView(Adjacency adjacency) {
+            this.array = adjacency.vertices;
+        }
+
+        @Override
+        public Iterator<DirectedGraphNode> iterator() {
+            return new Iterator<DirectedGraphNode>() {
+
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < array.length;
+                }
+
+                @Override
+                public DirectedGraphNode next() {
+                    if (index == array.length) {
+                        throw new NoSuchElementException("No more nodes.");
+                    }
+
+                    return array[index++].node;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(
+                            "The view is read-only.");
+                }
+            };
+        }
+    }
+}
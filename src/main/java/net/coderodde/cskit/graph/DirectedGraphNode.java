@@ -1,9 +1,9 @@
 package net.coderodde.cskit.graph;
 
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import static net.coderodde.cskit.Utilities.checkModCount;
 import static net.coderodde.cskit.Utilities.checkNotNull;
 import net.coderodde.cskit.AllIterable;
@@ -28,25 +28,44 @@ AllIterable<DirectedGraphNode> {
      */
     public static final int DEFAULT_INITIAL_CAPACITY = 1024;
 
+    /**
+     * The degree up to which a compact adjacency list is kept as an array.
+     */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 16;
+
+    /**
+     * Hands out the ids of new nodes.
+     */
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+
+    /**
+     * The unique, non-negative id of this node. Unlike the name, the id tells
+     * apart two distinct node objects.
+     */
+    private final int id = nextId();
+
     /**
      * The name of this node. It is advised to have each node have a unique name.
      */
     private final String name;
 
     /**
-     * The set of incoming nodes.
+     * Maps the incoming nodes to the weights of the arcs from them. An arc
+     * carrying no embedded weight maps to 0.0.
      */
-    private final Set<DirectedGraphNode> in;
+    private final AdaptiveAdjacency in;
 
     /**
-     * The set of out-going nodes.
+     * Maps the out-going nodes to the weights of the arcs to them. An arc
+     * carrying no embedded weight maps to 0.0.
      */
-    private final Set<DirectedGraphNode> out;
+    private final AdaptiveAdjacency out;
 
     private long modCount;
 
     /**
-     * Constructs a new <code>DirectedGraphNode</code>.
+     * Constructs a new <code>DirectedGraphNode</code> whose adjacency lists
+     * are hash tables from the start.
      *
      * @param name the name of this node.
      * @param capacity the initial capacity of each of the adjacency lists.
@@ -54,22 +73,59 @@ AllIterable<DirectedGraphNode> {
      */
     public DirectedGraphNode(String name, int capacity, float loadFactor) {
         this.name = checkNotNull(name, "A node must have a non-null name.");
-        this.in = new LinkedHashSet<DirectedGraphNode>(capacity, loadFactor);
-        this.out = new LinkedHashSet<DirectedGraphNode>(capacity, loadFactor);
+        this.in = new AdaptiveAdjacency(capacity, loadFactor);
+        this.out = new AdaptiveAdjacency(capacity, loadFactor);
     }
 
     public DirectedGraphNode(String name, int capacity) {
         this(name, capacity, DEFAULT_LOAD_FACTOR);
     }
 
+    /**
+     * Constructs a new <code>DirectedGraphNode</code> with compact adjacency
+     * lists. Each list is a small array scanned linearly until its degree
+     * exceeds {@link #DEFAULT_COMPACT_THRESHOLD}, after which it turns into a
+     * hash table. Iteration order is insertion order either way.
+     *
+     * @param name the name of this node.
+     */
     public DirectedGraphNode(String name) {
-        this(name, DEFAULT_INITIAL_CAPACITY);
+        this.name = checkNotNull(name, "A node must have a non-null name.");
+        this.in = new AdaptiveAdjacency(DEFAULT_COMPACT_THRESHOLD);
+        this.out = new AdaptiveAdjacency(DEFAULT_COMPACT_THRESHOLD);
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Returns the id of this node. Ids are assigned in order of construction.
+     *
+     * @return the id of this node.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Hands out the next id, failing instead of wrapping around once all
+     * non-negative ids are taken, so that no two nodes share an id.
+     */
+    private static int nextId() {
+        for (;;) {
+            int id = ID_COUNTER.get();
+
+            if (id == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Out of node ids.");
+            }
+
+            if (ID_COUNTER.compareAndSet(id, id + 1)) {
+                return id;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "[Node: " + name + "]";
@@ -88,21 +144,104 @@ AllIterable<DirectedGraphNode> {
     public void addChild(DirectedGraphNode child) {
         if (this.out.contains(child) == false) {
             modCount++;
-            this.out.add(child);
-            child.in.add(this);
+            this.out.put(child, 0.0);
+            child.in.put(this, 0.0);
+        }
+    }
+
+    /**
+     * Adds an arc to <code>child</code> carrying the embedded weight
+     * <code>weight</code>. If the arc exists, only its weight is updated.
+     *
+     * @param child the child node.
+     * @param weight the weight of the arc.
+     */
+    public void addChild(DirectedGraphNode child, double weight) {
+        if (this.out.put(child, weight)) {
+            modCount++;
         }
+
+        child.in.put(this, weight);
     }
 
     public boolean hasChild(DirectedGraphNode candidate) {
         return this.out.contains(candidate);
     }
 
+    /**
+     * Sets the embedded weight of the existing arc to <code>child</code>.
+     *
+     * @param child the child node.
+     * @param weight the new weight of the arc.
+     * @throws IllegalArgumentException if there is no arc to
+     * <code>child</code>.
+     */
+    public void setWeight(DirectedGraphNode child, double weight) {
+        if (this.out.contains(child) == false) {
+            throw new IllegalArgumentException(
+                    "No arc from " + this + " to " + child + ".");
+        }
+
+        addChild(child, weight);
+    }
+
+    /**
+     * Returns the embedded weight of the arc to <code>child</code>, or 0.0 if
+     * the arc carries no embedded weight.
+     *
+     * @param child the child node.
+     * @return the embedded weight, or <code>NaN</code> if there is no arc to
+     * <code>child</code>.
+     */
+    public double getWeight(DirectedGraphNode child) {
+        return this.out.get(child);
+    }
+
     public void removeChild(DirectedGraphNode child) {
         modCount++;
         this.out.remove(child);
         child.in.remove(this);
     }
 
+    /**
+     * Returns the amount of children of this node.
+     *
+     * @return the out-degree.
+     */
+    public int outDegree() {
+        return out.size();
+    }
+
+    /**
+     * Returns the amount of parents of this node.
+     *
+     * @return the in-degree.
+     */
+    public int inDegree() {
+        return in.size();
+    }
+
+    /**
+     * Returns <code>true</code> if both adjacency lists of this node are still
+     * in their compact array form.
+     *
+     * @return <code>true</code> if no adjacency list is hashed.
+     */
+    public boolean isCompact() {
+        return in.isHashed() == false && out.isHashed() == false;
+    }
+
+    /**
+     * Estimates the amount of bytes this node occupies on a 64-bit JVM with
+     * compressed references, counting both adjacency lists but neither the
+     * name nor the adjacent nodes.
+     *
+     * @return the estimated footprint in bytes.
+     */
+    public long estimateMemoryUsage() {
+        return 40 + in.estimateMemoryUsage() + out.estimateMemoryUsage();
+    }
+
     @Override
     public Iterator<DirectedGraphNode> iterator() {
         return new ChildIterator();
@@ -118,6 +257,144 @@ AllIterable<DirectedGraphNode> {
         return new AllIterable();
     }
 
+    /**
+     * Returns a new cursor over the children of this node.
+     *
+     * @return a cursor over the out-going arcs.
+     */
+    public ArcCursor childCursor() {
+        ArcCursor cursor = new ArcCursor();
+        cursor.resetToChildren(this);
+        return cursor;
+    }
+
+    /**
+     * Returns a new cursor over the parents of this node.
+     *
+     * @return a cursor over the incoming arcs.
+     */
+    public ArcCursor parentCursor() {
+        ArcCursor cursor = new ArcCursor();
+        cursor.resetToParents(this);
+        return cursor;
+    }
+
+    /**
+     * This class implements a cursor over the arcs of a node, yielding each
+     * adjacent node together with the embedded weight of the arc. Unlike an
+     * iterator, a cursor may be reset to another node, so a search may
+     * reuse one cursor for all its expansions; stepping creates no objects
+     * as long as the adjacency list is compact.
+     */
+    public static final class ArcCursor {
+
+        private DirectedGraphNode owner;
+        private boolean forward;
+        private long expectedModCount;
+        private AdaptiveAdjacency adjacency;
+        private int expectedAdjacencyModCount;
+        private int index;
+        private Iterator<Map.Entry<DirectedGraphNode, Double>> iterator;
+        private DirectedGraphNode node;
+        private double weight;
+
+        /**
+         * Positions this cursor before the first child of <code>owner</code>.
+         *
+         * @param owner the node whose out-going arcs to traverse.
+         */
+        public void resetToChildren(DirectedGraphNode owner) {
+            reset(owner, true);
+        }
+
+        /**
+         * Positions this cursor before the first parent of <code>owner</code>.
+         *
+         * @param owner the node whose incoming arcs to traverse.
+         */
+        public void resetToParents(DirectedGraphNode owner) {
+            reset(owner, false);
+        }
+
+        /**
+         * Advances this cursor to the next arc.
+         *
+         * @return <code>false</code> if there are no more arcs.
+         */
+        public boolean next() {
+            checkModCount(expectedModCount,
+                          owner.modCount,
+                          "Concurrent modification encountered.");
+            checkModCount(expectedAdjacencyModCount,
+                          adjacency.getModCount(),
+                          "Concurrent modification encountered.");
+
+            if (iterator == null) {
+                if (index == adjacency.size()) {
+                    node = null;
+                    return false;
+                }
+
+                node = adjacency.nodeAt(index);
+                weight = adjacency.weightAt(index);
+                ++index;
+                return true;
+            }
+
+            if (iterator.hasNext() == false) {
+                node = null;
+                return false;
+            }
+
+            Map.Entry<DirectedGraphNode, Double> e = iterator.next();
+            node = e.getKey();
+            weight = e.getValue();
+            return true;
+        }
+
+        /**
+         * Returns the node the cursor currently points at.
+         */
+        public DirectedGraphNode getNode() {
+            return node;
+        }
+
+        /**
+         * Returns the embedded weight of the current arc, or 0.0 if the arc
+         * carries no embedded weight.
+         */
+        public double getWeight() {
+            return weight;
+        }
+
+        /**
+         * Returns the node whose arcs this cursor traverses.
+         */
+        public DirectedGraphNode getOwner() {
+            return owner;
+        }
+
+        /**
+         * Returns <code>true</code> if this cursor traverses out-going arcs,
+         * <code>false</code> if incoming.
+         */
+        public boolean isForward() {
+            return forward;
+        }
+
+        private void reset(DirectedGraphNode owner, boolean forward) {
+            this.owner = owner;
+            this.forward = forward;
+            this.expectedModCount = owner.modCount;
+            this.adjacency = forward ? owner.out : owner.in;
+            this.expectedAdjacencyModCount = adjacency.getModCount();
+            this.index = 0;
+            this.iterator = adjacency.isHashed() ? adjacency.entryIterator()
+                                                 : null;
+            this.node = null;
+        }
+    }
+
     /**
      * This class implements an iterator over this node's parents.
      */
@@ -10,12 +10,20 @@ import java.util.Map;
  */
 public class DirectedGraphWeightFunction {
 
-    private Map<DirectedGraphNode, Map<DirectedGraphNode, Double>> map =
-    new HashMap<DirectedGraphNode, Map<DirectedGraphNode, Double>>();
+    /**
+     * Created on the first put, so that the subclasses storing their weights
+     * elsewhere allocate none.
+     */
+    private Map<DirectedGraphNode, Map<DirectedGraphNode, Double>> map;
 
     public void put(DirectedGraphNode from,
                     DirectedGraphNode to,
                     double weight) {
+        if (map == null) {
+            map = new HashMap<DirectedGraphNode,
+                              Map<DirectedGraphNode, Double>>();
+        }
+
         if (map.get(from) == null) {
             map.put(from, new HashMap<DirectedGraphNode, Double>());
         }
@@ -24,14 +32,32 @@ public class DirectedGraphWeightFunction {
     }
 
     public double get(DirectedGraphNode from, DirectedGraphNode to) {
-        if (map.get(from) == null || map.get(from).get(to) == null) {
+        if (map == null
+                || map.get(from) == null
+                || map.get(from).get(to) == null) {
             return 0.0; // For the sake of residual graphs of max-flow problem.
         }
 
         return map.get(from).get(to);
     }
 
+    /**
+     * Returns the weight of the arc <code>cursor</code> currently points at.
+     * This implementation looks the arc up like {@link #get(DirectedGraphNode,
+     * DirectedGraphNode)}; weight functions able to read the weight off the
+     * cursor override this.
+     *
+     * @param cursor the cursor positioned at an arc.
+     * @return the weight of the arc.
+     */
+    public double get(DirectedGraphNode.ArcCursor cursor) {
+        return cursor.isForward() ? get(cursor.getOwner(), cursor.getNode())
+                                  : get(cursor.getNode(), cursor.getOwner());
+    }
+
     public void clear() {
-        map.clear();
+        if (map != null) {
+            map.clear();
+        }
     }
 }
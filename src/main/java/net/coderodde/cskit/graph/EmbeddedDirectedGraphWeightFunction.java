@@ -0,0 +1,84 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class implements a directed weight function keeping the weights in the
+ * adjacency structures of the nodes themselves (see
+ * {@link DirectedGraphNode#addChild(DirectedGraphNode, double)}). A search
+ * traversing arcs with a {@link DirectedGraphNode.ArcCursor} gets each weight
+ * together with the adjacent node, without any extra lookup.
+ * <p>
+ * As the arcs belong to the nodes, a weight may only be put on an existing
+ * arc, and {@link #get(DirectedGraphNode, DirectedGraphNode)} returns
+ * <code>NaN</code> for a missing one.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class EmbeddedDirectedGraphWeightFunction
+extends DirectedGraphWeightFunction {
+
+    /**
+     * The nodes whose out-going arcs got weights through this function, kept
+     * by identity as the weights belong to the node objects.
+     */
+    private final Set<DirectedGraphNode> owners =
+            Collections.newSetFromMap(
+                    new IdentityHashMap<DirectedGraphNode, Boolean>());
+
+    /**
+     * Sets the embedded weight of the existing arc <code>(from, to)</code>.
+     *
+     * @throws IllegalArgumentException if there is no such arc.
+     */
+    @Override
+    public void put(DirectedGraphNode from,
+                    DirectedGraphNode to,
+                    double weight) {
+        from.setWeight(to, weight);
+        owners.add(from);
+    }
+
+    /**
+     * Returns the embedded weight of the arc <code>(from, to)</code>, or
+     * <code>NaN</code> if there is no such arc.
+     */
+    @Override
+    public double get(DirectedGraphNode from, DirectedGraphNode to) {
+        return from.getWeight(to);
+    }
+
+    @Override
+    public double get(DirectedGraphNode.ArcCursor cursor) {
+        return cursor.getWeight();
+    }
+
+    /**
+     * Resets to 0.0 the embedded weights of all arcs leaving the nodes that
+     * got a weight through {@link #put(DirectedGraphNode, DirectedGraphNode,
+     * double)}. The arcs themselves are kept.
+     */
+    @Override
+    public void clear() {
+        List<DirectedGraphNode> children = new ArrayList<DirectedGraphNode>();
+
+        for (DirectedGraphNode owner : owners) {
+            children.clear();
+
+            for (DirectedGraphNode child : owner) {
+                children.add(child);
+            }
+
+            for (DirectedGraphNode child : children) {
+                owner.setWeight(child, 0.0);
+            }
+        }
+
+        owners.clear();
+    }
+}
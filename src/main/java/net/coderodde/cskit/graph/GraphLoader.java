@@ -0,0 +1,552 @@
+package net.coderodde.cskit.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+
+/**
+ * This class implements a parallel loader of graph files. A file is mapped
+ * with NIO and cut into chunks at line boundaries; the chunks are parsed
+ * concurrently into primitive arc arrays, which are then concatenated into a
+ * {@link LoadedGraph}. Two formats are supported:
+ * <ul>
+ * <li>edge lists: one arc <code>u v [w]</code> per line, the nodes being
+ * non-negative integer labels and the weight defaulting to 1.0; lines
+ * starting with <code>#</code> or <code>%</code> are comments,</li>
+ * <li>the DIMACS shortest path format: <code>.gr</code> files with the arc
+ * lines <code>a u v w</code> and <code>.co</code> files with the coordinate
+ * lines <code>v id x y</code>, the nodes being labeled <code>1, 2, ...,
+ * n</code>.</li>
+ * </ul>
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class GraphLoader {
+
+    /**
+     * The maximum length of a chunk in bytes.
+     */
+    private static final long MAX_CHUNK_LENGTH = 1L << 28;
+
+    /**
+     * The minimum length of a chunk in bytes; smaller files are not split.
+     */
+    private static final long MIN_CHUNK_LENGTH = 1L << 16;
+
+    private static final int EDGE_LIST = 0;
+    private static final int DIMACS_GRAPH = 1;
+    private static final int DIMACS_COORDINATES = 2;
+
+    /**
+     * The powers of ten that are exact as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = 10.0 * POWERS_OF_TEN[i - 1];
+        }
+    }
+
+    private final int threads;
+
+    private final long minChunkLength;
+
+    /**
+     * Constructs a loader using <code>threads</code> parser threads.
+     *
+     * @param threads the amount of threads.
+     */
+    public GraphLoader(int threads) {
+        this(threads, MIN_CHUNK_LENGTH);
+    }
+
+    GraphLoader(int threads, long minChunkLength) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+
+        this.threads = threads;
+        this.minChunkLength = minChunkLength;
+    }
+
+    public GraphLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads an edge list. The amount of nodes is the largest label plus one.
+     *
+     * @param file the edge list file.
+     * @return the loaded graph.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    public LoadedGraph loadEdgeList(File file) throws IOException {
+        checkNotNull(file, "'file' is null.");
+        long ta = System.nanoTime();
+        List<Chunk> chunks = parse(file, EDGE_LIST, 0, null);
+        int n = 0;
+
+        for (Chunk chunk : chunks) {
+            n = Math.max(n, chunk.maxLabel + 1);
+        }
+
+        return concatenate(chunks, n, null, 0, file.length(), ta);
+    }
+
+    /**
+     * Loads a DIMACS graph and, if <code>coordinateFile</code> is not
+     * <code>null</code>, the coordinates of its nodes.
+     *
+     * @param graphFile the <code>.gr</code> file.
+     * @param coordinateFile the <code>.co</code> file, or <code>null</code>.
+     * @return the loaded graph.
+     * @throws IOException if a file cannot be read or is malformed.
+     */
+    public LoadedGraph loadDimacs(File graphFile, File coordinateFile)
+    throws IOException {
+        checkNotNull(graphFile, "'graphFile' is null.");
+        long ta = System.nanoTime();
+        int n = readProblemSize(graphFile);
+        List<Chunk> chunks = parse(graphFile, DIMACS_GRAPH, n, null);
+        double[] coordinates = null;
+        long bytes = graphFile.length();
+
+        if (coordinateFile != null) {
+            if (readProblemSize(coordinateFile) != n) {
+                throw new IOException("Node counts of " + graphFile + " and "
+                        + coordinateFile + " differ.");
+            }
+
+            coordinates = new double[2 * n];
+            parse(coordinateFile, DIMACS_COORDINATES, n, coordinates);
+            bytes += coordinateFile.length();
+        }
+
+        return concatenate(chunks, n, coordinates, 1, bytes, ta);
+    }
+
+    private static LoadedGraph concatenate(List<Chunk> chunks,
+                                           int n,
+                                           double[] coordinates,
+                                           int firstLabel,
+                                           long bytes,
+                                           long ta) {
+        int m = 0;
+
+        for (Chunk chunk : chunks) {
+            m += chunk.size;
+        }
+
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int index = 0;
+
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.sources, 0, sources, index, chunk.size);
+            System.arraycopy(chunk.targets, 0, targets, index, chunk.size);
+            System.arraycopy(chunk.weights, 0, weights, index, chunk.size);
+            index += chunk.size;
+        }
+
+        return new LoadedGraph(n,
+                               m,
+                               sources,
+                               targets,
+                               weights,
+                               coordinates,
+                               firstLabel,
+                               bytes,
+                               System.nanoTime() - ta);
+    }
+
+    /**
+     * Parses <code>file</code> in parallel chunks and returns the chunks in
+     * file order.
+     */
+    private List<Chunk> parse(File file,
+                              int format,
+                              int n,
+                              double[] coordinates) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            long length = Math.max(minChunkLength,
+                                   Math.min(MAX_CHUNK_LENGTH,
+                                            (size + threads - 1) / threads));
+            List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>();
+
+            for (long begin = 0; begin < size; begin += length) {
+                futures.add(executor.submit(
+                        new Chunk(channel,
+                                  file,
+                                  format,
+                                  n,
+                                  coordinates,
+                                  begin,
+                                  Math.min(size, begin + length))));
+            }
+
+            List<Chunk> chunks = new ArrayList<Chunk>(futures.size());
+
+            for (Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+
+            return chunks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file + ".");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Could not load " + file + ": "
+                    + e.getCause());
+        } finally {
+            executor.shutdownNow();
+            raf.close();
+        }
+    }
+
+    /**
+     * Reads the node count from the problem line <code>p ... n ...</code>
+     * of a DIMACS file.
+     */
+    private static int readProblemSize(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+            String line;
+
+            while ((line = raf.readLine()) != null) {
+                if (line.startsWith("p")) {
+                    String[] tokens = line.trim().split("\\s+");
+
+                    // "p sp n m" or "p aux sp co n"
+                    int index = tokens.length == 4 ? 2 : 4;
+
+                    try {
+                        return Integer.parseInt(tokens[index]);
+                    } catch (RuntimeException e) {
+                        throw new IOException("Malformed problem line in "
+                                + file + ": " + line);
+                    }
+                }
+            }
+        } finally {
+            raf.close();
+        }
+
+        throw new IOException("No problem line in " + file + ".");
+    }
+
+    /**
+     * This class parses one chunk of a file into growable arc arrays. A
+     * chunk owns every line starting within its byte range.
+     */
+    private static final class Chunk implements Callable<Chunk> {
+
+        private final FileChannel channel;
+        private final File file;
+        private final int format;
+        private final int n;
+        private final double[] coordinates;
+        private final long begin;
+        private final long end;
+
+        private ByteBuffer buffer;
+        private int position;
+
+        int[] sources = new int[16];
+        int[] targets = new int[16];
+        double[] weights = new double[16];
+        int size;
+        int maxLabel = -1;
+
+        Chunk(FileChannel channel,
+              File file,
+              int format,
+              int n,
+              double[] coordinates,
+              long begin,
+              long end) {
+            this.channel = channel;
+            this.file = file;
+            this.format = format;
+            this.n = n;
+            this.coordinates = coordinates;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            // Start one byte early to see whether a line starts at 'begin',
+            // and map up to the end of the file to finish the last line.
+            long from = Math.max(0, begin - 1);
+            long length = Math.min(channel.size() - from,
+                                   (end - from) + MAX_CHUNK_LENGTH);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+            int stop = (int)(end - from);
+            position = 0;
+
+            if (begin > 0) {
+                skipLine();
+            }
+
+            while (position < stop) {
+                parseLine();
+            }
+
+            return this;
+        }
+
+        private void parseLine() throws IOException {
+            skipBlanks();
+
+            if (position == buffer.limit()) {
+                return;
+            }
+
+            byte first = buffer.get(position);
+
+            switch (format) {
+                case EDGE_LIST:
+                    if (first == '#' || first == '%' || isEndOfLine()) {
+                        break;
+                    }
+
+                    int u = readLabel();
+                    int v = readLabel();
+                    skipBlanks();
+                    double w = isEndOfLine() ? 1.0 : readDouble();
+                    maxLabel = Math.max(maxLabel, Math.max(u, v));
+                    add(u, v, w);
+                    break;
+
+                case DIMACS_GRAPH:
+                    if (first != 'a') {
+                        break;
+                    }
+
+                    ++position;
+                    int from = readNode();
+                    int to = readNode();
+                    add(from, to, readDouble());
+                    break;
+
+                case DIMACS_COORDINATES:
+                    if (first != 'v') {
+                        break;
+                    }
+
+                    ++position;
+                    int id = readNode();
+                    coordinates[2 * id] = readDouble();
+                    coordinates[2 * id + 1] = readDouble();
+                    break;
+            }
+
+            skipLine();
+        }
+
+        private void add(int u, int v, double w) {
+            if (size == sources.length) {
+                int capacity = size << 1;
+                int[] newSources = new int[capacity];
+                int[] newTargets = new int[capacity];
+                double[] newWeights = new double[capacity];
+                System.arraycopy(sources, 0, newSources, 0, size);
+                System.arraycopy(targets, 0, newTargets, 0, size);
+                System.arraycopy(weights, 0, newWeights, 0, size);
+                sources = newSources;
+                targets = newTargets;
+                weights = newWeights;
+            }
+
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = w;
+            ++size;
+        }
+
+        /**
+         * Reads a DIMACS node label and converts it to a node id.
+         */
+        private int readNode() throws IOException {
+            long label = readLong();
+
+            if (label < 1 || label > n) {
+                throw malformed();
+            }
+
+            return (int)(label - 1);
+        }
+
+        private int readLabel() throws IOException {
+            long label = readLong();
+
+            if (label < 0 || label >= Integer.MAX_VALUE) {
+                throw malformed();
+            }
+
+            return (int) label;
+        }
+
+        private long readLong() throws IOException {
+            skipBlanks();
+            boolean negative = false;
+
+            if (position < buffer.limit() && buffer.get(position) == '-') {
+                negative = true;
+                ++position;
+            }
+
+            int start = position;
+            long value = 0;
+
+            while (position < buffer.limit()) {
+                int digit = buffer.get(position) - '0';
+
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+
+                value = 10 * value + digit;
+                ++position;
+            }
+
+            if (position == start) {
+                throw malformed();
+            }
+
+            return negative ? -value : value;
+        }
+
+        /**
+         * Reads a decimal number. Plain numbers of at most 15 significant
+         * digits are converted exactly by hand; anything else is left to
+         * <code>Double.parseDouble</code>.
+         */
+        private double readDouble() throws IOException {
+            skipBlanks();
+            int start = position;
+            boolean negative = false;
+            long mantissa = 0;
+            int digits = 0;
+            int fraction = 0;
+            boolean dot = false;
+            boolean simple = true;
+
+            if (position < buffer.limit()
+                    && (buffer.get(position) == '-'
+                        || buffer.get(position) == '+')) {
+                negative = buffer.get(position) == '-';
+                ++position;
+            }
+
+            while (position < buffer.limit()) {
+                byte b = buffer.get(position);
+
+                if (b >= '0' && b <= '9') {
+                    mantissa = 10 * mantissa + (b - '0');
+
+                    if (mantissa != 0 && ++digits > 15) {
+                        simple = false;
+                    }
+
+                    if (dot) {
+                        ++fraction;
+                    }
+                } else if (b == '.' && dot == false) {
+                    dot = true;
+                } else if (b == 'e' || b == 'E' || b == '-' || b == '+') {
+                    simple = false;
+                } else {
+                    break;
+                }
+
+                ++position;
+            }
+
+            if (position == start) {
+                throw malformed();
+            }
+
+            if (simple && fraction <= 22) {
+                double value = mantissa / POWERS_OF_TEN[fraction];
+                return negative ? -value : value;
+            }
+
+            byte[] token = new byte[position - start];
+
+            for (int i = 0; i < token.length; ++i) {
+                token[i] = buffer.get(start + i);
+            }
+
+            try {
+                return Double.parseDouble(new String(token, "US-ASCII"));
+            } catch (NumberFormatException e) {
+                throw malformed();
+            }
+        }
+
+        private void skipBlanks() {
+            while (position < buffer.limit()) {
+                byte b = buffer.get(position);
+
+                if (b != ' ' && b != '\t') {
+                    return;
+                }
+
+                ++position;
+            }
+        }
+
+        private boolean isEndOfLine() {
+            if (position == buffer.limit()) {
+                return true;
+            }
+
+            byte b = buffer.get(position);
+            return b == '\n' || b == '\r';
+        }
+
+        /**
+         * Moves past the next line feed.
+         */
+        private void skipLine() {
+            while (position < buffer.limit()) {
+                if (buffer.get(position++) == '\n') {
+                    return;
+                }
+            }
+        }
+
+        private IOException malformed() {
+            return new IOException("Malformed line near byte "
+                    + (Math.max(0, begin - 1) + position) + " of "
+                    + file + ".");
+        }
+    }
+}
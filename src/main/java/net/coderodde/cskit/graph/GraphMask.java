@@ -0,0 +1,95 @@
+package net.coderodde.cskit.graph;
+
+import java.util.Arrays;
+
+/**
+ * This class hides nodes and arcs of a {@link CompactDirectedGraph} from a
+ * search without modifying the graph, so that a snapshot shared by several
+ * threads can be searched with different parts removed on each. Like
+ * {@link CompactSearchState}, it marks the blocked nodes and arcs with the
+ * current epoch, so {@link #clear()} unblocks everything by an increment.
+ * A mask is used by one thread at a time.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class GraphMask {
+
+    private final int[] nodes;
+    private final int[] arcs;
+    private int epoch;
+
+    /**
+     * Constructs a mask for graphs of at most <code>nodeCapacity</code>
+     * nodes and <code>arcCapacity</code> arcs.
+     *
+     * @param nodeCapacity the greatest amount of nodes.
+     * @param arcCapacity the greatest amount of arcs.
+     */
+    public GraphMask(int nodeCapacity, int arcCapacity) {
+        this.nodes = new int[nodeCapacity];
+        this.arcs = new int[arcCapacity];
+        this.epoch = 1;
+    }
+
+    /**
+     * Returns a cleared mask for <code>graph</code>: <code>mask</code> if it
+     * is large enough, or a new one.
+     *
+     * @param mask the mask to reuse, or <code>null</code>.
+     * @param graph the graph to mask.
+     * @return a cleared mask large enough for <code>graph</code>.
+     */
+    public static GraphMask reuse(GraphMask mask, CompactDirectedGraph graph) {
+        if (mask == null
+                || mask.nodes.length < graph.size()
+                || mask.arcs.length < graph.arcCount()) {
+            return new GraphMask(graph.size(), graph.arcCount());
+        }
+
+        mask.clear();
+        return mask;
+    }
+
+    /**
+     * Unblocks all nodes and arcs.
+     */
+    public void clear() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(nodes, 0);
+            Arrays.fill(arcs, 0);
+            epoch = 1;
+        }
+    }
+
+    public void blockNode(int u) {
+        nodes[u] = epoch;
+    }
+
+    public void blockArc(int arc) {
+        arcs[arc] = epoch;
+    }
+
+    /**
+     * Blocks all arcs from <code>from</code> to <code>to</code>.
+     *
+     * @param graph the masked graph.
+     * @param from the id of the tail node.
+     * @param to the id of the head node.
+     */
+    public void blockArcs(CompactDirectedGraph graph, int from, int to) {
+        for (int a = graph.outBegin(from); a < graph.outEnd(from); ++a) {
+            if (graph.getTarget(a) == to) {
+                arcs[a] = epoch;
+            }
+        }
+    }
+
+    public boolean isNodeBlocked(int u) {
+        return nodes[u] == epoch;
+    }
+
+    public boolean isArcBlocked(int arc) {
+        return arcs[arc] == epoch;
+    }
+}
@@ -0,0 +1,173 @@
+package net.coderodde.cskit.graph;
+
+import java.util.List;
+
+/**
+ * This class implements one immutable version of a
+ * {@link VersionedDirectedGraph}. A version shares the topology of its base
+ * snapshot with all other versions and keeps the arc weights in chunks of
+ * {@value #CHUNK_SIZE} arcs; versions differing in a few weights share every
+ * chunk but the changed ones.
+ * <p>
+ * Being a {@link CompactDirectedGraph}, a version may be handed to any
+ * snapshot finder. Nothing in it ever changes, so any amount of threads may
+ * search it at once without locking.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public final class GraphVersion extends CompactDirectedGraph {
+
+    static final int CHUNK_SHIFT = 10;
+
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final CompactDirectedGraph base;
+    private final double[][] chunks;
+    private final long number;
+
+    GraphVersion(CompactDirectedGraph base, double[][] chunks, long number) {
+        this.base = base;
+        this.chunks = chunks;
+        this.number = number;
+    }
+
+    /**
+     * Returns the number of this version; the first version is 0 and each
+     * published version gets the next number.
+     *
+     * @return the version number.
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns a weight function reading the weights of this version. Together
+     * with the nodes of the base snapshot, it lets the object finders search
+     * this version.
+     *
+     * @return a read-only weight function.
+     */
+    public DirectedGraphWeightFunction asWeightFunction() {
+        return new DirectedGraphWeightFunction() {
+
+            @Override
+            public void put(DirectedGraphNode from,
+                            DirectedGraphNode to,
+                            double weight) {
+                throw new UnsupportedOperationException(
+                        "A graph version is immutable.");
+            }
+
+            @Override
+            public double get(DirectedGraphNode from, DirectedGraphNode to) {
+                int u = getId(from);
+                int v = getId(to);
+
+                if (u == NO_NODE || v == NO_NODE) {
+                    return 0.0;
+                }
+
+                int arc = findArc(u, v);
+                return arc < 0 ? 0.0 : getWeight(arc);
+            }
+
+            @Override
+            public void clear() {
+                throw new UnsupportedOperationException(
+                        "A graph version is immutable.");
+            }
+        };
+    }
+
+    double[][] getChunks() {
+        return chunks;
+    }
+
+    CompactDirectedGraph getBase() {
+        return base;
+    }
+
+    @Override
+    public double getWeight(int arc) {
+        return chunks[arc >>> CHUNK_SHIFT][arc & CHUNK_MASK];
+    }
+
+    @Override
+    public double getInWeight(int index) {
+        return getWeight(base.getInArc(index));
+    }
+
+    @Override
+    public int size() {
+        return base.size();
+    }
+
+    @Override
+    public int arcCount() {
+        return base.arcCount();
+    }
+
+    @Override
+    public int getId(DirectedGraphNode node) {
+        return base.getId(node);
+    }
+
+    @Override
+    public DirectedGraphNode getNode(int id) {
+        return base.getNode(id);
+    }
+
+    @Override
+    public int outBegin(int u) {
+        return base.outBegin(u);
+    }
+
+    @Override
+    public int outEnd(int u) {
+        return base.outEnd(u);
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return base.outDegree(u);
+    }
+
+    @Override
+    public int getTarget(int arc) {
+        return base.getTarget(arc);
+    }
+
+    @Override
+    public int inBegin(int u) {
+        return base.inBegin(u);
+    }
+
+    @Override
+    public int inEnd(int u) {
+        return base.inEnd(u);
+    }
+
+    @Override
+    public int inDegree(int u) {
+        return base.inDegree(u);
+    }
+
+    @Override
+    public int getSource(int index) {
+        return base.getSource(index);
+    }
+
+    @Override
+    public int getInArc(int index) {
+        return base.getInArc(index);
+    }
+
+    @Override
+    public List<DirectedGraphNode> toNodeList(int[] path) {
+        return base.toNodeList(path);
+    }
+}
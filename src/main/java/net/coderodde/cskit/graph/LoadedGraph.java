@@ -0,0 +1,194 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.cskit.Utilities.Triple;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+
+/**
+ * This class holds a graph read by {@link GraphLoader} as flat arc arrays,
+ * together with the statistics of the load. The graph may be turned into a
+ * {@link CompactDirectedGraph} snapshot or into an object graph of
+ * {@link DirectedGraphNode}s.
+ * <p>
+ * The node with id <code>u</code> carries the label <code>u +
+ * getFirstLabel()</code>, which is its name in both representations.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class LoadedGraph {
+
+    private final int n;
+    private final int m;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] weights;
+    private final double[] coordinates;
+    private final int firstLabel;
+    private final long bytes;
+    private final long nanos;
+
+    LoadedGraph(int n,
+                int m,
+                int[] sources,
+                int[] targets,
+                double[] weights,
+                double[] coordinates,
+                int firstLabel,
+                long bytes,
+                long nanos) {
+        this.n = n;
+        this.m = m;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.coordinates = coordinates;
+        this.firstLabel = firstLabel;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int arcCount() {
+        return m;
+    }
+
+    public int getSource(int arc) {
+        return sources[arc];
+    }
+
+    public int getTarget(int arc) {
+        return targets[arc];
+    }
+
+    public double getWeight(int arc) {
+        return weights[arc];
+    }
+
+    /**
+     * Returns the label of the node with id 0: 1 for DIMACS files, 0 for
+     * edge lists.
+     *
+     * @return the first label.
+     */
+    public int getFirstLabel() {
+        return firstLabel;
+    }
+
+    public boolean hasCoordinates() {
+        return coordinates != null;
+    }
+
+    /**
+     * Returns the <code>x</code>, <code>y</code> coordinates of the node
+     * <code>id</code>, or <code>null</code> if no coordinates were loaded.
+     *
+     * @param id the node id.
+     * @return a new coordinate vector.
+     */
+    public double[] getCoordinates(int id) {
+        if (coordinates == null) {
+            return null;
+        }
+
+        return new double[]{ coordinates[2 * id], coordinates[2 * id + 1] };
+    }
+
+    /**
+     * Returns the amount of bytes read.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the wall-clock time of the load in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return nanos / 1000000L;
+    }
+
+    /**
+     * Returns the load throughput in megabytes per second.
+     */
+    public double getMegabytesPerSecond() {
+        return nanos == 0 ? 0.0 : (bytes / 1048576.0) / (nanos / 1e9);
+    }
+
+    /**
+     * Returns the load throughput in arcs per second.
+     */
+    public double getArcsPerSecond() {
+        return nanos == 0 ? 0.0 : m / (nanos / 1e9);
+    }
+
+    /**
+     * Builds a CSR snapshot of this graph. The nodes of the snapshot are
+     * created only when asked for.
+     *
+     * @return the snapshot.
+     */
+    public CompactDirectedGraph toCompactGraph() {
+        return new CompactDirectedGraph(n,
+                                        m,
+                                        sources,
+                                        targets,
+                                        weights,
+                                        firstLabel);
+    }
+
+    /**
+     * Builds an object graph of this graph. Each arc is added with its weight
+     * embedded, and the weights are also put in the returned weight
+     * function. Parallel arcs collapse into one carrying the last weight.
+     *
+     * @return the list of nodes, the weight function and the coordinates,
+     * the last being <code>null</code> if no coordinates were loaded.
+     */
+    public Triple<List<DirectedGraphNode>,
+                  DirectedGraphWeightFunction,
+                  CoordinateMap> toNodeGraph() {
+        List<DirectedGraphNode> graph = new ArrayList<DirectedGraphNode>(n);
+        PackedDirectedGraphWeightFunction w =
+                new PackedDirectedGraphWeightFunction(m);
+        CoordinateMap map = coordinates == null ? null
+                                                : new CoordinateMap(2, n);
+
+        for (int u = 0; u < n; ++u) {
+            DirectedGraphNode node =
+                    new DirectedGraphNode(Long.toString((long) u + firstLabel));
+            graph.add(node);
+
+            if (map != null) {
+                map.put(node, getCoordinates(u));
+            }
+        }
+
+        for (int a = 0; a < m; ++a) {
+            DirectedGraphNode from = graph.get(sources[a]);
+            DirectedGraphNode to = graph.get(targets[a]);
+            from.addChild(to, weights[a]);
+            w.put(from, to, weights[a]);
+        }
+
+        return new Triple<List<DirectedGraphNode>,
+                          DirectedGraphWeightFunction,
+                          CoordinateMap>(graph, w, map);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d arcs, %d bytes in %d ms: "
+                             + "%.1f MB/s, %.0f arcs/s",
+                             n,
+                             m,
+                             bytes,
+                             getElapsedMillis(),
+                             getMegabytesPerSecond(),
+                             getArcsPerSecond());
+    }
+}
@@ -0,0 +1,620 @@
+package net.coderodde.cskit.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+
+/**
+ * This class implements a {@link CompactDirectedGraph} whose CSR arrays live
+ * in a memory-mapped file instead of the heap. Opening a graph maps the file
+ * and makes one pass over the node names to index them, and the operating
+ * system pages in just the parts a search touches.
+ * <p>
+ * The file is little-endian and starts with a header of
+ * {@value #HEADER_SIZE} bytes:
+ * <pre>
+ *  0: int  magic "CSKG"
+ *  4: int  format version
+ *  8: int  amount of nodes n
+ * 12: int  amount of arcs m
+ * 16: int  amount of coordinate dimensions d (0 for none)
+ * 20: int  reserved
+ * 24: long amount of bytes in the name section
+ * </pre>
+ * followed by the sections <code>outOffsets[n + 1]</code>,
+ * <code>outTargets[m]</code>, <code>outWeights[m]</code>,
+ * <code>inOffsets[n + 1]</code>, <code>inSources[m]</code>,
+ * <code>inWeights[m]</code>, <code>inArcs[m]</code>,
+ * <code>coordinates[n * d]</code>, <code>nameOffsets[n + 1]</code> and the
+ * UTF-8 bytes of the node names, each section starting at a multiple of 8
+ * bytes. No section may exceed <code>Integer.MAX_VALUE</code> bytes.
+ * <p>
+ * The nodes of a mapped graph are materialized on demand by
+ * {@link #getNode(int)}: each is a fresh <code>DirectedGraphNode</code> with
+ * the stored name and no arcs, returned for every later call with the same
+ * id. {@link #getId(DirectedGraphNode)} hashes the name into an index of the
+ * ids built when the file is mapped. Neither takes a lock. Coordinates are
+ * served by {@link #getCoordinateMap()}, so the heuristic finders work on a
+ * mapped graph as they do on the heap one.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class MappedDirectedGraph extends CompactDirectedGraph {
+
+    /**
+     * The magic number "CSKG" opening every graph file.
+     */
+    public static final int MAGIC = 0x43534B47;
+
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 64;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final int n;
+    private final int m;
+    private final int dimensions;
+
+    private final IntBuffer outOffsets;
+    private final IntBuffer outTargets;
+    private final DoubleBuffer outWeights;
+
+    private final IntBuffer inOffsets;
+    private final IntBuffer inSources;
+    private final DoubleBuffer inWeights;
+    private final IntBuffer inArcs;
+
+    private final DoubleBuffer coordinates;
+
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer names;
+
+    /**
+     * The nodes materialized so far, by id.
+     */
+    private final AtomicReferenceArray<DirectedGraphNode> nodes;
+
+    /**
+     * The open-addressing table of the ids hashed by name, -1 marking a
+     * free slot. Of the nodes sharing a name, the one with the least id is
+     * indexed.
+     */
+    private final int[] nameIndex;
+
+    /**
+     * Maps the graph stored in <code>file</code>.
+     *
+     * @param file the graph file.
+     * @throws IOException if the file cannot be read or is not a graph file.
+     */
+    public MappedDirectedGraph(File file) throws IOException {
+        checkNotNull(file, "'file' is null.");
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = raf.getChannel();
+
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a graph file: " + file);
+            }
+
+            ByteBuffer header = map(channel, READ_ONLY, 0, HEADER_SIZE);
+
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a graph file: " + file);
+            }
+
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported graph file version "
+                        + header.getInt(4) + ": " + file);
+            }
+
+            this.n = header.getInt(8);
+            this.m = header.getInt(12);
+            this.dimensions = header.getInt(16);
+            long nameBytes = header.getLong(24);
+
+            if (n < 0 || m < 0 || dimensions < 0 || nameBytes < 0
+                    || channel.size() < fileSize(n, m, dimensions, nameBytes)) {
+                throw new IOException("Corrupted graph file: " + file);
+            }
+
+            long offset = HEADER_SIZE;
+            this.outOffsets = map(channel, READ_ONLY, offset, 4L * (n + 1))
+                              .asIntBuffer();
+            offset = align(offset + 4L * (n + 1));
+            this.outTargets = map(channel, READ_ONLY, offset, 4L * m)
+                              .asIntBuffer();
+            offset = align(offset + 4L * m);
+            this.outWeights = map(channel, READ_ONLY, offset, 8L * m)
+                              .asDoubleBuffer();
+            offset = align(offset + 8L * m);
+            this.inOffsets = map(channel, READ_ONLY, offset, 4L * (n + 1))
+                             .asIntBuffer();
+            offset = align(offset + 4L * (n + 1));
+            this.inSources = map(channel, READ_ONLY, offset, 4L * m)
+                             .asIntBuffer();
+            offset = align(offset + 4L * m);
+            this.inWeights = map(channel, READ_ONLY, offset, 8L * m)
+                             .asDoubleBuffer();
+            offset = align(offset + 8L * m);
+            this.inArcs = map(channel, READ_ONLY, offset, 4L * m)
+                          .asIntBuffer();
+            offset = align(offset + 4L * m);
+            this.coordinates = map(channel,
+                                   READ_ONLY,
+                                   offset,
+                                   8L * n * dimensions).asDoubleBuffer();
+            offset = align(offset + 8L * n * dimensions);
+            this.nameOffsets = map(channel, READ_ONLY, offset, 4L * (n + 1))
+                               .asIntBuffer();
+            offset = align(offset + 4L * (n + 1));
+            this.names = map(channel, READ_ONLY, offset, nameBytes);
+        } finally {
+            // The mappings stay valid after the channel is closed.
+            raf.close();
+        }
+
+        this.nodes = new AtomicReferenceArray<DirectedGraphNode>(n);
+        this.nameIndex = indexNames();
+    }
+
+    /**
+     * Writes <code>graph</code> to <code>file</code> in the format read by
+     * this class. If <code>coordinates</code> is not <code>null</code>, every
+     * node of <code>graph</code> must have a location vector in it.
+     *
+     * @param graph the graph to write.
+     * @param coordinates the coordinates of the nodes, or <code>null</code>.
+     * @param file the file to write to; truncated if it exists.
+     * @throws IOException if writing fails.
+     */
+    public static void write(CompactDirectedGraph graph,
+                             CoordinateMap coordinates,
+                             File file) throws IOException {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(file, "'file' is null.");
+
+        final int n = graph.size();
+        final int m = graph.arcCount();
+        int dimensions = 0;
+        byte[][] nameArray = new byte[n][];
+        long nameBytes = 0;
+
+        for (int u = 0; u < n; ++u) {
+            nameArray[u] = graph.getNode(u).getName().getBytes(UTF8);
+            nameBytes += nameArray[u].length;
+
+            if (coordinates != null) {
+                double[] p = coordinates.get(graph.getNode(u));
+
+                if (p == null) {
+                    throw new IllegalArgumentException(
+                            "No coordinates for " + graph.getNode(u) + ".");
+                }
+
+                dimensions = p.length;
+            }
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+
+        try {
+            raf.setLength(0);
+            raf.setLength(fileSize(n, m, dimensions, nameBytes));
+            FileChannel channel = raf.getChannel();
+
+            ByteBuffer header = map(channel, READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, n);
+            header.putInt(12, m);
+            header.putInt(16, dimensions);
+            header.putLong(24, nameBytes);
+
+            long offset = HEADER_SIZE;
+            IntBuffer ints = map(channel, READ_WRITE, offset, 4L * (n + 1))
+                             .asIntBuffer();
+
+            for (int u = 0; u <= n; ++u) {
+                ints.put(u == n ? m : graph.outBegin(u));
+            }
+
+            offset = align(offset + 4L * (n + 1));
+            ints = map(channel, READ_WRITE, offset, 4L * m).asIntBuffer();
+
+            for (int a = 0; a < m; ++a) {
+                ints.put(graph.getTarget(a));
+            }
+
+            offset = align(offset + 4L * m);
+            DoubleBuffer doubles = map(channel, READ_WRITE, offset, 8L * m)
+                                   .asDoubleBuffer();
+
+            for (int a = 0; a < m; ++a) {
+                doubles.put(graph.getWeight(a));
+            }
+
+            offset = align(offset + 8L * m);
+            ints = map(channel, READ_WRITE, offset, 4L * (n + 1)).asIntBuffer();
+
+            for (int u = 0; u <= n; ++u) {
+                ints.put(u == n ? m : graph.inBegin(u));
+            }
+
+            offset = align(offset + 4L * (n + 1));
+            ints = map(channel, READ_WRITE, offset, 4L * m).asIntBuffer();
+
+            for (int i = 0; i < m; ++i) {
+                ints.put(graph.getSource(i));
+            }
+
+            offset = align(offset + 4L * m);
+            doubles = map(channel, READ_WRITE, offset, 8L * m).asDoubleBuffer();
+
+            for (int i = 0; i < m; ++i) {
+                doubles.put(graph.getInWeight(i));
+            }
+
+            offset = align(offset + 8L * m);
+            ints = map(channel, READ_WRITE, offset, 4L * m).asIntBuffer();
+
+            for (int i = 0; i < m; ++i) {
+                ints.put(graph.getInArc(i));
+            }
+
+            offset = align(offset + 4L * m);
+            doubles = map(channel, READ_WRITE, offset, 8L * n * dimensions)
+                      .asDoubleBuffer();
+
+            for (int u = 0; u < n && dimensions > 0; ++u) {
+                doubles.put(coordinates.get(graph.getNode(u)));
+            }
+
+            offset = align(offset + 8L * n * dimensions);
+            ints = map(channel, READ_WRITE, offset, 4L * (n + 1)).asIntBuffer();
+            int position = 0;
+
+            for (int u = 0; u < n; ++u) {
+                ints.put(position);
+                position += nameArray[u].length;
+            }
+
+            ints.put(position);
+            offset = align(offset + 4L * (n + 1));
+            ByteBuffer bytes = map(channel, READ_WRITE, offset, nameBytes);
+
+            for (int u = 0; u < n; ++u) {
+                bytes.put(nameArray[u]);
+            }
+
+            channel.force(false);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int arcCount() {
+        return m;
+    }
+
+    /**
+     * Returns the id of <code>node</code>, or {@link #NO_NODE} if the node is
+     * not in this graph. The node is looked up by name.
+     *
+     * @param node the node to query.
+     * @return the id of the node.
+     */
+    @Override
+    public int getId(DirectedGraphNode node) {
+        byte[] name = node.getName().getBytes(UTF8);
+        int mask = nameIndex.length - 1;
+
+        for (int slot = hash(name) & mask;; slot = (slot + 1) & mask) {
+            int u = nameIndex[slot];
+
+            if (u < 0) {
+                return NO_NODE;
+            }
+
+            if (nameEquals(u, name)) {
+                return u;
+            }
+        }
+    }
+
+    @Override
+    public DirectedGraphNode getNode(int id) {
+        DirectedGraphNode node = nodes.get(id);
+
+        if (node == null) {
+            node = new DirectedGraphNode(getName(id));
+
+            // Of two threads materializing the same node, both get the
+            // node of the first.
+            if (nodes.compareAndSet(id, null, node) == false) {
+                node = nodes.get(id);
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Returns the stored name of the node <code>id</code> without
+     * materializing the node.
+     *
+     * @param id the node id.
+     * @return the name of the node.
+     */
+    public String getName(int id) {
+        int begin = nameOffsets.get(id);
+        byte[] bytes = new byte[nameOffsets.get(id + 1) - begin];
+        ByteBuffer view = names.duplicate();
+        view.position(begin);
+        view.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    @Override
+    public int outBegin(int u) {
+        return outOffsets.get(u);
+    }
+
+    @Override
+    public int outEnd(int u) {
+        return outOffsets.get(u + 1);
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return outOffsets.get(u + 1) - outOffsets.get(u);
+    }
+
+    @Override
+    public int getTarget(int arc) {
+        return outTargets.get(arc);
+    }
+
+    @Override
+    public double getWeight(int arc) {
+        return outWeights.get(arc);
+    }
+
+    @Override
+    public int inBegin(int u) {
+        return inOffsets.get(u);
+    }
+
+    @Override
+    public int inEnd(int u) {
+        return inOffsets.get(u + 1);
+    }
+
+    @Override
+    public int inDegree(int u) {
+        return inOffsets.get(u + 1) - inOffsets.get(u);
+    }
+
+    @Override
+    public int getSource(int index) {
+        return inSources.get(index);
+    }
+
+    @Override
+    public double getInWeight(int index) {
+        return inWeights.get(index);
+    }
+
+    @Override
+    public int getInArc(int index) {
+        return inArcs.get(index);
+    }
+
+    /**
+     * Returns the amount of coordinate dimensions, or 0 if the file stores
+     * no coordinates.
+     *
+     * @return the amount of dimensions.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Copies the location vector of the node <code>id</code> to
+     * <code>vector</code>.
+     *
+     * @param id the node id.
+     * @param vector the array of at least {@link #getDimensions()} components
+     * to fill.
+     * @return <code>vector</code>.
+     */
+    public double[] getCoordinates(int id, double[] vector) {
+        final int base = id * dimensions;
+
+        for (int i = 0; i < dimensions; ++i) {
+            vector[i] = coordinates.get(base + i);
+        }
+
+        return vector;
+    }
+
+    /**
+     * Returns a read-only coordinate map serving the stored coordinates of
+     * the nodes of this graph.
+     *
+     * @return the coordinate map.
+     * @throws IllegalStateException if the file stores no coordinates.
+     */
+    public CoordinateMap getCoordinateMap() {
+        if (dimensions == 0) {
+            throw new IllegalStateException("The graph has no coordinates.");
+        }
+
+        return new CoordinateMap(dimensions, 0) {
+
+            @Override
+            public void put(DirectedGraphNode node, double[] vector) {
+                throw new UnsupportedOperationException(
+                        "A mapped coordinate map is read-only.");
+            }
+
+            @Override
+            public double[] get(DirectedGraphNode node) {
+                int id = getId(node);
+                return id == NO_NODE ? null
+                                     : getCoordinates(id,
+                                                      new double[dimensions]);
+            }
+        };
+    }
+
+    /**
+     * Builds the name index, keeping the load factor at most one half.
+     */
+    private int[] indexNames() {
+        int capacity = 2;
+
+        while (capacity < 2 * n) {
+            capacity <<= 1;
+        }
+
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+
+        Arrays.fill(table, -1);
+
+        for (int u = 0; u < n; ++u) {
+            int begin = nameOffsets.get(u);
+            int end = nameOffsets.get(u + 1);
+            int h = 0;
+
+            for (int i = begin; i < end; ++i) {
+                h = 31 * h + names.get(i);
+            }
+
+            int slot = mix(h) & mask;
+
+            while (table[slot] >= 0 && sameName(table[slot], u) == false) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (table[slot] < 0) {
+                table[slot] = u;
+            }
+        }
+
+        return table;
+    }
+
+    private static int hash(byte[] name) {
+        int h = 0;
+
+        for (byte b : name) {
+            h = 31 * h + b;
+        }
+
+        return mix(h);
+    }
+
+    /**
+     * Spreads the bits of <code>h</code> over the low bits used as a slot.
+     */
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean sameName(int u, int v) {
+        int begin = nameOffsets.get(u);
+        int length = nameOffsets.get(u + 1) - begin;
+        int other = nameOffsets.get(v);
+
+        if (nameOffsets.get(v + 1) - other != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (names.get(begin + i) != names.get(other + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if the name of the node <code>u</code> is
+     * <code>name</code>.
+     */
+    private boolean nameEquals(int u, byte[] name) {
+        int begin = nameOffsets.get(u);
+
+        if (nameOffsets.get(u + 1) - begin != name.length) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length; ++i) {
+            if (names.get(begin + i) != name[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long fileSize(int n, int m, int dimensions, long nameBytes) {
+        long size = HEADER_SIZE;
+        size = align(size + 4L * (n + 1));
+        size = align(size + 4L * m);
+        size = align(size + 8L * m);
+        size = align(size + 4L * (n + 1));
+        size = align(size + 4L * m);
+        size = align(size + 8L * m);
+        size = align(size + 4L * m);
+        size = align(size + 8L * n * dimensions);
+        size = align(size + 4L * (n + 1));
+        return size + nameBytes;
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel,
+                                        FileChannel.MapMode mode,
+                                        long offset,
+                                        long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Section of " + length
+                    + " bytes exceeds the mapping limit.");
+        }
+
+        MappedByteBuffer buffer =
+                channel.map(mode, offset, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
@@ -0,0 +1,91 @@
+package net.coderodde.cskit.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.coderodde.cskit.ds.map.LongDoubleHashMap;
+
+/**
+ * This class maps the ids of node objects to canonical ids shared by all
+ * nodes of the same name, namely the id of the first node of that name
+ * seen. It lets the packed weight functions key their tables by id while
+ * keeping the name equality of the plain weight functions.
+ * <p>
+ * The ids already seen are resolved by a probe of a primitive table; only
+ * a node object not seen before is looked up by name.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+final class NodeAliases<N> {
+
+    /**
+     * Marks an absent alias.
+     */
+    static final int NO_ID = -1;
+
+    /**
+     * Maps the id of each node object seen to its canonical id.
+     */
+    private final LongDoubleHashMap aliases;
+
+    /**
+     * Maps each name, through any node carrying it, to its canonical id.
+     */
+    private final Map<N, Integer> names;
+
+    NodeAliases() {
+        this.aliases = new LongDoubleHashMap();
+        this.names = new HashMap<N, Integer>();
+    }
+
+    /**
+     * Returns the canonical id of <code>node</code>, making the id of the
+     * node canonical for its name if the name is new.
+     *
+     * @param node the node.
+     * @param id the id of the node.
+     * @return the canonical id.
+     */
+    int resolve(N node, int id) {
+        int alias = (int) aliases.get(id, NO_ID);
+
+        if (alias != NO_ID) {
+            return alias;
+        }
+
+        Integer canonical = names.get(node);
+
+        if (canonical == null) {
+            canonical = id;
+            names.put(node, canonical);
+        }
+
+        aliases.put(id, canonical);
+        return canonical;
+    }
+
+    /**
+     * Returns the canonical id of <code>node</code> without storing
+     * anything, so that concurrent readers are safe.
+     *
+     * @param node the node.
+     * @param id the id of the node.
+     * @return the canonical id, or {@link #NO_ID} if no node of the same
+     * name was resolved.
+     */
+    int find(N node, int id) {
+        int alias = (int) aliases.get(id, NO_ID);
+
+        if (alias != NO_ID) {
+            return alias;
+        }
+
+        Integer canonical = names.get(node);
+        return canonical == null ? NO_ID : canonical;
+    }
+
+    void clear() {
+        aliases.clear();
+        names.clear();
+    }
+}
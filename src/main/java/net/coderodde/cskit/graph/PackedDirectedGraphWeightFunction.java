@@ -0,0 +1,80 @@
+package net.coderodde.cskit.graph;
+
+import net.coderodde.cskit.ds.map.LongDoubleHashMap;
+
+/**
+ * This class implements a directed weight function storing every weight under
+ * the key <code>(from &lt;&lt; 32) | to</code> in a primitive
+ * open-addressing table, where <code>from</code> and <code>to</code> are the
+ * canonical ids of the two nodes. A lookup costs a few multiplicative hashes
+ * and usually a single probe each, with no boxing of the weight.
+ * <p>
+ * Like {@link DirectedGraphWeightFunction}, the weights are keyed by node
+ * name: the canonical id of a node is the id of the first node of the same
+ * name seen by this function, see {@link NodeAliases}, so a weight put for
+ * one node object is visible through another object carrying the same name.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class PackedDirectedGraphWeightFunction
+extends DirectedGraphWeightFunction {
+
+    private final LongDoubleHashMap map;
+    private final NodeAliases<DirectedGraphNode> aliases =
+            new NodeAliases<DirectedGraphNode>();
+
+    /**
+     * Constructs a weight function that can hold <code>expectedArcs</code>
+     * weights without growing.
+     *
+     * @param expectedArcs the expected amount of arcs.
+     */
+    public PackedDirectedGraphWeightFunction(int expectedArcs) {
+        this.map = new LongDoubleHashMap(expectedArcs);
+    }
+
+    public PackedDirectedGraphWeightFunction() {
+        this.map = new LongDoubleHashMap();
+    }
+
+    @Override
+    public void put(DirectedGraphNode from,
+                    DirectedGraphNode to,
+                    double weight) {
+        map.put(key(aliases.resolve(from, from.getId()),
+                    aliases.resolve(to, to.getId())),
+                weight);
+    }
+
+    @Override
+    public double get(DirectedGraphNode from, DirectedGraphNode to) {
+        int u = aliases.find(from, from.getId());
+        int v = aliases.find(to, to.getId());
+
+        if (u == NodeAliases.NO_ID || v == NodeAliases.NO_ID) {
+            return 0.0; // For the sake of residual graphs of max-flow problem.
+        }
+
+        return map.get(key(u, v), 0.0);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        aliases.clear();
+    }
+
+    /**
+     * Returns the amount of stored weights.
+     *
+     * @return the amount of stored weights.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    static long key(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+}
@@ -0,0 +1,116 @@
+package net.coderodde.cskit.graph;
+
+import java.util.Collection;
+import net.coderodde.cskit.ds.map.LongDoubleHashMap;
+
+/**
+ * This class implements an undirected weight function over a primitive
+ * open-addressing table. Each edge is stored once, under the key made of the
+ * smaller node id in the high half and the larger one in the low half, so
+ * <code>get(a, b)</code> and <code>get(b, a)</code> hit the very same slot.
+ * <p>
+ * Like {@link UndirectedGraphWeightFunction}, the weights are keyed by node
+ * name, through the canonical ids of {@link NodeAliases}.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class PackedUndirectedGraphWeightFunction
+extends UndirectedGraphWeightFunction {
+
+    private final LongDoubleHashMap map;
+    private final NodeAliases<UndirectedGraphNode> aliases =
+            new NodeAliases<UndirectedGraphNode>();
+
+    /**
+     * Constructs a weight function that can hold <code>expectedEdges</code>
+     * weights without growing.
+     *
+     * @param expectedEdges the expected amount of edges.
+     */
+    public PackedUndirectedGraphWeightFunction(int expectedEdges) {
+        this.map = new LongDoubleHashMap(expectedEdges);
+    }
+
+    public PackedUndirectedGraphWeightFunction() {
+        this.map = new LongDoubleHashMap();
+    }
+
+    /**
+     * Constructs a weight function holding, once per edge, the weights that
+     * <code>w</code> assigns to the edges incident to the nodes of
+     * <code>graph</code>.
+     *
+     * @param graph the nodes whose edges to copy.
+     * @param w the weight function to copy from.
+     */
+    public PackedUndirectedGraphWeightFunction(
+            Collection<UndirectedGraphNode> graph,
+            UndirectedGraphWeightFunction w) {
+        int degreeSum = 0;
+
+        for (UndirectedGraphNode u : graph) {
+            for (UndirectedGraphNode v : u) {
+                ++degreeSum;
+            }
+        }
+
+        this.map = new LongDoubleHashMap(degreeSum / 2);
+
+        for (UndirectedGraphNode u : graph) {
+            for (UndirectedGraphNode v : u) {
+                put(u, v, w.get(u, v));
+            }
+        }
+    }
+
+    @Override
+    public void put(UndirectedGraphNode a,
+                    UndirectedGraphNode b,
+                    double weight) {
+        map.put(key(aliases.resolve(a, a.getId()),
+                    aliases.resolve(b, b.getId())),
+                weight);
+    }
+
+    @Override
+    public double get(UndirectedGraphNode a, UndirectedGraphNode b) {
+        int ida = aliases.find(a, a.getId());
+        int idb = aliases.find(b, b.getId());
+
+        if (ida == NodeAliases.NO_ID || idb == NodeAliases.NO_ID) {
+            return 0.0;
+        }
+
+        return map.get(key(ida, idb), 0.0);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        aliases.clear();
+    }
+
+    /**
+     * Returns the amount of stored edges.
+     *
+     * @return the amount of stored edges.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns the amount of bytes occupied by the weight table.
+     *
+     * @return the table footprint in bytes.
+     */
+    public long getTableBytes() {
+        return map.getTableBytes();
+    }
+
+    static long key(int ida, int idb) {
+        return ida < idb ? ((long) ida << 32) | idb
+                         : ((long) idb << 32) | ida;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import static net.coderodde.cskit.Utilities.checkNotNull;
 
 /**
@@ -20,6 +21,16 @@ implements Iterable<UndirectedGraphNode> {
 
     private final String name;
 
+    /**
+     * Hands out the ids of new nodes.
+     */
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+
+    /**
+     * The unique, non-negative id of this node.
+     */
+    private final int id = nextId();
+
     public UndirectedGraphNode(String name) {
         checkNotNull(name, "Undirected nodes must have a name.");
         this.name = name;
@@ -29,6 +40,33 @@ implements Iterable<UndirectedGraphNode> {
         return name;
     }
 
+    /**
+     * Returns the id of this node. Ids are assigned in order of construction.
+     *
+     * @return the id of this node.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Hands out the next id, failing instead of wrapping around once all
+     * non-negative ids are taken, so that no two nodes share an id.
+     */
+    private static int nextId() {
+        for (;;) {
+            int id = ID_COUNTER.get();
+
+            if (id == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Out of node ids.");
+            }
+
+            if (ID_COUNTER.compareAndSet(id, id + 1)) {
+                return id;
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         return ((UndirectedGraphNode) o).getName().equals(this.getName());
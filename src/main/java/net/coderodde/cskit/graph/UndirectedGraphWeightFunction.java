@@ -12,12 +12,21 @@ import java.util.Map;
  * @author Rodion Efremov
  */
 public class UndirectedGraphWeightFunction {
-    private Map<UndirectedGraphNode, Map<UndirectedGraphNode, Double>> map =
-    new HashMap<UndirectedGraphNode, Map<UndirectedGraphNode, Double>>();
+
+    /**
+     * Created on the first put, so that the subclasses storing their weights
+     * elsewhere allocate none.
+     */
+    private Map<UndirectedGraphNode, Map<UndirectedGraphNode, Double>> map;
 
     public void put(UndirectedGraphNode a,
                     UndirectedGraphNode b,
                     double weight) {
+        if (map == null) {
+            map = new HashMap<UndirectedGraphNode,
+                              Map<UndirectedGraphNode, Double>>();
+        }
+
         if (map.get(a) == null) {
             map.put(a, new HashMap<UndirectedGraphNode, Double>());
         }
@@ -32,7 +41,7 @@ public class UndirectedGraphWeightFunction {
     }
 
     public double get(UndirectedGraphNode a, UndirectedGraphNode b) {
-        if (map.get(a) == null || map.get(a).get(b) == null) {
+        if (map == null || map.get(a) == null || map.get(a).get(b) == null) {
             return 0.0;
         }
 
@@ -40,6 +49,8 @@ public class UndirectedGraphWeightFunction {
     }
 
     public void clear() {
-        map.clear();
+        if (map != null) {
+            map.clear();
+        }
     }
 }
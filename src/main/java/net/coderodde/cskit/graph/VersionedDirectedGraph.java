@@ -0,0 +1,199 @@
+package net.coderodde.cskit.graph;
+
+import java.util.List;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+
+/**
+ * This class implements a directed graph of fixed topology whose arc weights
+ * change over time, published as a sequence of immutable
+ * {@link GraphVersion}s.
+ * <p>
+ * A reader pins a version by calling {@link #current()} once and searches
+ * it for as long as it likes; a writer collects weight changes in an
+ * {@link Update} and publishes them with {@link Update#commit()}. A new
+ * version copies only the weight chunks containing changed arcs plus the
+ * table of chunk references, and shares everything else with its
+ * predecessor. Reading the current version is a single volatile read; the
+ * hot path of a search takes no locks at all.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class VersionedDirectedGraph {
+
+    private volatile GraphVersion current;
+
+    /**
+     * Constructs a versioned graph over the topology and the initial weights
+     * of <code>base</code>.
+     *
+     * @param base the snapshot providing the topology and the weights of
+     * version 0.
+     */
+    public VersionedDirectedGraph(CompactDirectedGraph base) {
+        checkNotNull(base, "'base' is null.");
+        final int m = base.arcCount();
+        double[][] chunks =
+                new double[(m + GraphVersion.CHUNK_MASK)
+                           >>> GraphVersion.CHUNK_SHIFT][];
+
+        for (int c = 0; c < chunks.length; ++c) {
+            int begin = c << GraphVersion.CHUNK_SHIFT;
+            chunks[c] = new double[Math.min(GraphVersion.CHUNK_SIZE,
+                                            m - begin)];
+
+            for (int i = 0; i < chunks[c].length; ++i) {
+                chunks[c][i] = base.getWeight(begin + i);
+            }
+        }
+
+        this.current = new GraphVersion(base, chunks, 0L);
+    }
+
+    public VersionedDirectedGraph(List<DirectedGraphNode> graph,
+                                  DirectedGraphWeightFunction w) {
+        this(new CompactDirectedGraph(graph, w));
+    }
+
+    /**
+     * Returns the latest published version.
+     *
+     * @return the current version.
+     */
+    public GraphVersion current() {
+        return current;
+    }
+
+    /**
+     * Starts a batch of weight changes against the latest version.
+     *
+     * @return a new update.
+     */
+    public Update beginUpdate() {
+        return new Update();
+    }
+
+    /**
+     * Publishes a version differing from the current one in the weight of
+     * the arc <code>(from, to)</code> only.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @param weight the new weight.
+     * @return the published version.
+     */
+    public GraphVersion setWeight(DirectedGraphNode from,
+                                  DirectedGraphNode to,
+                                  double weight) {
+        return beginUpdate().setWeight(from, to, weight).commit();
+    }
+
+    /**
+     * This class collects weight changes to publish as one version. Changes
+     * made by concurrent updates are merged in commit order; for an arc set
+     * by several updates, the last commit wins.
+     */
+    public final class Update {
+
+        private final CompactDirectedGraph base = current.getBase();
+        private int[] arcs = new int[8];
+        private double[] weights = new double[8];
+        private int size;
+        private boolean committed;
+
+        /**
+         * Sets the weight of the arc <code>arc</code>.
+         *
+         * @param arc the arc id.
+         * @param weight the new weight.
+         * @return this update.
+         */
+        public Update setWeight(int arc, double weight) {
+            if (committed) {
+                throw new IllegalStateException("Already committed.");
+            }
+
+            if (arc < 0 || arc >= base.arcCount()) {
+                throw new IndexOutOfBoundsException("No arc " + arc + ".");
+            }
+
+            if (size == arcs.length) {
+                int[] newArcs = new int[size << 1];
+                double[] newWeights = new double[size << 1];
+                System.arraycopy(arcs, 0, newArcs, 0, size);
+                System.arraycopy(weights, 0, newWeights, 0, size);
+                arcs = newArcs;
+                weights = newWeights;
+            }
+
+            arcs[size] = arc;
+            weights[size] = weight;
+            ++size;
+            return this;
+        }
+
+        /**
+         * Sets the weight of the arc <code>(from, to)</code>.
+         *
+         * @param from the tail node.
+         * @param to the head node.
+         * @param weight the new weight.
+         * @return this update.
+         * @throws IllegalArgumentException if there is no such arc.
+         */
+        public Update setWeight(DirectedGraphNode from,
+                                DirectedGraphNode to,
+                                double weight) {
+            int u = base.getId(from);
+            int v = base.getId(to);
+            int arc = u == CompactDirectedGraph.NO_NODE
+                   || v == CompactDirectedGraph.NO_NODE ? -1
+                                                        : base.findArc(u, v);
+
+            if (arc < 0) {
+                throw new IllegalArgumentException(
+                        "No arc from " + from + " to " + to + ".");
+            }
+
+            return setWeight(arc, weight);
+        }
+
+        /**
+         * Publishes the changes as a new version.
+         *
+         * @return the published version.
+         */
+        public GraphVersion commit() {
+            if (committed) {
+                throw new IllegalStateException("Already committed.");
+            }
+
+            committed = true;
+
+            synchronized (VersionedDirectedGraph.this) {
+                GraphVersion previous = current;
+                // Chunks shared with the previous version are copied on
+                // first write.
+                double[][] chunks = previous.getChunks().clone();
+                boolean[] copied = new boolean[chunks.length];
+
+                for (int i = 0; i < size; ++i) {
+                    int c = arcs[i] >>> GraphVersion.CHUNK_SHIFT;
+
+                    if (copied[c] == false) {
+                        chunks[c] = chunks[c].clone();
+                        copied[c] = true;
+                    }
+
+                    chunks[c][arcs[i] & GraphVersion.CHUNK_MASK] = weights[i];
+                }
+
+                GraphVersion next = new GraphVersion(base,
+                                                     chunks,
+                                                     previous.getNumber() + 1);
+                current = next;
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package net.coderodde.cskit.graph;
+
+import java.util.Arrays;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+
+/**
+ * This class implements an invertible renumbering of the nodes of a
+ * {@link CompactDirectedGraph}. Searches spend most of their time on cache
+ * misses when the ids of adjacent nodes lie far apart; renumbering the nodes
+ * so that neighbors get close ids before {@link #apply(CompactDirectedGraph)
+ * rebuilding} the snapshot keeps the touched parts of the search arrays
+ * together.
+ * <p>
+ * Three orders are provided: breadth-first order, reverse Cuthill-McKee
+ * order, which also minimizes the bandwidth of the adjacency matrix, and the
+ * order along a Hilbert curve through the node coordinates. The rebuilt
+ * snapshot maps its ids to the original nodes, so the paths it returns
+ * convert back with {@link CompactDirectedGraph#toNodeList(int[])} as
+ * usual; ids alone convert with {@link #toOld(int)} and
+ * {@link #toOld(int[])}.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class VertexPermutation {
+
+    /**
+     * The amount of bits per axis of the Hilbert curve grid.
+     */
+    private static final int HILBERT_ORDER = 16;
+
+    /**
+     * Maps new ids to old ids.
+     */
+    private final int[] newToOld;
+
+    /**
+     * Maps old ids to new ids.
+     */
+    private final int[] oldToNew;
+
+    /**
+     * Constructs a permutation from the array listing the old ids in their
+     * new order.
+     *
+     * @param newToOld maps new ids to old ids.
+     * @throws IllegalArgumentException if <code>newToOld</code> is not a
+     * permutation.
+     */
+    public VertexPermutation(int[] newToOld) {
+        checkNotNull(newToOld, "'newToOld' is null.");
+        this.newToOld = newToOld.clone();
+        this.oldToNew = new int[newToOld.length];
+        Arrays.fill(oldToNew, -1);
+
+        for (int i = 0; i < newToOld.length; ++i) {
+            int old = newToOld[i];
+
+            if (old < 0 || old >= newToOld.length || oldToNew[old] != -1) {
+                throw new IllegalArgumentException("Not a permutation.");
+            }
+
+            oldToNew[old] = i;
+        }
+    }
+
+    /**
+     * Returns the order in which a breadth-first search ignoring arc
+     * directions visits the nodes. The search starts from
+     * <code>root</code> and restarts from the least unvisited id whenever a
+     * component is exhausted.
+     *
+     * @param graph the graph to order.
+     * @param root the id of the first node.
+     * @return the breadth-first permutation.
+     */
+    public static VertexPermutation breadthFirst(CompactDirectedGraph graph,
+                                                 int root) {
+        final int n = graph.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int head = 0;
+        int tail = 0;
+        int next = root;
+        int scan = 0;
+
+        while (tail < n) {
+            if (visited[next]) {
+                while (visited[scan]) {
+                    ++scan;
+                }
+
+                next = scan;
+            }
+
+            visited[next] = true;
+            order[tail++] = next;
+
+            while (head < tail) {
+                int u = order[head++];
+
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    int v = graph.getTarget(a);
+
+                    if (visited[v] == false) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+
+                for (int i = graph.inBegin(u); i < graph.inEnd(u); ++i) {
+                    int v = graph.getSource(i);
+
+                    if (visited[v] == false) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+
+        return new VertexPermutation(order);
+    }
+
+    /**
+     * Returns the reverse Cuthill-McKee order of the nodes, arc directions
+     * ignored. Each component is searched breadth-first from a
+     * pseudo-peripheral node, visiting the neighbors of a node in order of
+     * increasing degree; the final order is reversed.
+     *
+     * @param graph the graph to order.
+     * @return the reverse Cuthill-McKee permutation.
+     */
+    public static VertexPermutation reverseCuthillMcKee(
+            CompactDirectedGraph graph) {
+        final int n = graph.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] level = new int[n];
+        int[] queue = new int[n];
+        int[] neighbors = new int[16];
+        int tail = 0;
+
+        Arrays.fill(level, -1);
+
+        for (int start = 0; start < n; ++start) {
+            if (visited[start]) {
+                continue;
+            }
+
+            int root = peripheralNode(graph, start, level, queue);
+            int head = tail;
+            visited[root] = true;
+            order[tail++] = root;
+
+            while (head < tail) {
+                int u = order[head++];
+                int count = 0;
+                int degree = graph.outDegree(u) + graph.inDegree(u);
+
+                if (neighbors.length < degree) {
+                    neighbors = new int[Math.max(degree,
+                                                 2 * neighbors.length)];
+                }
+
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    int v = graph.getTarget(a);
+
+                    if (visited[v] == false) {
+                        visited[v] = true;
+                        neighbors[count++] = v;
+                    }
+                }
+
+                for (int i = graph.inBegin(u); i < graph.inEnd(u); ++i) {
+                    int v = graph.getSource(i);
+
+                    if (visited[v] == false) {
+                        visited[v] = true;
+                        neighbors[count++] = v;
+                    }
+                }
+
+                sortByDegree(graph, neighbors, count);
+                System.arraycopy(neighbors, 0, order, tail, count);
+                tail += count;
+            }
+        }
+
+        for (int i = 0, j = n - 1; i < j; ++i, --j) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        return new VertexPermutation(order);
+    }
+
+    /**
+     * Returns the order of the nodes along a Hilbert curve through their
+     * coordinates. Only the first two coordinates are used.
+     *
+     * @param graph the graph to order.
+     * @param map the coordinates of the nodes of <code>graph</code>.
+     * @return the Hilbert curve permutation.
+     * @throws IllegalArgumentException if a node has no planar coordinates.
+     */
+    public static VertexPermutation hilbert(CompactDirectedGraph graph,
+                                            CoordinateMap map) {
+        final int n = graph.size();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+
+        for (int u = 0; u < n; ++u) {
+            double[] p = map.get(graph.getNode(u));
+
+            if (p == null || p.length < 2) {
+                throw new IllegalArgumentException(
+                        "No planar coordinates for " + graph.getNode(u) + ".");
+            }
+
+            xs[u] = p[0];
+            ys[u] = p[1];
+            minX = Math.min(minX, p[0]);
+            minY = Math.min(minY, p[1]);
+            maxX = Math.max(maxX, p[0]);
+            maxY = Math.max(maxY, p[1]);
+        }
+
+        final int side = (1 << HILBERT_ORDER) - 1;
+        double scaleX = maxX > minX ? side / (maxX - minX) : 0.0;
+        double scaleY = maxY > minY ? side / (maxY - minY) : 0.0;
+        long[] keys = new long[n];
+
+        for (int u = 0; u < n; ++u) {
+            int x = (int)((xs[u] - minX) * scaleX);
+            int y = (int)((ys[u] - minY) * scaleY);
+            // 32 bits of curve index above 31 bits of id stay positive.
+            keys[u] = (hilbertIndex(x, y) << 31) | u;
+        }
+
+        Arrays.sort(keys);
+        int[] order = new int[n];
+
+        for (int i = 0; i < n; ++i) {
+            order[i] = (int)(keys[i] & Integer.MAX_VALUE);
+        }
+
+        return new VertexPermutation(order);
+    }
+
+    public int size() {
+        return newToOld.length;
+    }
+
+    public int toNew(int oldId) {
+        return oldToNew[oldId];
+    }
+
+    public int toOld(int newId) {
+        return newToOld[newId];
+    }
+
+    /**
+     * Converts a path of new ids to the path of old ids.
+     *
+     * @param path the path of new ids.
+     * @return a new array holding the path of old ids.
+     */
+    public int[] toOld(int[] path) {
+        int[] result = new int[path.length];
+
+        for (int i = 0; i < path.length; ++i) {
+            result[i] = newToOld[path[i]];
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts a path of old ids to the path of new ids.
+     *
+     * @param path the path of old ids.
+     * @return a new array holding the path of new ids.
+     */
+    public int[] toNew(int[] path) {
+        int[] result = new int[path.length];
+
+        for (int i = 0; i < path.length; ++i) {
+            result[i] = oldToNew[path[i]];
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the inverse of this permutation.
+     *
+     * @return the inverse permutation.
+     */
+    public VertexPermutation inverse() {
+        return new VertexPermutation(oldToNew);
+    }
+
+    /**
+     * Builds a snapshot of <code>graph</code> in which the node with the old
+     * id <code>u</code> gets the id <code>toNew(u)</code>. The out-going arcs
+     * of each node are sorted by the new ids of their heads.
+     *
+     * @param graph the graph to renumber.
+     * @return the renumbered snapshot.
+     */
+    public CompactDirectedGraph apply(CompactDirectedGraph graph) {
+        final int n = graph.size();
+        final int m = graph.arcCount();
+
+        if (n != newToOld.length) {
+            throw new IllegalArgumentException(
+                    "The graph has " + n + " nodes, the permutation "
+                    + newToOld.length + ".");
+        }
+
+        DirectedGraphNode[] nodes = new DirectedGraphNode[n];
+        int[] outOffsets = new int[n + 1];
+        int[] outTargets = new int[m];
+        double[] outWeights = new double[m];
+        long[] keys = new long[16];
+        int arc = 0;
+
+        for (int i = 0; i < n; ++i) {
+            int u = newToOld[i];
+            int degree = graph.outDegree(u);
+            nodes[i] = graph.getNode(u);
+
+            if (keys.length < degree) {
+                keys = new long[Math.max(degree, 2 * keys.length)];
+            }
+
+            for (int j = 0, a = graph.outBegin(u); j < degree; ++j, ++a) {
+                keys[j] = ((long) oldToNew[graph.getTarget(a)] << 32) | a;
+            }
+
+            Arrays.sort(keys, 0, degree);
+
+            for (int j = 0; j < degree; ++j) {
+                int a = (int) keys[j];
+                outTargets[arc] = (int)(keys[j] >>> 32);
+                outWeights[arc] = graph.getWeight(a);
+                ++arc;
+            }
+
+            outOffsets[i + 1] = arc;
+        }
+
+        return new CompactDirectedGraph(nodes,
+                                        outOffsets,
+                                        outTargets,
+                                        outWeights);
+    }
+
+    /**
+     * Finds a node of large eccentricity in the component of
+     * <code>start</code> by repeated breadth-first searches, each restarted
+     * from a minimum degree node of the last level, until the depth stops
+     * growing.
+     */
+    private static int peripheralNode(CompactDirectedGraph graph,
+                                      int start,
+                                      int[] level,
+                                      int[] queue) {
+        int root = start;
+        int depth = -1;
+
+        for (;;) {
+            long result = levelStructure(graph, root, level, queue);
+            int newDepth = (int)(result >>> 32);
+            int candidate = (int) result;
+
+            if (newDepth <= depth) {
+                return root;
+            }
+
+            depth = newDepth;
+            root = candidate;
+        }
+    }
+
+    /**
+     * Computes the levels of a breadth-first search from
+     * <code>root</code>, returning the depth in the high half and a minimum
+     * degree node of the deepest level in the low half. <code>level</code>
+     * must be all -1 on entry, and is so again on return.
+     */
+    private static long levelStructure(CompactDirectedGraph graph,
+                                       int root,
+                                       int[] level,
+                                       int[] queue) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        level[root] = 0;
+        int depth = 0;
+        int best = root;
+
+        while (head < tail) {
+            int u = queue[head++];
+
+            if (level[u] > depth) {
+                depth = level[u];
+                best = u;
+            } else if (level[u] == depth
+                    && degree(graph, u) < degree(graph, best)) {
+                best = u;
+            }
+
+            for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                int v = graph.getTarget(a);
+
+                if (level[v] < 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+
+            for (int i = graph.inBegin(u); i < graph.inEnd(u); ++i) {
+                int v = graph.getSource(i);
+
+                if (level[v] < 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        for (int i = 0; i < tail; ++i) {
+            level[queue[i]] = -1;
+        }
+
+        return ((long) depth << 32) | best;
+    }
+
+    private static int degree(CompactDirectedGraph graph, int u) {
+        return graph.outDegree(u) + graph.inDegree(u);
+    }
+
+    /**
+     * Sorts the first <code>count</code> entries of <code>nodes</code> by
+     * degree with insertion sort; neighbor lists are short.
+     */
+    private static void sortByDegree(CompactDirectedGraph graph,
+                                     int[] nodes,
+                                     int count) {
+        for (int i = 1; i < count; ++i) {
+            int u = nodes[i];
+            int d = degree(graph, u);
+            int j = i - 1;
+
+            while (j >= 0 && degree(graph, nodes[j]) > d) {
+                nodes[j + 1] = nodes[j];
+                --j;
+            }
+
+            nodes[j + 1] = u;
+        }
+    }
+
+    /**
+     * Maps the grid point <code>(x, y)</code> to its distance along the
+     * Hilbert curve filling the grid of side <code>2^HILBERT_ORDER</code>.
+     */
+    private static long hilbertIndex(int x, int y) {
+        final int last = (1 << HILBERT_ORDER) - 1;
+        long d = 0;
+
+        for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = last - x;
+                    y = last - y;
+                }
+
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+
+        return d;
+    }
+}
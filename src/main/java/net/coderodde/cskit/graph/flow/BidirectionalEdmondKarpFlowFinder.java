@@ -9,10 +9,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import static net.coderodde.cskit.Utilities.findTouchNode;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.PackedDirectedGraphWeightFunction;
 
 /**
  * This class implements the Edmond-Karp maximum-flow algorithm.
@@ -45,7 +47,8 @@ public class BidirectionalEdmondKarpFlowFinder extends FlowFinder {
                                              DirectedGraphNode sink,
                                              DirectedGraphWeightFunction c) {
         double flow = 0.0;
-        DirectedGraphWeightFunction f = new DirectedGraphWeightFunction(); // The flow map.
+        DirectedGraphWeightFunction f =
+                new PackedDirectedGraphWeightFunction(); // The flow map.
         List<DirectedGraphNode> path = null;
 
         while ((path = findAugmentingPath(source, sink, c, f)).size() > 1) {
@@ -171,4 +174,153 @@ public class BidirectionalEdmondKarpFlowFinder extends FlowFinder {
 
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
+
+    @Override
+    public Pair<double[], Double> find(CompactDirectedGraph graph,
+                                       int source,
+                                       int sink) {
+        final int n = graph.size();
+        double[] f = new double[graph.arcCount()]; // The flow map.
+        double flow = 0.0;
+        int[] parentsA = new int[n];
+        int[] parentsB = new int[n];
+        int[] codesA = new int[n];
+        int[] codesB = new int[n];
+        int[] queueA = new int[n];
+        int[] queueB = new int[n];
+        boolean[] visitedA = new boolean[n];
+        boolean[] visitedB = new boolean[n];
+        int touch;
+
+        while ((touch = findAugmentingPath(graph, source, sink, f,
+                                           parentsA, parentsB,
+                                           codesA, codesB,
+                                           queueA, queueB,
+                                           visitedA, visitedB))
+                != CompactDirectedGraph.NO_NODE) {
+            flow += augment(graph, touch, parentsA, codesA,
+                            parentsB, codesB, f);
+        }
+
+        return new Pair<double[], Double>(f, flow);
+    }
+
+    /**
+     * This method is essentially bidirectional breadth-first search over the
+     * residual graph of a compact graph snapshot.
+     *
+     * @return the node at which the two searches met, or
+     * <code>CompactDirectedGraph.NO_NODE</code> if there is no augmenting
+     * path.
+     */
+    private int findAugmentingPath(CompactDirectedGraph graph,
+                                   int source,
+                                   int sink,
+                                   double[] f,
+                                   int[] parentsA,
+                                   int[] parentsB,
+                                   int[] codesA,
+                                   int[] codesB,
+                                   int[] queueA,
+                                   int[] queueB,
+                                   boolean[] visitedA,
+                                   boolean[] visitedB) {
+        if (source == sink) {
+            return CompactDirectedGraph.NO_NODE;
+        }
+
+        java.util.Arrays.fill(visitedA, false);
+        java.util.Arrays.fill(visitedB, false);
+        int headA = 0;
+        int tailA = 0;
+        int headB = 0;
+        int tailB = 0;
+
+        queueA[tailA++] = source;
+        visitedA[source] = true;
+        parentsA[source] = CompactDirectedGraph.NO_NODE;
+
+        queueB[tailB++] = sink;
+        visitedB[sink] = true;
+        parentsB[sink] = CompactDirectedGraph.NO_NODE;
+
+        while (headA < tailA && headB < tailB) {
+            int current = queueA[headA++];
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int u = graph.getTarget(a);
+
+                if (visitedA[u] == false && graph.getWeight(a) - f[a] > 0.0) {
+                    visitedA[u] = true;
+                    parentsA[u] = current;
+                    codesA[u] = a;
+                    queueA[tailA++] = u;
+
+                    if (visitedB[u]) {
+                        return u;
+                    }
+                }
+            }
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int u = graph.getSource(i);
+                int a = graph.getInArc(i);
+
+                if (visitedA[u] == false && f[a] > 0.0) {
+                    visitedA[u] = true;
+                    parentsA[u] = current;
+                    codesA[u] = ~a;
+                    queueA[tailA++] = u;
+
+                    if (visitedB[u]) {
+                        return u;
+                    }
+                }
+            }
+
+            // Expand the backwards search.
+            current = queueB[headB++];
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int u = graph.getSource(i);
+                int a = graph.getInArc(i);
+
+                if (visitedB[u] == false && graph.getWeight(a) - f[a] > 0.0) {
+                    visitedB[u] = true;
+                    parentsB[u] = current;
+                    codesB[u] = a;
+                    queueB[tailB++] = u;
+
+                    if (visitedA[u]) {
+                        return u;
+                    }
+                }
+            }
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int u = graph.getTarget(a);
+
+                if (visitedB[u] == false && f[a] > 0.0) {
+                    visitedB[u] = true;
+                    parentsB[u] = current;
+                    codesB[u] = ~a;
+                    queueB[tailB++] = u;
+
+                    if (visitedA[u]) {
+                        return u;
+                    }
+                }
+            }
+        }
+
+        return CompactDirectedGraph.NO_NODE;
+    }
 }
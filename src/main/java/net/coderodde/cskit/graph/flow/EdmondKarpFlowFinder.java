@@ -9,8 +9,10 @@ import java.util.Map;
 import java.util.Set;
 import net.coderodde.cskit.Utilities;
 import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.PackedDirectedGraphWeightFunction;
 
 /**
  * This class implements the Edmond-Karp maximum-flow algorithm.
@@ -25,7 +27,8 @@ public class EdmondKarpFlowFinder extends FlowFinder {
                                              DirectedGraphNode sink,
                                              DirectedGraphWeightFunction c) {
         double flow = 0.0;
-        DirectedGraphWeightFunction f = new DirectedGraphWeightFunction(); // The flow map.
+        DirectedGraphWeightFunction f =
+                new PackedDirectedGraphWeightFunction(); // The flow map.
         List<DirectedGraphNode> path = null;
 
         while ((path = findAugmentingPath(source, sink, c, f)).size() > 1) {
@@ -78,4 +81,84 @@ public class EdmondKarpFlowFinder extends FlowFinder {
 
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
+
+    @Override
+    public Pair<double[], Double> find(CompactDirectedGraph graph,
+                                       int source,
+                                       int sink) {
+        final int n = graph.size();
+        double[] f = new double[graph.arcCount()]; // The flow map.
+        double flow = 0.0;
+        int[] parents = new int[n];
+        int[] codes = new int[n];
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+
+        while (findAugmentingPath(graph, source, sink, f,
+                                  parents, codes, queue, visited)) {
+            flow += augment(graph, sink, parents, codes, null, null, f);
+        }
+
+        return new Pair<double[], Double>(f, flow);
+    }
+
+    /**
+     * This method is essentially breadth-first search over the residual graph
+     * of a compact graph snapshot.
+     *
+     * @return <code>true</code> if an augmenting path was found.
+     */
+    private boolean findAugmentingPath(CompactDirectedGraph graph,
+                                       int source,
+                                       int sink,
+                                       double[] f,
+                                       int[] parents,
+                                       int[] codes,
+                                       int[] queue,
+                                       boolean[] visited) {
+        java.util.Arrays.fill(visited, false);
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = source;
+        visited[source] = true;
+        parents[source] = CompactDirectedGraph.NO_NODE;
+
+        while (head < tail) {
+            int current = queue[head++];
+
+            if (current == sink) {
+                return true;
+            }
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int u = graph.getTarget(a);
+
+                if (visited[u] == false && graph.getWeight(a) - f[a] > 0.0) {
+                    visited[u] = true;
+                    parents[u] = current;
+                    codes[u] = a;
+                    queue[tail++] = u;
+                }
+            }
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int u = graph.getSource(i);
+                int a = graph.getInArc(i);
+
+                if (visited[u] == false && f[a] > 0.0) {
+                    visited[u] = true;
+                    parents[u] = current;
+                    codes[u] = ~a;
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        return false;
+    }
 }
@@ -5,6 +5,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -20,6 +21,20 @@ public abstract class FlowFinder {
                                                       DirectedGraphNode sink,
                                                       DirectedGraphWeightFunction w);
 
+    /**
+     * Computes a maximum flow in a compact graph snapshot whose arc weights
+     * are the capacities.
+     *
+     * @param graph the flow network snapshot.
+     * @param source the id of the source node.
+     * @param sink the id of the sink node.
+     * @return the flow of each arc indexed by arc id, and the value of the
+     * flow.
+     */
+    public abstract Pair<double[], Double> find(CompactDirectedGraph graph,
+                                                int source,
+                                                int sink);
+
     public static final void resolveParallelEdges(
             List<DirectedGraphNode> graph, DirectedGraphWeightFunction w) {
         List<DirectedGraphNode> toAdd = new ArrayList<DirectedGraphNode>();
@@ -134,6 +149,70 @@ public abstract class FlowFinder {
         }
     }
 
+    /**
+     * Returns the residual capacity of a residual edge encoded as an arc id
+     * <code>a</code> (traversing the arc forward), or as <code>~a</code>
+     * (traversing the arc <code>a</code> backward, cancelling its flow).
+     */
+    protected static double residualCapacity(CompactDirectedGraph graph,
+                                             int code,
+                                             double[] flow) {
+        if (code >= 0) {
+            return graph.getWeight(code) - flow[code];
+        } else {
+            return flow[~code];
+        }
+    }
+
+    /**
+     * Pushes flow along the residual path <code>source -> ... -> touch ->
+     * ... -> sink</code> by the minimum residual capacity on it. The
+     * forward half is described by <code>parentsA</code> and
+     * <code>codesA</code> (the residual edge entering each node), the
+     * backward half by <code>parentsB</code> and <code>codesB</code> (the
+     * residual edge leaving each node). A unidirectional search passes
+     * <code>touch == sink</code>.
+     *
+     * @return the amount of flow pushed.
+     */
+    protected static double augment(CompactDirectedGraph graph,
+                                    int touch,
+                                    int[] parentsA,
+                                    int[] codesA,
+                                    int[] parentsB,
+                                    int[] codesB,
+                                    double[] flow) {
+        double min = Double.POSITIVE_INFINITY;
+
+        for (int u = touch; parentsA[u] >= 0; u = parentsA[u]) {
+            min = Math.min(min, residualCapacity(graph, codesA[u], flow));
+        }
+
+        for (int u = touch; parentsB != null && parentsB[u] >= 0;
+                u = parentsB[u]) {
+            min = Math.min(min, residualCapacity(graph, codesB[u], flow));
+        }
+
+        for (int u = touch; parentsA[u] >= 0; u = parentsA[u]) {
+            push(codesA[u], min, flow);
+        }
+
+        for (int u = touch; parentsB != null && parentsB[u] >= 0;
+                u = parentsB[u]) {
+            push(codesB[u], min, flow);
+        }
+
+        return min;
+    }
+
+    private static void push(int code, double delta, double[] flow) {
+        if (code >= 0) {
+            flow[code] += delta;
+        } else {
+            flow[~code] -= delta;
+        }
+    }
+
     protected void initializePreflow(List<DirectedGraphNode> network,
                                      DirectedGraphNode source,
                                      Map<DirectedGraphNode, Integer> h,
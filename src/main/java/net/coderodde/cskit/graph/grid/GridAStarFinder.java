@@ -0,0 +1,21 @@
+package net.coderodde.cskit.graph.grid;
+
+/**
+ * This class implements plain <tt>A*</tt> on a {@link GridGraph}: every
+ * walkable neighbor of an expanded cell is a successor.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class GridAStarFinder extends GridPathFinder {
+
+    @Override
+    protected int getSuccessors(GridGraph grid,
+                                int cell,
+                                int parent,
+                                int target,
+                                int[] out,
+                                int[] scratch) {
+        return grid.getNeighbors(cell, out);
+    }
+}
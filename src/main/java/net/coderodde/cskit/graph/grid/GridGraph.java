@@ -0,0 +1,285 @@
+package net.coderodde.cskit.graph.grid;
+
+/**
+ * This class implements an 8-connected grid graph without materializing
+ * its nodes or arcs. The cells are identified by <code>y * width + x</code>
+ * and the blocked ones are kept in two bitsets, one row by row and one
+ * column by column, so a grid of a million cells takes some 250 kilobytes.
+ * The neighbors of a cell are computed on the fly, and the searches may
+ * read 64 cells of a row or a column at once, see
+ * {@link #getRowBits(int, int)} and {@link #getColumnBits(int, int)}.
+ * <p>
+ * A cell is connected to each walkable cell among its eight neighbors;
+ * the straight moves cost 1 and the diagonal ones cost the square root of
+ * 2. A diagonal move is allowed only if both cells it passes by are
+ * walkable, so paths never cut corners.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class GridGraph {
+
+    /**
+     * The cost of a diagonal move.
+     */
+    public static final double DIAGONAL_COST = Math.sqrt(2.0);
+
+    private final int width;
+    private final int height;
+    private final long[] blocked;
+
+    /**
+     * The blocked cells column by column: bit <code>x * height + y</code>.
+     */
+    private final long[] blockedColumns;
+
+    /**
+     * Constructs a grid of <code>width * height</code> walkable cells.
+     *
+     * @param width the amount of columns.
+     * @param height the amount of rows.
+     * @throws IllegalArgumentException if a dimension is not positive or
+     * the grid has more than <code>Integer.MAX_VALUE</code> cells.
+     */
+    public GridGraph(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException(
+                    "Bad dimensions: " + width + " x " + height + ".");
+        }
+
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Too many cells: " + width + " x " + height + ".");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.blocked = new long[(int) (((long) width * height + 63) >>> 6)];
+        this.blockedColumns = new long[blocked.length];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the amount of cells.
+     *
+     * @return the amount of cells.
+     */
+    public int size() {
+        return width * height;
+    }
+
+    public int getCell(int x, int y) {
+        return y * width + x;
+    }
+
+    public int getX(int cell) {
+        return cell % width;
+    }
+
+    public int getY(int cell) {
+        return cell / width;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Tells whether <code>(x, y)</code> is inside the grid and not
+     * blocked.
+     *
+     * @param x the column.
+     * @param y the row.
+     * @return <code>true</code> if the cell may be entered.
+     */
+    public boolean isWalkable(int x, int y) {
+        if (contains(x, y) == false) {
+            return false;
+        }
+
+        int cell = y * width + x;
+        return (blocked[cell >>> 6] & (1L << cell)) == 0L;
+    }
+
+    public void setBlocked(int x, int y, boolean block) {
+        if (contains(x, y) == false) {
+            throw new IndexOutOfBoundsException(
+                    "(" + x + ", " + y + ") is outside the grid.");
+        }
+
+        int cell = y * width + x;
+        int transposed = x * height + y;
+
+        if (block) {
+            blocked[cell >>> 6] |= 1L << cell;
+            blockedColumns[transposed >>> 6] |= 1L << transposed;
+        } else {
+            blocked[cell >>> 6] &= ~(1L << cell);
+            blockedColumns[transposed >>> 6] &= ~(1L << transposed);
+        }
+    }
+
+    /**
+     * Returns 64 cells of row <code>y</code> starting at column
+     * <code>x</code>: bit <code>j</code> is set if the cell
+     * <code>(x + j, y)</code> is blocked or outside the grid.
+     *
+     * @param x the first column.
+     * @param y the row.
+     * @return the blocked bits.
+     */
+    public long getRowBits(int x, int y) {
+        if (y < 0 || y >= height) {
+            return -1L;
+        }
+
+        return window(blocked, (long) y * width, width, x);
+    }
+
+    /**
+     * Returns 64 cells of column <code>x</code> starting at row
+     * <code>y</code>: bit <code>j</code> is set if the cell
+     * <code>(x, y + j)</code> is blocked or outside the grid.
+     *
+     * @param x the column.
+     * @param y the first row.
+     * @return the blocked bits.
+     */
+    public long getColumnBits(int x, int y) {
+        if (x < 0 || x >= width) {
+            return -1L;
+        }
+
+        return window(blockedColumns, (long) x * height, height, y);
+    }
+
+    /**
+     * Writes the walkable neighbors of <code>cell</code> into
+     * <code>out</code>, which must have room for eight cells.
+     *
+     * @param cell the cell to expand.
+     * @param out the array receiving the neighbors.
+     * @return the amount of neighbors written.
+     */
+    public int getNeighbors(int cell, int[] out) {
+        int x = cell % width;
+        int y = cell / width;
+        int size = 0;
+        boolean n = isWalkable(x, y - 1);
+        boolean s = isWalkable(x, y + 1);
+        boolean w = isWalkable(x - 1, y);
+        boolean e = isWalkable(x + 1, y);
+
+        if (n) {
+            out[size++] = cell - width;
+        }
+
+        if (s) {
+            out[size++] = cell + width;
+        }
+
+        if (w) {
+            out[size++] = cell - 1;
+        }
+
+        if (e) {
+            out[size++] = cell + 1;
+        }
+
+        if (n && w && isWalkable(x - 1, y - 1)) {
+            out[size++] = cell - width - 1;
+        }
+
+        if (n && e && isWalkable(x + 1, y - 1)) {
+            out[size++] = cell - width + 1;
+        }
+
+        if (s && w && isWalkable(x - 1, y + 1)) {
+            out[size++] = cell + width - 1;
+        }
+
+        if (s && e && isWalkable(x + 1, y + 1)) {
+            out[size++] = cell + width + 1;
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the octile distance between two cells: the cost of a
+     * shortest path between them on a grid without obstacles.
+     *
+     * @param a the first cell.
+     * @param b the second cell.
+     * @return the octile distance.
+     */
+    public double getDistance(int a, int b) {
+        int dx = Math.abs(a % width - b % width);
+        int dy = Math.abs(a / width - b / width);
+        return Math.max(dx, dy) + (DIAGONAL_COST - 1.0) * Math.min(dx, dy);
+    }
+
+    /**
+     * Returns the cost of a path of cells.
+     *
+     * @param path the path of cells.
+     * @return the cost of the path.
+     */
+    public double getPathCost(int[] path) {
+        double cost = 0.0;
+
+        for (int i = 0; i < path.length - 1; ++i) {
+            cost += getDistance(path[i], path[i + 1]);
+        }
+
+        return cost;
+    }
+
+    /**
+     * Returns the amount of bytes taken by the obstacle bitsets.
+     *
+     * @return the memory usage in bytes.
+     */
+    public long estimateMemoryUsage() {
+        return 16L * blocked.length;
+    }
+
+    /**
+     * Returns the 64 cells starting at <code>from</code> of the line of
+     * <code>length</code> cells stored from bit <code>base</code> of
+     * <code>bits</code>. The cells outside the line read as blocked.
+     */
+    private static long window(long[] bits, long base, int length, int from) {
+        int lo = Math.max(from, 0);
+        int hi = (int) Math.min((long) from + 64, length);
+
+        if (lo >= hi) {
+            return -1L;
+        }
+
+        long position = base + lo;
+        int word = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        long w = bits[word] >>> shift;
+
+        if (shift != 0 && word + 1 < bits.length) {
+            w |= bits[word + 1] << (64 - shift);
+        }
+
+        int count = hi - lo;
+
+        if (count < 64) {
+            w |= -1L << count;
+        }
+
+        int offset = lo - from;
+        return offset == 0 ? w : (w << offset) | ((1L << offset) - 1);
+    }
+}
@@ -0,0 +1,207 @@
+package net.coderodde.cskit.graph.grid;
+
+import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+
+/**
+ * This class defines the common API for shortest path algorithms on a
+ * {@link GridGraph}. It runs <tt>A*</tt> with the octile distance as the
+ * heuristic; the subclasses decide which cells are the successors of an
+ * expanded cell. A successor need not be adjacent to the cell, as long as
+ * it lies on a straight or a diagonal line from it; the returned path
+ * lists every cell on the way.
+ * <p>
+ * The search state is kept in a {@link CompactSearchState} indexed by cell
+ * and reused from query to query. Each thread gets its own state, along with
+ * the successor buffers and the expansion count, so a single finder serves
+ * concurrent queries.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public abstract class GridPathFinder {
+
+    private final ThreadLocal<Context> contexts = new ThreadLocal<Context>() {
+        @Override
+        protected Context initialValue() {
+            return new Context();
+        }
+    };
+
+    /**
+     * Searches for a shortest path from <code>source</code> to
+     * <code>target</code>.
+     *
+     * @param grid the grid.
+     * @param source the source cell.
+     * @param target the target cell.
+     * @return the path of cells, or an empty array if <code>target</code> is
+     * not reachable from <code>source</code>.
+     */
+    public int[] find(GridGraph grid, int source, int target) {
+        Context context = contexts.get();
+
+        context.expansions = 0;
+
+        if (walkable(grid, source) == false
+                || walkable(grid, target) == false) {
+            return new int[0];
+        }
+
+        context.state = CompactSearchState.reuse(context.state, grid.size());
+
+        CompactSearchState state = context.state;
+        int[] successors = context.successors;
+        IndexedBinaryHeap open = state.getOpen();
+        double[] g = state.getDistances();
+        int[] parents = state.getParents();
+
+        open.insert(source, grid.getDistance(source, target));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+        state.reach(source);
+
+        while (open.isEmpty() == false) {
+            int current = open.extractMinimum();
+
+            if (current == target) {
+                return fill(grid, tracebackPath(current, parents));
+            }
+
+            state.close(current);
+            ++context.expansions;
+
+            int size = getSuccessors(grid,
+                                     current,
+                                     parents[current],
+                                     target,
+                                     successors,
+                                     context.scratch);
+
+            for (int i = 0; i < size; ++i) {
+                int next = successors[i];
+
+                if (state.isClosed(next)) {
+                    continue;
+                }
+
+                double tmpg = g[current] + grid.getDistance(current, next);
+
+                if (state.isReached(next) == false) {
+                    state.reach(next);
+                    open.insert(next, tmpg + grid.getDistance(next, target));
+                } else if (tmpg < g[next]) {
+                    open.decreasePriority(next,
+                                          tmpg + grid.getDistance(next,
+                                                                  target));
+                } else {
+                    continue;
+                }
+
+                g[next] = tmpg;
+                parents[next] = current;
+            }
+        }
+
+        return new int[0];
+    }
+
+    /**
+     * Returns the amount of cells expanded by the last query of the calling
+     * thread.
+     *
+     * @return the amount of expansions.
+     */
+    public int getExpansions() {
+        return contexts.get().expansions;
+    }
+
+    /**
+     * Writes the successors of <code>cell</code> into <code>out</code>.
+     *
+     * @param grid the grid.
+     * @param cell the expanded cell.
+     * @param parent the cell <code>cell</code> was reached from, or
+     * <code>CompactDirectedGraph.NO_NODE</code> for the source.
+     * @param target the target cell.
+     * @param out the array receiving at most eight successors.
+     * @param scratch an array of eight cells of the calling thread, free for
+     * the subclass to use.
+     * @return the amount of successors.
+     */
+    protected abstract int getSuccessors(GridGraph grid,
+                                         int cell,
+                                         int parent,
+                                         int target,
+                                         int[] out,
+                                         int[] scratch);
+
+    private static boolean walkable(GridGraph grid, int cell) {
+        return cell >= 0
+                && cell < grid.size()
+                && grid.isWalkable(grid.getX(cell), grid.getY(cell));
+    }
+
+    /**
+     * Inserts the cells between the consecutive cells of
+     * <code>path</code>, which lie on straight or diagonal lines.
+     */
+    private static int[] fill(GridGraph grid, int[] path) {
+        int length = 1;
+
+        for (int i = 1; i < path.length; ++i) {
+            length += steps(grid, path[i - 1], path[i]);
+        }
+
+        if (length == path.length) {
+            return path;
+        }
+
+        int[] full = new int[length];
+        int index = 0;
+
+        full[index++] = path[0];
+
+        for (int i = 1; i < path.length; ++i) {
+            int x = grid.getX(path[i - 1]);
+            int y = grid.getY(path[i - 1]);
+            int dx = Integer.signum(grid.getX(path[i]) - x);
+            int dy = Integer.signum(grid.getY(path[i]) - y);
+
+            for (int k = steps(grid, path[i - 1], path[i]); k > 0; --k) {
+                x += dx;
+                y += dy;
+                full[index++] = grid.getCell(x, y);
+            }
+        }
+
+        return full;
+    }
+
+    private static int steps(GridGraph grid, int from, int to) {
+        return Math.max(Math.abs(grid.getX(to) - grid.getX(from)),
+                        Math.abs(grid.getY(to) - grid.getY(from)));
+    }
+
+    /**
+     * The search state of one thread.
+     */
+    private static final class Context {
+
+        /**
+         * The state of the searches, reused while large enough.
+         */
+        CompactSearchState state;
+
+        /**
+         * The successors of the cell being expanded.
+         */
+        final int[] successors = new int[8];
+
+        final int[] scratch = new int[8];
+
+        int expansions;
+    }
+}
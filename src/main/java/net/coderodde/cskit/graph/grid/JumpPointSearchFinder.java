@@ -0,0 +1,255 @@
+package net.coderodde.cskit.graph.grid;
+
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+
+/**
+ * This class implements jump point search by Harabor and Grastien on a
+ * {@link GridGraph}. Of the neighbors of an expanded cell it keeps only
+ * those no other optimal path reaches more cheaply through the parent,
+ * and instead of adding each of them to the open queue it walks on in the
+ * same direction until it hits a cell with a forced neighbor, the target or
+ * an obstacle. Only the cells it stops at, the jump points, are queued, so
+ * on open grids a query expands a small fraction of the cells plain
+ * <tt>A*</tt> expands. The paths found are as short as those of
+ * <tt>A*</tt>.
+ * <p>
+ * The pruning rules are those of the variant which never cuts corners: a
+ * diagonal move requires both cells it passes by to be walkable. The walks
+ * are iterative, so long corridors do not deepen the stack, and the
+ * straight ones scan the obstacle bitsets of the grid a word at a time.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class JumpPointSearchFinder extends GridPathFinder {
+
+    @Override
+    protected int getSuccessors(GridGraph grid,
+                                int cell,
+                                int parent,
+                                int target,
+                                int[] out,
+                                int[] neighbors) {
+        int x = grid.getX(cell);
+        int y = grid.getY(cell);
+        int tx = grid.getX(target);
+        int ty = grid.getY(target);
+        int count = parent == CompactDirectedGraph.NO_NODE
+                ? grid.getNeighbors(cell, neighbors)
+                : prune(grid, x, y, parent, neighbors);
+        int size = 0;
+
+        for (int i = 0; i < count; ++i) {
+            int dx = grid.getX(neighbors[i]) - x;
+            int dy = grid.getY(neighbors[i]) - y;
+            int jumpPoint = jump(grid, x + dx, y + dy, dx, dy, tx, ty);
+
+            if (jumpPoint != CompactDirectedGraph.NO_NODE) {
+                out[size++] = jumpPoint;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Writes the natural and forced neighbors of <code>(x, y)</code>, when
+     * reached from <code>parent</code>, into <code>neighbors</code>.
+     */
+    private static int prune(GridGraph grid,
+                             int x,
+                             int y,
+                             int parent,
+                             int[] neighbors) {
+        int dx = Integer.signum(x - grid.getX(parent));
+        int dy = Integer.signum(y - grid.getY(parent));
+        int size = 0;
+
+        if (dx != 0 && dy != 0) {
+            boolean vertical = grid.isWalkable(x, y + dy);
+            boolean horizontal = grid.isWalkable(x + dx, y);
+
+            if (vertical) {
+                neighbors[size++] = grid.getCell(x, y + dy);
+            }
+
+            if (horizontal) {
+                neighbors[size++] = grid.getCell(x + dx, y);
+            }
+
+            if (vertical && horizontal && grid.isWalkable(x + dx, y + dy)) {
+                neighbors[size++] = grid.getCell(x + dx, y + dy);
+            }
+        } else if (dx != 0) {
+            boolean next = grid.isWalkable(x + dx, y);
+            boolean up = grid.isWalkable(x, y - 1);
+            boolean down = grid.isWalkable(x, y + 1);
+
+            if (next) {
+                neighbors[size++] = grid.getCell(x + dx, y);
+
+                if (up && grid.isWalkable(x + dx, y - 1)) {
+                    neighbors[size++] = grid.getCell(x + dx, y - 1);
+                }
+
+                if (down && grid.isWalkable(x + dx, y + 1)) {
+                    neighbors[size++] = grid.getCell(x + dx, y + 1);
+                }
+            }
+
+            if (up) {
+                neighbors[size++] = grid.getCell(x, y - 1);
+            }
+
+            if (down) {
+                neighbors[size++] = grid.getCell(x, y + 1);
+            }
+        } else {
+            boolean next = grid.isWalkable(x, y + dy);
+            boolean left = grid.isWalkable(x - 1, y);
+            boolean right = grid.isWalkable(x + 1, y);
+
+            if (next) {
+                neighbors[size++] = grid.getCell(x, y + dy);
+
+                if (left && grid.isWalkable(x - 1, y + dy)) {
+                    neighbors[size++] = grid.getCell(x - 1, y + dy);
+                }
+
+                if (right && grid.isWalkable(x + 1, y + dy)) {
+                    neighbors[size++] = grid.getCell(x + 1, y + dy);
+                }
+            }
+
+            if (left) {
+                neighbors[size++] = grid.getCell(x - 1, y);
+            }
+
+            if (right) {
+                neighbors[size++] = grid.getCell(x + 1, y);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Walks from <code>(x, y)</code> in the direction
+     * <code>(dx, dy)</code> and returns the first jump point, or
+     * <code>CompactDirectedGraph.NO_NODE</code> if the walk hits an
+     * obstacle first. A diagonal walk stops at each cell from which a
+     * straight walk along either of its components finds a jump point.
+     */
+    private static int jump(GridGraph grid,
+                            int x,
+                            int y,
+                            int dx,
+                            int dy,
+                            int tx,
+                            int ty) {
+        if (dx == 0 || dy == 0) {
+            return jumpStraight(grid, x, y, dx, dy, tx, ty);
+        }
+
+        while (grid.isWalkable(x, y)) {
+            if ((x == tx && y == ty)
+                    || jumpStraight(grid, x + dx, y, dx, 0, tx, ty)
+                       != CompactDirectedGraph.NO_NODE
+                    || jumpStraight(grid, x, y + dy, 0, dy, tx, ty)
+                       != CompactDirectedGraph.NO_NODE) {
+                return grid.getCell(x, y);
+            }
+
+            if (grid.isWalkable(x + dx, y) == false
+                    || grid.isWalkable(x, y + dy) == false) {
+                break;
+            }
+
+            x += dx;
+            y += dy;
+        }
+
+        return CompactDirectedGraph.NO_NODE;
+    }
+
+    /**
+     * Walks straight from <code>(x, y)</code> and returns the first jump
+     * point. Reads 64 cells of the three rows or columns concerned at a
+     * time and checks 63 of them with a few bitwise operations: a cell
+     * <code>c</code> beside the walk forces a stop if it is walkable while
+     * the cell before it is blocked.
+     */
+    private static int jumpStraight(GridGraph grid,
+                                    int x,
+                                    int y,
+                                    int dx,
+                                    int dy,
+                                    int tx,
+                                    int ty) {
+        while (true) {
+            long center;
+            long side1;
+            long side2;
+            int target = -1;
+
+            if (dx != 0) {
+                center = rowBits(grid, x, y, dx);
+                side1 = rowBits(grid, x - dx, y - 1, dx);
+                side2 = rowBits(grid, x - dx, y + 1, dx);
+
+                if (y == ty) {
+                    target = (tx - x) * dx;
+                }
+            } else {
+                center = columnBits(grid, x, y, dy);
+                side1 = columnBits(grid, x - 1, y - dy, dy);
+                side2 = columnBits(grid, x + 1, y - dy, dy);
+
+                if (x == tx) {
+                    target = (ty - y) * dy;
+                }
+            }
+
+            long stops = center
+                    | (side1 & ~(side1 >>> 1))
+                    | (side2 & ~(side2 >>> 1));
+
+            if (target >= 0 && target < 63) {
+                stops |= 1L << target;
+            }
+
+            stops &= Long.MAX_VALUE;
+
+            if (stops != 0L) {
+                int j = Long.numberOfTrailingZeros(stops);
+
+                if ((center & (1L << j)) != 0L) {
+                    return CompactDirectedGraph.NO_NODE;
+                }
+
+                return grid.getCell(x + j * dx, y + j * dy);
+            }
+
+            x += 63 * dx;
+            y += 63 * dy;
+        }
+    }
+
+    /**
+     * Returns bit <code>j</code> set if <code>(x + j * dx, y)</code> is
+     * blocked.
+     */
+    private static long rowBits(GridGraph grid, int x, int y, int dx) {
+        return dx > 0 ? grid.getRowBits(x, y)
+                      : Long.reverse(grid.getRowBits(x - 63, y));
+    }
+
+    /**
+     * Returns bit <code>j</code> set if <code>(x, y + j * dy)</code> is
+     * blocked.
+     */
+    private static long columnBits(GridGraph grid, int x, int y, int dy) {
+        return dy > 0 ? grid.getColumnBits(x, y)
+                      : Long.reverse(grid.getColumnBits(x, y - 63));
+    }
+}
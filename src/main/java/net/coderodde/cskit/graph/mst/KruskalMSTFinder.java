@@ -11,13 +11,17 @@ import net.coderodde.cskit.Utilities.Pair;
 import static net.coderodde.cskit.Utilities.checkNotNull;
 import static net.coderodde.cskit.Utilities.expandGraph;
 import net.coderodde.cskit.ds.disjointset.DisjointSet;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.PackedUndirectedGraphWeightFunction;
 import net.coderodde.cskit.graph.UndirectedGraphEdge;
 import net.coderodde.cskit.graph.UndirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 import net.coderodde.cskit.graph.UndirectedGraphWeightFunction;
 
 /**
- * This class implements Kruskal's minimum spanning tree algorithm.
+ * This class implements Kruskal's minimum spanning tree algorithm. Given a
+ * {@link PackedUndirectedGraphWeightFunction}, the finder sorts and unites
+ * the edges in primitive arrays instead of edge objects.
  *
  * @author Rodion Efremov
  * @version 1.618033 (28.12.2013)
@@ -37,6 +41,16 @@ public class KruskalMSTFinder extends MinimumSpanningTreeFinder {
     public Pair<List<UndirectedGraphEdge>, Double>
            find(List<UndirectedGraphNode> graph,
                 UndirectedGraphWeightFunction w) {
+        if (w instanceof PackedUndirectedGraphWeightFunction) {
+            checkNotNull(graph, "'graph' is null.");
+
+            if (graph.isEmpty()) {
+                return null;
+            }
+
+            return findPacked(graph, (PackedUndirectedGraphWeightFunction) w);
+        }
+
         Double weight = 0.0;
         List<UndirectedGraphEdge> edgeList = checkPrerequisites(graph, w);
 
@@ -70,6 +84,208 @@ public class KruskalMSTFinder extends MinimumSpanningTreeFinder {
         return new Pair<List<UndirectedGraphEdge>, Double>(mst, weight);
     }
 
+    /**
+     * Finds the minimum spanning forest over primitive arrays. Each edge is
+     * listed once, from its endpoint with the smaller id, so no edge objects
+     * are created for the edges that do not make it to the forest.
+     */
+    private Pair<List<UndirectedGraphEdge>, Double>
+            findPacked(List<UndirectedGraphNode> graph,
+                       PackedUndirectedGraphWeightFunction w) {
+        NodeIndex index = new NodeIndex(expandGraph(graph));
+        final int n = index.size();
+        int m = 0;
+
+        for (int u = 0; u < n; ++u) {
+            UndirectedGraphNode node = index.get(u);
+
+            for (UndirectedGraphNode v : node) {
+                if (node.getId() < v.getId()) {
+                    ++m;
+                }
+            }
+        }
+
+        int[] tails = new int[m];
+        int[] heads = new int[m];
+        int[] edges = new int[m];
+        double[] weights = new double[m];
+        m = 0;
+
+        for (int u = 0; u < n; ++u) {
+            UndirectedGraphNode node = index.get(u);
+
+            for (UndirectedGraphNode v : node) {
+                if (node.getId() < v.getId()) {
+                    tails[m] = u;
+                    heads[m] = index.indexOf(v);
+                    edges[m] = m;
+                    weights[m] = w.get(node, v);
+                    ++m;
+                }
+            }
+        }
+
+        sortArcs(edges, weights, 0, m - 1);
+
+        int[] root = new int[n];
+        int[] rank = new int[n];
+
+        for (int u = 0; u < n; ++u) {
+            root[u] = u;
+        }
+
+        List<UndirectedGraphEdge> mst =
+                new ArrayList<UndirectedGraphEdge>(Math.max(n - 1, 0));
+        double weight = 0.0;
+
+        for (int i = 0; i < m && mst.size() < n - 1; ++i) {
+            int e = edges[i];
+            int ra = findRoot(root, tails[e]);
+            int rb = findRoot(root, heads[e]);
+
+            if (ra == rb) {
+                continue;
+            }
+
+            if (rank[ra] < rank[rb]) {
+                root[ra] = rb;
+            } else if (rank[ra] > rank[rb]) {
+                root[rb] = ra;
+            } else {
+                root[rb] = ra;
+                rank[ra]++;
+            }
+
+            UndirectedGraphEdge edge =
+                    new UndirectedGraphEdge(index.get(tails[e]),
+                                            index.get(heads[e]));
+            edge.setWeight(weights[i]);
+            mst.add(edge);
+            weight += weights[i];
+        }
+
+        return new Pair<List<UndirectedGraphEdge>, Double>(mst, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pair<int[], Double> find(CompactDirectedGraph graph) {
+        checkNotNull(graph, "'graph' is null.");
+        final int n = graph.size();
+        final int m = graph.arcCount();
+        int[] arcs = new int[m];
+        double[] weights = new double[m];
+
+        for (int a = 0; a < m; ++a) {
+            arcs[a] = a;
+            weights[a] = graph.getWeight(a);
+        }
+
+        sortArcs(arcs, weights, 0, m - 1);
+
+        // Array-based disjoint-set with path halving and union by rank.
+        int[] root = new int[n];
+        int[] rank = new int[n];
+
+        for (int u = 0; u < n; ++u) {
+            root[u] = u;
+        }
+
+        int[] tails = new int[m];
+
+        for (int u = 0; u < n; ++u) {
+            for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                tails[a] = u;
+            }
+        }
+
+        int[] forest = new int[Math.max(n - 1, 0)];
+        int size = 0;
+        double weight = 0.0;
+
+        for (int i = 0; i < m && size < forest.length; ++i) {
+            int a = arcs[i];
+            int ra = findRoot(root, tails[a]);
+            int rb = findRoot(root, graph.getTarget(a));
+
+            if (ra == rb) {
+                continue;
+            }
+
+            if (rank[ra] < rank[rb]) {
+                root[ra] = rb;
+            } else if (rank[ra] > rank[rb]) {
+                root[rb] = ra;
+            } else {
+                root[rb] = ra;
+                rank[ra]++;
+            }
+
+            forest[size++] = a;
+            weight += weights[i];
+        }
+
+        int[] result = new int[size];
+        System.arraycopy(forest, 0, result, 0, size);
+        return new Pair<int[], Double>(result, weight);
+    }
+
+    private static int findRoot(int[] root, int u) {
+        while (root[u] != u) {
+            root[u] = root[root[u]];
+            u = root[u];
+        }
+
+        return u;
+    }
+
+    /**
+     * Sorts the arc ids in <code>arcs</code> together with their weights by
+     * ascending weight.
+     */
+    private static void sortArcs(int[] arcs, double[] weights, int lo, int hi) {
+        while (lo < hi) {
+            double pivot = weights[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+
+            while (i <= j) {
+                while (weights[i] < pivot) {
+                    ++i;
+                }
+
+                while (weights[j] > pivot) {
+                    --j;
+                }
+
+                if (i <= j) {
+                    int tmpArc = arcs[i];
+                    arcs[i] = arcs[j];
+                    arcs[j] = tmpArc;
+
+                    double tmpWeight = weights[i];
+                    weights[i] = weights[j];
+                    weights[j] = tmpWeight;
+
+                    ++i;
+                    --j;
+                }
+            }
+
+            // Recur into the smaller part, loop over the larger one.
+            if (j - lo < hi - i) {
+                sortArcs(arcs, weights, lo, j);
+                lo = i;
+            } else {
+                sortArcs(arcs, weights, i, hi);
+                hi = j;
+            }
+        }
+    }
+
     private List<UndirectedGraphEdge>
             checkPrerequisites(List<UndirectedGraphNode> graph,
                                     UndirectedGraphWeightFunction w) {
@@ -2,6 +2,7 @@ package net.coderodde.cskit.graph.mst;
 
 import java.util.List;
 import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.UndirectedGraphEdge;
 import net.coderodde.cskit.graph.UndirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
@@ -18,4 +19,14 @@ public abstract class MinimumSpanningTreeFinder {
     public abstract Pair<List<UndirectedGraphEdge>, Double>
             find(List<UndirectedGraphNode> graph,
                  UndirectedGraphWeightFunction w);
+
+    /**
+     * Finds a minimum spanning forest of a compact graph snapshot,
+     * interpreting each arc as an undirected edge. The forest of an empty
+     * graph has no arcs.
+     *
+     * @param graph the graph snapshot.
+     * @return the ids of the arcs in the forest, and the total weight.
+     */
+    public abstract Pair<int[], Double> find(CompactDirectedGraph graph);
 }
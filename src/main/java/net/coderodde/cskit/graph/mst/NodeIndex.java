@@ -0,0 +1,56 @@
+package net.coderodde.cskit.graph.mst;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import net.coderodde.cskit.graph.UndirectedGraphNode;
+
+/**
+ * This class numbers a set of undirected nodes densely from zero in the order
+ * of their ids, so that the finders may keep per-node state in primitive
+ * arrays. A node is looked up by binary search over the sorted ids.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+class NodeIndex {
+
+    private final UndirectedGraphNode[] nodes;
+    private final int[] ids;
+
+    NodeIndex(Collection<UndirectedGraphNode> set) {
+        this.nodes = set.toArray(new UndirectedGraphNode[set.size()]);
+
+        Arrays.sort(nodes, new Comparator<UndirectedGraphNode>() {
+
+            @Override
+            public int compare(UndirectedGraphNode a, UndirectedGraphNode b) {
+                return a.getId() < b.getId() ? -1
+                                             : (a.getId() > b.getId() ? 1
+                                                                      : 0);
+            }
+        });
+
+        this.ids = new int[nodes.length];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            ids[i] = nodes[i].getId();
+        }
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    UndirectedGraphNode get(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Returns the index of <code>node</code>, or -1 if it is not indexed.
+     */
+    int indexOf(UndirectedGraphNode node) {
+        int i = Arrays.binarySearch(ids, node.getId());
+        return i >= 0 && nodes[i] == node ? i : -1;
+    }
+}
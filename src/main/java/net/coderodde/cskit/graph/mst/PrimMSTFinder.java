@@ -10,13 +10,19 @@ import net.coderodde.cskit.Utilities.Pair;
 import static net.coderodde.cskit.Utilities.checkNotNull;
 import static net.coderodde.cskit.Utilities.expandGraph;
 import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.PackedUndirectedGraphWeightFunction;
 import net.coderodde.cskit.graph.UndirectedGraphEdge;
 import net.coderodde.cskit.graph.UndirectedGraphNode;
 import net.coderodde.cskit.graph.UndirectedGraphWeightFunction;
 
 /**
  * This class implements Prim's algorithm for finding minimum spanning trees.
+ * Given a {@link PackedUndirectedGraphWeightFunction}, the finder runs on
+ * the primitive {@link IndexedBinaryHeap} regardless of the queue it was
+ * constructed with.
  *
  * @author Rodion Efremov
  * @version 1.618033 (6.1.2014)
@@ -51,6 +57,10 @@ public class PrimMSTFinder extends MinimumSpanningTreeFinder {
             return null;
         }
 
+        if (w instanceof PackedUndirectedGraphWeightFunction) {
+            return findPacked(graph, (PackedUndirectedGraphWeightFunction) w);
+        }
+
         set.clear();
         set.addAll(expandGraph(graph));
 
@@ -94,4 +104,123 @@ public class PrimMSTFinder extends MinimumSpanningTreeFinder {
 
         return new Pair<List<UndirectedGraphEdge>, Double>(edges, cost);
     }
+
+    /**
+     * Runs Prim's algorithm over dense node indices, keeping the priorities
+     * and the parents in primitive arrays.
+     */
+    private Pair<List<UndirectedGraphEdge>, Double>
+            findPacked(List<UndirectedGraphNode> graph,
+                       PackedUndirectedGraphWeightFunction w) {
+        NodeIndex index = new NodeIndex(expandGraph(graph));
+        final int n = index.size();
+        IndexedBinaryHeap q = new IndexedBinaryHeap(n);
+        int[] parents = new int[n];
+
+        for (int u = 0; u < n; ++u) {
+            q.insert(u, Double.POSITIVE_INFINITY);
+            parents[u] = -1;
+        }
+
+        q.decreasePriority(index.indexOf(graph.get(0)), 0.0);
+
+        while (q.isEmpty() == false) {
+            int u = q.extractMinimum();
+            UndirectedGraphNode node = index.get(u);
+
+            for (UndirectedGraphNode v : node) {
+                int i = index.indexOf(v);
+
+                if (q.contains(i)) {
+                    double weight = w.get(node, v);
+
+                    if (weight < q.getPriority(i)) {
+                        parents[i] = u;
+                        q.decreasePriority(i, weight);
+                    }
+                }
+            }
+        }
+
+        List<UndirectedGraphEdge> edges =
+                new ArrayList<UndirectedGraphEdge>(Math.max(n - 1, 0));
+        double cost = 0.0;
+
+        for (int u = 0; u < n; ++u) {
+            if (parents[u] >= 0) {
+                UndirectedGraphNode a = index.get(u);
+                UndirectedGraphNode b = index.get(parents[u]);
+                UndirectedGraphEdge e = new UndirectedGraphEdge(a, b);
+                e.setWeight(w.get(a, b));
+                cost += e.getWeight();
+                edges.add(e);
+            }
+        }
+
+        return new Pair<List<UndirectedGraphEdge>, Double>(edges, cost);
+    }
+
+    @Override
+    public Pair<int[], Double> find(CompactDirectedGraph graph) {
+        checkNotNull(graph, "'graph' is null");
+        final int n = graph.size();
+
+        if (n == 0) {
+            return new Pair<int[], Double>(new int[0], 0.0);
+        }
+
+        IndexedBinaryHeap q = new IndexedBinaryHeap(n);
+        // The arc connecting each node to its parent, or -1.
+        int[] parentArcs = new int[n];
+
+        for (int u = 0; u < n; ++u) {
+            q.insert(u, Double.POSITIVE_INFINITY);
+            parentArcs[u] = -1;
+        }
+
+        q.decreasePriority(0, 0.0);
+
+        while (q.isEmpty() == false) {
+            int u = q.extractMinimum();
+
+            for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                int v = graph.getTarget(a);
+
+                if (q.contains(v) && graph.getWeight(a) < q.getPriority(v)) {
+                    parentArcs[v] = a;
+                    q.decreasePriority(v, graph.getWeight(a));
+                }
+            }
+
+            for (int i = graph.inBegin(u); i < graph.inEnd(u); ++i) {
+                int v = graph.getSource(i);
+
+                if (q.contains(v) && graph.getInWeight(i) < q.getPriority(v)) {
+                    parentArcs[v] = graph.getInArc(i);
+                    q.decreasePriority(v, graph.getInWeight(i));
+                }
+            }
+        }
+
+        int size = 0;
+
+        for (int u = 0; u < n; ++u) {
+            if (parentArcs[u] >= 0) {
+                ++size;
+            }
+        }
+
+        int[] edges = new int[size];
+        double cost = 0.0;
+        size = 0;
+
+        for (int u = 0; u < n; ++u) {
+            if (parentArcs[u] >= 0) {
+                edges[size++] = parentArcs[u];
+                cost += graph.getWeight(parentArcs[u]);
+            }
+        }
+
+        return new Pair<int[], Double>(edges, cost);
+    }
 }
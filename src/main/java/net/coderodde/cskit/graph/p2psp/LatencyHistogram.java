@@ -0,0 +1,170 @@
+package net.coderodde.cskit.graph.p2psp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a histogram of latencies in nanoseconds that any
+ * amount of threads may record into without locking. A latency is counted
+ * in a bucket whose width is a sixteenth of the power of two below it, so a
+ * percentile is reported within about 6 percent of the true value, and the
+ * histogram takes a fixed amount of memory however many latencies it
+ * counts.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class LatencyHistogram {
+
+    /**
+     * The amount of bits below the leading one that select a sub-bucket.
+     */
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong total;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a latency. A negative latency is recorded as zero.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) {
+            nanos = 0L;
+        }
+
+        counts.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+
+        long current = max.get();
+
+        while (nanos > current) {
+            if (max.compareAndSet(current, nanos)) {
+                break;
+            }
+
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the amount of recorded latencies.
+     *
+     * @return the amount of recorded latencies.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean latency, or 0 if none is recorded.
+     *
+     * @return the mean latency in nanoseconds.
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0L ? 0.0 : (double) total.get() / n;
+    }
+
+    /**
+     * Returns the greatest recorded latency, or 0 if none is recorded.
+     *
+     * @return the greatest latency in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the latency below which
+     * <code>percentile</code> percent of the recorded latencies fall: the
+     * upper end of the bucket holding that latency, but never more than
+     * the greatest recorded latency. Returns 0 if none is recorded.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile in nanoseconds.
+     * @throws IllegalArgumentException if <code>percentile</code> is out of
+     * range.
+     */
+    public long getPercentile(double percentile) {
+        if ((percentile >= 0.0 && percentile <= 100.0) == false) {
+            throw new IllegalArgumentException(
+                    "The percentile must be within [0, 100]: " + percentile);
+        }
+
+        long n = 0L;
+        long[] snapshot = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+
+        if (n == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += snapshot[i];
+
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Forgets all recorded latencies. Latencies recorded concurrently with
+     * this call may or may not be forgotten.
+     */
+    public void clear() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts.set(i, 0L);
+        }
+
+        count.set(0L);
+        total.set(0L);
+        max.set(0L);
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        long bound = ((SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+        // The topmost buckets reach past the greatest long.
+        return bound < 0L ? Long.MAX_VALUE : bound;
+    }
+}
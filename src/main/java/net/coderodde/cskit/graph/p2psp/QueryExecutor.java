@@ -0,0 +1,462 @@
+package net.coderodde.cskit.graph.p2psp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.p2psp.general.GeneralPathFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.UniformCostPathFinder;
+
+/**
+ * This class runs independent point-to-point queries on a fixed pool of
+ * worker threads. Single queries are submitted for a {@link Future}; a batch
+ * is answered into a result list or array, the workers taking the next
+ * unanswered query until none is left.
+ * <p>
+ * Each worker obtains its own {@link Searcher} from a
+ * {@link SearcherFactory} on its first query and keeps it, so finders that
+ * are not thread-safe, such as the uniform cost finders, are never shared.
+ * The general finders keep their state per thread, so one of them may be
+ * handed to all workers through {@link #shared(Searcher)}.
+ * <p>
+ * The executor counts the answered queries and records the time each query
+ * took a worker, excluding the time it waited in the queue, into a
+ * {@link LatencyHistogram}. The throughput is the amount of answered
+ * queries per second between the first query started and the last one
+ * answered since the statistics were last reset.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class QueryExecutor {
+
+    /**
+     * This interface is the view of a finder the workers query.
+     */
+    public interface Searcher {
+
+        /**
+         * Searches for a shortest path between two nodes.
+         *
+         * @param source the source node.
+         * @param target the target node.
+         * @return the path, or an empty list if there is none.
+         */
+        public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                            DirectedGraphNode target);
+
+        /**
+         * Searches for a shortest path in a compact graph snapshot.
+         *
+         * @param graph the graph snapshot.
+         * @param source the id of the source node.
+         * @param target the id of the target node.
+         * @return the path of node ids, or an empty array if there is none.
+         */
+        public int[] find(CompactDirectedGraph graph, int source, int target);
+    }
+
+    /**
+     * This interface creates the searcher of a worker.
+     */
+    public interface SearcherFactory {
+
+        /**
+         * Creates a searcher used by the calling worker thread only.
+         *
+         * @return a new searcher.
+         */
+        public Searcher newSearcher();
+    }
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final ThreadLocal<Searcher> searchers;
+    private final LatencyHistogram latencies;
+    private final AtomicLong queries;
+    private final AtomicLong firstStart;
+    private final AtomicLong lastEnd;
+
+    /**
+     * Constructs an executor with <code>threads</code> workers.
+     *
+     * @param threads the amount of worker threads.
+     * @param factory the factory creating the searcher of each worker.
+     */
+    public QueryExecutor(int threads, final SearcherFactory factory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+
+        checkNotNull(factory, "'factory' is null.");
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.searchers = new ThreadLocal<Searcher>() {
+            @Override
+            protected Searcher initialValue() {
+                return factory.newSearcher();
+            }
+        };
+        this.latencies = new LatencyHistogram();
+        this.queries = new AtomicLong();
+        this.firstStart = new AtomicLong(Long.MAX_VALUE);
+        this.lastEnd = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns a searcher over a general finder and a weight function.
+     *
+     * @param finder the finder.
+     * @param w the weight function.
+     * @return the searcher.
+     */
+    public static Searcher searcher(final GeneralPathFinder finder,
+                                    final DirectedGraphWeightFunction w) {
+        checkNotNull(finder, "'finder' is null.");
+        return new Searcher() {
+            @Override
+            public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                                DirectedGraphNode target) {
+                return finder.find(source, target, w);
+            }
+
+            @Override
+            public int[] find(CompactDirectedGraph graph,
+                              int source,
+                              int target) {
+                return finder.find(graph, source, target);
+            }
+        };
+    }
+
+    /**
+     * Returns a searcher over a uniform cost finder.
+     *
+     * @param finder the finder.
+     * @return the searcher.
+     */
+    public static Searcher searcher(final UniformCostPathFinder finder) {
+        checkNotNull(finder, "'finder' is null.");
+        return new Searcher() {
+            @Override
+            public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                                DirectedGraphNode target) {
+                return finder.find(source, target);
+            }
+
+            @Override
+            public int[] find(CompactDirectedGraph graph,
+                              int source,
+                              int target) {
+                return finder.find(graph, source, target);
+            }
+        };
+    }
+
+    /**
+     * Returns a factory handing the same searcher to every worker. Use only
+     * with a thread-safe searcher, such as one over a general finder.
+     *
+     * @param searcher the searcher to share.
+     * @return the factory.
+     */
+    public static SearcherFactory shared(final Searcher searcher) {
+        checkNotNull(searcher, "'searcher' is null.");
+        return new SearcherFactory() {
+            @Override
+            public Searcher newSearcher() {
+                return searcher;
+            }
+        };
+    }
+
+    /**
+     * Returns the amount of worker threads.
+     *
+     * @return the amount of worker threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Submits a query.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return the future of the path.
+     */
+    public Future<List<DirectedGraphNode>> submit(
+            final DirectedGraphNode source,
+            final DirectedGraphNode target) {
+        return executor.submit(new Callable<List<DirectedGraphNode>>() {
+            @Override
+            public List<DirectedGraphNode> call() {
+                return answer(source, target);
+            }
+        });
+    }
+
+    /**
+     * Submits a query over a compact graph snapshot.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the future of the path of node ids.
+     */
+    public Future<int[]> submit(final CompactDirectedGraph graph,
+                                final int source,
+                                final int target) {
+        return executor.submit(new Callable<int[]>() {
+            @Override
+            public int[] call() {
+                return answer(graph, source, target);
+            }
+        });
+    }
+
+    /**
+     * Answers a batch of queries: the <code>i</code>th path is from
+     * <code>sources.get(i)</code> to <code>targets.get(i)</code>. Blocks
+     * until all are answered.
+     *
+     * @param sources the source nodes.
+     * @param targets the target nodes.
+     * @return the paths.
+     * @throws IllegalArgumentException if the lists differ in size.
+     */
+    public List<List<DirectedGraphNode>> findAll(
+            final List<DirectedGraphNode> sources,
+            final List<DirectedGraphNode> targets) {
+        checkNotNull(sources, "'sources' is null.");
+        checkNotNull(targets, "'targets' is null.");
+        checkSizes(sources.size(), targets.size());
+
+        final List<List<DirectedGraphNode>> paths =
+                new ArrayList<List<DirectedGraphNode>>(sources.size());
+
+        for (int i = 0; i < sources.size(); ++i) {
+            paths.add(null);
+        }
+
+        runBatch(sources.size(), new Batch() {
+            @Override
+            void answer(int i) {
+                paths.set(i, QueryExecutor.this.answer(sources.get(i),
+                                                       targets.get(i)));
+            }
+        });
+
+        return paths;
+    }
+
+    /**
+     * Answers a batch of queries over a compact graph snapshot: the
+     * <code>i</code>th path is from <code>sources[i]</code> to
+     * <code>targets[i]</code>. Blocks until all are answered.
+     *
+     * @param graph the graph snapshot.
+     * @param sources the ids of the source nodes.
+     * @param targets the ids of the target nodes.
+     * @return the paths of node ids.
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public int[][] findAll(final CompactDirectedGraph graph,
+                           final int[] sources,
+                           final int[] targets) {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(sources, "'sources' is null.");
+        checkNotNull(targets, "'targets' is null.");
+        checkSizes(sources.length, targets.length);
+
+        final int[][] paths = new int[sources.length][];
+
+        runBatch(sources.length, new Batch() {
+            @Override
+            void answer(int i) {
+                paths[i] = QueryExecutor.this.answer(graph,
+                                                     sources[i],
+                                                     targets[i]);
+            }
+        });
+
+        return paths;
+    }
+
+    /**
+     * Returns the amount of queries answered since the statistics were last
+     * reset.
+     *
+     * @return the amount of answered queries.
+     */
+    public long getQueryCount() {
+        return queries.get();
+    }
+
+    /**
+     * Returns the amount of queries answered per second, or 0 if none is.
+     *
+     * @return the throughput.
+     */
+    public double getThroughput() {
+        long n = queries.get();
+        long elapsed = lastEnd.get() - firstStart.get();
+
+        if (n == 0L || elapsed <= 0L) {
+            return 0.0;
+        }
+
+        return n * 1e9 / elapsed;
+    }
+
+    /**
+     * Returns the histogram of the time the queries took the workers.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the latency percentile; see
+     * {@link LatencyHistogram#getPercentile(double)}.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile in nanoseconds.
+     */
+    public long getLatencyPercentile(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    /**
+     * Forgets the recorded statistics.
+     */
+    public void resetStatistics() {
+        latencies.clear();
+        queries.set(0L);
+        firstStart.set(Long.MAX_VALUE);
+        lastEnd.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Stops the workers once the submitted queries are answered.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<DirectedGraphNode> answer(DirectedGraphNode source,
+                                           DirectedGraphNode target) {
+        Searcher searcher = searchers.get();
+        long start = System.nanoTime();
+        List<DirectedGraphNode> path = searcher.find(source, target);
+        record(start, System.nanoTime());
+        return path;
+    }
+
+    private int[] answer(CompactDirectedGraph graph, int source, int target) {
+        Searcher searcher = searchers.get();
+        long start = System.nanoTime();
+        int[] path = searcher.find(graph, source, target);
+        record(start, System.nanoTime());
+        return path;
+    }
+
+    private void record(long start, long end) {
+        latencies.record(end - start);
+        queries.incrementAndGet();
+
+        long current = firstStart.get();
+
+        while (start < current) {
+            if (firstStart.compareAndSet(current, start)) {
+                break;
+            }
+
+            current = firstStart.get();
+        }
+
+        current = lastEnd.get();
+
+        while (end > current) {
+            if (lastEnd.compareAndSet(current, end)) {
+                break;
+            }
+
+            current = lastEnd.get();
+        }
+    }
+
+    /**
+     * Answers <code>size</code> queries on at most as many tasks as there
+     * are workers, each task taking the next unanswered query.
+     */
+    private void runBatch(int size, final Batch batch) {
+        final AtomicInteger next = new AtomicInteger();
+        final int total = size;
+        int tasks = Math.min(threads, size);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(tasks);
+
+        for (int i = 0; i < tasks; ++i) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    int i;
+
+                    while ((i = next.getAndIncrement()) < total) {
+                        batch.answer(i);
+                    }
+
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while answering a batch of queries.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // Makes the remaining tasks stop if one of them failed.
+            next.set(total);
+        }
+    }
+
+    private static void checkSizes(int sources, int targets) {
+        if (sources != targets) {
+            throw new IllegalArgumentException(
+                    "There are " + sources + " sources but " + targets
+                    + " targets.");
+        }
+    }
+
+    /**
+     * This class answers one query of a batch.
+     */
+    private abstract static class Batch {
+
+        abstract void answer(int i);
+    }
+}
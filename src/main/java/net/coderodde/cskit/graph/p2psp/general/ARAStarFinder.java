@@ -0,0 +1,411 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class implements anytime repairing <tt>A*</tt> (<tt>ARA*</tt>) by
+ * Likhachev, Gordon and Thrun. It runs weighted <tt>A*</tt> with the
+ * priorities <code>g + epsilon * h</code>, which quickly finds a path
+ * costing at most <code>epsilon</code> times the optimum, and then
+ * decreases <code>epsilon</code> and improves the path until
+ * <code>epsilon</code> reaches 1 or the time budget runs out.
+ * <p>
+ * The iterations do not start from scratch: the g-scores, the parents and
+ * the open queue carry over. The nodes whose g-score improves after being
+ * closed are kept as inconsistent and only these are reopened, together
+ * with the open queue reordered for the new <code>epsilon</code>. Each
+ * iteration stops as soon as no open node can improve the path to the
+ * target under the current priorities.
+ * <p>
+ * The first iteration always runs to completion, so a path is found
+ * whenever one exists. The later ones are abandoned when the budget runs
+ * out, keeping the path of the last completed iteration. The heuristic must
+ * be consistent for the bound to hold.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ARAStarFinder extends GeneralPathFinder {
+
+    /**
+     * The amount of expansions between two deadline checks.
+     */
+    private static final int CHECK_MASK = 255;
+
+    private final HeuristicFunction h;
+    private final double epsilon;
+    private final double epsilonStep;
+    private final long budget;
+
+    /**
+     * Constructs a finder.
+     *
+     * @param OPEN the queue to spawn the open queues from.
+     * @param h the heuristic function.
+     * @param epsilon the inflation of the heuristic in the first iteration.
+     * @param epsilonStep the decrease of the inflation per iteration.
+     * @param budget the time budget of a query in milliseconds.
+     * @throws IllegalArgumentException if <code>epsilon</code> is less than
+     * 1, <code>epsilonStep</code> is not positive or <code>budget</code> is
+     * negative.
+     */
+    public ARAStarFinder(PriorityQueue<DirectedGraphNode, Double> OPEN,
+                         HeuristicFunction h,
+                         double epsilon,
+                         double epsilonStep,
+                         long budget) {
+        super(OPEN);
+
+        if (epsilon < 1.0) {
+            throw new IllegalArgumentException(
+                    "The inflation must be at least 1: " + epsilon);
+        }
+
+        if (epsilonStep <= 0.0) {
+            throw new IllegalArgumentException(
+                    "The inflation step must be positive: " + epsilonStep);
+        }
+
+        if (budget < 0L) {
+            throw new IllegalArgumentException(
+                    "The time budget is negative: " + budget);
+        }
+
+        this.h = h;
+        this.epsilon = epsilon;
+        this.epsilonStep = epsilonStep;
+        this.budget = budget;
+    }
+
+    @Override
+    public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                        DirectedGraphNode target,
+                                        DirectedGraphWeightFunction w) {
+        return search(source, target, w).getPath();
+    }
+
+    /**
+     * Searches for a path from <code>source</code> to <code>target</code>
+     * within the time budget.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @param w the weight function.
+     * @return the best path found and its suboptimality bound.
+     */
+    public Result search(DirectedGraphNode source,
+                         DirectedGraphNode target,
+                         DirectedGraphWeightFunction w) {
+        SearchContext context = context();
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+        HeuristicFunction h = context.heuristic(this.h);
+        Set<DirectedGraphNode> INCONS = new HashSet<DirectedGraphNode>();
+        long deadline = System.nanoTime() + budget * 1000000L;
+        double eps = epsilon;
+        Result result = new Result(
+                java.util.Collections.<DirectedGraphNode>emptyList(),
+                Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY,
+                0);
+
+        if (source.equals(target)) {
+            List<DirectedGraphNode> path = new ArrayList<DirectedGraphNode>(1);
+            path.add(source);
+            return new Result(path, 0.0, 1.0, 1);
+        }
+
+        h.setTarget(target);
+
+        OPEN.insert(source, eps * h.get(source));
+        PARENT_MAP.put(source, null);
+        GSCORE_MAP.put(source, 0.0);
+
+        for (int iteration = 1; ; ++iteration) {
+            long stop = iteration == 1 ? Long.MAX_VALUE : deadline;
+            int expansions = 0;
+
+            // Improve the path.
+            while (OPEN.isEmpty() == false) {
+                Double goal = GSCORE_MAP.get(target);
+
+                if (goal != null && goal <= OPEN.getPriority(OPEN.min())) {
+                    break;
+                }
+
+                if ((++expansions & CHECK_MASK) == 0
+                        && System.nanoTime() > stop) {
+                    return result;
+                }
+
+                DirectedGraphNode current = OPEN.extractMinimum();
+                CLOSED.add(current);
+
+                cursor.resetToChildren(current);
+
+                while (cursor.next()) {
+                    DirectedGraphNode child = cursor.getNode();
+                    double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
+                    Double g = GSCORE_MAP.get(child);
+
+                    if (g != null && tmpg >= g) {
+                        continue;
+                    }
+
+                    GSCORE_MAP.put(child, tmpg);
+                    PARENT_MAP.put(child, current);
+
+                    if (CLOSED.contains(child)) {
+                        INCONS.add(child);
+                    } else if (OPEN.contains(child)) {
+                        OPEN.decreasePriority(child,
+                                              tmpg + eps * h.get(child));
+                    } else {
+                        OPEN.insert(child, tmpg + eps * h.get(child));
+                    }
+                }
+            }
+
+            Double goal = GSCORE_MAP.get(target);
+
+            if (goal == null) {
+                return result;
+            }
+
+            // Gather the open and the inconsistent nodes to bound the path
+            // and to reorder them for the next iteration.
+            List<DirectedGraphNode> pending =
+                    new ArrayList<DirectedGraphNode>(OPEN.size()
+                                                     + INCONS.size());
+            double minf = Double.POSITIVE_INFINITY;
+
+            while (OPEN.isEmpty() == false) {
+                pending.add(OPEN.extractMinimum());
+            }
+
+            pending.addAll(INCONS);
+            INCONS.clear();
+
+            for (DirectedGraphNode node : pending) {
+                minf = Math.min(minf, GSCORE_MAP.get(node) + h.get(node));
+            }
+
+            double bound = getBound(eps, goal, minf);
+            List<DirectedGraphNode> path = tracebackPath(target, PARENT_MAP);
+
+            result = new Result(path, getPathCost(path, w), bound, iteration);
+
+            if (bound <= 1.0 || eps <= 1.0 || System.nanoTime() > deadline) {
+                return result;
+            }
+
+            eps = Math.max(1.0, eps - epsilonStep);
+            CLOSED.clear();
+
+            for (DirectedGraphNode node : pending) {
+                OPEN.insert(node, GSCORE_MAP.get(node) + eps * h.get(node));
+            }
+        }
+    }
+
+    /**
+     * Searches for a path in a graph snapshot within the time budget. The
+     * inconsistent nodes are marked in the reached stamps of the backward
+     * search state, whose queue array lists them.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the best path of node ids found, or an empty array if
+     * <code>target</code> is not reachable from <code>source</code>.
+     */
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        CompactSearchState state = compactState(graph);
+        CompactSearchState incons = reverseCompactState(graph);
+        IndexedBinaryHeap open = state.getOpen();
+        double[] g = state.getDistances();
+        int[] parents = state.getParents();
+        int[] pending = incons.getQueue();
+        int inconsSize = 0;
+        HeuristicFunction h = heuristic(this.h);
+        long deadline = System.nanoTime() + budget * 1000000L;
+        double eps = epsilon;
+        int[] result = new int[0];
+
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        h.setTarget(graph, target);
+
+        open.insert(source, eps * h.get(graph, source));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+        state.reach(source);
+
+        for (int iteration = 1; ; ++iteration) {
+            long stop = iteration == 1 ? Long.MAX_VALUE : deadline;
+            int expansions = 0;
+
+            while (open.isEmpty() == false) {
+                if (state.isReached(target)
+                        && g[target] <= open.minPriority()) {
+                    break;
+                }
+
+                if ((++expansions & CHECK_MASK) == 0
+                        && System.nanoTime() > stop) {
+                    return result;
+                }
+
+                int current = open.extractMinimum();
+                state.close(current);
+
+                for (int a = graph.outBegin(current);
+                         a < graph.outEnd(current);
+                         ++a) {
+                    int child = graph.getTarget(a);
+                    double tmpg = g[current] + graph.getWeight(a);
+                    if (state.isReached(child) && tmpg >= g[child]) {
+                        continue;
+                    }
+
+                    g[child] = tmpg;
+                    parents[child] = current;
+                    state.reach(child);
+
+                    if (state.isClosed(child)) {
+                        if (incons.isReached(child) == false) {
+                            incons.reach(child);
+                            pending[inconsSize++] = child;
+                        }
+                    } else {
+                        double f = tmpg + eps * h.get(graph, child);
+
+                        if (open.contains(child)) {
+                            open.decreasePriority(child, f);
+                        } else {
+                            open.insert(child, f);
+                        }
+                    }
+                }
+            }
+
+            if (state.isReached(target) == false) {
+                return result;
+            }
+
+            int size = inconsSize;
+            double minf = Double.POSITIVE_INFINITY;
+
+            while (open.isEmpty() == false) {
+                pending[size++] = open.extractMinimum();
+            }
+
+            for (int i = 0; i < size; ++i) {
+                minf = Math.min(minf,
+                                g[pending[i]]
+                                + h.get(graph, pending[i]));
+            }
+
+            double bound = getBound(eps, g[target], minf);
+
+            result = tracebackPath(target, parents);
+
+            if (bound <= 1.0 || eps <= 1.0 || System.nanoTime() > deadline) {
+                return result;
+            }
+
+            eps = Math.max(1.0, eps - epsilonStep);
+            state.reopen();
+            incons.reset();
+            inconsSize = 0;
+
+            for (int i = 0; i < size; ++i) {
+                int u = pending[i];
+                open.insert(u, g[u] + eps * h.get(graph, u));
+            }
+        }
+    }
+
+    /**
+     * Returns the suboptimality bound of a path of cost <code>goal</code>
+     * found with inflation <code>eps</code>, given the least f-score
+     * <code>minf</code> of the open and inconsistent nodes. A path no
+     * costlier than <code>minf</code>, as a path of cost 0 is, is optimal.
+     */
+    private static double getBound(double eps, double goal, double minf) {
+        if (goal <= minf) {
+            return 1.0;
+        }
+
+        return Math.max(1.0, Math.min(eps, goal / minf));
+    }
+
+    /**
+     * This class holds the outcome of a search: the best path found, its
+     * cost, the factor by which its cost may exceed the optimum and the
+     * amount of completed iterations.
+     */
+    public static final class Result {
+
+        private final List<DirectedGraphNode> path;
+        private final double cost;
+        private final double bound;
+        private final int iterations;
+
+        Result(List<DirectedGraphNode> path,
+               double cost,
+               double bound,
+               int iterations) {
+            this.path = path;
+            this.cost = cost;
+            this.bound = bound;
+            this.iterations = iterations;
+        }
+
+        /**
+         * Returns the best path found.
+         *
+         * @return the path, or an empty list if the target is not reachable.
+         */
+        public List<DirectedGraphNode> getPath() {
+            return path;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        /**
+         * Returns the suboptimality bound of the path: its cost is at most
+         * this times the cost of a shortest path. 1 means optimal.
+         *
+         * @return the suboptimality bound.
+         */
+        public double getBound() {
+            return bound;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+import net.coderodde.cskit.graph.GraphMask;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -12,7 +18,8 @@ import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
  * @author Rodion Efremov
  * @version 1.618 (16.12.2013)
  */
-public class AStarFinder extends GeneralPathFinder {
+public class AStarFinder extends GeneralPathFinder
+        implements MaskedPathFinder {
 
     private HeuristicFunction h;
 
@@ -26,11 +33,16 @@ public class AStarFinder extends GeneralPathFinder {
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
+        SearchContext context = context();
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+        HeuristicFunction h = context.heuristic(this.h);
+
         h.setTarget(target);
-        OPEN.clear();
-        CLOSED.clear();
-        GSCORE_MAP.clear();
-        PARENT_MAP.clear();
 
         OPEN.insert(source, h.get(source));
         PARENT_MAP.put(source, null);
@@ -45,12 +57,16 @@ public class AStarFinder extends GeneralPathFinder {
 
             CLOSED.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSED.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP.get(current) + w.get(current, child);
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP.containsKey(child) == false) {
                     OPEN.insert(child, tmpg + h.get(child));
@@ -66,4 +82,83 @@ public class AStarFinder extends GeneralPathFinder {
 
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        return find(graph, source, target, null);
+    }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph,
+                      int source,
+                      int target,
+                      GraphMask mask) {
+        CompactSearchState state = compactState(graph);
+        IndexedBinaryHeap open = state.getOpen();
+        double[] g = state.getDistances();
+        int[] parents = state.getParents();
+        SearchContext context = snapshotContext();
+        HeuristicFunction h = context.heuristic(this.h);
+
+        h.setTarget(graph, target);
+
+        open.insert(source, h.get(graph, source));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+
+        while (open.isEmpty() == false) {
+            int current = open.extractMinimum();
+
+            if (current == target) {
+                return tracebackPath(current, parents);
+            }
+
+            state.close(current);
+
+            context.reserveChildren(graph.outEnd(current)
+                                    - graph.outBegin(current));
+
+            int[] children = context.getChildIds();
+            int[] arcs = context.getArcs();
+            double[] estimates = context.getEstimates();
+            int size = 0;
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (state.isClosed(child)) {
+                    continue;
+                }
+
+                if (mask != null && (mask.isArcBlocked(a)
+                                     || mask.isNodeBlocked(child))) {
+                    continue;
+                }
+
+                children[size] = child;
+                arcs[size++] = a;
+            }
+
+            h.get(graph, children, size, estimates);
+
+            for (int i = 0; i < size; ++i) {
+                int child = children[i];
+                double tmpg = g[current] + graph.getWeight(arcs[i]);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg + estimates[i]);
+                    g[child] = tmpg;
+                    parents[child] = current;
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child, tmpg + estimates[i]);
+                    g[child] = tmpg;
+                    parents[child] = current;
+                }
+            }
+        }
+
+        return new int[0];
+    }
 }
@@ -1,12 +1,13 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -19,12 +20,8 @@ import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
  */
 public class BHPAFinder extends GeneralPathFinder {
 
-    private HeuristicFunction h;
-    private HeuristicFunction h2;
-    private PriorityQueue<DirectedGraphNode, Double> OPEN2;
-    private Set<DirectedGraphNode> CLOSED2;
-    private Map<DirectedGraphNode, Double> GSCORE_MAP2;
-    private Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2;
+    private final HeuristicFunction h;
+    private final HeuristicFunction h2;
 
     public BHPAFinder(PriorityQueue<DirectedGraphNode, Double> OPEN,
                       HeuristicFunction h,
@@ -32,28 +29,31 @@ public class BHPAFinder extends GeneralPathFinder {
         super(OPEN);
         this.h = h;
         this.h2 = h2;
-
-        OPEN2 = OPEN.newInstance();
-        CLOSED2 = new HashSet<DirectedGraphNode>();
-        GSCORE_MAP2 = new HashMap<DirectedGraphNode, Double>();
-        PARENT_MAP2 = new HashMap<DirectedGraphNode, DirectedGraphNode>();
     }
 
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
+        SearchContext context = context();
+        SearchContext reverse = context.reverse();
+        HeuristicFunction h = context.heuristic(this.h);
+        HeuristicFunction h2 = context.heuristic(this.h2);
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
         h.setTarget(target);
-        OPEN.clear();
-        CLOSED.clear();
-        GSCORE_MAP.clear();
-        PARENT_MAP.clear();
 
+        PriorityQueue<DirectedGraphNode, Double> OPEN2 = reverse.OPEN;
+        Set<DirectedGraphNode> CLOSED2 = reverse.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP2 = reverse.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2 =
+                reverse.PARENT_MAP;
         h2.setTarget(source);
-        OPEN2.clear();
-        CLOSED2.clear();
-        GSCORE_MAP2.clear();
-        PARENT_MAP2.clear();
 
         OPEN.insert(source, h.get(source));
         PARENT_MAP.put(source, null);
@@ -81,12 +81,16 @@ public class BHPAFinder extends GeneralPathFinder {
             DirectedGraphNode current = OPEN.extractMinimum();
             CLOSED.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSED.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP.get(current) + w.get(current, child);
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP.containsKey(child) == false) {
                     OPEN.insert(child, tmpg + h.get(child));
@@ -116,12 +120,16 @@ public class BHPAFinder extends GeneralPathFinder {
             current = OPEN2.extractMinimum();
             CLOSED2.add(current);
 
-            for (DirectedGraphNode parent : current.parentIterable()) {
+            cursor.resetToParents(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode parent = cursor.getNode();
+
                 if (CLOSED2.contains(parent)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP2.get(current) + w.get(parent, current);
+                double tmpg = GSCORE_MAP2.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP2.containsKey(parent) == false) {
                     OPEN2.insert(parent, tmpg + h2.get(parent));
@@ -153,4 +161,117 @@ public class BHPAFinder extends GeneralPathFinder {
                 java.util.Collections.<DirectedGraphNode>emptyList() :
                 tracebackPathBidirectional(touch, PARENT_MAP, PARENT_MAP2);
     }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        CompactSearchState state = compactState(graph);
+        CompactSearchState state2 = reverseCompactState(graph);
+        IndexedBinaryHeap open = state.getOpen();
+        IndexedBinaryHeap open2 = state2.getOpen();
+        double[] g = state.getDistances();
+        double[] g2 = state2.getDistances();
+        int[] parents = state.getParents();
+        int[] parents2 = state2.getParents();
+
+        HeuristicFunction h = heuristic(this.h);
+        HeuristicFunction h2 = heuristic(this.h2);
+
+        h.setTarget(graph, target);
+        h2.setTarget(graph, source);
+
+        open.insert(source, h.get(graph, source));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+
+        open2.insert(target, h2.get(graph, target));
+        parents2[target] = CompactDirectedGraph.NO_NODE;
+        g2[target] = 0.0;
+
+        double m = Double.POSITIVE_INFINITY;
+        int touch = CompactDirectedGraph.NO_NODE;
+
+        while ((open.isEmpty() == false) && (open2.isEmpty() == false)) {
+            if (touch != CompactDirectedGraph.NO_NODE) {
+                if (m <= Math.max(open.minPriority(), open2.minPriority())) {
+                    return tracebackPathBidirectional(touch,
+                                                      parents,
+                                                      parents2);
+                }
+            }
+
+            int current = open.extractMinimum();
+            state.close(current);
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (state.isClosed(child)) {
+                    continue;
+                }
+
+                double tmpg = g[current] + graph.getWeight(a);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg + h.get(graph, child));
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child,
+                                          tmpg + h.get(graph, child));
+                } else {
+                    continue;
+                }
+
+                g[child] = tmpg;
+                parents[child] = current;
+
+                if (state2.isClosed(child) && m > tmpg + g2[child]) {
+                    m = tmpg + g2[child];
+                    touch = child;
+                }
+            }
+
+            current = open2.extractMinimum();
+            state2.close(current);
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int parent = graph.getSource(i);
+
+                if (state2.isClosed(parent)) {
+                    continue;
+                }
+
+                double tmpg = g2[current] + graph.getInWeight(i);
+
+                if (open2.contains(parent) == false) {
+                    open2.insert(parent, tmpg + h2.get(graph, parent));
+                } else if (tmpg < g2[parent]) {
+                    open2.decreasePriority(parent,
+                                           tmpg + h2.get(graph, parent));
+                } else {
+                    continue;
+                }
+
+                g2[parent] = tmpg;
+                parents2[parent] = current;
+
+                if (state.isClosed(parent) && m > tmpg + g[parent]) {
+                    m = tmpg + g[parent];
+                    touch = parent;
+                }
+            }
+        }
+
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
+        }
+
+        return tracebackPathBidirectional(touch, parents, parents2);
+    }
 }
@@ -1,12 +1,13 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -18,20 +19,9 @@ import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
  */
 public class BidirectionalDijkstraFinder extends GeneralPathFinder {
 
-    private PriorityQueue<DirectedGraphNode, Double> OPENB;
-    private Set<DirectedGraphNode> CLOSEDB;
-    private Map<DirectedGraphNode, Double> GSCOREB;
-    private Map<DirectedGraphNode, DirectedGraphNode> PARENTB;
-
     public BidirectionalDijkstraFinder(
             PriorityQueue<DirectedGraphNode, Double> OPEN) {
         super(OPEN);
-        OPEN.clear();
-        // Use the same heap structure.
-        OPENB = OPEN.newInstance();
-        CLOSEDB = new HashSet<DirectedGraphNode>();
-        GSCOREB = new HashMap<DirectedGraphNode, Double>();
-        PARENTB = new HashMap<DirectedGraphNode, DirectedGraphNode>();
     }
 
     @Override
@@ -39,19 +29,19 @@ public class BidirectionalDijkstraFinder extends GeneralPathFinder {
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
 
-        PriorityQueue<DirectedGraphNode, Double> OPENA    = OPEN;
-        Set<DirectedGraphNode> CLOSEDA                    = CLOSED;
-        Map<DirectedGraphNode, Double> GSCOREA            = GSCORE_MAP;
-        Map<DirectedGraphNode, DirectedGraphNode> PARENTA = PARENT_MAP;
+        SearchContext context = context();
+        // The backward search uses the same heap structure.
+        SearchContext reverse = context.reverse();
 
-        OPENA.clear();
-        OPENB.clear();
-        CLOSEDA.clear();
-        CLOSEDB.clear();
-        GSCOREA.clear();
-        GSCOREB.clear();
-        PARENTA.clear();
-        PARENTB.clear();
+        PriorityQueue<DirectedGraphNode, Double> OPENA    = context.OPEN;
+        PriorityQueue<DirectedGraphNode, Double> OPENB    = reverse.OPEN;
+        Set<DirectedGraphNode> CLOSEDA                    = context.CLOSED;
+        Set<DirectedGraphNode> CLOSEDB                    = reverse.CLOSED;
+        Map<DirectedGraphNode, Double> GSCOREA            = context.GSCORE_MAP;
+        Map<DirectedGraphNode, Double> GSCOREB            = reverse.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENTA = context.PARENT_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENTB = reverse.PARENT_MAP;
+        DirectedGraphNode.ArcCursor cursor                = context.cursor;
 
         OPENA.insert(source, 0.0);
         OPENB.insert(target, 0.0);
@@ -74,12 +64,16 @@ public class BidirectionalDijkstraFinder extends GeneralPathFinder {
             DirectedGraphNode current = OPENA.extractMinimum();
             CLOSEDA.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSEDA.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCOREA.get(current) + w.get(current, child);
+                double tmpg = GSCOREA.get(current) + w.get(cursor);
 
                 if (GSCOREA.containsKey(child) == false) {
                     OPENA.insert(child, tmpg);
@@ -109,12 +103,16 @@ public class BidirectionalDijkstraFinder extends GeneralPathFinder {
             current = OPENB.extractMinimum();
             CLOSEDB.add(current);
 
-            for (DirectedGraphNode parent : current.parentIterable()) {
+            cursor.resetToParents(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode parent = cursor.getNode();
+
                 if (CLOSEDB.contains(parent)) {
                     continue;
                 }
 
-                double tmpg = GSCOREB.get(current) + w.get(parent, current);
+                double tmpg = GSCOREB.get(current) + w.get(cursor);
 
                 if (GSCOREB.containsKey(parent) == false) {
                     OPENB.insert(parent, tmpg);
@@ -148,4 +146,107 @@ public class BidirectionalDijkstraFinder extends GeneralPathFinder {
 
         return tracebackPathBidirectional(touch, PARENTA, PARENTB);
     }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        CompactSearchState stateA = compactState(graph);
+        CompactSearchState stateB = reverseCompactState(graph);
+        IndexedBinaryHeap openA = stateA.getOpen();
+        IndexedBinaryHeap openB = stateB.getOpen();
+        double[] gA = stateA.getDistances();
+        double[] gB = stateB.getDistances();
+        int[] parentsA = stateA.getParents();
+        int[] parentsB = stateB.getParents();
+
+        openA.insert(source, 0.0);
+        openB.insert(target, 0.0);
+
+        gA[source] = 0.0;
+        gB[target] = 0.0;
+
+        parentsA[source] = CompactDirectedGraph.NO_NODE;
+        parentsB[target] = CompactDirectedGraph.NO_NODE;
+
+        int touch = CompactDirectedGraph.NO_NODE;
+        double m = Double.POSITIVE_INFINITY;
+
+        while ((openA.isEmpty() == false) && (openB.isEmpty() == false)) {
+
+            if (m < openA.minPriority() + openB.minPriority()) {
+                return tracebackPathBidirectional(touch, parentsA, parentsB);
+            }
+
+            int current = openA.extractMinimum();
+            stateA.close(current);
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (stateA.isClosed(child)) {
+                    continue;
+                }
+
+                double tmpg = gA[current] + graph.getWeight(a);
+
+                if (openA.contains(child) == false) {
+                    openA.insert(child, tmpg);
+                } else if (tmpg < gA[child]) {
+                    openA.decreasePriority(child, tmpg);
+                } else {
+                    continue;
+                }
+
+                gA[child] = tmpg;
+                parentsA[child] = current;
+
+                if (stateB.isClosed(child) && m > tmpg + gB[child]) {
+                    m = tmpg + gB[child];
+                    touch = child;
+                }
+            }
+
+            current = openB.extractMinimum();
+            stateB.close(current);
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int parent = graph.getSource(i);
+
+                if (stateB.isClosed(parent)) {
+                    continue;
+                }
+
+                double tmpg = gB[current] + graph.getInWeight(i);
+
+                if (openB.contains(parent) == false) {
+                    openB.insert(parent, tmpg);
+                } else if (tmpg < gB[parent]) {
+                    openB.decreasePriority(parent, tmpg);
+                } else {
+                    continue;
+                }
+
+                gB[parent] = tmpg;
+                parentsB[parent] = current;
+
+                if (stateA.isClosed(parent) && m > tmpg + gA[parent]) {
+                    m = tmpg + gA[parent];
+                    touch = parent;
+                }
+            }
+        }
+
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
+        }
+
+        return tracebackPathBidirectional(touch, parentsA, parentsB);
+    }
 }
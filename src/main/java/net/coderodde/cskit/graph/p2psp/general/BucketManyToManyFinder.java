@@ -0,0 +1,331 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.Arrays;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+
+/**
+ * This class computes distance tables over a {@link ContractionHierarchy}
+ * with buckets. A backward upward search is run once from each target, and
+ * each node it settles gets a bucket entry holding the target and the
+ * distance to it. A forward upward search from a source then scans the
+ * buckets of the nodes it settles: every shortest path of the hierarchy
+ * meets at its highest node, so the best sum over the buckets is the
+ * distance. The backward searches are shared by all rows, and each row
+ * costs a single small search rather than one query per target.
+ * <p>
+ * If the table is requested over a snapshot other than that of the
+ * hierarchy, the ids are translated through the nodes.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class BucketManyToManyFinder extends ManyToManyFinder {
+
+    private final ContractionHierarchy hierarchy;
+
+    public BucketManyToManyFinder(ContractionHierarchy hierarchy,
+                                  int threads) {
+        super(threads);
+        checkNotNull(hierarchy, "'hierarchy' is null.");
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    protected SearchFactory prepare(CompactDirectedGraph graph,
+                                    int[] targets) {
+        final int n = hierarchy.size();
+        UpwardSearch search = new UpwardSearch(hierarchy, true);
+        int[] entryNodes = new int[targets.length];
+        int[] entryColumns = new int[targets.length];
+        double[] entryDistances = new double[targets.length];
+        int entries = 0;
+        int[] columns = new int[n];
+
+        Arrays.fill(columns, -1);
+
+        for (int j = 0; j < targets.length; ++j) {
+            int t = translate(graph, targets[j]);
+
+            if (columns[t] >= 0) {
+                continue;
+            }
+
+            columns[t] = j;
+
+            int settled = search.run(t);
+
+            if (entries + settled > entryNodes.length) {
+                int capacity = Math.max(entryNodes.length << 1,
+                                        entries + settled);
+                entryNodes = Arrays.copyOf(entryNodes, capacity);
+                entryColumns = Arrays.copyOf(entryColumns, capacity);
+                entryDistances = Arrays.copyOf(entryDistances, capacity);
+            }
+
+            for (int i = 0; i < settled; ++i) {
+                int u = search.settled[i];
+                entryNodes[entries] = u;
+                entryColumns[entries] = j;
+                entryDistances[entries++] = search.dist[u];
+            }
+
+            search.reset();
+        }
+
+        // Counting sort of the entries by node.
+        int[] bucketOffsets = new int[n + 1];
+        int[] bucketColumns = new int[entries];
+        double[] bucketDistances = new double[entries];
+
+        for (int i = 0; i < entries; ++i) {
+            ++bucketOffsets[entryNodes[i] + 1];
+        }
+
+        for (int u = 0; u < n; ++u) {
+            bucketOffsets[u + 1] += bucketOffsets[u];
+        }
+
+        int[] fill = Arrays.copyOf(bucketOffsets, n);
+
+        for (int i = 0; i < entries; ++i) {
+            int index = fill[entryNodes[i]]++;
+            bucketColumns[index] = entryColumns[i];
+            bucketDistances[index] = entryDistances[i];
+        }
+
+        return new Buckets(graph,
+                           targets,
+                           columns,
+                           bucketOffsets,
+                           bucketColumns,
+                           bucketDistances);
+    }
+
+    /**
+     * Returns the id in the hierarchy of the node <code>id</code> of
+     * <code>graph</code>.
+     */
+    private int translate(CompactDirectedGraph graph, int id) {
+        CompactDirectedGraph own = hierarchy.getGraph();
+
+        if (graph == own) {
+            return id;
+        }
+
+        int u = own.getId(graph.getNode(id));
+
+        if (u == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The hierarchy does not contain " + graph.getNode(id)
+                    + ".");
+        }
+
+        return u;
+    }
+
+    /**
+     * This class holds the buckets of one table, shared by its threads.
+     */
+    private final class Buckets implements SearchFactory {
+
+        final CompactDirectedGraph graph;
+        final int[] targets;
+
+        /**
+         * Maps each node of the hierarchy to the first column it is the
+         * target of, or -1.
+         */
+        final int[] columns;
+
+        /**
+         * The bucket of node <code>u</code> is
+         * <code>[offsets[u], offsets[u + 1])</code>.
+         */
+        final int[] offsets;
+        final int[] bucketColumns;
+        final double[] bucketDistances;
+
+        Buckets(CompactDirectedGraph graph,
+                int[] targets,
+                int[] columns,
+                int[] offsets,
+                int[] bucketColumns,
+                double[] bucketDistances) {
+            this.graph = graph;
+            this.targets = targets;
+            this.columns = columns;
+            this.offsets = offsets;
+            this.bucketColumns = bucketColumns;
+            this.bucketDistances = bucketDistances;
+        }
+
+        @Override
+        public Search newSearch() {
+            return new BucketScan(this);
+        }
+    }
+
+    /**
+     * This class runs the forward searches of one thread.
+     */
+    private final class BucketScan extends Search {
+
+        private final CompactDirectedGraph graph;
+        private final int[] targets;
+        private final int[] columns;
+        private final int[] bucketOffsets;
+        private final int[] bucketColumns;
+        private final double[] bucketDistances;
+        private final UpwardSearch search;
+
+        BucketScan(Buckets buckets) {
+            this.graph = buckets.graph;
+            this.targets = buckets.targets;
+            this.columns = buckets.columns;
+            this.bucketOffsets = buckets.offsets;
+            this.bucketColumns = buckets.bucketColumns;
+            this.bucketDistances = buckets.bucketDistances;
+            this.search = new UpwardSearch(hierarchy, false);
+        }
+
+        @Override
+        protected void computeRow(int source, double[] row) {
+            int settled = search.run(translate(graph, source));
+
+            for (int i = 0; i < settled; ++i) {
+                int u = search.settled[i];
+                double d = search.dist[u];
+
+                for (int k = bucketOffsets[u]; k < bucketOffsets[u + 1]; ++k) {
+                    double cost = d + bucketDistances[k];
+
+                    if (cost < row[bucketColumns[k]]) {
+                        row[bucketColumns[k]] = cost;
+                    }
+                }
+            }
+
+            search.reset();
+
+            for (int j = 0; j < targets.length; ++j) {
+                row[j] = row[columns[translate(graph, targets[j])]];
+            }
+        }
+    }
+
+    /**
+     * This class runs exhaustive searches over the upward arcs of a
+     * hierarchy, or over the downward arcs in reverse, with stall-on-demand.
+     */
+    private static final class UpwardSearch {
+
+        private final ContractionHierarchy hierarchy;
+        private final boolean backward;
+        final double[] dist;
+        final int[] settled;
+        private final IndexedBinaryHeap heap;
+        private final int[] touched;
+        private int touchedSize;
+
+        UpwardSearch(ContractionHierarchy hierarchy, boolean backward) {
+            final int n = hierarchy.size();
+            this.hierarchy = hierarchy;
+            this.backward = backward;
+            this.dist = new double[n];
+            this.settled = new int[n];
+            this.heap = new IndexedBinaryHeap(n);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Searches from <code>start</code> and stores the nodes settled
+         * without being stalled in <code>settled</code>.
+         *
+         * @return the amount of such nodes.
+         */
+        int run(int start) {
+            int count = 0;
+
+            dist[start] = 0.0;
+            touched[touchedSize++] = start;
+            heap.insert(start, 0.0);
+
+            while (heap.isEmpty() == false) {
+                int u = heap.extractMinimum();
+
+                if (backward ? expandBackward(u) : expandForward(u)) {
+                    settled[count++] = u;
+                }
+            }
+
+            return count;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedSize; ++i) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedSize = 0;
+        }
+
+        private boolean expandForward(int u) {
+            double d = dist[u];
+
+            for (int i = hierarchy.downBegin(u);
+                     i < hierarchy.downEnd(u);
+                     ++i) {
+                if (dist[hierarchy.getDownSource(i)]
+                        + hierarchy.getDownWeight(i) < d) {
+                    return false;
+                }
+            }
+
+            for (int i = hierarchy.upBegin(u); i < hierarchy.upEnd(u); ++i) {
+                relax(hierarchy.getUpTarget(i), d + hierarchy.getUpWeight(i));
+            }
+
+            return true;
+        }
+
+        private boolean expandBackward(int u) {
+            double d = dist[u];
+
+            for (int i = hierarchy.upBegin(u); i < hierarchy.upEnd(u); ++i) {
+                if (dist[hierarchy.getUpTarget(i)]
+                        + hierarchy.getUpWeight(i) < d) {
+                    return false;
+                }
+            }
+
+            for (int i = hierarchy.downBegin(u);
+                     i < hierarchy.downEnd(u);
+                     ++i) {
+                relax(hierarchy.getDownSource(i),
+                      d + hierarchy.getDownWeight(i));
+            }
+
+            return true;
+        }
+
+        private void relax(int v, double d) {
+            if (d >= dist[v]) {
+                return;
+            }
+
+            if (dist[v] == Double.POSITIVE_INFINITY) {
+                touched[touchedSize++] = v;
+                heap.insert(v, d);
+            } else if (heap.contains(v)) {
+                heap.decreasePriority(v, d);
+            } else {
+                return;
+            }
+
+            dist[v] = d;
+        }
+    }
+}
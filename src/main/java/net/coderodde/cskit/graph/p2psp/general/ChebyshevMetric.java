@@ -1,5 +1,6 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
@@ -26,11 +27,16 @@ public class ChebyshevMetric<W extends Comparable<? super W>> extends HeuristicF
 
     @Override
     public double get(DirectedGraphNode u) {
-        double[] q = map.get(u);
+        int index = map.indexOf(u);
+
+        if (index < 0) {
+            return get(p, map.get(u));
+        }
+
         double max = Double.MIN_VALUE;
 
-        for (int i = 0; i < q.length; ++i) {
-            double tmp = Math.abs(p[i] - q[i]);
+        for (int i = 0; i < p.length; ++i) {
+            double tmp = Math.abs(p[i] - map.getAxis(i)[index]);
 
             if (max < tmp) {
                 max = tmp;
@@ -40,6 +46,68 @@ public class ChebyshevMetric<W extends Comparable<? super W>> extends HeuristicF
         return max;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Over the snapshot of a bound coordinate map, the target location is
+     * read by id.
+     */
+    @Override
+    public void setTarget(CompactDirectedGraph graph, int target) {
+        if (graph != map.getGraph()) {
+            super.setTarget(graph, target);
+            return;
+        }
+
+        this.target = null;
+        this.p = new double[map.getDimensions()];
+
+        for (int i = 0; i < p.length; ++i) {
+            p[i] = map.get(target, i);
+        }
+    }
+
+    @Override
+    public double get(CompactDirectedGraph graph, int u) {
+        if (graph != map.getGraph()) {
+            return super.get(graph, u);
+        }
+
+        double max = Double.MIN_VALUE;
+
+        for (int i = 0; i < p.length; ++i) {
+            double tmp = Math.abs(p[i] - map.get(u, i));
+
+            if (max < tmp) {
+                max = tmp;
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public void get(CompactDirectedGraph graph,
+                    int[] ids,
+                    int size,
+                    double[] out) {
+        if (graph != map.getGraph() || p.length != 2) {
+            super.get(graph, ids, size, out);
+            return;
+        }
+
+        double[] xs = map.getAxis(0);
+        double[] ys = map.getAxis(1);
+        double x = p[0];
+        double y = p[1];
+
+        for (int i = 0; i < size; ++i) {
+            out[i] = Math.max(Double.MIN_VALUE,
+                              Math.max(Math.abs(x - xs[ids[i]]),
+                                       Math.abs(y - ys[ids[i]])));
+        }
+    }
+
     @Override
     public double get(double[] p, double[] q) {
         double max = Double.MIN_VALUE;
@@ -0,0 +1,854 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class implements a contraction hierarchy over a weighted directed
+ * graph. The nodes are contracted one by one in order of importance; when
+ * contracting a node <code>u</code> would destroy the only shortest path
+ * <code>x -&gt; u -&gt; y</code>, the arc <code>(x, y)</code> is added as a
+ * shortcut. A shortest path query then needs to search upwards in the order
+ * only, which is what {@link ContractionHierarchyFinder} does.
+ * <p>
+ * The contraction runs in rounds on several threads. Each round contracts
+ * all nodes whose priority is smaller than that of each of their remaining
+ * neighbors; such nodes are never adjacent, so they may be contracted at
+ * once. The witness searches of a round ignore all nodes being contracted
+ * in it.
+ * <p>
+ * A hierarchy is immutable once constructed and may be shared by any amount
+ * of finders.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ContractionHierarchy {
+
+    /**
+     * The maximum amount of nodes a single witness search may settle. A
+     * search giving up early only costs an unnecessary shortcut.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * The settle limit of the witness searches estimating the priority of a
+     * node. An estimate need not be exact, and the priorities of the nodes
+     * in the dense upper levels are recomputed very often.
+     */
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private static final byte REMAINING = 0;
+    private static final byte CONTRACTING = 1;
+    private static final byte CONTRACTED = 2;
+
+    private final CompactDirectedGraph graph;
+    private final int[] ranks;
+
+    private final int[] arcTails;
+    private final int[] arcHeads;
+    /**
+     * The two arcs a shortcut replaces, or -1 for the arcs of the graph.
+     */
+    private final int[] arcFirst;
+    private final int[] arcSecond;
+    private final int shortcutCount;
+
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upArcs;
+
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downArcs;
+
+    /**
+     * Constructs a hierarchy over the graph <code>graph</code> weighted by
+     * <code>w</code>, contracting on all available processors.
+     *
+     * @param graph the list of all nodes of a graph.
+     * @param w the weight function.
+     */
+    public ContractionHierarchy(List<DirectedGraphNode> graph,
+                                DirectedGraphWeightFunction w) {
+        this(new CompactDirectedGraph(graph, w),
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    public ContractionHierarchy(List<DirectedGraphNode> graph,
+                                DirectedGraphWeightFunction w,
+                                int threads) {
+        this(new CompactDirectedGraph(graph, w), threads);
+    }
+
+    /**
+     * Constructs a hierarchy over the snapshot <code>graph</code>.
+     *
+     * @param graph the graph snapshot.
+     * @param threads the amount of contraction threads.
+     */
+    public ContractionHierarchy(CompactDirectedGraph graph, int threads) {
+        checkNotNull(graph, "'graph' is null.");
+
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+
+        Contractor c = new Contractor(graph, threads);
+        c.run();
+
+        this.graph = graph;
+        this.ranks = c.ranks;
+        this.arcTails = Arrays.copyOf(c.tails, c.arcCount);
+        this.arcHeads = Arrays.copyOf(c.heads, c.arcCount);
+        this.arcFirst = Arrays.copyOf(c.first, c.arcCount);
+        this.arcSecond = Arrays.copyOf(c.second, c.arcCount);
+        this.shortcutCount = c.shortcutCount;
+
+        final int n = graph.size();
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+
+        for (int a = 0; a < c.arcCount; ++a) {
+            if (c.dead[a] == false) {
+                if (ranks[c.tails[a]] < ranks[c.heads[a]]) {
+                    upOffsets[c.tails[a] + 1]++;
+                } else {
+                    downOffsets[c.heads[a] + 1]++;
+                }
+            }
+        }
+
+        for (int u = 0; u < n; ++u) {
+            upOffsets[u + 1] += upOffsets[u];
+            downOffsets[u + 1] += downOffsets[u];
+        }
+
+        this.upTargets = new int[upOffsets[n]];
+        this.upWeights = new double[upOffsets[n]];
+        this.upArcs = new int[upOffsets[n]];
+        this.downSources = new int[downOffsets[n]];
+        this.downWeights = new double[downOffsets[n]];
+        this.downArcs = new int[downOffsets[n]];
+
+        int[] upFill = Arrays.copyOf(upOffsets, n);
+        int[] downFill = Arrays.copyOf(downOffsets, n);
+
+        for (int a = 0; a < c.arcCount; ++a) {
+            if (c.dead[a]) {
+                continue;
+            }
+
+            int x = c.tails[a];
+            int y = c.heads[a];
+
+            if (ranks[x] < ranks[y]) {
+                int i = upFill[x]++;
+                upTargets[i] = y;
+                upWeights[i] = c.weights[a];
+                upArcs[i] = a;
+            } else {
+                int i = downFill[y]++;
+                downSources[i] = x;
+                downWeights[i] = c.weights[a];
+                downArcs[i] = a;
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot this hierarchy was built over. The node ids used
+     * by this hierarchy are those of the snapshot.
+     *
+     * @return the graph snapshot.
+     */
+    public CompactDirectedGraph getGraph() {
+        return graph;
+    }
+
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Returns the position of the node <code>u</code> in the contraction
+     * order; the first contracted node has rank 0.
+     *
+     * @param u the node id.
+     * @return the rank of <code>u</code>.
+     */
+    public int getRank(int u) {
+        return ranks[u];
+    }
+
+    /**
+     * Returns the amount of shortcuts added during the contraction.
+     *
+     * @return the amount of shortcuts.
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    int upBegin(int u) {
+        return upOffsets[u];
+    }
+
+    int upEnd(int u) {
+        return upOffsets[u + 1];
+    }
+
+    int getUpTarget(int index) {
+        return upTargets[index];
+    }
+
+    double getUpWeight(int index) {
+        return upWeights[index];
+    }
+
+    int getUpArc(int index) {
+        return upArcs[index];
+    }
+
+    int downBegin(int u) {
+        return downOffsets[u];
+    }
+
+    int downEnd(int u) {
+        return downOffsets[u + 1];
+    }
+
+    int getDownSource(int index) {
+        return downSources[index];
+    }
+
+    double getDownWeight(int index) {
+        return downWeights[index];
+    }
+
+    int getDownArc(int index) {
+        return downArcs[index];
+    }
+
+    int getArcTail(int arc) {
+        return arcTails[arc];
+    }
+
+    int getArcHead(int arc) {
+        return arcHeads[arc];
+    }
+
+    /**
+     * Expands the arcs <code>arcs[0], ..., arcs[count - 1]</code>, forming a
+     * walk from <code>source</code>, into the path of node ids in the
+     * original graph.
+     */
+    int[] unpack(int source, int[] arcs, int count) {
+        int[] path = new int[count + 1];
+        int size = 0;
+        int[] stack = new int[16];
+        path[size++] = source;
+
+        for (int i = 0; i < count; ++i) {
+            int top = 0;
+            stack[top++] = arcs[i];
+
+            while (top > 0) {
+                int a = stack[--top];
+
+                if (arcFirst[a] < 0) {
+                    if (size == path.length) {
+                        path = Arrays.copyOf(path, size << 1);
+                    }
+
+                    path[size++] = arcHeads[a];
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length << 1);
+                    }
+
+                    stack[top++] = arcSecond[a];
+                    stack[top++] = arcFirst[a];
+                }
+            }
+        }
+
+        return Arrays.copyOf(path, size);
+    }
+
+    /**
+     * This class holds the mutable state of the contraction.
+     */
+    private static final class Contractor {
+
+        private final int n;
+        private final int threads;
+        private ExecutorService executor;
+
+        int[] tails = new int[16];
+        int[] heads = new int[16];
+        double[] weights = new double[16];
+        int[] first = new int[16];
+        int[] second = new int[16];
+        boolean[] dead = new boolean[16];
+        int arcCount;
+        int shortcutCount;
+
+        private final int[][] out;
+        private final int[] outSize;
+        private final int[][] in;
+        private final int[] inSize;
+
+        private final byte[] state;
+        private final int[] priorities;
+        private final int[] contractedNeighbors;
+        final int[] ranks;
+
+        private final Witness[] witnesses;
+
+        Contractor(CompactDirectedGraph graph, int threads) {
+            this.n = graph.size();
+            this.threads = threads;
+            this.out = new int[n][];
+            this.outSize = new int[n];
+            this.in = new int[n][];
+            this.inSize = new int[n];
+            this.state = new byte[n];
+            this.priorities = new int[n];
+            this.contractedNeighbors = new int[n];
+            this.ranks = new int[n];
+            this.witnesses = new Witness[threads];
+
+            for (int u = 0; u < n; ++u) {
+                out[u] = new int[Math.max(2, graph.outDegree(u))];
+                in[u] = new int[Math.max(2, graph.inDegree(u))];
+            }
+
+            for (int u = 0; u < n; ++u) {
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    if (graph.getTarget(a) != u) {
+                        addArc(u, graph.getTarget(a), graph.getWeight(a),
+                               -1, -1);
+                    }
+                }
+            }
+        }
+
+        void run() {
+            if (threads > 1) {
+                executor = Executors.newFixedThreadPool(threads);
+            }
+
+            try {
+                contractAll();
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+        }
+
+        private void contractAll() {
+            final int[] remaining = new int[n];
+
+            for (int u = 0; u < n; ++u) {
+                remaining[u] = u;
+            }
+
+            int remainingSize = n;
+            final boolean[] selected = new boolean[n];
+            boolean[] dirty = new boolean[n];
+            final int[] dirtyList = new int[n];
+            int rank = 0;
+
+            parallel(new Task() {
+                @Override
+                void run(int thread) {
+                    for (int u = thread; u < n; u += threads) {
+                        priorities[u] = computePriority(u, thread);
+                    }
+                }
+            });
+
+            while (remainingSize > 0) {
+                final int size = remainingSize;
+
+                parallel(new Task() {
+                    @Override
+                    void run(int thread) {
+                        for (int i = thread; i < size; i += threads) {
+                            selected[remaining[i]] =
+                                    isLocalMinimum(remaining[i]);
+                        }
+                    }
+                });
+
+                int roundSize = 0;
+
+                for (int i = 0; i < size; ++i) {
+                    if (selected[remaining[i]]) {
+                        dirtyList[roundSize++] = remaining[i];
+                        state[remaining[i]] = CONTRACTING;
+                        selected[remaining[i]] = false;
+                    }
+                }
+
+                final int[] round = Arrays.copyOf(dirtyList, roundSize);
+                final Shortcuts[] shortcuts = new Shortcuts[threads];
+
+                parallel(new Task() {
+                    @Override
+                    void run(int thread) {
+                        shortcuts[thread] = new Shortcuts();
+
+                        for (int i = thread; i < round.length; i += threads) {
+                            contract(round[i], thread, shortcuts[thread]);
+                        }
+                    }
+                });
+
+                int dirtySize = 0;
+
+                for (int u : round) {
+                    ranks[u] = rank++;
+                    state[u] = CONTRACTED;
+                }
+
+                for (int u : round) {
+                    for (int i = 0; i < outSize[u]; ++i) {
+                        int v = heads[out[u][i]];
+
+                        if (state[v] == REMAINING && dead[out[u][i]] == false) {
+                            contractedNeighbors[v]++;
+
+                            if (dirty[v] == false) {
+                                dirty[v] = true;
+                                dirtyList[dirtySize++] = v;
+                            }
+                        }
+                    }
+
+                    for (int i = 0; i < inSize[u]; ++i) {
+                        int v = tails[in[u][i]];
+
+                        if (state[v] == REMAINING && dead[in[u][i]] == false) {
+                            contractedNeighbors[v]++;
+
+                            if (dirty[v] == false) {
+                                dirty[v] = true;
+                                dirtyList[dirtySize++] = v;
+                            }
+                        }
+                    }
+                }
+
+                for (Shortcuts s : shortcuts) {
+                    for (int i = 0; i < s.size; ++i) {
+                        if (addArc(s.tails[i],
+                                   s.heads[i],
+                                   s.weights[i],
+                                   s.firsts[i],
+                                   s.seconds[i])) {
+                            ++shortcutCount;
+                        }
+                    }
+                }
+
+                for (int i = 0; i < dirtySize; ++i) {
+                    prune(dirtyList[i]);
+                }
+
+                remainingSize = 0;
+
+                for (int i = 0; i < size; ++i) {
+                    if (state[remaining[i]] == REMAINING) {
+                        remaining[remainingSize++] = remaining[i];
+                    }
+                }
+
+                final int dirtyCount = dirtySize;
+
+                parallel(new Task() {
+                    @Override
+                    void run(int thread) {
+                        for (int i = thread; i < dirtyCount; i += threads) {
+                            priorities[dirtyList[i]] =
+                                    computePriority(dirtyList[i], thread);
+                        }
+                    }
+                });
+
+                for (int i = 0; i < dirtySize; ++i) {
+                    dirty[dirtyList[i]] = false;
+                }
+            }
+        }
+
+        /**
+         * Drops the dead arcs and the arcs to contracted nodes from the
+         * adjacency lists of <code>u</code>.
+         */
+        private void prune(int u) {
+            int size = 0;
+
+            for (int i = 0; i < outSize[u]; ++i) {
+                int a = out[u][i];
+
+                if (dead[a] == false && state[heads[a]] == REMAINING) {
+                    out[u][size++] = a;
+                }
+            }
+
+            outSize[u] = size;
+            size = 0;
+
+            for (int i = 0; i < inSize[u]; ++i) {
+                int a = in[u][i];
+
+                if (dead[a] == false && state[tails[a]] == REMAINING) {
+                    in[u][size++] = a;
+                }
+            }
+
+            inSize[u] = size;
+        }
+
+        /**
+         * Adds the arc <code>(x, y)</code> unless a lighter one is already
+         * present; a heavier one is replaced.
+         *
+         * @return <code>true</code> if the arc was added.
+         */
+        private boolean addArc(int x, int y, double weight, int f, int s) {
+            for (int i = 0; i < outSize[x]; ++i) {
+                int a = out[x][i];
+
+                if (dead[a] == false && heads[a] == y) {
+                    if (weights[a] <= weight) {
+                        return false;
+                    }
+
+                    dead[a] = true;
+                    break;
+                }
+            }
+
+            if (arcCount == tails.length) {
+                int capacity = arcCount << 1;
+                tails = Arrays.copyOf(tails, capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+                dead = Arrays.copyOf(dead, capacity);
+            }
+
+            int a = arcCount++;
+            tails[a] = x;
+            heads[a] = y;
+            weights[a] = weight;
+            first[a] = f;
+            second[a] = s;
+
+            if (outSize[x] == out[x].length) {
+                out[x] = Arrays.copyOf(out[x], outSize[x] << 1);
+            }
+
+            out[x][outSize[x]++] = a;
+
+            if (inSize[y] == in[y].length) {
+                in[y] = Arrays.copyOf(in[y], inSize[y] << 1);
+            }
+
+            in[y][inSize[y]++] = a;
+            return true;
+        }
+
+        /**
+         * The priority of a node is its edge difference plus the amount of
+         * its contracted neighbors; the latter spreads the contraction evenly
+         * over the graph.
+         */
+        private int computePriority(int u, int thread) {
+            int degree = 0;
+
+            for (int i = 0; i < outSize[u]; ++i) {
+                if (dead[out[u][i]] == false
+                        && state[heads[out[u][i]]] == REMAINING) {
+                    ++degree;
+                }
+            }
+
+            for (int i = 0; i < inSize[u]; ++i) {
+                if (dead[in[u][i]] == false
+                        && state[tails[in[u][i]]] == REMAINING) {
+                    ++degree;
+                }
+            }
+
+            return contract(u, thread, null) - degree
+                    + contractedNeighbors[u];
+        }
+
+        private boolean isLocalMinimum(int u) {
+            for (int i = 0; i < outSize[u]; ++i) {
+                int v = heads[out[u][i]];
+
+                if (dead[out[u][i]] == false
+                        && state[v] == REMAINING
+                        && precedes(v, u)) {
+                    return false;
+                }
+            }
+
+            for (int i = 0; i < inSize[u]; ++i) {
+                int v = tails[in[u][i]];
+
+                if (dead[in[u][i]] == false
+                        && state[v] == REMAINING
+                        && precedes(v, u)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Ties are broken by scrambled node ids, so that the ids of a graph
+         * given in some regular order do not serialize the rounds.
+         */
+        private boolean precedes(int u, int v) {
+            if (priorities[u] != priorities[v]) {
+                return priorities[u] < priorities[v];
+            }
+
+            return u * 0x9e3779b1 < v * 0x9e3779b1;
+        }
+
+        /**
+         * Finds the shortcuts needed when contracting <code>u</code>. The
+         * shortcuts are stored into <code>shortcuts</code> unless it is
+         * <code>null</code>.
+         *
+         * @return the amount of shortcuts needed.
+         */
+        private int contract(int u, int thread, Shortcuts shortcuts) {
+            if (witnesses[thread] == null) {
+                witnesses[thread] = new Witness();
+            }
+
+            Witness witness = witnesses[thread];
+            double maxOut = 0.0;
+            int count = 0;
+
+            for (int j = 0; j < outSize[u]; ++j) {
+                int ao = out[u][j];
+
+                if (dead[ao] == false && state[heads[ao]] == REMAINING) {
+                    maxOut = Math.max(maxOut, weights[ao]);
+                }
+            }
+
+            for (int i = 0; i < inSize[u]; ++i) {
+                int ai = in[u][i];
+                int x = tails[ai];
+
+                if (dead[ai] || state[x] != REMAINING) {
+                    continue;
+                }
+
+                witness.search(x,
+                               u,
+                               weights[ai] + maxOut,
+                               shortcuts == null ? SIMULATION_SETTLE_LIMIT
+                                                 : WITNESS_SETTLE_LIMIT);
+
+                for (int j = 0; j < outSize[u]; ++j) {
+                    int ao = out[u][j];
+                    int y = heads[ao];
+
+                    if (dead[ao] || y == x || state[y] != REMAINING) {
+                        continue;
+                    }
+
+                    double via = weights[ai] + weights[ao];
+
+                    if (witness.dist[y] > via) {
+                        ++count;
+
+                        if (shortcuts != null) {
+                            shortcuts.add(x, y, via, ai, ao);
+                        }
+                    }
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Runs <code>task</code> on each of the threads and waits for all of
+         * them to finish.
+         */
+        private void parallel(final Task task) {
+            if (threads == 1) {
+                task.run(0);
+                return;
+            }
+
+            try {
+                List<Future<Void>> futures =
+                        new ArrayList<Future<Void>>(threads);
+
+                for (int t = 0; t < threads; ++t) {
+                    final int thread = t;
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            task.run(thread);
+                            return null;
+                        }
+                    }));
+                }
+
+                for (Future<Void> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                        "Interrupted while contracting.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * This class implements the bounded Dijkstra search looking for
+         * paths that make a shortcut unnecessary. Each thread owns one.
+         */
+        private final class Witness {
+
+            final double[] dist = new double[n];
+            private final int[] touched = new int[n];
+            private int touchedSize;
+            private final IndexedBinaryHeap heap = new IndexedBinaryHeap(n);
+
+            Witness() {
+                Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            }
+
+            /**
+             * Computes the distances from <code>source</code> avoiding
+             * <code>excluded</code> and all nodes not remaining, up to
+             * <code>limit</code>, settling at most <code>settleLimit</code>
+             * nodes.
+             */
+            void search(int source,
+                        int excluded,
+                        double limit,
+                        int settleLimit) {
+                for (int i = 0; i < touchedSize; ++i) {
+                    dist[touched[i]] = Double.POSITIVE_INFINITY;
+                }
+
+                touchedSize = 0;
+                heap.clear();
+
+                dist[source] = 0.0;
+                touched[touchedSize++] = source;
+                heap.insert(source, 0.0);
+
+                int settled = 0;
+
+                while (heap.isEmpty() == false
+                        && heap.minPriority() <= limit
+                        && settled < settleLimit) {
+                    int u = heap.extractMinimum();
+                    ++settled;
+
+                    for (int i = 0; i < outSize[u]; ++i) {
+                        int a = out[u][i];
+                        int v = heads[a];
+
+                        if (dead[a] || v == excluded
+                                || state[v] != REMAINING) {
+                            continue;
+                        }
+
+                        double d = dist[u] + weights[a];
+
+                        if (d >= dist[v] || d > limit) {
+                            continue;
+                        }
+
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedSize++] = v;
+                            heap.insert(v, d);
+                        } else if (heap.contains(v)) {
+                            heap.decreasePriority(v, d);
+                        } else {
+                            continue;
+                        }
+
+                        dist[v] = d;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This class collects the shortcuts found by one thread in a round.
+     */
+    private static final class Shortcuts {
+
+        int[] tails = new int[16];
+        int[] heads = new int[16];
+        double[] weights = new double[16];
+        int[] firsts = new int[16];
+        int[] seconds = new int[16];
+        int size;
+
+        void add(int x, int y, double weight, int f, int s) {
+            if (size == tails.length) {
+                tails = Arrays.copyOf(tails, size << 1);
+                heads = Arrays.copyOf(heads, size << 1);
+                weights = Arrays.copyOf(weights, size << 1);
+                firsts = Arrays.copyOf(firsts, size << 1);
+                seconds = Arrays.copyOf(seconds, size << 1);
+            }
+
+            tails[size] = x;
+            heads[size] = y;
+            weights[size] = weight;
+            firsts[size] = f;
+            seconds[size] = s;
+            ++size;
+        }
+    }
+
+    private abstract static class Task {
+
+        abstract void run(int thread);
+    }
+}
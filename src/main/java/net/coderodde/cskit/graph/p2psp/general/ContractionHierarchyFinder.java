@@ -0,0 +1,293 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.Arrays;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class implements the shortest path query over a
+ * {@link ContractionHierarchy}: a bidirectional Dijkstra search in which
+ * both directions relax only the arcs leading to nodes of higher rank. A
+ * node reached more cheaply from above is stalled, that is, not expanded.
+ * The shortcuts on the found path are unpacked, so the result is a path of
+ * the original graph.
+ * <p>
+ * The search state is allocated once per thread and reset in time
+ * proportional to the amount of touched nodes, so one finder may serve any
+ * amount of threads. Any amount of finders may share one hierarchy.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ContractionHierarchyFinder extends GeneralPathFinder {
+
+    private final ContractionHierarchy hierarchy;
+
+    /**
+     * The forward and the backward direction of each thread.
+     */
+    private final ThreadLocal<Direction[]> directions =
+            new ThreadLocal<Direction[]>() {
+        @Override
+        protected Direction[] initialValue() {
+            return new Direction[]{ new Direction(hierarchy.size()),
+                                    new Direction(hierarchy.size()) };
+        }
+    };
+
+    public ContractionHierarchyFinder(ContractionHierarchy hierarchy) {
+        super(null);
+        checkNotNull(hierarchy, "'hierarchy' is null.");
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Searches for a shortest path from <code>source</code> to
+     * <code>target</code>. The weights are those the hierarchy was built
+     * with, <code>w</code> is not consulted.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @param w the weight function the hierarchy was built with.
+     * @return the shortest path or an empty list if <code>target</code> is
+     * not reachable from <code>source</code>.
+     * @throws IllegalArgumentException if either node is not in the
+     * hierarchy.
+     */
+    @Override
+    public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                        DirectedGraphNode target,
+                                        DirectedGraphWeightFunction w) {
+        CompactDirectedGraph graph = hierarchy.getGraph();
+        int s = graph.getId(source);
+        int t = graph.getId(target);
+
+        if (s == CompactDirectedGraph.NO_NODE
+                || t == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The hierarchy does not contain both " + source
+                    + " and " + target + ".");
+        }
+
+        int[] path = search(s, t);
+
+        if (path.length == 0) {
+            return java.util.Collections.<DirectedGraphNode>emptyList();
+        }
+
+        return graph.toNodeList(path);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If <code>graph</code> is not the snapshot of the hierarchy, the ids
+     * are translated through the nodes.
+     */
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        CompactDirectedGraph own = hierarchy.getGraph();
+
+        if (graph == own) {
+            return search(source, target);
+        }
+
+        int s = own.getId(graph.getNode(source));
+        int t = own.getId(graph.getNode(target));
+
+        if (s == CompactDirectedGraph.NO_NODE
+                || t == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The hierarchy does not contain both nodes.");
+        }
+
+        int[] path = search(s, t);
+
+        for (int i = 0; i < path.length; ++i) {
+            path[i] = graph.getId(own.getNode(path[i]));
+        }
+
+        return path;
+    }
+
+    private int[] search(int source, int target) {
+        Direction[] pair = directions.get();
+        Direction forward = pair[0];
+        Direction backward = pair[1];
+
+        forward.reset();
+        backward.reset();
+        forward.start(source);
+        backward.start(target);
+
+        double best = Double.POSITIVE_INFINITY;
+        int touch = CompactDirectedGraph.NO_NODE;
+        boolean forwardTurn = true;
+
+        while (true) {
+            boolean canForward = forward.heap.isEmpty() == false
+                    && forward.heap.minPriority() < best;
+            boolean canBackward = backward.heap.isEmpty() == false
+                    && backward.heap.minPriority() < best;
+
+            if (canForward == false && canBackward == false) {
+                break;
+            }
+
+            int u;
+
+            if (canForward && (forwardTurn || canBackward == false)) {
+                u = forward.heap.extractMinimum();
+                expandForward(forward, u);
+            } else {
+                u = backward.heap.extractMinimum();
+                expandBackward(backward, u);
+            }
+
+            forwardTurn = forwardTurn == false;
+
+            double cost = forward.dist[u] + backward.dist[u];
+
+            if (cost < best) {
+                best = cost;
+                touch = u;
+            }
+        }
+
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
+        }
+
+        return unpack(forward, backward, source, touch);
+    }
+
+    private void expandForward(Direction forward, int u) {
+        double d = forward.dist[u];
+
+        for (int i = hierarchy.downBegin(u); i < hierarchy.downEnd(u); ++i) {
+            if (forward.dist[hierarchy.getDownSource(i)]
+                    + hierarchy.getDownWeight(i) < d) {
+                return;
+            }
+        }
+
+        for (int i = hierarchy.upBegin(u); i < hierarchy.upEnd(u); ++i) {
+            forward.relax(hierarchy.getUpTarget(i),
+                          d + hierarchy.getUpWeight(i),
+                          hierarchy.getUpArc(i));
+        }
+    }
+
+    private void expandBackward(Direction backward, int u) {
+        double d = backward.dist[u];
+
+        for (int i = hierarchy.upBegin(u); i < hierarchy.upEnd(u); ++i) {
+            if (backward.dist[hierarchy.getUpTarget(i)]
+                    + hierarchy.getUpWeight(i) < d) {
+                return;
+            }
+        }
+
+        for (int i = hierarchy.downBegin(u); i < hierarchy.downEnd(u); ++i) {
+            backward.relax(hierarchy.getDownSource(i),
+                           d + hierarchy.getDownWeight(i),
+                           hierarchy.getDownArc(i));
+        }
+    }
+
+    /**
+     * Collects the arcs from <code>source</code> to <code>touch</code> and
+     * on to the target, and unpacks them.
+     */
+    private int[] unpack(Direction forward,
+                         Direction backward,
+                         int source,
+                         int touch) {
+        int[] arcs = new int[16];
+        int count = 0;
+
+        for (int u = touch; forward.parentArcs[u] >= 0; ) {
+            if (count == arcs.length) {
+                arcs = Arrays.copyOf(arcs, count << 1);
+            }
+
+            arcs[count++] = forward.parentArcs[u];
+            u = hierarchy.getArcTail(forward.parentArcs[u]);
+        }
+
+        for (int i = 0, j = count - 1; i < j; ++i, --j) {
+            int tmp = arcs[i];
+            arcs[i] = arcs[j];
+            arcs[j] = tmp;
+        }
+
+        for (int u = touch; backward.parentArcs[u] >= 0; ) {
+            if (count == arcs.length) {
+                arcs = Arrays.copyOf(arcs, count << 1);
+            }
+
+            arcs[count++] = backward.parentArcs[u];
+            u = hierarchy.getArcHead(backward.parentArcs[u]);
+        }
+
+        return hierarchy.unpack(source, arcs, count);
+    }
+
+    /**
+     * This class holds the state of one search direction.
+     */
+    private static final class Direction {
+
+        final double[] dist;
+        final int[] parentArcs;
+        final IndexedBinaryHeap heap;
+        private final int[] touched;
+        private int touchedSize;
+
+        Direction(int n) {
+            this.dist = new double[n];
+            this.parentArcs = new int[n];
+            this.heap = new IndexedBinaryHeap(n);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedSize; ++i) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedSize = 0;
+            heap.clear();
+        }
+
+        void start(int u) {
+            dist[u] = 0.0;
+            parentArcs[u] = -1;
+            touched[touchedSize++] = u;
+            heap.insert(u, 0.0);
+        }
+
+        void relax(int v, double d, int arc) {
+            if (d >= dist[v]) {
+                return;
+            }
+
+            if (dist[v] == Double.POSITIVE_INFINITY) {
+                touched[touchedSize++] = v;
+                heap.insert(v, d);
+            } else if (heap.contains(v)) {
+                heap.decreasePriority(v, d);
+            } else {
+                return;
+            }
+
+            dist[v] = d;
+            parentArcs[v] = arc;
+        }
+    }
+}
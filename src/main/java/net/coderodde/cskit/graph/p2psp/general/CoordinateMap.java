@@ -1,37 +1,276 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
+import static net.coderodde.cskit.Utilities.checkNotNull;
 
 /**
- * This class maps nodes to their location vectors.
+ * This class maps nodes to their location vectors. Nodes are keyed by
+ * equality, that is, by name.
+ * <p>
+ * The coordinates are stored as a structure of arrays: there is one flat
+ * array per dimension, indexed by the slot of a node. A map bound to a
+ * {@link CompactDirectedGraph} uses the snapshot ids as slots, so the
+ * searches over the snapshot read a component by a single array access,
+ * see {@link #get(int, int)}. An unbound map gives each node the next slot
+ * on its first {@link #put(DirectedGraphNode, double[])}. Either way, the
+ * name of a node is looked up only when its slot is resolved, that is, when
+ * coordinates are written or read by node.
  *
  * @author Rodion Efremov
  * @version 1.618 (16.12.2013)
  */
 public class CoordinateMap {
 
-    private Map<DirectedGraphNode, double[]> map;
+    /**
+     * The slots of the nodes of an unbound map, <code>null</code> for a map
+     * bound to a snapshot.
+     */
+    private final Map<DirectedGraphNode, Integer> slots;
+    private final CompactDirectedGraph graph;
     private final int dimensions;
+    private int size;
+
+    /**
+     * The coordinates: <code>axes[d][i]</code> is the <code>d</code>th
+     * component of the node in slot <code>i</code>. The unused slots of a
+     * bound map hold <code>NaN</code>.
+     */
+    private double[][] axes;
+
+    /**
+     * Marks the slots of a bound map holding coordinates.
+     */
+    private boolean[] stored;
 
     public CoordinateMap(int dimensions, int initialCapacity) {
         this.dimensions = dimensions;
-        map = new HashMap<DirectedGraphNode, double[]>(initialCapacity, 1.05f);
+        this.graph = null;
+        this.slots = new HashMap<DirectedGraphNode, Integer>(
+                Math.max(initialCapacity, 0));
+        this.axes = new double[dimensions][Math.max(initialCapacity, 0)];
     }
 
     public CoordinateMap(int dimensions) {
+        this(dimensions, 16);
+    }
+
+    /**
+     * Constructs a coordinate map whose slots are the node ids of
+     * <code>graph</code>.
+     *
+     * @param dimensions the amount of dimensions.
+     * @param graph the graph snapshot.
+     */
+    public CoordinateMap(int dimensions, CompactDirectedGraph graph) {
+        checkNotNull(graph, "'graph' is null.");
+
         this.dimensions = dimensions;
-        map = new HashMap<DirectedGraphNode, double[]>();
+        this.graph = graph;
+        this.slots = null;
+        this.axes = new double[dimensions][graph.size()];
+        this.stored = new boolean[graph.size()];
+
+        for (double[] axis : axes) {
+            Arrays.fill(axis, Double.NaN);
+        }
     }
 
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the snapshot whose ids are the slots of this map, or
+     * <code>null</code> if this map is not bound to one.
+     *
+     * @return the graph snapshot or <code>null</code>.
+     */
+    public CompactDirectedGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of nodes with coordinates.
+     *
+     * @return the amount of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stores a copy of <code>vector</code> as the location of
+     * <code>node</code>.
+     *
+     * @param node the node.
+     * @param vector the location vector.
+     * @throws IllegalArgumentException if this map is bound to a snapshot
+     * not containing <code>node</code>.
+     */
     public void put(DirectedGraphNode node, double[] vector) {
         checkDimensions(vector);
-        map.put(node, vector);
+
+        if (graph != null) {
+            int id = graph.getId(node);
+
+            if (id == CompactDirectedGraph.NO_NODE) {
+                throw new IllegalArgumentException(
+                        "The node is not in the graph.");
+            }
+
+            store(id, vector);
+            return;
+        }
+
+        Integer slot = slots.get(node);
+
+        if (slot == null) {
+            slot = slots.size();
+            ensureCapacity(slot + 1);
+            slots.put(node, slot);
+            ++size;
+        }
+
+        for (int d = 0; d < dimensions; ++d) {
+            axes[d][slot] = vector[d];
+        }
     }
 
+    /**
+     * Stores a copy of <code>vector</code> as the location of the node with
+     * id <code>id</code> in the snapshot of this map.
+     *
+     * @param id the id of the node.
+     * @param vector the location vector.
+     * @throws IllegalStateException if this map is not bound to a snapshot.
+     */
+    public void put(int id, double[] vector) {
+        checkDimensions(vector);
+
+        if (graph == null) {
+            throw new IllegalStateException(
+                    "The coordinate map is not bound to a graph.");
+        }
+
+        store(id, vector);
+    }
+
+    /**
+     * Returns a copy of the location vector of <code>node</code>.
+     *
+     * @param node the node.
+     * @return the location vector, or <code>null</code> if
+     * <code>node</code> has none.
+     */
     public double[] get(DirectedGraphNode node) {
-        return map.get(node);
+        int slot = indexOf(node);
+
+        if (slot < 0) {
+            return null;
+        }
+
+        double[] vector = new double[dimensions];
+
+        for (int d = 0; d < dimensions; ++d) {
+            vector[d] = axes[d][slot];
+        }
+
+        return vector;
+    }
+
+    /**
+     * Returns the <code>dimension</code>th component of the location of
+     * <code>node</code>.
+     *
+     * @param node the node.
+     * @param dimension the dimension.
+     * @return the component, or <code>NaN</code> if <code>node</code> has
+     * no location.
+     */
+    public double get(DirectedGraphNode node, int dimension) {
+        int slot = indexOf(node);
+
+        if (slot >= 0) {
+            return axes[dimension][slot];
+        }
+
+        double[] vector = get(node);
+        return vector == null ? Double.NaN : vector[dimension];
+    }
+
+    /**
+     * Returns the <code>dimension</code>th component of the location of the
+     * node in slot <code>slot</code>, which is the snapshot id for a bound
+     * map.
+     *
+     * @param slot the slot of the node.
+     * @param dimension the dimension.
+     * @return the component, or <code>NaN</code> if the slot holds no
+     * location in a bound map.
+     */
+    public double get(int slot, int dimension) {
+        return axes[dimension][slot];
+    }
+
+    /**
+     * Returns the slot of <code>node</code> in the arrays of
+     * {@link #getAxis(int)}, or -1 if it has none. This looks the node up
+     * by name; the searches over a bound snapshot use the ids instead. A
+     * subclass serving its coordinates by {@link #get(DirectedGraphNode)}
+     * stores none, and the heuristics fall back to that method.
+     *
+     * @param node the node.
+     * @return the slot or -1.
+     */
+    public int indexOf(DirectedGraphNode node) {
+        if (graph == null) {
+            Integer slot = slots.get(node);
+            return slot == null ? -1 : slot;
+        }
+
+        int id = graph.getId(node);
+        return id != CompactDirectedGraph.NO_NODE && stored[id] ? id : -1;
+    }
+
+    /**
+     * Returns the array of the <code>dimension</code>th components, indexed
+     * by slot. The array of an unbound map is replaced as the map grows, so
+     * it is valid until the next {@link #put(DirectedGraphNode, double[])}.
+     *
+     * @param dimension the dimension.
+     * @return the components.
+     */
+    public double[] getAxis(int dimension) {
+        return axes[dimension];
+    }
+
+    private void store(int id, double[] vector) {
+        if (stored[id] == false) {
+            stored[id] = true;
+            ++size;
+        }
+
+        for (int d = 0; d < dimensions; ++d) {
+            axes[d][id] = vector[d];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (dimensions == 0 || capacity <= axes[0].length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, 2 * axes[0].length);
+
+        for (int d = 0; d < dimensions; ++d) {
+            double[] axis = new double[newCapacity];
+            System.arraycopy(axes[d], 0, axis, 0, axes[d].length);
+            axes[d] = axis;
+        }
     }
 
     private void checkDimensions(double[] vector) {
@@ -0,0 +1,528 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class implements the parallel delta-stepping algorithm of Meyer and
+ * Sanders, which computes a full {@link ShortestPathTree}. The nodes are
+ * kept in buckets of width <code>delta</code> by their tentative distance.
+ * The lowest nonempty bucket is emptied repeatedly by relaxing the light
+ * arcs, those no heavier than <code>delta</code>, of its nodes, which may
+ * refill it; once it stays empty, the heavy arcs of all the nodes removed
+ * from it are relaxed once. The nodes of a bucket are independent of each
+ * other, so they are processed in parallel.
+ * <p>
+ * Each thread owns the nodes whose id is congruent to its index modulo the
+ * amount of threads, along with their distances and buckets. A phase first
+ * lets each thread turn the arcs of its own nodes into relaxation requests
+ * addressed to the owners of the arc heads, then lets each thread apply the
+ * requests addressed to it. No state is ever written by two threads, so
+ * there is no locking; the phases are separated by waiting on the futures.
+ * <p>
+ * A relaxation never reaches further than the heaviest arc beyond the
+ * current bucket, so the buckets are cyclic: bucket <code>i</code> is kept
+ * in the slot <code>i</code> modulo
+ * <code>&lceil;maxWeight / delta&rceil; + 2</code>. If that would exceed
+ * {@value #MAX_BUCKETS} slots, the width is raised to fit, which is still
+ * correct, only less work-efficient.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class DeltaStepping {
+
+    private static final int LIGHT = 0;
+    private static final int HEAVY = 1;
+    private static final int APPLY = 2;
+
+    /**
+     * The greatest amount of cyclic buckets.
+     */
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private final int threads;
+
+    /**
+     * The bucket width, or <code>NaN</code> for the mean arc weight of each
+     * graph.
+     */
+    private final double delta;
+
+    /**
+     * Constructs an engine that uses the mean arc weight of each graph as
+     * the bucket width.
+     *
+     * @param threads the amount of threads.
+     */
+    public DeltaStepping(int threads) {
+        checkThreads(threads);
+        this.threads = threads;
+        this.delta = Double.NaN;
+    }
+
+    /**
+     * Constructs an engine with a fixed bucket width. A small width does
+     * less redundant work, a large one gives the threads more nodes per
+     * phase.
+     *
+     * @param threads the amount of threads.
+     * @param delta the bucket width.
+     */
+    public DeltaStepping(int threads, double delta) {
+        checkThreads(threads);
+
+        if ((delta > 0.0 && delta < Double.POSITIVE_INFINITY) == false) {
+            throw new IllegalArgumentException(
+                    "The bucket width must be positive and finite: " + delta);
+        }
+
+        this.threads = threads;
+        this.delta = delta;
+    }
+
+    /**
+     * Computes the shortest path tree rooted at <code>source</code> over a
+     * snapshot of <code>graph</code>.
+     *
+     * @param graph the graph.
+     * @param w the weight function.
+     * @param source the root node.
+     * @return the shortest path tree.
+     */
+    public ShortestPathTree compute(List<DirectedGraphNode> graph,
+                                    DirectedGraphWeightFunction w,
+                                    DirectedGraphNode source) {
+        CompactDirectedGraph g = new CompactDirectedGraph(graph, w);
+        int s = g.getId(source);
+
+        if (s == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The graph does not contain " + source + ".");
+        }
+
+        return compute(g, s);
+    }
+
+    /**
+     * Computes the shortest path tree rooted at <code>source</code>.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the root node.
+     * @return the shortest path tree.
+     */
+    public ShortestPathTree compute(CompactDirectedGraph graph, int source) {
+        checkNotNull(graph, "'graph' is null.");
+
+        if (source < 0 || source >= graph.size()) {
+            throw new IllegalArgumentException("Bad source id: " + source);
+        }
+
+        double width = delta == delta ? delta : meanWeight(graph);
+        return new Run(graph, width, threads).run(source);
+    }
+
+    private static double meanWeight(CompactDirectedGraph graph) {
+        double sum = 0.0;
+
+        for (int a = 0; a < graph.arcCount(); ++a) {
+            sum += graph.getWeight(a);
+        }
+
+        double mean = sum / graph.arcCount();
+        return mean > 0.0 && mean < Double.POSITIVE_INFINITY ? mean : 1.0;
+    }
+
+    private static void checkThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+    }
+
+    /**
+     * This class holds the state of one computation.
+     */
+    private static final class Run {
+
+        final CompactDirectedGraph graph;
+        final double delta;
+        final double[] dist;
+        final int[] parents;
+
+        /**
+         * The amount of cyclic buckets.
+         */
+        final int slots;
+
+        /**
+         * The bucket slot each node is in, or -1. A bucket may hold stale
+         * entries of nodes that have moved on; these are skipped.
+         */
+        final int[] bucketOf;
+
+        /**
+         * Whether each node is removed from the current bucket.
+         */
+        final boolean[] removed;
+
+        final List<Owner> owners;
+
+        Run(CompactDirectedGraph graph, double delta, int threads) {
+            final int n = graph.size();
+            double maxWeight = maxWeight(graph);
+            this.graph = graph;
+            this.delta = Math.max(delta, maxWeight / (MAX_BUCKETS - 2));
+            this.slots = (int) Math.ceil(maxWeight / this.delta) + 2;
+            this.dist = new double[n];
+            this.parents = new int[n];
+            this.bucketOf = new int[n];
+            this.removed = new boolean[n];
+            this.owners = new ArrayList<Owner>(threads);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parents, CompactDirectedGraph.NO_NODE);
+            Arrays.fill(bucketOf, -1);
+
+            for (int i = 0; i < threads; ++i) {
+                owners.add(new Owner(this, i, threads));
+            }
+        }
+
+        ShortestPathTree run(int source) {
+            ExecutorService executor =
+                    owners.size() == 1
+                    ? null
+                    : Executors.newFixedThreadPool(owners.size());
+
+            try {
+                owners.get(owner(source))
+                      .relax(source, 0.0, CompactDirectedGraph.NO_NODE);
+
+                // A heavy arc lands in a later bucket unless the division
+                // by the width rounds down, so the current bucket is looked
+                // at again.
+                for (long i = nextBucket(0); i >= 0; i = nextBucket(i)) {
+                    do {
+                        runPhase(executor, LIGHT, i);
+                        runPhase(executor, APPLY, i);
+                    } while (hasBucket(i));
+
+                    runPhase(executor, HEAVY, i);
+                    runPhase(executor, APPLY, i);
+                }
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+
+            return new ShortestPathTree(graph, source, dist, parents);
+        }
+
+        int owner(int u) {
+            return u % owners.size();
+        }
+
+        /**
+         * Returns the bucket of the distance <code>d</code>.
+         */
+        long bucket(double d) {
+            return (long) (d / delta);
+        }
+
+        int slot(long bucket) {
+            return (int) (bucket % slots);
+        }
+
+        private static double maxWeight(CompactDirectedGraph graph) {
+            double max = 0.0;
+
+            for (int a = 0; a < graph.arcCount(); ++a) {
+                double weight = graph.getWeight(a);
+
+                if (weight > max && weight < Double.POSITIVE_INFINITY) {
+                    max = weight;
+                }
+            }
+
+            return max;
+        }
+
+        private long nextBucket(long from) {
+            long next = -1;
+
+            for (Owner owner : owners) {
+                long i = owner.nextBucket(from);
+
+                if (i >= 0 && (next < 0 || i < next)) {
+                    next = i;
+                }
+            }
+
+            return next;
+        }
+
+        private boolean hasBucket(long i) {
+            for (Owner owner : owners) {
+                if (owner.hasBucket(i)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void runPhase(ExecutorService executor, int phase, long i) {
+            for (Owner owner : owners) {
+                owner.phase = phase;
+                owner.bucket = i;
+            }
+
+            if (executor == null) {
+                owners.get(0).call();
+                return;
+            }
+
+            try {
+                for (Future<Void> future : executor.invokeAll(owners)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                        "Interrupted while computing shortest paths.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * This class holds the buckets and the outgoing requests of the nodes
+     * owned by one thread.
+     */
+    private static final class Owner implements Callable<Void> {
+
+        private final Run run;
+        private final int index;
+        private final IntList[] buckets;
+        private final IntList frontier = new IntList();
+
+        /**
+         * The nodes removed from the current bucket, whose heavy arcs are
+         * yet to be relaxed.
+         */
+        private final IntList removed = new IntList();
+
+        /**
+         * <code>outboxes[j]</code> holds the requests for the owner
+         * <code>j</code>.
+         */
+        private final Requests[] outboxes;
+
+        int phase;
+        long bucket;
+
+        Owner(Run run, int index, int threads) {
+            this.run = run;
+            this.index = index;
+            this.buckets = new IntList[run.slots];
+            this.outboxes = new Requests[threads];
+
+            for (int i = 0; i < threads; ++i) {
+                outboxes[i] = new Requests();
+            }
+        }
+
+        @Override
+        public Void call() {
+            switch (phase) {
+                case LIGHT:
+                    emptyBucket();
+                    request(frontier, true);
+                    break;
+
+                case HEAVY:
+                    request(removed, false);
+
+                    for (int i = 0; i < removed.size; ++i) {
+                        run.removed[removed.data[i]] = false;
+                    }
+
+                    removed.size = 0;
+                    break;
+
+                case APPLY:
+                    for (Owner sender : run.owners) {
+                        Requests inbox = sender.outboxes[index];
+
+                        for (int i = 0; i < inbox.size; ++i) {
+                            relax(inbox.nodes[i],
+                                  inbox.dists[i],
+                                  inbox.parents[i]);
+                        }
+
+                        inbox.size = 0;
+                    }
+
+                    break;
+            }
+
+            return null;
+        }
+
+        /**
+         * Updates the tentative distance of <code>v</code>, which must be
+         * owned by this thread, and moves it to its new bucket.
+         */
+        void relax(int v, double d, int parent) {
+            if (d >= run.dist[v]) {
+                return;
+            }
+
+            run.dist[v] = d;
+            run.parents[v] = parent;
+
+            int b = run.slot(run.bucket(d));
+
+            if (run.bucketOf[v] != b) {
+                if (buckets[b] == null) {
+                    buckets[b] = new IntList();
+                }
+
+                buckets[b].add(v);
+                run.bucketOf[v] = b;
+            }
+        }
+
+        boolean hasBucket(long i) {
+            IntList list = buckets[run.slot(i)];
+            return list != null && list.size > 0;
+        }
+
+        /**
+         * Returns the index of the first bucket not below <code>from</code>
+         * that has entries, or -1.
+         */
+        long nextBucket(long from) {
+            int slot = run.slot(from);
+
+            for (int i = 0; i < buckets.length; ++i) {
+                IntList list = buckets[slot];
+
+                if (list != null && list.size > 0) {
+                    return from + i;
+                }
+
+                if (++slot == buckets.length) {
+                    slot = 0;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Moves the nodes of the current bucket to the frontier, and
+         * remembers those not removed from it before.
+         */
+        private void emptyBucket() {
+            int slot = run.slot(bucket);
+            IntList list = buckets[slot];
+
+            frontier.size = 0;
+
+            if (list == null) {
+                return;
+            }
+
+            for (int i = 0; i < list.size; ++i) {
+                int u = list.data[i];
+
+                if (run.bucketOf[u] == slot) {
+                    run.bucketOf[u] = -1;
+                    frontier.add(u);
+
+                    if (run.removed[u] == false) {
+                        run.removed[u] = true;
+                        removed.add(u);
+                    }
+                }
+            }
+
+            list.size = 0;
+        }
+
+        private void request(IntList nodes, boolean light) {
+            CompactDirectedGraph graph = run.graph;
+
+            for (int i = 0; i < nodes.size; ++i) {
+                int u = nodes.data[i];
+                double d = run.dist[u];
+
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    double weight = graph.getWeight(a);
+
+                    if ((weight <= run.delta) == light) {
+                        int v = graph.getTarget(a);
+                        outboxes[run.owner(v)].add(v, d + weight, u);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This class is a growable list of primitive integers.
+     */
+    private static final class IntList {
+
+        int[] data = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size << 1);
+            }
+
+            data[size++] = value;
+        }
+    }
+
+    /**
+     * This class is a growable list of relaxation requests.
+     */
+    private static final class Requests {
+
+        int[] nodes = new int[8];
+        double[] dists = new double[8];
+        int[] parents = new int[8];
+        int size;
+
+        void add(int node, double dist, int parent) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size << 1);
+                dists = Arrays.copyOf(dists, size << 1);
+                parents = Arrays.copyOf(parents, size << 1);
+            }
+
+            nodes[size] = node;
+            dists[size] = dist;
+            parents[size++] = parent;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+import net.coderodde.cskit.graph.GraphMask;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
 /**
  * This class implements the classical Dijkstra's algorithm for finding point-
- * 2-point shortest paths.
+ * 2-point shortest paths. It also answers one-to-many queries: a single
+ * search settles the nearest targets of a set and stops as soon as the
+ * requested amount of them is settled.
  *
  * @author Rodion Efremov
  * @version 1.618
  */
-public class DijkstraFinder extends GeneralPathFinder {
+public class DijkstraFinder extends GeneralPathFinder
+        implements MaskedPathFinder {
 
     public DijkstraFinder(PriorityQueue<DirectedGraphNode, Double> OPEN) {
         super(OPEN);
@@ -23,10 +36,13 @@ public class DijkstraFinder extends GeneralPathFinder {
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
-        OPEN.clear();
-        CLOSED.clear();
-        GSCORE_MAP.clear();
-        PARENT_MAP.clear();
+        SearchContext context = context();
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
 
         OPEN.insert(source, 0.0);
         PARENT_MAP.put(source, null);
@@ -41,12 +57,16 @@ public class DijkstraFinder extends GeneralPathFinder {
 
             CLOSED.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSED.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP.get(current) + w.get(current, child);
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
 
                 if (PARENT_MAP.containsKey(child) == false) {
                     OPEN.insert(child, tmpg);
@@ -62,4 +82,266 @@ public class DijkstraFinder extends GeneralPathFinder {
 
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        return find(graph, source, target, null);
+    }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph,
+                      int source,
+                      int target,
+                      GraphMask mask) {
+        CompactSearchState state = compactState(graph);
+        IndexedBinaryHeap open = state.getOpen();
+        double[] g = state.getDistances();
+        int[] parents = state.getParents();
+
+        open.insert(source, 0.0);
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+
+        while (open.isEmpty() == false) {
+            int current = open.extractMinimum();
+
+            if (current == target) {
+                return tracebackPath(current, parents);
+            }
+
+            state.close(current);
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (state.isClosed(child)) {
+                    continue;
+                }
+
+                if (mask != null && (mask.isArcBlocked(a)
+                                     || mask.isNodeBlocked(child))) {
+                    continue;
+                }
+
+                double tmpg = g[current] + graph.getWeight(a);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg);
+                    parents[child] = current;
+                    g[child] = tmpg;
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child, tmpg);
+                    parents[child] = current;
+                    g[child] = tmpg;
+                }
+            }
+        }
+
+        return new int[0];
+    }
+
+    /**
+     * Finds the shortest paths from <code>source</code> to all reachable
+     * <code>targets</code> in a single search.
+     *
+     * @param source the source node.
+     * @param targets the target nodes.
+     * @param w the weight function.
+     * @return the reached targets in the order of nondecreasing cost.
+     */
+    public NearestTargets findToMany(DirectedGraphNode source,
+                                     Collection<DirectedGraphNode> targets,
+                                     DirectedGraphWeightFunction w) {
+        return findNearest(source, targets, Integer.MAX_VALUE, w);
+    }
+
+    /**
+     * Finds the shortest paths from <code>source</code> to the
+     * <code>k</code> nearest <code>targets</code>. The search stops as soon
+     * as <code>k</code> distinct targets are settled, so it explores only
+     * the ball reaching to the <code>k</code>th nearest target.
+     *
+     * @param source the source node.
+     * @param targets the target nodes; duplicates count once.
+     * @param k the greatest amount of targets to report.
+     * @param w the weight function.
+     * @return at most <code>k</code> nearest reachable targets, in the order
+     * of nondecreasing cost.
+     * @throws IllegalArgumentException if <code>k</code> is negative.
+     */
+    public NearestTargets findNearest(DirectedGraphNode source,
+                                      Collection<DirectedGraphNode> targets,
+                                      int k,
+                                      DirectedGraphWeightFunction w) {
+        checkAmount(k);
+
+        SearchContext context = context();
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+        Set<DirectedGraphNode> remaining =
+                new HashSet<DirectedGraphNode>(targets);
+        int wanted = Math.min(k, remaining.size());
+        List<DirectedGraphNode> reached =
+                new ArrayList<DirectedGraphNode>(wanted);
+        List<List<DirectedGraphNode>> paths =
+                new ArrayList<List<DirectedGraphNode>>(wanted);
+        double[] costs = new double[wanted];
+
+        OPEN.insert(source, 0.0);
+        PARENT_MAP.put(source, null);
+        GSCORE_MAP.put(source, 0.0);
+
+        while (reached.size() < wanted && OPEN.isEmpty() == false) {
+            DirectedGraphNode current = OPEN.extractMinimum();
+
+            if (remaining.remove(current)) {
+                costs[reached.size()] = GSCORE_MAP.get(current);
+                reached.add(current);
+                paths.add(tracebackPath(current, PARENT_MAP));
+            }
+
+            CLOSED.add(current);
+
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
+                if (CLOSED.contains(child)) {
+                    continue;
+                }
+
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
+
+                if (PARENT_MAP.containsKey(child) == false) {
+                    OPEN.insert(child, tmpg);
+                    PARENT_MAP.put(child, current);
+                    GSCORE_MAP.put(child, tmpg);
+                } else if (tmpg < GSCORE_MAP.get(child)) {
+                    OPEN.decreasePriority(child, tmpg);
+                    PARENT_MAP.put(child, current);
+                    GSCORE_MAP.put(child, tmpg);
+                }
+            }
+        }
+
+        return new NearestTargets(reached,
+                                  paths,
+                                  Arrays.copyOf(costs, reached.size()));
+    }
+
+    /**
+     * Finds the shortest paths from <code>source</code> to all reachable
+     * <code>targets</code> in a graph snapshot in a single search.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param targets the ids of the target nodes.
+     * @return the reached targets in the order of nondecreasing cost.
+     */
+    public NearestTargets findToMany(CompactDirectedGraph graph,
+                                     int source,
+                                     int[] targets) {
+        return findNearest(graph, source, targets, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the shortest paths from <code>source</code> to the
+     * <code>k</code> nearest <code>targets</code> in a graph snapshot. The
+     * targets are marked in the reached stamps of the search state, which
+     * this search does not otherwise use.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param targets the ids of the target nodes; duplicates count once.
+     * @param k the greatest amount of targets to report.
+     * @return at most <code>k</code> nearest reachable targets, in the order
+     * of nondecreasing cost.
+     * @throws IllegalArgumentException if <code>k</code> is negative.
+     */
+    public NearestTargets findNearest(CompactDirectedGraph graph,
+                                      int source,
+                                      int[] targets,
+                                      int k) {
+        checkAmount(k);
+
+        CompactSearchState state = compactState(graph);
+        IndexedBinaryHeap open = state.getOpen();
+        double[] g = state.getDistances();
+        int[] parents = state.getParents();
+        int distinct = 0;
+
+        for (int target : targets) {
+            if (state.isReached(target) == false) {
+                state.reach(target);
+                ++distinct;
+            }
+        }
+
+        int wanted = Math.min(k, distinct);
+        int[] ids = new int[wanted];
+        int[][] paths = new int[wanted][];
+        double[] costs = new double[wanted];
+        int found = 0;
+
+        open.insert(source, 0.0);
+        parents[source] = CompactDirectedGraph.NO_NODE;
+        g[source] = 0.0;
+
+        while (found < wanted && open.isEmpty() == false) {
+            int current = open.extractMinimum();
+
+            if (state.isReached(current)) {
+                ids[found] = current;
+                paths[found] = tracebackPath(current, parents);
+                costs[found] = g[current];
+                ++found;
+            }
+
+            state.close(current);
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (state.isClosed(child)) {
+                    continue;
+                }
+
+                double tmpg = g[current] + graph.getWeight(a);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg);
+                    parents[child] = current;
+                    g[child] = tmpg;
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child, tmpg);
+                    parents[child] = current;
+                    g[child] = tmpg;
+                }
+            }
+        }
+
+        if (found < wanted) {
+            ids = Arrays.copyOf(ids, found);
+            paths = Arrays.copyOf(paths, found);
+            costs = Arrays.copyOf(costs, found);
+        }
+
+        return new NearestTargets(graph, ids, paths, costs);
+    }
+
+    private static void checkAmount(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                    "The amount of targets is negative: " + k);
+        }
+    }
 }
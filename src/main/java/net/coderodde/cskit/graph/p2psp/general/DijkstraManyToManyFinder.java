@@ -0,0 +1,127 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.Arrays;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+
+/**
+ * This class computes distance tables by running one Dijkstra sweep per
+ * source. A sweep serves the whole row: it stops as soon as every target is
+ * settled, rather than once per target as repeated point-to-point queries
+ * would. It needs no preprocessing, so it suits graphs that change between
+ * tables.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class DijkstraManyToManyFinder extends ManyToManyFinder {
+
+    public DijkstraManyToManyFinder(int threads) {
+        super(threads);
+    }
+
+    @Override
+    protected SearchFactory prepare(final CompactDirectedGraph graph,
+                                    final int[] targets) {
+        // Maps each node to the first column of the table it is the target
+        // of, or -1.
+        final int[] columns = new int[graph.size()];
+        int distinct = 0;
+
+        Arrays.fill(columns, -1);
+
+        for (int j = 0; j < targets.length; ++j) {
+            if (columns[targets[j]] == -1) {
+                columns[targets[j]] = j;
+                ++distinct;
+            }
+        }
+
+        final int targetCount = distinct;
+
+        return new SearchFactory() {
+            @Override
+            public Search newSearch() {
+                return new Sweep(graph, targets, columns, targetCount);
+            }
+        };
+    }
+
+    /**
+     * This class runs the sweeps of one thread.
+     */
+    private static final class Sweep extends Search {
+
+        private final CompactDirectedGraph graph;
+        private final int[] targets;
+        private final int[] columns;
+        private final int targetCount;
+        private final double[] dist;
+        private final IndexedBinaryHeap heap;
+        private final int[] touched;
+        private int touchedSize;
+
+        Sweep(CompactDirectedGraph graph,
+              int[] targets,
+              int[] columns,
+              int targetCount) {
+            final int n = graph.size();
+            this.graph = graph;
+            this.targets = targets;
+            this.columns = columns;
+            this.targetCount = targetCount;
+            this.dist = new double[n];
+            this.heap = new IndexedBinaryHeap(n);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        @Override
+        protected void computeRow(int source, double[] row) {
+            int remaining = targetCount;
+
+            dist[source] = 0.0;
+            touched[touchedSize++] = source;
+            heap.insert(source, 0.0);
+
+            while (heap.isEmpty() == false) {
+                int u = heap.extractMinimum();
+
+                if (columns[u] >= 0) {
+                    row[columns[u]] = dist[u];
+
+                    if (--remaining == 0) {
+                        break;
+                    }
+                }
+
+                for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                    int v = graph.getTarget(a);
+                    double d = dist[u] + graph.getWeight(a);
+
+                    if (d < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedSize++] = v;
+                            heap.insert(v, d);
+                        } else {
+                            heap.decreasePriority(v, d);
+                        }
+
+                        dist[v] = d;
+                    }
+                }
+            }
+
+            for (int j = 0; j < targets.length; ++j) {
+                row[j] = row[columns[targets[j]]];
+            }
+
+            for (int i = 0; i < touchedSize; ++i) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            touchedSize = 0;
+            heap.clear();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class maintains a shortest path tree rooted at a source node while
+ * the arcs of the graph are inserted, removed and reweighted. Instead of
+ * recomputing the tree, it repairs only the part of it affected by the
+ * changes, in the manner of Ramalingam and Reps:
+ * <ol>
+ * <li>The subtrees hanging from tree arcs that got heavier or were removed
+ * lose their distances. Each of their nodes is then given the best
+ * distance offered by a parent outside the invalidated subtrees.</li>
+ * <li>The heads of arcs that got lighter or were inserted are given the
+ * distance via the changed arc, if it is an improvement.</li>
+ * <li>A Dijkstra search seeded by the nodes above propagates the new
+ * distances as far as they improve anything.</li>
+ * </ol>
+ * The changes are recorded by {@link #insertArc(DirectedGraphNode,
+ * DirectedGraphNode, double)}, {@link #removeArc(DirectedGraphNode,
+ * DirectedGraphNode)} and {@link #setWeight(DirectedGraphNode,
+ * DirectedGraphNode, double)}, which also apply them to the graph and the
+ * weight function, and are repaired in a batch by {@link #repair()}. The
+ * queries repair pending changes first. The weights must be nonnegative.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class DynamicShortestPathTree {
+
+    private final DirectedGraphNode source;
+    private final DirectedGraphWeightFunction w;
+    private final PriorityQueue<DirectedGraphNode, Double> open;
+    private final DirectedGraphNode.ArcCursor cursor;
+    private final Map<DirectedGraphNode, Double> distances;
+    private final Map<DirectedGraphNode, DirectedGraphNode> parents;
+
+    /**
+     * The arcs that got heavier or were removed, as tail-head pairs.
+     */
+    private final List<DirectedGraphNode> raised;
+
+    /**
+     * The arcs that got lighter or were inserted, as tail-head pairs.
+     */
+    private final List<DirectedGraphNode> lowered;
+
+    private int lastTouched;
+    private long totalTouched;
+
+    /**
+     * Computes the shortest path tree of <code>source</code>.
+     *
+     * @param source the root of the tree.
+     * @param w the weight function.
+     * @param OPEN the queue to spawn the open queue of the repairs from.
+     */
+    public DynamicShortestPathTree(DirectedGraphNode source,
+                                   DirectedGraphWeightFunction w,
+                                   PriorityQueue<DirectedGraphNode, Double>
+                                           OPEN) {
+        checkNotNull(source, "'source' is null.");
+        checkNotNull(w, "'w' is null.");
+        checkNotNull(OPEN, "'OPEN' is null.");
+        this.source = source;
+        this.w = w;
+        this.open = OPEN.newInstance();
+        this.cursor = new DirectedGraphNode.ArcCursor();
+        this.distances = new HashMap<DirectedGraphNode, Double>();
+        this.parents = new HashMap<DirectedGraphNode, DirectedGraphNode>();
+        this.raised = new ArrayList<DirectedGraphNode>();
+        this.lowered = new ArrayList<DirectedGraphNode>();
+
+        distances.put(source, 0.0);
+        parents.put(source, null);
+        open.insert(source, 0.0);
+        lastTouched = propagate(new HashSet<DirectedGraphNode>());
+    }
+
+    public DirectedGraphNode getSource() {
+        return source;
+    }
+
+    /**
+     * Inserts the arc <code>(from, to)</code>, or reweights it if it
+     * exists.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @param weight the weight of the arc.
+     * @throws IllegalArgumentException if <code>weight</code> is negative.
+     */
+    public void insertArc(DirectedGraphNode from,
+                          DirectedGraphNode to,
+                          double weight) {
+        if (from.hasChild(to)) {
+            setWeight(from, to, weight);
+            return;
+        }
+
+        checkWeight(weight);
+        from.addChild(to);
+        w.put(from, to, weight);
+        record(lowered, from, to);
+    }
+
+    /**
+     * Removes the arc <code>(from, to)</code> if it exists.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     */
+    public void removeArc(DirectedGraphNode from, DirectedGraphNode to) {
+        if (from.hasChild(to)) {
+            from.removeChild(to);
+            record(raised, from, to);
+        }
+    }
+
+    /**
+     * Sets the weight of the existing arc <code>(from, to)</code>.
+     *
+     * @param from the tail node.
+     * @param to the head node.
+     * @param weight the new weight of the arc.
+     * @throws IllegalArgumentException if there is no such arc or
+     * <code>weight</code> is negative.
+     */
+    public void setWeight(DirectedGraphNode from,
+                          DirectedGraphNode to,
+                          double weight) {
+        if (from.hasChild(to) == false) {
+            throw new IllegalArgumentException(
+                    "No arc from " + from + " to " + to + ".");
+        }
+
+        checkWeight(weight);
+
+        double old = w.get(from, to);
+
+        w.put(from, to, weight);
+
+        if (weight > old) {
+            record(raised, from, to);
+        } else if (weight < old) {
+            record(lowered, from, to);
+        }
+    }
+
+    /**
+     * Repairs the tree after the changes recorded since the last repair.
+     *
+     * @return the amount of nodes whose distance or parent was recomputed.
+     */
+    public int repair() {
+        if (raised.isEmpty() && lowered.isEmpty()) {
+            return 0;
+        }
+
+        Set<DirectedGraphNode> touched = invalidate();
+
+        for (DirectedGraphNode node : touched) {
+            double best = Double.POSITIVE_INFINITY;
+            DirectedGraphNode bestParent = null;
+
+            cursor.resetToParents(node);
+
+            while (cursor.next()) {
+                DirectedGraphNode parent = cursor.getNode();
+
+                if (touched.contains(parent)) {
+                    continue;
+                }
+
+                Double d = distances.get(parent);
+
+                if (d != null && d + w.get(cursor) < best) {
+                    best = d + w.get(cursor);
+                    bestParent = parent;
+                }
+            }
+
+            if (bestParent != null) {
+                update(node, bestParent, best);
+            }
+        }
+
+        for (int i = 0; i < lowered.size(); i += 2) {
+            DirectedGraphNode from = lowered.get(i);
+            DirectedGraphNode to = lowered.get(i + 1);
+            Double d = distances.get(from);
+
+            if (d != null && from.hasChild(to)) {
+                double tmpg = d + w.get(from, to);
+                Double old = distances.get(to);
+
+                if (old == null || tmpg < old) {
+                    update(to, from, tmpg);
+                    touched.add(to);
+                }
+            }
+        }
+
+        raised.clear();
+        lowered.clear();
+        lastTouched = propagate(touched);
+        totalTouched += lastTouched;
+        return lastTouched;
+    }
+
+    /**
+     * Returns the amount of nodes touched by the last repair, or by the
+     * initial computation if no repair took place yet.
+     *
+     * @return the amount of touched nodes.
+     */
+    public int getLastTouched() {
+        return lastTouched;
+    }
+
+    /**
+     * Returns the amount of nodes touched by all repairs so far.
+     *
+     * @return the total amount of touched nodes.
+     */
+    public long getTotalTouched() {
+        return totalTouched;
+    }
+
+    /**
+     * Returns the distance from the source to <code>node</code>, or
+     * <code>Double.POSITIVE_INFINITY</code> if <code>node</code> is not
+     * reachable.
+     *
+     * @param node the node to query.
+     * @return the distance.
+     */
+    public double getDistance(DirectedGraphNode node) {
+        repair();
+        Double d = distances.get(node);
+        return d == null ? Double.POSITIVE_INFINITY : d;
+    }
+
+    /**
+     * Returns the parent of <code>node</code> in the tree, or
+     * <code>null</code> if <code>node</code> is the source or not
+     * reachable.
+     *
+     * @param node the node to query.
+     * @return the parent.
+     */
+    public DirectedGraphNode getParent(DirectedGraphNode node) {
+        repair();
+        return parents.get(node);
+    }
+
+    public boolean isReachable(DirectedGraphNode node) {
+        repair();
+        return distances.containsKey(node);
+    }
+
+    /**
+     * Returns the path from the source to <code>target</code>.
+     *
+     * @param target the target node.
+     * @return the path, or an empty list if <code>target</code> is not
+     * reachable.
+     */
+    public List<DirectedGraphNode> getPath(DirectedGraphNode target) {
+        if (isReachable(target) == false) {
+            return java.util.Collections.<DirectedGraphNode>emptyList();
+        }
+
+        return tracebackPath(target, parents);
+    }
+
+    /**
+     * Removes the distances of the subtrees hanging from the raised tree
+     * arcs.
+     *
+     * @return the nodes of the subtrees.
+     */
+    private Set<DirectedGraphNode> invalidate() {
+        Set<DirectedGraphNode> subtrees = new HashSet<DirectedGraphNode>();
+        Deque<DirectedGraphNode> stack = new ArrayDeque<DirectedGraphNode>();
+
+        for (int i = 0; i < raised.size(); i += 2) {
+            DirectedGraphNode from = raised.get(i);
+            DirectedGraphNode to = raised.get(i + 1);
+
+            if (isTreeArc(from, to) && subtrees.add(to)) {
+                stack.push(to);
+            }
+        }
+
+        while (stack.isEmpty() == false) {
+            DirectedGraphNode node = stack.pop();
+
+            for (DirectedGraphNode child : node) {
+                if (isTreeArc(node, child) && subtrees.add(child)) {
+                    stack.push(child);
+                }
+            }
+        }
+
+        for (DirectedGraphNode node : subtrees) {
+            distances.remove(node);
+            parents.remove(node);
+        }
+
+        return subtrees;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the nodes in the open queue, relaxing
+     * only arcs that improve a distance.
+     *
+     * @param touched the nodes touched so far; grows by the improved nodes.
+     * @return the amount of touched nodes.
+     */
+    private int propagate(Set<DirectedGraphNode> touched) {
+        while (open.isEmpty() == false) {
+            DirectedGraphNode current = open.extractMinimum();
+            double d = distances.get(current);
+
+            touched.add(current);
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+                double tmpg = d + w.get(cursor);
+                Double old = distances.get(child);
+
+                if (old == null || tmpg < old) {
+                    update(child, current, tmpg);
+                }
+            }
+        }
+
+        return touched.size();
+    }
+
+    private boolean isTreeArc(DirectedGraphNode from, DirectedGraphNode to) {
+        DirectedGraphNode parent = parents.get(to);
+        return parent != null && parent.equals(from);
+    }
+
+    private void update(DirectedGraphNode node,
+                        DirectedGraphNode parent,
+                        double distance) {
+        if (open.contains(node)) {
+            open.decreasePriority(node, distance);
+        } else {
+            open.insert(node, distance);
+        }
+
+        distances.put(node, distance);
+        parents.put(node, parent);
+    }
+
+    private static void record(List<DirectedGraphNode> arcs,
+                               DirectedGraphNode from,
+                               DirectedGraphNode to) {
+        arcs.add(from);
+        arcs.add(to);
+    }
+
+    private static void checkWeight(double weight) {
+        if (weight < 0.0) {
+            throw new IllegalArgumentException(
+                    "Negative weight: " + weight + ".");
+        }
+    }
+}
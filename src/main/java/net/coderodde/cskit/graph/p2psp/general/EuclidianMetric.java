@@ -1,5 +1,6 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
@@ -24,16 +25,81 @@ public class EuclidianMetric extends HeuristicFunction {
 
     @Override
     public double get(DirectedGraphNode u) {
-        double[] q = map.get(u);
+        int index = map.indexOf(u);
+
+        if (index < 0) {
+            return get(p, map.get(u));
+        }
+
         double sum = 0.0;
 
-        for (int i = 0; i < q.length; ++i) {
-            sum += (p[i] - q[i]) * (p[i] - q[i]);
+        for (int i = 0; i < p.length; ++i) {
+            double diff = p[i] - map.getAxis(i)[index];
+            sum += diff * diff;
         }
 
         return Math.sqrt(sum);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Over the snapshot of a bound coordinate map, the target location is
+     * read by id.
+     */
+    @Override
+    public void setTarget(CompactDirectedGraph graph, int target) {
+        if (graph != map.getGraph()) {
+            super.setTarget(graph, target);
+            return;
+        }
+
+        this.target = null;
+        this.p = new double[map.getDimensions()];
+
+        for (int i = 0; i < p.length; ++i) {
+            p[i] = map.get(target, i);
+        }
+    }
+
+    @Override
+    public double get(CompactDirectedGraph graph, int u) {
+        if (graph != map.getGraph()) {
+            return super.get(graph, u);
+        }
+
+        double sum = 0.0;
+
+        for (int i = 0; i < p.length; ++i) {
+            double diff = p[i] - map.get(u, i);
+            sum += diff * diff;
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    @Override
+    public void get(CompactDirectedGraph graph,
+                    int[] ids,
+                    int size,
+                    double[] out) {
+        if (graph != map.getGraph() || p.length != 2) {
+            super.get(graph, ids, size, out);
+            return;
+        }
+
+        double[] xs = map.getAxis(0);
+        double[] ys = map.getAxis(1);
+        double x = p[0];
+        double y = p[1];
+
+        for (int i = 0; i < size; ++i) {
+            double dx = x - xs[ids[i]];
+            double dy = y - ys[ids[i]];
+            out[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
     @Override
     public double get(double[] p, double[] q) {
         double sum = 0.0;
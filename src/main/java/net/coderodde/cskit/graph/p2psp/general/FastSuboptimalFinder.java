@@ -1,12 +1,12 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -19,12 +19,8 @@ import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
  */
 public class FastSuboptimalFinder extends GeneralPathFinder {
 
-    private HeuristicFunction h;
-    private HeuristicFunction h2;
-    private PriorityQueue<DirectedGraphNode, Double> OPEN2;
-    private Set<DirectedGraphNode> CLOSED2;
-    private Map<DirectedGraphNode, Double> GSCORE_MAP2;
-    private Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2;
+    private final HeuristicFunction h;
+    private final HeuristicFunction h2;
 
     public FastSuboptimalFinder(PriorityQueue<DirectedGraphNode, Double> OPEN,
                          HeuristicFunction h,
@@ -32,28 +28,31 @@ public class FastSuboptimalFinder extends GeneralPathFinder {
         super(OPEN);
         this.h = h;
         this.h2 = h2;
-
-        OPEN2 = OPEN.newInstance();
-        CLOSED2 = new HashSet<DirectedGraphNode>();
-        GSCORE_MAP2 = new HashMap<DirectedGraphNode, Double>();
-        PARENT_MAP2 = new HashMap<DirectedGraphNode, DirectedGraphNode>();
     }
 
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
+        SearchContext context = context();
+        SearchContext reverse = context.reverse();
+        HeuristicFunction h = context.heuristic(this.h);
+        HeuristicFunction h2 = context.heuristic(this.h2);
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
         h.setTarget(target);
-        OPEN.clear();
-        CLOSED.clear();
-        GSCORE_MAP.clear();
-        PARENT_MAP.clear();
 
+        PriorityQueue<DirectedGraphNode, Double> OPEN2 = reverse.OPEN;
+        Set<DirectedGraphNode> CLOSED2 = reverse.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP2 = reverse.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2 =
+                reverse.PARENT_MAP;
         h2.setTarget(source);
-        OPEN2.clear();
-        CLOSED2.clear();
-        GSCORE_MAP2.clear();
-        PARENT_MAP2.clear();
 
         OPEN.insert(source, h.get(source));
         PARENT_MAP.put(source, null);
@@ -81,12 +80,16 @@ public class FastSuboptimalFinder extends GeneralPathFinder {
             DirectedGraphNode current = OPEN.extractMinimum();
             CLOSED.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSED.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP.get(current) + w.get(current, child);
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP.containsKey(child) == false) {
                     OPEN.insert(child, tmpg + h.get(child));
@@ -116,12 +119,16 @@ public class FastSuboptimalFinder extends GeneralPathFinder {
             current = OPEN2.extractMinimum();
             CLOSED2.add(current);
 
-            for (DirectedGraphNode parent : current.parentIterable()) {
+            cursor.resetToParents(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode parent = cursor.getNode();
+
                 if (CLOSED2.contains(parent)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP2.get(current) + w.get(parent, current);
+                double tmpg = GSCORE_MAP2.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP2.containsKey(parent) == false) {
                     OPEN2.insert(parent, tmpg + h2.get(parent));
@@ -157,4 +164,112 @@ public class FastSuboptimalFinder extends GeneralPathFinder {
 
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        final int n = graph.size();
+        IndexedBinaryHeap open = new IndexedBinaryHeap(n);
+        IndexedBinaryHeap open2 = new IndexedBinaryHeap(n);
+        boolean[] closed = new boolean[n];
+        boolean[] closed2 = new boolean[n];
+        double[] g = new double[n];
+        double[] g2 = new double[n];
+        int[] parents = new int[n];
+        int[] parents2 = new int[n];
+
+        HeuristicFunction h = heuristic(this.h);
+        HeuristicFunction h2 = heuristic(this.h2);
+
+        h.setTarget(graph, target);
+        h2.setTarget(graph, source);
+
+        open.insert(source, h.get(graph, source));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+
+        open2.insert(target, h2.get(graph, target));
+        parents2[target] = CompactDirectedGraph.NO_NODE;
+
+        double m = Double.POSITIVE_INFINITY;
+        int touch = CompactDirectedGraph.NO_NODE;
+
+        while ((open.isEmpty() == false) && (open2.isEmpty() == false)) {
+            if (touch != CompactDirectedGraph.NO_NODE) {
+                if (m >= g[touch] + g2[touch]) {
+                    return tracebackPathBidirectional(touch,
+                                                      parents,
+                                                      parents2);
+                }
+            }
+
+            int current = open.extractMinimum();
+            closed[current] = true;
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (closed[child]) {
+                    continue;
+                }
+
+                double tmpg = g[current] + graph.getWeight(a);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg + h.get(graph, child));
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child,
+                                          tmpg + h.get(graph, child));
+                } else {
+                    continue;
+                }
+
+                g[child] = tmpg;
+                parents[child] = current;
+
+                if (closed2[child] && m > tmpg + g2[child]) {
+                    m = tmpg + g2[child];
+                    touch = child;
+                }
+            }
+
+            current = open2.extractMinimum();
+            closed2[current] = true;
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int parent = graph.getSource(i);
+
+                if (closed2[parent]) {
+                    continue;
+                }
+
+                double tmpg = g2[current] + graph.getInWeight(i);
+
+                if (open2.contains(parent) == false) {
+                    open2.insert(parent, tmpg + h2.get(graph, parent));
+                } else if (tmpg < g2[parent]) {
+                    open2.decreasePriority(parent,
+                                           tmpg + h2.get(graph, parent));
+                } else {
+                    continue;
+                }
+
+                g2[parent] = tmpg;
+                parents2[parent] = current;
+
+                if (closed[parent] && m > tmpg + g[parent]) {
+                    m = tmpg + g[parent];
+                    touch = parent;
+                }
+            }
+        }
+
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
+        }
+
+        return tracebackPathBidirectional(touch, parents, parents2);
+    }
 }
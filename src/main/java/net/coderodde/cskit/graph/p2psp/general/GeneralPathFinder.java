@@ -1,38 +1,122 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
 /**
  * This interface defines the common API for general shortest path algorithms.
+ * <p>
+ * The search state lives in a {@link SearchContext} per thread, so one
+ * configured finder may be shared by any amount of threads.
  *
  * @author Rodion Efremov
  * @version 1.618
  */
 public abstract class GeneralPathFinder {
 
-    protected PriorityQueue<DirectedGraphNode, Double> OPEN;
-    protected Set<DirectedGraphNode> CLOSED;
-    protected Map<DirectedGraphNode, Double> GSCORE_MAP;
-    protected Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP;
-    protected DirectedGraphNode source;
-    protected DirectedGraphNode target;
+    /**
+     * The queue the open queues of the search contexts are spawned from.
+     */
+    protected final PriorityQueue<DirectedGraphNode, Double> OPEN;
+
+    private final ThreadLocal<SearchContext> contexts =
+            new ThreadLocal<SearchContext>() {
+        @Override
+        protected SearchContext initialValue() {
+            return newContext();
+        }
+    };
 
     public GeneralPathFinder(PriorityQueue<DirectedGraphNode, Double> OPEN) {
         this.OPEN = OPEN;
-        this.CLOSED = new HashSet<DirectedGraphNode>();
-        this.GSCORE_MAP = new HashMap<DirectedGraphNode, Double>();
-        this.PARENT_MAP = new HashMap<DirectedGraphNode, DirectedGraphNode>();
     }
 
     public abstract List<DirectedGraphNode> find(DirectedGraphNode source,
                                                  DirectedGraphNode target,
                                                  DirectedGraphWeightFunction w);
+
+    /**
+     * Searches for a shortest path in a compact graph snapshot. All search
+     * state is indexed by node ids, no hashing takes place.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the path of node ids, or an empty array if <code>target</code>
+     * is not reachable from <code>source</code>.
+     */
+    public abstract int[] find(CompactDirectedGraph graph,
+                               int source,
+                               int target);
+
+    /**
+     * Creates the search context of a thread. Called once per thread, on
+     * its first query.
+     *
+     * @return a new search context.
+     */
+    protected SearchContext newContext() {
+        return new SearchContext(OPEN);
+    }
+
+    /**
+     * Returns the cleared search context of the calling thread.
+     *
+     * @return the search context of the calling thread.
+     */
+    protected SearchContext context() {
+        SearchContext context = contexts.get();
+        context.clear();
+        return context;
+    }
+
+    /**
+     * Returns the search context of the calling thread without clearing
+     * it, for the snapshot searches which use only its heuristics and its
+     * child buffers.
+     *
+     * @return the search context of the calling thread.
+     */
+    protected SearchContext snapshotContext() {
+        return contexts.get();
+    }
+
+    /**
+     * Returns the copy of <code>h</code> owned by the calling thread. Lets
+     * the snapshot searches, which keep no other state in the context,
+     * retarget a heuristic safely.
+     *
+     * @param h the heuristic configured in this finder.
+     * @return the copy of <code>h</code> for the calling thread.
+     */
+    protected HeuristicFunction heuristic(HeuristicFunction h) {
+        return contexts.get().heuristic(h);
+    }
+
+    /**
+     * Returns the reset snapshot search state of the calling thread. Unlike
+     * {@link #context()}, does not clear the hashed search state.
+     *
+     * @param graph the graph snapshot to search.
+     * @return the snapshot search state of the calling thread.
+     */
+    protected CompactSearchState compactState(CompactDirectedGraph graph) {
+        return contexts.get().compactState(graph);
+    }
+
+    /**
+     * Returns the reset snapshot search state of the backward search of the
+     * calling thread.
+     *
+     * @param graph the graph snapshot to search.
+     * @return the backward snapshot search state of the calling thread.
+     */
+    protected CompactSearchState reverseCompactState(
+            CompactDirectedGraph graph) {
+        return contexts.get().reverse().compactState(graph);
+    }
 }
@@ -1,5 +1,6 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 /**
  * This class defines the API for heuristic functions mainly used in
@@ -8,7 +9,7 @@ import net.coderodde.cskit.graph.DirectedGraphNode;
  * @author Rodion Efremov
  * @version 1.618 (16.12.2013)
  */
-public abstract class HeuristicFunction {
+public abstract class HeuristicFunction implements Cloneable {
 
     protected CoordinateMap map;
     protected DirectedGraphNode target;
@@ -22,6 +23,21 @@ public abstract class HeuristicFunction {
         this.target = target;
     }
 
+    /**
+     * Sets the target of a search over a compact graph snapshot. The
+     * searches over snapshots call this and
+     * {@link #get(CompactDirectedGraph, int)} instead of the node-based
+     * methods, so that a heuristic knowing the snapshot ids never
+     * materializes a node; this default resolves the node and calls
+     * {@link #setTarget(DirectedGraphNode)}.
+     *
+     * @param graph the graph snapshot.
+     * @param target the id of the target node.
+     */
+    public void setTarget(CompactDirectedGraph graph, int target) {
+        setTarget(graph.getNode(target));
+    }
+
     public CoordinateMap getCoordinateMap() {
         return map;
     }
@@ -30,6 +46,23 @@ public abstract class HeuristicFunction {
         this.map = map;
     }
 
+    /**
+     * Returns a copy of this heuristic that may be retargeted independently
+     * of this one. Each {@link SearchContext} takes its own copy, so that
+     * threads sharing a finder do not overwrite each other's target. The
+     * copy is shallow: the coordinate map and any precomputed data are
+     * shared. A subclass with further per-query state must override this.
+     *
+     * @return a copy of this heuristic.
+     */
+    public HeuristicFunction newInstance() {
+        try {
+            return (HeuristicFunction) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Gets an (optimistic) estimate for the distance from <code>u</code> to
      * pre-specified target node.
@@ -38,6 +71,41 @@ public abstract class HeuristicFunction {
      */
     public abstract double get(DirectedGraphNode u);
 
+    /**
+     * Gets an estimate for the node with id <code>u</code> in a compact
+     * graph snapshot. This default resolves the node and calls
+     * {@link #get(DirectedGraphNode)}.
+     *
+     * @param graph the graph snapshot.
+     * @param u the id of the node to estimate.
+     * @return an estimate from the node to the target.
+     */
+    public double get(CompactDirectedGraph graph, int u) {
+        return get(graph.getNode(u));
+    }
+
+    /**
+     * Writes the estimates for the nodes with the first <code>size</code>
+     * ids in <code>ids</code> into <code>out</code>, as if by calling
+     * {@link #get(CompactDirectedGraph, int)} on each. A search over a
+     * snapshot calls this once per expansion with the children of the
+     * expanded node; the metrics override it with a single loop over the
+     * flat arrays of a {@link CoordinateMap} bound to the snapshot.
+     *
+     * @param graph the graph snapshot.
+     * @param ids the ids of the nodes to estimate.
+     * @param size the amount of nodes to estimate.
+     * @param out the array receiving the estimates.
+     */
+    public void get(CompactDirectedGraph graph,
+                    int[] ids,
+                    int size,
+                    double[] out) {
+        for (int i = 0; i < size; ++i) {
+            out[i] = get(graph, ids[i]);
+        }
+    }
+
     /**
      * Gets an estimate from <code>from</code> to <code>to</code>.
      *
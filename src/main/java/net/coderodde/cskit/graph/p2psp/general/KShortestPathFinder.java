@@ -0,0 +1,409 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.GraphMask;
+
+/**
+ * This class implements Yen's algorithm for finding the <code>k</code>
+ * shortest loopless paths between two nodes of a graph snapshot.
+ * <p>
+ * Each round takes the path found last and, for every node on it, searches
+ * for a spur path from that node to the target which avoids the nodes of
+ * the root path before it and the arcs by which the paths found so far
+ * leave the same root. The shortest candidate not yet found is the next
+ * path. The spur searches run on a {@link GraphMask} instead of removing
+ * anything from the graph, so the snapshot stays shared and the searches
+ * of a round are computed on several threads. Each thread owns its mask;
+ * the wrapped finder must support masks and keeps its state per thread.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class KShortestPathFinder {
+
+    private static final ThreadFactory SPUR_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "spur-search");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private final MaskedPathFinder finder;
+    private final int threads;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Constructs a finder running the spur searches with
+     * <code>finder</code> on <code>threads</code> daemon threads of its own,
+     * reused from query to query.
+     *
+     * @param finder the finder of the spur paths.
+     * @param threads the amount of threads.
+     * @throws IllegalArgumentException if <code>threads</code> is not
+     * positive.
+     */
+    public KShortestPathFinder(MaskedPathFinder finder, int threads) {
+        this(finder, threads, newExecutor(threads), true);
+    }
+
+    /**
+     * Constructs a finder running the spur searches with
+     * <code>finder</code> as <code>threads</code> tasks on
+     * <code>executor</code>.
+     *
+     * @param finder the finder of the spur paths.
+     * @param threads the amount of tasks per round.
+     * @param executor the executor of the spur searches.
+     * @throws IllegalArgumentException if <code>threads</code> is not
+     * positive.
+     */
+    public KShortestPathFinder(MaskedPathFinder finder,
+                               int threads,
+                               ExecutorService executor) {
+        this(finder, threads, executor, false);
+        checkNotNull(executor, "'executor' is null.");
+    }
+
+    private KShortestPathFinder(MaskedPathFinder finder,
+                                int threads,
+                                ExecutorService executor,
+                                boolean ownsExecutor) {
+        checkNotNull(finder, "'finder' is null.");
+        checkThreads(threads);
+        this.finder = finder;
+        this.threads = threads;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Returns the amount of threads computing the spur paths.
+     *
+     * @return the amount of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Shuts down the spur threads if this finder created them. An executor
+     * passed by the caller is left to the caller.
+     */
+    public void shutdown() {
+        if (ownsExecutor && executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Finds the <code>k</code> shortest loopless paths from
+     * <code>source</code> to <code>target</code>.
+     *
+     * @param graph the graph snapshot.
+     * @param source the source node.
+     * @param target the target node.
+     * @param k the greatest amount of paths to find.
+     * @return the paths in the order of nondecreasing cost.
+     * @throws IllegalArgumentException if a node is not in
+     * <code>graph</code> or <code>k</code> is negative.
+     * @see #find(CompactDirectedGraph, int, int, int)
+     */
+    public List<List<DirectedGraphNode>> find(CompactDirectedGraph graph,
+                                              DirectedGraphNode source,
+                                              DirectedGraphNode target,
+                                              int k) {
+        checkNotNull(graph, "'graph' is null.");
+        int s = toId(graph, source);
+        int t = toId(graph, target);
+        List<int[]> paths = find(graph, s, t, k);
+        List<List<DirectedGraphNode>> result =
+                new ArrayList<List<DirectedGraphNode>>(paths.size());
+
+        for (int[] path : paths) {
+            result.add(graph.toNodeList(path));
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the <code>k</code> shortest loopless paths from
+     * <code>source</code> to <code>target</code>. Fewer paths are returned
+     * if fewer exist.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @param k the greatest amount of paths to find.
+     * @return the paths of node ids in the order of nondecreasing cost.
+     * @throws IllegalArgumentException if <code>k</code> is negative.
+     */
+    public List<int[]> find(CompactDirectedGraph graph,
+                            int source,
+                            int target,
+                            int k) {
+        checkNotNull(graph, "'graph' is null.");
+
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                    "The amount of paths is negative: " + k);
+        }
+
+        List<int[]> paths = new ArrayList<int[]>();
+
+        if (k == 0) {
+            return paths;
+        }
+
+        int[] first = finder.find(graph, source, target);
+
+        if (first.length == 0) {
+            return paths;
+        }
+
+        paths.add(first);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>();
+        Set<Candidate> seen = new HashSet<Candidate>();
+        Spur[] spurs = new Spur[threads];
+
+        seen.add(new Candidate(first, graph.getPathCost(first)));
+
+        for (int i = 0; i < threads; ++i) {
+            spurs[i] = new Spur(graph, target, paths);
+        }
+
+        while (paths.size() < k) {
+            int[] last = paths.get(paths.size() - 1);
+            int[][] spurPaths = new int[last.length - 1][];
+
+            runRound(executor, spurs, last, spurPaths);
+
+            for (int[] path : spurPaths) {
+                if (path != null) {
+                    Candidate candidate =
+                            new Candidate(path, graph.getPathCost(path));
+
+                    if (seen.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            paths.add(candidates.poll().path);
+        }
+
+        return paths;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        checkThreads(threads);
+        return threads == 1 ?
+                null :
+                Executors.newFixedThreadPool(threads, SPUR_FACTORY);
+    }
+
+    private static void checkThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+    }
+
+    /**
+     * Computes the spur paths of all nodes but the last on
+     * <code>last</code> into <code>spurPaths</code>.
+     */
+    private static void runRound(ExecutorService executor,
+                                 Spur[] spurs,
+                                 int[] last,
+                                 int[][] spurPaths) {
+        if (executor == null || spurPaths.length == 1) {
+            for (int i = 0; i < spurPaths.length; ++i) {
+                spurPaths[i] = spurs[0].compute(last, i);
+            }
+
+            return;
+        }
+
+        int workers = Math.min(spurs.length, spurPaths.length);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+        AtomicInteger next = new AtomicInteger();
+
+        for (int i = 0; i < workers; ++i) {
+            futures.add(executor.submit(
+                    new SpurTask(spurs[i], last, spurPaths, next)));
+        }
+
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while computing the spur paths.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int toId(CompactDirectedGraph graph,
+                            DirectedGraphNode node) {
+        int id = graph.getId(node);
+
+        if (id == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The graph does not contain " + node + ".");
+        }
+
+        return id;
+    }
+
+    /**
+     * This class computes the spur paths of one thread.
+     */
+    private final class Spur {
+
+        private final CompactDirectedGraph graph;
+        private final int target;
+        private final List<int[]> paths;
+        private GraphMask mask;
+
+        Spur(CompactDirectedGraph graph, int target, List<int[]> paths) {
+            this.graph = graph;
+            this.target = target;
+            this.paths = paths;
+        }
+
+        /**
+         * Returns the path which follows <code>last</code> up to its
+         * <code>i</code>th node and then deviates from all paths found so
+         * far sharing that root, or <code>null</code> if there is none.
+         */
+        int[] compute(int[] last, int i) {
+            mask = GraphMask.reuse(mask, graph);
+
+            for (int[] path : paths) {
+                if (path.length > i + 1 && sharesRoot(path, last, i)) {
+                    mask.blockArcs(graph, path[i], path[i + 1]);
+                }
+            }
+
+            for (int j = 0; j < i; ++j) {
+                mask.blockNode(last[j]);
+            }
+
+            int[] spur = finder.find(graph, last[i], target, mask);
+
+            if (spur.length == 0) {
+                return null;
+            }
+
+            int[] path = new int[i + spur.length];
+            System.arraycopy(last, 0, path, 0, i);
+            System.arraycopy(spur, 0, path, i, spur.length);
+            return path;
+        }
+
+        private boolean sharesRoot(int[] path, int[] last, int i) {
+            for (int j = 0; j <= i; ++j) {
+                if (path[j] != last[j]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * This class computes spur paths until none is left in a round.
+     */
+    private static final class SpurTask implements Callable<Void> {
+
+        private final Spur spur;
+        private final int[] last;
+        private final int[][] spurPaths;
+        private final AtomicInteger next;
+
+        SpurTask(Spur spur, int[] last, int[][] spurPaths, AtomicInteger next) {
+            this.spur = spur;
+            this.last = last;
+            this.spurPaths = spurPaths;
+            this.next = next;
+        }
+
+        @Override
+        public Void call() {
+            int i;
+
+            while ((i = next.getAndIncrement()) < spurPaths.length) {
+                spurPaths[i] = spur.compute(last, i);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * This class is a candidate path ordered by cost. Two candidates are
+     * equal if their paths are.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        final int[] path;
+        final double cost;
+
+        Candidate(int[] path, double cost) {
+            this.path = path;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            if (cost != o.cost) {
+                return cost < o.cost ? -1 : 1;
+            }
+
+            return path.length - o.path.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Candidate
+                    && Arrays.equals(path, ((Candidate) o).path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(path);
+        }
+    }
+}
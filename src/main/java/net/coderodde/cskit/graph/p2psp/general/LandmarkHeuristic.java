@@ -0,0 +1,220 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+
+/**
+ * This class implements the <tt>ALT</tt> heuristic: the estimate is the best
+ * lower bound the triangle inequality gives over a few active
+ * {@link Landmarks}. Unlike the metrics, it needs no coordinates and stays
+ * tight when the weights are travel times rather than lengths.
+ * <p>
+ * The active landmarks are picked per query. The finders set the target and
+ * then estimate the other end of the query first; that first estimate
+ * selects the landmarks giving the best bounds between the two ends.
+ * <p>
+ * A backward heuristic, as needed by the bidirectional finders for the
+ * search from the target, estimates the distance from its target to a node
+ * instead of the other way around. If a coordinate map is given, it is
+ * handed to the finders that need coordinates for other purposes, such as
+ * {@link WhangboFinder}.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class LandmarkHeuristic extends HeuristicFunction {
+
+    /**
+     * The default amount of active landmarks.
+     */
+    public static final int DEFAULT_ACTIVE_LANDMARKS = 4;
+
+    private final Landmarks landmarks;
+    private final CompactDirectedGraph graph;
+    private final boolean backward;
+    private int[] active;
+    private int activeCount;
+    private int targetId = CompactDirectedGraph.NO_NODE;
+    private boolean selectOnNextGet;
+
+    /**
+     * Constructs a forward heuristic over <code>landmarks</code>.
+     *
+     * @param landmarks the landmark distances.
+     */
+    public LandmarkHeuristic(Landmarks landmarks) {
+        this(landmarks, null, false);
+    }
+
+    /**
+     * Constructs a heuristic over <code>landmarks</code>.
+     *
+     * @param landmarks the landmark distances.
+     * @param map the coordinates of the nodes, or <code>null</code>.
+     * @param backward whether to estimate the distances from the target.
+     */
+    public LandmarkHeuristic(Landmarks landmarks,
+                             CoordinateMap map,
+                             boolean backward) {
+        super(map, null);
+        checkNotNull(landmarks, "'landmarks' is null.");
+        this.landmarks = landmarks;
+        this.graph = landmarks.getGraph();
+        this.backward = backward;
+        this.active = new int[landmarks.size()];
+        setActiveLandmarks(DEFAULT_ACTIVE_LANDMARKS);
+    }
+
+    /**
+     * Sets the amount of landmarks used per query. Using more gives better
+     * estimates at a higher cost per estimate.
+     *
+     * @param count the amount of active landmarks.
+     */
+    public void setActiveLandmarks(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of active landmarks must be positive: "
+                    + count);
+        }
+
+        this.activeCount = Math.min(count, landmarks.size());
+
+        for (int i = 0; i < activeCount; ++i) {
+            active[i] = i;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy selects its active landmarks on its own.
+     */
+    @Override
+    public LandmarkHeuristic newInstance() {
+        LandmarkHeuristic copy = (LandmarkHeuristic) super.newInstance();
+        copy.active = active.clone();
+        return copy;
+    }
+
+    @Override
+    public void setTarget(DirectedGraphNode target) {
+        this.target = target;
+        this.targetId = target == null ? CompactDirectedGraph.NO_NODE
+                                       : graph.getId(target);
+        this.selectOnNextGet = activeCount < landmarks.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Over the snapshot of the landmarks, the id is used as is.
+     */
+    @Override
+    public void setTarget(CompactDirectedGraph graph, int target) {
+        if (graph != this.graph) {
+            super.setTarget(graph, target);
+            return;
+        }
+
+        this.target = null;
+        this.targetId = target;
+        this.selectOnNextGet = activeCount < landmarks.size();
+    }
+
+    @Override
+    public double get(DirectedGraphNode u) {
+        return estimate(graph.getId(u));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Over the snapshot of the landmarks, the id is used as is.
+     */
+    @Override
+    public double get(CompactDirectedGraph graph, int u) {
+        return graph == this.graph ? estimate(u) : super.get(graph, u);
+    }
+
+    /**
+     * Returns the estimate for the node with id <code>id</code> in the
+     * snapshot of the landmarks.
+     */
+    private double estimate(int id) {
+        if (id == CompactDirectedGraph.NO_NODE
+                || targetId == CompactDirectedGraph.NO_NODE) {
+            return 0.0;
+        }
+
+        if (selectOnNextGet) {
+            selectOnNextGet = false;
+            selectActiveLandmarks(id);
+        }
+
+        double estimate = 0.0;
+
+        for (int i = 0; i < activeCount; ++i) {
+            double bound = backward ? landmarks.getBound(active[i],
+                                                         targetId,
+                                                         id)
+                                    : landmarks.getBound(active[i],
+                                                         id,
+                                                         targetId);
+            if (bound > estimate) {
+                estimate = bound;
+            }
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Landmark bounds are defined for nodes only; for bare coordinates this
+     * returns the trivial bound 0.
+     */
+    @Override
+    public double get(double[] p, double[] q) {
+        return 0.0;
+    }
+
+    /**
+     * Makes active the landmarks giving the best bounds between the target
+     * and <code>other</code>.
+     */
+    private void selectActiveLandmarks(int other) {
+        int from = backward ? targetId : other;
+        int to = backward ? other : targetId;
+        double[] bounds = new double[activeCount];
+        int size = 0;
+
+        for (int i = 0; i < landmarks.size(); ++i) {
+            double bound = landmarks.getBound(i, from, to);
+
+            if (size < activeCount) {
+                insertSorted(bounds, size++, i, bound);
+            } else if (bound > bounds[size - 1]) {
+                insertSorted(bounds, size - 1, i, bound);
+            }
+        }
+    }
+
+    /**
+     * Inserts the landmark <code>index</code> into the descending list of
+     * active landmarks, overwriting the position <code>position</code>.
+     */
+    private void insertSorted(double[] bounds,
+                              int position,
+                              int index,
+                              double bound) {
+        while (position > 0 && bounds[position - 1] < bound) {
+            bounds[position] = bounds[position - 1];
+            active[position] = active[position - 1];
+            --position;
+        }
+
+        bounds[position] = bound;
+        active[position] = index;
+    }
+}
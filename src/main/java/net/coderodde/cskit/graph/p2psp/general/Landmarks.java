@@ -0,0 +1,506 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+
+/**
+ * This class holds the landmark distances of the <tt>ALT</tt> heuristic: for
+ * each landmark <code>L</code> the distance from <code>L</code> to each node
+ * and from each node to <code>L</code>. By the triangle inequality,
+ * <code>d(L, t) - d(L, u)</code> and <code>d(u, L) - d(t, L)</code> are
+ * lower bounds on <code>d(u, t)</code>, which {@link LandmarkHeuristic}
+ * builds upon.
+ * <p>
+ * The distance arrays of the landmarks are computed on several threads, one
+ * Dijkstra search per landmark and direction. The landmarks are either given
+ * or selected by one of the two strategies:
+ * <ul>
+ * <li>{@link #farthest(CompactDirectedGraph, int, int, Random)} picks each
+ * next landmark as far as possible from the previous ones;</li>
+ * <li>{@link #avoid(CompactDirectedGraph, int, int, Random)} picks each next
+ * landmark in the part of a shortest path tree the previous ones cover
+ * worst.</li>
+ * </ul>
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class Landmarks {
+
+    private final CompactDirectedGraph graph;
+    private final int[] landmarks;
+    /**
+     * <code>from[i][u]</code> is the distance from the landmark
+     * <code>i</code> to the node <code>u</code>.
+     */
+    private final double[][] from;
+    /**
+     * <code>to[i][u]</code> is the distance from the node <code>u</code> to
+     * the landmark <code>i</code>.
+     */
+    private final double[][] to;
+
+    /**
+     * Computes the distances to and from the given landmarks.
+     *
+     * @param graph the graph snapshot.
+     * @param landmarks the ids of the landmark nodes.
+     * @param threads the amount of threads.
+     */
+    public Landmarks(CompactDirectedGraph graph,
+                     int[] landmarks,
+                     int threads) {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(landmarks, "'landmarks' is null.");
+        checkThreads(threads);
+
+        this.graph = graph;
+        this.landmarks = landmarks.clone();
+        this.from = new double[landmarks.length][];
+        this.to = new double[landmarks.length][];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            computeDistances(executor, 0, landmarks.length);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Landmarks(CompactDirectedGraph graph, int count) {
+        this.graph = graph;
+        this.landmarks = new int[count];
+        this.from = new double[count][];
+        this.to = new double[count][];
+    }
+
+    /**
+     * Selects <code>count</code> landmarks by the farthest strategy. The
+     * first landmark is random; each next one is the node maximizing the
+     * minimum round-trip distance to the landmarks selected so far. Nodes
+     * not connected to any landmark both ways are preferred, so every
+     * strongly connected component gets a landmark before any of them gets
+     * a second one.
+     *
+     * @param graph the graph snapshot.
+     * @param count the amount of landmarks.
+     * @param threads the amount of threads.
+     * @param random the source of randomness.
+     * @return the landmarks.
+     */
+    public static Landmarks farthest(CompactDirectedGraph graph,
+                                     int count,
+                                     int threads,
+                                     Random random) {
+        checkArguments(graph, count, threads);
+        final int n = graph.size();
+        Landmarks l = new Landmarks(graph, count);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            double[] closest = new double[n];
+            Arrays.fill(closest, Double.POSITIVE_INFINITY);
+            int next = random.nextInt(n);
+
+            for (int i = 0; i < count; ++i) {
+                l.landmarks[i] = next;
+                l.computeDistances(executor, i, i + 1);
+
+                for (int u = 0; u < n; ++u) {
+                    closest[u] = Math.min(closest[u],
+                                          l.from[i][u] + l.to[i][u]);
+                }
+
+                for (int u = 0; u < n; ++u) {
+                    if (closest[u] > closest[next]) {
+                        next = u;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return l;
+    }
+
+    /**
+     * Selects <code>count</code> landmarks by the avoid strategy of Goldberg
+     * and Werneck. For each next landmark, a shortest path tree is grown
+     * from a random root, and each node is weighted by how much the current
+     * landmarks underestimate its distance from the root. Starting from the
+     * root, the walk descends into the heaviest subtree containing no
+     * landmark, and the leaf it ends at becomes the next landmark.
+     *
+     * @param graph the graph snapshot.
+     * @param count the amount of landmarks.
+     * @param threads the amount of threads.
+     * @param random the source of randomness.
+     * @return the landmarks.
+     */
+    public static Landmarks avoid(CompactDirectedGraph graph,
+                                  int count,
+                                  int threads,
+                                  Random random) {
+        checkArguments(graph, count, threads);
+        final int n = graph.size();
+        Landmarks l = new Landmarks(graph, count);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            boolean[] isLandmark = new boolean[n];
+            int[] parents = new int[n];
+            int[] order = new int[n];
+            double[] sizes = new double[n];
+            int[] childOffsets = new int[n + 1];
+            int[] children = new int[n];
+            double[] dist = new double[n];
+
+            for (int i = 0; i < count; ++i) {
+                int root = random.nextInt(n);
+                int settled = shortestPathTree(graph, root, dist,
+                                               parents, order);
+                Arrays.fill(sizes, 0.0);
+                Arrays.fill(childOffsets, 0);
+
+                // Accumulate the subtree weights from the leaves up; a
+                // subtree containing a landmark gets a negative size.
+                for (int j = settled - 1; j >= 0; --j) {
+                    int u = order[j];
+
+                    if (isLandmark[u] || sizes[u] < 0.0) {
+                        sizes[u] = -1.0;
+                    } else {
+                        sizes[u] += dist[u] - l.lowerBound(i, root, u);
+                    }
+
+                    if (parents[u] != CompactDirectedGraph.NO_NODE) {
+                        int p = parents[u];
+
+                        if (sizes[u] < 0.0) {
+                            sizes[p] = -1.0;
+                        } else if (sizes[p] >= 0.0) {
+                            sizes[p] += sizes[u];
+                        }
+
+                        childOffsets[p + 1]++;
+                    }
+                }
+
+                for (int u = 0; u < n; ++u) {
+                    childOffsets[u + 1] += childOffsets[u];
+                }
+
+                int[] fill = Arrays.copyOf(childOffsets, n);
+
+                for (int j = 0; j < settled; ++j) {
+                    int u = order[j];
+
+                    if (parents[u] != CompactDirectedGraph.NO_NODE) {
+                        children[fill[parents[u]]++] = u;
+                    }
+                }
+
+                int u = root;
+
+                while (true) {
+                    int best = CompactDirectedGraph.NO_NODE;
+
+                    for (int j = childOffsets[u]; j < childOffsets[u + 1];
+                            ++j) {
+                        int c = children[j];
+
+                        if (sizes[c] >= 0.0
+                                && (best == CompactDirectedGraph.NO_NODE
+                                    || sizes[c] > sizes[best])) {
+                            best = c;
+                        }
+                    }
+
+                    if (best == CompactDirectedGraph.NO_NODE) {
+                        break;
+                    }
+
+                    u = best;
+                }
+
+                if (isLandmark[u]) {
+                    // The whole tree is covered; fall back to a random node.
+                    do {
+                        u = random.nextInt(n);
+                    } while (isLandmark[u]);
+                }
+
+                isLandmark[u] = true;
+                l.landmarks[i] = u;
+                l.computeDistances(executor, i, i + 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return l;
+    }
+
+    public CompactDirectedGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of landmarks.
+     *
+     * @return the amount of landmarks.
+     */
+    public int size() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the id of the landmark <code>index</code>.
+     *
+     * @param index the landmark index.
+     * @return the node id of the landmark.
+     */
+    public int getLandmark(int index) {
+        return landmarks[index];
+    }
+
+    /**
+     * Returns the distance from the landmark <code>index</code> to the node
+     * <code>u</code>.
+     *
+     * @param index the landmark index.
+     * @param u the node id.
+     * @return the distance, or infinity if <code>u</code> is unreachable.
+     */
+    public double getDistanceFrom(int index, int u) {
+        return from[index][u];
+    }
+
+    /**
+     * Returns the distance from the node <code>u</code> to the landmark
+     * <code>index</code>.
+     *
+     * @param index the landmark index.
+     * @param u the node id.
+     * @return the distance, or infinity if the landmark is unreachable.
+     */
+    public double getDistanceTo(int index, int u) {
+        return to[index][u];
+    }
+
+    /**
+     * Returns the lower bound on the distance from <code>u</code> to
+     * <code>v</code> given by the landmark <code>index</code>.
+     *
+     * @param index the landmark index.
+     * @param u the start node id.
+     * @param v the end node id.
+     * @return a lower bound, possibly negative, or negative infinity if the
+     * landmark tells nothing.
+     */
+    public double getBound(int index, int u, int v) {
+        double[] f = from[index];
+        double[] t = to[index];
+        double a = Double.NEGATIVE_INFINITY;
+        double b = Double.NEGATIVE_INFINITY;
+
+        // On a graph that is not strongly connected a distance may be
+        // infinite; a difference involving one bounds nothing.
+        if (f[u] != Double.POSITIVE_INFINITY
+                && f[v] != Double.POSITIVE_INFINITY) {
+            a = f[v] - f[u];
+        }
+
+        if (t[u] != Double.POSITIVE_INFINITY
+                && t[v] != Double.POSITIVE_INFINITY) {
+            b = t[u] - t[v];
+        }
+
+        return a > b ? a : b;
+    }
+
+    /**
+     * Returns the best lower bound on the distance from <code>u</code> to
+     * <code>v</code> given by the first <code>count</code> landmarks.
+     */
+    private double lowerBound(int count, int u, int v) {
+        double bound = 0.0;
+
+        for (int i = 0; i < count; ++i) {
+            double b = getBound(i, u, v);
+
+            if (b > bound) {
+                bound = b;
+            }
+        }
+
+        return bound;
+    }
+
+    /**
+     * Computes the distance arrays of the landmarks <code>begin</code>
+     * through <code>end - 1</code>.
+     */
+    private void computeDistances(ExecutorService executor,
+                                  int begin,
+                                  int end) {
+        List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+
+        for (int i = begin; i < end; ++i) {
+            futures.add(executor.submit(
+                    new DistanceTask(graph, landmarks[i], false)));
+            futures.add(executor.submit(
+                    new DistanceTask(graph, landmarks[i], true)));
+        }
+
+        try {
+            for (int i = begin; i < end; ++i) {
+                from[i] = futures.get(2 * (i - begin)).get();
+                to[i] = futures.get(2 * (i - begin) + 1).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while computing landmark distances.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from <code>root</code>, recording the
+     * parents and the settling order.
+     *
+     * @return the amount of settled nodes.
+     */
+    private static int shortestPathTree(CompactDirectedGraph graph,
+                                        int root,
+                                        double[] dist,
+                                        int[] parents,
+                                        int[] order) {
+        IndexedBinaryHeap heap = new IndexedBinaryHeap(graph.size());
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[root] = 0.0;
+        parents[root] = CompactDirectedGraph.NO_NODE;
+        heap.insert(root, 0.0);
+        int settled = 0;
+
+        while (heap.isEmpty() == false) {
+            int u = heap.extractMinimum();
+            order[settled++] = u;
+
+            for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                int v = graph.getTarget(a);
+                double d = dist[u] + graph.getWeight(a);
+
+                if (d < dist[v]) {
+                    if (dist[v] == Double.POSITIVE_INFINITY) {
+                        heap.insert(v, d);
+                    } else {
+                        heap.decreasePriority(v, d);
+                    }
+
+                    dist[v] = d;
+                    parents[v] = u;
+                }
+            }
+        }
+
+        return settled;
+    }
+
+    private static void checkArguments(CompactDirectedGraph graph,
+                                       int count,
+                                       int threads) {
+        checkNotNull(graph, "'graph' is null.");
+        checkThreads(threads);
+
+        if (count < 1 || count > graph.size()) {
+            throw new IllegalArgumentException(
+                    "Bad amount of landmarks: " + count);
+        }
+    }
+
+    private static void checkThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+    }
+
+    /**
+     * This class computes the distances from a node to all others, or from
+     * all others to a node.
+     */
+    private static final class DistanceTask implements Callable<double[]> {
+
+        private final CompactDirectedGraph graph;
+        private final int source;
+        private final boolean backward;
+
+        DistanceTask(CompactDirectedGraph graph, int source, boolean backward) {
+            this.graph = graph;
+            this.source = source;
+            this.backward = backward;
+        }
+
+        @Override
+        public double[] call() {
+            final int n = graph.size();
+            double[] dist = new double[n];
+            IndexedBinaryHeap heap = new IndexedBinaryHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            dist[source] = 0.0;
+            heap.insert(source, 0.0);
+
+            while (heap.isEmpty() == false) {
+                int u = heap.extractMinimum();
+
+                if (backward) {
+                    for (int i = graph.inBegin(u); i < graph.inEnd(u); ++i) {
+                        relax(heap, dist, graph.getSource(i),
+                              dist[u] + graph.getInWeight(i));
+                    }
+                } else {
+                    for (int a = graph.outBegin(u); a < graph.outEnd(u); ++a) {
+                        relax(heap, dist, graph.getTarget(a),
+                              dist[u] + graph.getWeight(a));
+                    }
+                }
+            }
+
+            return dist;
+        }
+
+        private static void relax(IndexedBinaryHeap heap,
+                                  double[] dist,
+                                  int v,
+                                  double d) {
+            if (d < dist[v]) {
+                if (dist[v] == Double.POSITIVE_INFINITY) {
+                    heap.insert(v, d);
+                } else {
+                    heap.decreasePriority(v, d);
+                }
+
+                dist[v] = d;
+            }
+        }
+    }
+}
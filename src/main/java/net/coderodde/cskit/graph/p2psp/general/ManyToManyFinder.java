@@ -0,0 +1,250 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+
+/**
+ * This class defines the common API for many-to-many shortest path
+ * algorithms, which compute the distances from each of a set of sources to
+ * each of a set of targets at once, in a dense table.
+ * <p>
+ * The rows of the table are computed on several threads. Each thread owns a
+ * {@link Search} with its own state and takes the next uncomputed row until
+ * none is left. Whatever the rows share is computed beforehand in
+ * {@link #prepare(CompactDirectedGraph, int[])}, and held by the
+ * {@link SearchFactory} it returns rather than by the finder, so a finder
+ * may compute several tables concurrently.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public abstract class ManyToManyFinder {
+
+    private final int threads;
+
+    protected ManyToManyFinder(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive: " + threads);
+        }
+
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the amount of threads computing the rows.
+     *
+     * @return the amount of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Computes the distance table of <code>sources</code> and
+     * <code>targets</code>.
+     *
+     * @param graph the graph snapshot.
+     * @param sources the source nodes.
+     * @param targets the target nodes.
+     * @return the distance table.
+     * @throws IllegalArgumentException if a node is not in
+     * <code>graph</code>.
+     * @see #find(CompactDirectedGraph, int[], int[])
+     */
+    public double[][] find(CompactDirectedGraph graph,
+                           List<DirectedGraphNode> sources,
+                           List<DirectedGraphNode> targets) {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(sources, "'sources' is null.");
+        checkNotNull(targets, "'targets' is null.");
+        return find(graph, toIds(graph, sources), toIds(graph, targets));
+    }
+
+    /**
+     * Computes the distance table of <code>sources</code> and
+     * <code>targets</code>: the entry <code>[i][j]</code> is the distance from
+     * <code>sources[i]</code> to <code>targets[j]</code>, or
+     * <code>Double.POSITIVE_INFINITY</code> if the latter is not reachable
+     * from the former. Both arrays may contain duplicates.
+     *
+     * @param graph the graph snapshot.
+     * @param sources the ids of the source nodes.
+     * @param targets the ids of the target nodes.
+     * @return the distance table.
+     */
+    public double[][] find(CompactDirectedGraph graph,
+                           int[] sources,
+                           int[] targets) {
+        checkNotNull(graph, "'graph' is null.");
+        checkNotNull(sources, "'sources' is null.");
+        checkNotNull(targets, "'targets' is null.");
+        checkIds(graph, sources);
+        checkIds(graph, targets);
+
+        double[][] table = new double[sources.length][targets.length];
+
+        for (double[] row : table) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+
+        if (sources.length == 0 || targets.length == 0) {
+            return table;
+        }
+
+        SearchFactory factory = prepare(graph, targets);
+        int workers = Math.min(threads, sources.length);
+
+        if (workers == 1) {
+            Search search = factory.newSearch();
+
+            for (int i = 0; i < sources.length; ++i) {
+                search.computeRow(sources[i], table[i]);
+            }
+
+            return table;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+        AtomicInteger next = new AtomicInteger();
+
+        try {
+            for (int i = 0; i < workers; ++i) {
+                futures.add(executor.submit(
+                        new RowTask(factory.newSearch(),
+                                    sources,
+                                    table,
+                                    next)));
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while computing the distance table.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return table;
+    }
+
+    /**
+     * Computes whatever the rows of a table share. Called once per table
+     * before any row is computed.
+     *
+     * @param graph the graph snapshot.
+     * @param targets the ids of the target nodes.
+     * @return the factory of the searches of the table.
+     */
+    protected abstract SearchFactory prepare(CompactDirectedGraph graph,
+                                             int[] targets);
+
+    /**
+     * This interface creates the searches of the threads computing one
+     * table.
+     */
+    protected interface SearchFactory {
+
+        /**
+         * Creates the search state of one thread.
+         *
+         * @return a new search.
+         */
+        public Search newSearch();
+    }
+
+    /**
+     * This class computes rows of a distance table. An instance is used by
+     * one thread only.
+     */
+    protected abstract static class Search {
+
+        /**
+         * Computes the distances from <code>source</code> to the targets
+         * into <code>row</code>, which is filled with
+         * <code>Double.POSITIVE_INFINITY</code> on entry.
+         *
+         * @param source the id of the source node.
+         * @param row the row of the table.
+         */
+        protected abstract void computeRow(int source, double[] row);
+    }
+
+    private static int[] toIds(CompactDirectedGraph graph,
+                               List<DirectedGraphNode> nodes) {
+        int[] ids = new int[nodes.size()];
+        int i = 0;
+
+        for (DirectedGraphNode node : nodes) {
+            ids[i] = graph.getId(node);
+
+            if (ids[i++] == CompactDirectedGraph.NO_NODE) {
+                throw new IllegalArgumentException(
+                        "The graph does not contain " + node + ".");
+            }
+        }
+
+        return ids;
+    }
+
+    private static void checkIds(CompactDirectedGraph graph, int[] ids) {
+        for (int id : ids) {
+            if (id < 0 || id >= graph.size()) {
+                throw new IllegalArgumentException(
+                        "Bad node id: " + id + ".");
+            }
+        }
+    }
+
+    /**
+     * This class computes rows until none is left.
+     */
+    private static final class RowTask implements Callable<Void> {
+
+        private final Search search;
+        private final int[] sources;
+        private final double[][] table;
+        private final AtomicInteger next;
+
+        RowTask(Search search,
+                int[] sources,
+                double[][] table,
+                AtomicInteger next) {
+            this.search = search;
+            this.sources = sources;
+            this.table = table;
+            this.next = next;
+        }
+
+        @Override
+        public Void call() {
+            int i;
+
+            while ((i = next.getAndIncrement()) < sources.length) {
+                search.computeRow(sources[i], table[i]);
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.GraphMask;
+
+/**
+ * This interface defines the API of the finders searching compact graph
+ * snapshots with some of the nodes and arcs blocked.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public interface MaskedPathFinder {
+
+    /**
+     * Searches for a shortest path in a compact graph snapshot.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the path of node ids, or an empty array if <code>target</code>
+     * is not reachable from <code>source</code>.
+     */
+    public int[] find(CompactDirectedGraph graph, int source, int target);
+
+    /**
+     * Searches for a shortest path in a compact graph snapshot, not entering
+     * the nodes and not traversing the arcs blocked in <code>mask</code>.
+     * The source is never considered blocked.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @param mask the blocked nodes and arcs, or <code>null</code>.
+     * @return the path of node ids, or an empty array if <code>target</code>
+     * is not reachable from <code>source</code> within the mask.
+     */
+    public int[] find(CompactDirectedGraph graph,
+                      int source,
+                      int target,
+                      GraphMask mask);
+}
@@ -0,0 +1,112 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.List;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+
+/**
+ * This class holds the result of a one-to-many search: the targets reached,
+ * in the order of nondecreasing cost, together with their costs and
+ * shortest paths from the source. Unreachable targets and targets beyond
+ * the requested amount are not listed.
+ * <p>
+ * The result of a search over a graph snapshot keeps node ids and converts
+ * them to nodes on request; the result of a search over nodes has no ids.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class NearestTargets {
+
+    private final CompactDirectedGraph graph;
+    private final int[] ids;
+    private final int[][] idPaths;
+    private final List<DirectedGraphNode> nodes;
+    private final List<List<DirectedGraphNode>> paths;
+    private final double[] costs;
+
+    NearestTargets(CompactDirectedGraph graph,
+                   int[] ids,
+                   int[][] idPaths,
+                   double[] costs) {
+        this.graph = graph;
+        this.ids = ids;
+        this.idPaths = idPaths;
+        this.nodes = null;
+        this.paths = null;
+        this.costs = costs;
+    }
+
+    NearestTargets(List<DirectedGraphNode> nodes,
+                   List<List<DirectedGraphNode>> paths,
+                   double[] costs) {
+        this.graph = null;
+        this.ids = null;
+        this.idPaths = null;
+        this.nodes = nodes;
+        this.paths = paths;
+        this.costs = costs;
+    }
+
+    /**
+     * Returns the amount of targets reached.
+     *
+     * @return the amount of targets listed.
+     */
+    public int size() {
+        return costs.length;
+    }
+
+    public double getCost(int i) {
+        return costs[i];
+    }
+
+    public DirectedGraphNode getTarget(int i) {
+        return nodes != null ? nodes.get(i) : graph.getNode(ids[i]);
+    }
+
+    /**
+     * Returns the shortest path from the source to the <code>i</code>th
+     * nearest target.
+     *
+     * @param i the rank of the target.
+     * @return the path of nodes.
+     */
+    public List<DirectedGraphNode> getPath(int i) {
+        return paths != null ? paths.get(i) : graph.toNodeList(idPaths[i]);
+    }
+
+    /**
+     * Returns the id of the <code>i</code>th nearest target.
+     *
+     * @param i the rank of the target.
+     * @return the id of the target.
+     * @throws IllegalStateException if the search was not over a graph
+     * snapshot.
+     */
+    public int getTargetId(int i) {
+        checkIds();
+        return ids[i];
+    }
+
+    /**
+     * Returns the shortest path of node ids from the source to the
+     * <code>i</code>th nearest target.
+     *
+     * @param i the rank of the target.
+     * @return the path of node ids.
+     * @throws IllegalStateException if the search was not over a graph
+     * snapshot.
+     */
+    public int[] getIdPath(int i) {
+        checkIds();
+        return idPaths[i];
+    }
+
+    private void checkIds() {
+        if (ids == null) {
+            throw new IllegalStateException(
+                    "The search was not over a graph snapshot.");
+        }
+    }
+}
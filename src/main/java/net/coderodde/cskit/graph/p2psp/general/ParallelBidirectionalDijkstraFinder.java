@@ -0,0 +1,577 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import static net.coderodde.cskit.Utilities.checkNotNull;
+import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
+import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class implements bidirectional Dijkstra's algorithm with the two
+ * searches running on two threads: the backward search runs on a helper
+ * thread of an executor, the forward one on the calling thread.
+ * <p>
+ * The threads share no lock. Each publishes the minimum key of its queue in
+ * a volatile field, and the best meeting found so far is an immutable pair
+ * of cost and node that is replaced by compare-and-set. Whenever a thread
+ * labels a node, it reads the label of the other search for that node and
+ * offers the sum as a meeting. A thread stops once its own minimum key plus
+ * the published minimum key of the other search is at least the cost of the
+ * best meeting. The published key only grows, so reading a stale one merely
+ * delays the stop.
+ * <p>
+ * The labels are read across threads, so they are kept in atomic arrays or
+ * concurrent maps. Of a node labeled by both searches at the same time, at
+ * least one of the two threads sees the label of the other, which is what
+ * the usual stopping argument requires.
+ * <p>
+ * Like the other finders, this one keeps the state of both searches in the
+ * search context of the calling thread and reuses it from query to query:
+ * the searches over graph snapshots use its {@link CompactSearchState}s and
+ * label arrays told valid by an epoch stamp. The helper threads are reused
+ * as well. A search that fails stops its brother, and the failure is thrown
+ * to the caller.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ParallelBidirectionalDijkstraFinder extends GeneralPathFinder {
+
+    /**
+     * Creates the daemon threads of the executors owned by the finders.
+     */
+    private static final ThreadFactory HELPER_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bidirectional-helper");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Constructs a finder running the backward searches on daemon threads
+     * of its own, reused from query to query.
+     *
+     * @param OPEN the queue to spawn the open queues from.
+     */
+    public ParallelBidirectionalDijkstraFinder(
+            PriorityQueue<DirectedGraphNode, Double> OPEN) {
+        super(OPEN);
+        this.executor = Executors.newCachedThreadPool(HELPER_FACTORY);
+        this.ownsExecutor = true;
+    }
+
+    /**
+     * Constructs a finder running the backward searches on
+     * <code>executor</code>. The executor must run a task of each
+     * concurrent query at once, or the queries wait for each other.
+     *
+     * @param OPEN the queue to spawn the open queues from.
+     * @param executor the executor of the backward searches.
+     */
+    public ParallelBidirectionalDijkstraFinder(
+            PriorityQueue<DirectedGraphNode, Double> OPEN,
+            ExecutorService executor) {
+        super(OPEN);
+        checkNotNull(executor, "'executor' is null.");
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+
+    /**
+     * Shuts down the helper threads if this finder created them. An
+     * executor passed by the caller is left to the caller.
+     */
+    public void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    protected SearchContext newContext() {
+        return new ParallelContext(OPEN);
+    }
+
+    @Override
+    public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                        DirectedGraphNode target,
+                                        DirectedGraphWeightFunction w) {
+        if (source.equals(target)) {
+            return java.util.Arrays.asList(source);
+        }
+
+        ParallelContext context = (ParallelContext) context();
+        SearchContext reverse = context.reverse();
+        AtomicReference<Meeting<DirectedGraphNode>> best =
+                new AtomicReference<Meeting<DirectedGraphNode>>(
+                        new Meeting<DirectedGraphNode>(
+                                Double.POSITIVE_INFINITY, null));
+        NodeSearch searchA = new NodeSearch(source,
+                                            true,
+                                            w,
+                                            context,
+                                            context.labelsA,
+                                            best);
+        NodeSearch searchB = new NodeSearch(target,
+                                            false,
+                                            w,
+                                            reverse,
+                                            context.labelsB,
+                                            best);
+
+        searchA.setBrother(searchB);
+        searchB.setBrother(searchA);
+        runBoth(searchB, searchA);
+
+        DirectedGraphNode touch = best.get().node;
+
+        if (touch == null) {
+            return java.util.Collections.<DirectedGraphNode>emptyList();
+        }
+
+        return tracebackPathBidirectional(touch,
+                                          context.PARENT_MAP,
+                                          reverse.PARENT_MAP);
+    }
+
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        ParallelContext context = (ParallelContext) snapshotContext();
+        CompactSearchState stateA = compactState(graph);
+        CompactSearchState stateB = reverseCompactState(graph);
+        AtomicReference<Meeting<Integer>> best =
+                new AtomicReference<Meeting<Integer>>(
+                        new Meeting<Integer>(Double.POSITIVE_INFINITY, null));
+
+        context.resetLabels(graph.size());
+
+        CompactSearch searchA = new CompactSearch(graph,
+                                                  source,
+                                                  true,
+                                                  stateA,
+                                                  context.arrayLabelsA,
+                                                  best);
+        CompactSearch searchB = new CompactSearch(graph,
+                                                  target,
+                                                  false,
+                                                  stateB,
+                                                  context.arrayLabelsB,
+                                                  best);
+
+        searchA.setBrother(searchB);
+        searchB.setBrother(searchA);
+        runBoth(searchB, searchA);
+
+        Integer touch = best.get().node;
+
+        if (touch == null) {
+            return new int[0];
+        }
+
+        return tracebackPathBidirectional(touch,
+                                          stateA.getParents(),
+                                          stateB.getParents());
+    }
+
+    /**
+     * Runs <code>helper</code> on the executor and <code>own</code> on the
+     * calling thread, and waits for both. The search state is reused by the
+     * next query, so the helper is waited for even if <code>own</code>
+     * fails; a failed search publishes an infinite key, which stops its
+     * brother at once.
+     */
+    private void runBoth(Search helper, Search own) {
+        Future<?> future = executor.submit(helper);
+        boolean interrupted = false;
+
+        try {
+            own.run();
+        } finally {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while searching for a path.");
+        }
+    }
+
+    /**
+     * This class adds to a search context the labels the two searches read
+     * from each other.
+     */
+    private static final class ParallelContext extends SearchContext {
+
+        final Map<DirectedGraphNode, Double> labelsA;
+        final Map<DirectedGraphNode, Double> labelsB;
+        SharedLabels arrayLabelsA;
+        SharedLabels arrayLabelsB;
+
+        ParallelContext(PriorityQueue<DirectedGraphNode, Double> prototype) {
+            super(prototype);
+            this.labelsA = new ConcurrentHashMap<DirectedGraphNode, Double>();
+            this.labelsB = new ConcurrentHashMap<DirectedGraphNode, Double>();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            labelsA.clear();
+            labelsB.clear();
+        }
+
+        /**
+         * Forgets the array labels, replacing them if they are too small
+         * for <code>size</code> nodes.
+         */
+        void resetLabels(int size) {
+            arrayLabelsA = SharedLabels.reuse(arrayLabelsA, size);
+            arrayLabelsB = SharedLabels.reuse(arrayLabelsB, size);
+        }
+    }
+
+    /**
+     * This class holds the tentative distances of a search over a graph
+     * snapshot in atomic arrays, so that the brother may read them. A label
+     * is valid if its stamp equals the current epoch; the label is written
+     * before the stamp, so a reader seeing the stamp sees the label.
+     */
+    private static final class SharedLabels {
+
+        private final AtomicLongArray labels;
+        private final AtomicIntegerArray stamps;
+        private int epoch;
+
+        SharedLabels(int capacity) {
+            this.labels = new AtomicLongArray(capacity);
+            this.stamps = new AtomicIntegerArray(capacity);
+            this.epoch = 1;
+        }
+
+        static SharedLabels reuse(SharedLabels labels, int size) {
+            if (labels == null || labels.stamps.length() < size) {
+                return new SharedLabels(size);
+            }
+
+            if (++labels.epoch == Integer.MAX_VALUE) {
+                for (int i = 0; i < labels.stamps.length(); ++i) {
+                    labels.stamps.set(i, 0);
+                }
+
+                labels.epoch = 1;
+            }
+
+            return labels;
+        }
+
+        double get(int u) {
+            if (stamps.get(u) != epoch) {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            return Double.longBitsToDouble(labels.get(u));
+        }
+
+        void set(int u, double g) {
+            labels.set(u, Double.doubleToRawLongBits(g));
+            stamps.set(u, epoch);
+        }
+    }
+
+    /**
+     * This class is an immutable meeting of the two searches.
+     */
+    private static final class Meeting<N> {
+
+        final double cost;
+        final N node;
+
+        Meeting(double cost, N node) {
+            this.cost = cost;
+            this.node = node;
+        }
+    }
+
+    /**
+     * This class holds the part of a search its brother may read.
+     */
+    private abstract static class Search implements Runnable {
+
+        /**
+         * The minimum key of the queue; infinite once the search is over.
+         */
+        volatile double top;
+
+        Search brother;
+
+        void setBrother(Search brother) {
+            this.brother = brother;
+        }
+
+        /**
+         * Offers a meeting of cost <code>cost</code> at <code>node</code>.
+         */
+        static <N> void offer(AtomicReference<Meeting<N>> best,
+                              double cost,
+                              N node) {
+            Meeting<N> current = best.get();
+
+            while (cost < current.cost) {
+                if (best.compareAndSet(current,
+                                       new Meeting<N>(cost, node))) {
+                    return;
+                }
+
+                current = best.get();
+            }
+        }
+
+        /**
+         * Returns whether the search may stop. The key of the brother is
+         * read before the best meeting, so that the meetings the brother
+         * offered before publishing that key are seen.
+         */
+        boolean canStop(AtomicReference<? extends Meeting<?>> best) {
+            double brotherTop = brother.top;
+            return top + brotherTop >= best.get().cost;
+        }
+    }
+
+    /**
+     * This class implements one direction of the search over a compact graph
+     * snapshot.
+     */
+    private static final class CompactSearch extends Search {
+
+        private final CompactDirectedGraph graph;
+        private final boolean forward;
+        private final AtomicReference<Meeting<Integer>> best;
+        private final CompactSearchState state;
+        private final SharedLabels labels;
+
+        CompactSearch(CompactDirectedGraph graph,
+                      int node,
+                      boolean forward,
+                      CompactSearchState state,
+                      SharedLabels labels,
+                      AtomicReference<Meeting<Integer>> best) {
+            this.graph = graph;
+            this.forward = forward;
+            this.best = best;
+            this.state = state;
+            this.labels = labels;
+
+            state.getDistances()[node] = 0.0;
+            state.getParents()[node] = CompactDirectedGraph.NO_NODE;
+            state.reach(node);
+            state.getOpen().insert(node, 0.0);
+            labels.set(node, 0.0);
+        }
+
+        @Override
+        public void run() {
+            try {
+                search();
+            } finally {
+                top = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        private void search() {
+            SharedLabels other = ((CompactSearch) brother).labels;
+            IndexedBinaryHeap open = state.getOpen();
+            double[] d = state.getDistances();
+            int[] parents = state.getParents();
+
+            while (open.isEmpty() == false) {
+                top = open.minPriority();
+
+                if (canStop(best)) {
+                    break;
+                }
+
+                int current = open.extractMinimum();
+                state.close(current);
+
+                int begin = forward ? graph.outBegin(current)
+                                    : graph.inBegin(current);
+                int end = forward ? graph.outEnd(current)
+                                  : graph.inEnd(current);
+
+                for (int i = begin; i < end; ++i) {
+                    int u = forward ? graph.getTarget(i) : graph.getSource(i);
+
+                    if (state.isClosed(u)) {
+                        continue;
+                    }
+
+                    double tmpg = d[current] + (forward ? graph.getWeight(i)
+                                                        : graph.getInWeight(i));
+
+                    if (state.isReached(u) == false) {
+                        state.reach(u);
+                        open.insert(u, tmpg);
+                    } else if (tmpg < d[u]) {
+                        open.decreasePriority(u, tmpg);
+                    } else {
+                        continue;
+                    }
+
+                    d[u] = tmpg;
+                    parents[u] = current;
+                    labels.set(u, tmpg);
+
+                    double otherg = other.get(u);
+
+                    if (otherg < Double.POSITIVE_INFINITY) {
+                        offer(best, tmpg + otherg, u);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This class implements one direction of the search over the node
+     * objects.
+     */
+    private static final class NodeSearch extends Search {
+
+        private final boolean forward;
+        private final DirectedGraphWeightFunction w;
+        private final AtomicReference<Meeting<DirectedGraphNode>> best;
+        private final PriorityQueue<DirectedGraphNode, Double> open;
+        private final Set<DirectedGraphNode> closed;
+        private final Map<DirectedGraphNode, DirectedGraphNode> parents;
+        private final DirectedGraphNode.ArcCursor cursor;
+
+        /**
+         * The tentative distances, readable by the brother.
+         */
+        final Map<DirectedGraphNode, Double> labels;
+
+        NodeSearch(DirectedGraphNode node,
+                   boolean forward,
+                   DirectedGraphWeightFunction w,
+                   SearchContext context,
+                   Map<DirectedGraphNode, Double> labels,
+                   AtomicReference<Meeting<DirectedGraphNode>> best) {
+            this.forward = forward;
+            this.w = w;
+            this.best = best;
+            this.open = context.OPEN;
+            this.closed = context.CLOSED;
+            this.parents = context.PARENT_MAP;
+            this.cursor = context.cursor;
+            this.labels = labels;
+
+            labels.put(node, 0.0);
+            parents.put(node, null);
+            open.insert(node, 0.0);
+        }
+
+        @Override
+        public void run() {
+            try {
+                search();
+            } finally {
+                top = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        private void search() {
+            Map<DirectedGraphNode, Double> other =
+                    ((NodeSearch) brother).labels;
+
+            while (open.isEmpty() == false) {
+                top = labels.get(open.min());
+
+                if (canStop(best)) {
+                    break;
+                }
+
+                DirectedGraphNode current = open.extractMinimum();
+                double g = labels.get(current);
+                closed.add(current);
+
+                if (forward) {
+                    cursor.resetToChildren(current);
+                } else {
+                    cursor.resetToParents(current);
+                }
+
+                while (cursor.next()) {
+                    DirectedGraphNode u = cursor.getNode();
+
+                    if (closed.contains(u)) {
+                        continue;
+                    }
+
+                    double tmpg = g + w.get(cursor);
+                    Double oldg = labels.get(u);
+
+                    if (oldg == null) {
+                        open.insert(u, tmpg);
+                    } else if (tmpg < oldg) {
+                        open.decreasePriority(u, tmpg);
+                    } else {
+                        continue;
+                    }
+
+                    labels.put(u, tmpg);
+                    parents.put(u, current);
+
+                    Double otherg = other.get(u);
+
+                    if (otherg != null) {
+                        offer(best, tmpg + otherg, u);
+                    }
+                }
+            }
+        }
+    }
+}
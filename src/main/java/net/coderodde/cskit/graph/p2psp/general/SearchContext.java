@@ -0,0 +1,167 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+
+/**
+ * This class holds the state of one search: the open queue, the closed set,
+ * the g-scores, the parents and the arc cursor. A {@link GeneralPathFinder}
+ * keeps one context per thread and clears it before each query, so a single
+ * finder serves concurrent requests without allocating per query.
+ * <p>
+ * The bidirectional finders take the state of the backward search from
+ * {@link #reverse()}. The heuristics keep the target of the current query,
+ * so each context holds its own copies of them, see
+ * {@link #heuristic(HeuristicFunction)}, and buffer the children of a
+ * node expanded in a snapshot to estimate them in one batch, see
+ * {@link #reserveChildren(int)}. The searches over graph snapshots
+ * keep their state in a {@link CompactSearchState}, reset by an epoch
+ * increment.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class SearchContext {
+
+    public final PriorityQueue<DirectedGraphNode, Double> OPEN;
+    public final Set<DirectedGraphNode> CLOSED;
+    public final Map<DirectedGraphNode, Double> GSCORE_MAP;
+    public final Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP;
+
+    /**
+     * The cursor reused for every node expansion.
+     */
+    public final DirectedGraphNode.ArcCursor cursor;
+
+    private final Map<HeuristicFunction, HeuristicFunction> heuristics;
+
+    /**
+     * The snapshot ids of the children of the node being expanded, along
+     * with the arcs leading to them and their estimates, so that a heuristic
+     * search evaluates all children in one call to
+     * {@link HeuristicFunction#get(CompactDirectedGraph, int[], int,
+     * double[])}.
+     */
+    private int[] childIds = new int[8];
+    private int[] arcs = new int[8];
+    private double[] estimates = new double[8];
+
+    private SearchContext reverse;
+    private CompactSearchState compactState;
+
+    /**
+     * Constructs a context whose open queues are spawned from
+     * <code>prototype</code>. If it is <code>null</code>, as for a finder
+     * used on graph snapshots only, the context has no open queue.
+     *
+     * @param prototype the queue to spawn the open queues from.
+     */
+    public SearchContext(PriorityQueue<DirectedGraphNode, Double> prototype) {
+        this.OPEN = prototype == null ? null : prototype.newInstance();
+        this.CLOSED = new HashSet<DirectedGraphNode>();
+        this.GSCORE_MAP = new HashMap<DirectedGraphNode, Double>();
+        this.PARENT_MAP = new HashMap<DirectedGraphNode, DirectedGraphNode>();
+        this.cursor = new DirectedGraphNode.ArcCursor();
+        this.heuristics =
+                new IdentityHashMap<HeuristicFunction, HeuristicFunction>();
+    }
+
+    /**
+     * Clears the open queue, the closed set, the g-scores and the parents.
+     * The reverse context, if any, is cleared too.
+     */
+    public void clear() {
+        if (OPEN != null) {
+            OPEN.clear();
+        }
+
+        CLOSED.clear();
+        GSCORE_MAP.clear();
+        PARENT_MAP.clear();
+
+        if (reverse != null) {
+            reverse.clear();
+        }
+    }
+
+    /**
+     * Returns the context of the search running in the opposite direction,
+     * creating it on the first call. Its open queue is spawned from the
+     * open queue of this context.
+     *
+     * @return the reverse context.
+     */
+    public SearchContext reverse() {
+        if (reverse == null) {
+            reverse = new SearchContext(OPEN);
+        }
+
+        return reverse;
+    }
+
+    /**
+     * Returns the copy of <code>h</code> owned by this context, creating it
+     * on the first call.
+     *
+     * @param h the heuristic configured in a finder.
+     * @return the copy of <code>h</code> safe to retarget in this context.
+     */
+    public HeuristicFunction heuristic(HeuristicFunction h) {
+        HeuristicFunction copy = heuristics.get(h);
+
+        if (copy == null) {
+            copy = h.newInstance();
+            heuristics.put(h, copy);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Makes sure that the child buffers hold at least <code>size</code>
+     * entries. The buffers are replaced when grown, so fetch them after
+     * this call.
+     *
+     * @param size the amount of children of the node being expanded.
+     */
+    public void reserveChildren(int size) {
+        if (childIds.length < size) {
+            int capacity = Math.max(size, 2 * childIds.length);
+            childIds = new int[capacity];
+            arcs = new int[capacity];
+            estimates = new double[capacity];
+        }
+    }
+
+    public int[] getChildIds() {
+        return childIds;
+    }
+
+    public int[] getArcs() {
+        return arcs;
+    }
+
+    public double[] getEstimates() {
+        return estimates;
+    }
+
+    /**
+     * Returns the reset snapshot search state of this context, replacing it
+     * if it is too small for <code>graph</code>. Not affected by
+     * {@link #clear()}.
+     *
+     * @param graph the graph snapshot to search.
+     * @return the snapshot search state.
+     */
+    public CompactSearchState compactState(CompactDirectedGraph graph) {
+        compactState = CompactSearchState.reuse(compactState, graph);
+        return compactState;
+    }
+}
@@ -0,0 +1,127 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.List;
+import static net.coderodde.cskit.Utilities.tracebackPath;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+
+/**
+ * This class holds a shortest path tree of a {@link CompactDirectedGraph}:
+ * the distance from the root to every node and the parent of every node on
+ * a shortest path from the root. Both are plain arrays indexed by node id.
+ *
+ * @author Rodion Efremov
+ * @version 1.618033 (17.10.2026)
+ */
+public class ShortestPathTree {
+
+    private final CompactDirectedGraph graph;
+    private final int root;
+    private final double[] distances;
+    private final int[] parents;
+
+    ShortestPathTree(CompactDirectedGraph graph,
+                     int root,
+                     double[] distances,
+                     int[] parents) {
+        this.graph = graph;
+        this.root = root;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    public CompactDirectedGraph getGraph() {
+        return graph;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the distance from the root to <code>u</code>, or
+     * <code>Double.POSITIVE_INFINITY</code> if <code>u</code> is not
+     * reachable.
+     *
+     * @param u the id of the node.
+     * @return the distance.
+     */
+    public double getDistance(int u) {
+        return distances[u];
+    }
+
+    /**
+     * Returns the parent of <code>u</code>, or
+     * <code>CompactDirectedGraph.NO_NODE</code> if <code>u</code> is the root
+     * or not reachable.
+     *
+     * @param u the id of the node.
+     * @return the id of the parent.
+     */
+    public int getParent(int u) {
+        return parents[u];
+    }
+
+    public boolean isReachable(int u) {
+        return distances[u] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the distance array. The array is not copied; do not modify it.
+     *
+     * @return the distances indexed by node id.
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the parent array. The array is not copied; do not modify it.
+     *
+     * @return the parents indexed by node id.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * Returns the path from the root to <code>target</code>.
+     *
+     * @param target the id of the target node.
+     * @return the path of node ids, or an empty array if <code>target</code>
+     * is not reachable.
+     */
+    public int[] getPath(int target) {
+        if (isReachable(target) == false) {
+            return new int[0];
+        }
+
+        return tracebackPath(target, parents);
+    }
+
+    /**
+     * Returns the path from the root to <code>target</code>.
+     *
+     * @param target the target node.
+     * @return the path, or an empty list if <code>target</code> is not
+     * reachable.
+     * @throws IllegalArgumentException if <code>target</code> is not in the
+     * graph.
+     */
+    public List<DirectedGraphNode> getPath(DirectedGraphNode target) {
+        int t = graph.getId(target);
+
+        if (t == CompactDirectedGraph.NO_NODE) {
+            throw new IllegalArgumentException(
+                    "The graph does not contain " + target + ".");
+        }
+
+        int[] path = getPath(t);
+
+        if (path.length == 0) {
+            return java.util.Collections.<DirectedGraphNode>emptyList();
+        }
+
+        return graph.toNodeList(path);
+    }
+}
@@ -1,12 +1,12 @@
 package net.coderodde.cskit.graph.p2psp.general;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.ds.pq.IndexedBinaryHeap;
 import net.coderodde.cskit.ds.pq.PriorityQueue;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
 
@@ -20,18 +20,8 @@ import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
  */
 public class WhangboFinder extends GeneralPathFinder {
 
-    private HeuristicFunction h;
-    private HeuristicFunction h2;
-    private PriorityQueue<DirectedGraphNode, Double> OPEN2;
-    private Set<DirectedGraphNode> CLOSED2;
-    private Map<DirectedGraphNode, Double> GSCORE_MAP2;
-    private Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2;
-
-    // Whangbo specific structures.
-    private DirectedGraphNode touch;
-    private DirectedGraphNode separator;
-    private PriorityQueue<DirectedGraphNode, Double> OPENL1;
-    private PriorityQueue<DirectedGraphNode, Double> OPENL2;
+    private final HeuristicFunction h;
+    private final HeuristicFunction h2;
 
     public WhangboFinder(PriorityQueue<DirectedGraphNode, Double> OPEN,
                          HeuristicFunction h,
@@ -39,40 +29,42 @@ public class WhangboFinder extends GeneralPathFinder {
         super(OPEN);
         this.h = h;
         this.h2 = h2;
+    }
 
-        OPEN2 = OPEN.newInstance();
-        CLOSED2 = new HashSet<DirectedGraphNode>();
-        GSCORE_MAP2 = new HashMap<DirectedGraphNode, Double>();
-        PARENT_MAP2 = new HashMap<DirectedGraphNode, DirectedGraphNode>();
-
-        // Whangbo specific structures.
-        OPENL1 = OPEN.newInstance();
-        OPENL2 = OPEN.newInstance();
+    @Override
+    protected SearchContext newContext() {
+        return new WhangboContext(OPEN);
     }
 
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target,
                                         DirectedGraphWeightFunction w) {
-        super.source = source;
-        super.target = target;
-
-        touch = null;
-        separator = null;
-
+        WhangboContext context = (WhangboContext) context();
+        SearchContext reverse = context.reverse();
+        HeuristicFunction h = context.heuristic(this.h);
+        HeuristicFunction h2 = context.heuristic(this.h2);
+        DirectedGraphNode.ArcCursor cursor = context.cursor;
+
+        PriorityQueue<DirectedGraphNode, Double> OPEN = context.OPEN;
+        Set<DirectedGraphNode> CLOSED = context.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP = context.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP =
+                context.PARENT_MAP;
         h.setTarget(target);
-        OPEN.clear();
-        CLOSED.clear();
-        GSCORE_MAP.clear();
-        PARENT_MAP.clear();
-        OPENL1.clear();
 
+        PriorityQueue<DirectedGraphNode, Double> OPEN2 = reverse.OPEN;
+        Set<DirectedGraphNode> CLOSED2 = reverse.CLOSED;
+        Map<DirectedGraphNode, Double> GSCORE_MAP2 = reverse.GSCORE_MAP;
+        Map<DirectedGraphNode, DirectedGraphNode> PARENT_MAP2 =
+                reverse.PARENT_MAP;
         h2.setTarget(source);
-        OPEN2.clear();
-        CLOSED2.clear();
-        GSCORE_MAP2.clear();
-        PARENT_MAP2.clear();
-        OPENL2.clear();
+
+        // Whangbo specific structures.
+        context.start(h, h2, source, target);
+        DirectedGraphNode touch = null;
+        PriorityQueue<DirectedGraphNode, Double> OPENL1 = context.OPENL1;
+        PriorityQueue<DirectedGraphNode, Double> OPENL2 = context.OPENL2;
 
         OPEN.insert(source, h.get(source));
         PARENT_MAP.put(source, null);
@@ -101,12 +93,16 @@ public class WhangboFinder extends GeneralPathFinder {
             DirectedGraphNode current = OPEN.extractMinimum();
             CLOSED.add(current);
 
-            for (DirectedGraphNode child : current) {
+            cursor.resetToChildren(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode child = cursor.getNode();
+
                 if (CLOSED.contains(child)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP.get(current) + w.get(current, child);
+                double tmpg = GSCORE_MAP.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP.containsKey(child) == false) {
                     OPEN.insert(child, tmpg);
@@ -118,12 +114,15 @@ public class WhangboFinder extends GeneralPathFinder {
                             m = tmpg + GSCORE_MAP2.get(child);
 
                             if (touch == null) {
-                                separator = child;
+                                context.separator = child;
                             }
 
                             touch = child;
-                            OPENL1.insert(child, tmpg + l1(child));
-                            OPENL2.insert(child, GSCORE_MAP2.get(child) + l2(child));
+                            double key1 = tmpg + context.l1(child);
+                            double key2 = GSCORE_MAP2.get(child)
+                                          + context.l2(child);
+                            OPENL1.insert(child, key1);
+                            OPENL2.insert(child, key2);
                         }
                     }
                 } else if (tmpg < GSCORE_MAP.get(child)) {
@@ -136,12 +135,15 @@ public class WhangboFinder extends GeneralPathFinder {
                             m = tmpg + GSCORE_MAP2.get(child);
 
                             if (touch == null) {
-                                separator = child;
+                                context.separator = child;
                             }
 
                             touch = child;
-                            OPENL1.decreasePriority(child, tmpg + l1(child));
-                            OPENL2.decreasePriority(child, GSCORE_MAP2.get(child) + l2(child));
+                            double key1 = tmpg + context.l1(child);
+                            double key2 = GSCORE_MAP2.get(child)
+                                          + context.l2(child);
+                            OPENL1.decreasePriority(child, key1);
+                            OPENL2.decreasePriority(child, key2);
                         }
                     }
                 }
@@ -150,12 +152,16 @@ public class WhangboFinder extends GeneralPathFinder {
             current = OPEN2.extractMinimum();
             CLOSED2.add(current);
 
-            for (DirectedGraphNode parent : current.parentIterable()) {
+            cursor.resetToParents(current);
+
+            while (cursor.next()) {
+                DirectedGraphNode parent = cursor.getNode();
+
                 if (CLOSED2.contains(parent)) {
                     continue;
                 }
 
-                double tmpg = GSCORE_MAP2.get(current) + w.get(parent, current);
+                double tmpg = GSCORE_MAP2.get(current) + w.get(cursor);
 
                 if (GSCORE_MAP2.containsKey(parent) == false) {
                     OPEN2.insert(parent, tmpg);
@@ -167,12 +173,15 @@ public class WhangboFinder extends GeneralPathFinder {
                             m = tmpg + GSCORE_MAP.get(parent);
 
                             if (touch == null) {
-                                separator = parent;
+                                context.separator = parent;
                             }
 
                             touch = parent;
-                            OPENL1.insert(parent, GSCORE_MAP.get(parent) + l1(parent));
-                            OPENL2.insert(parent, tmpg + l2(parent));
+                            double key1 = GSCORE_MAP.get(parent)
+                                          + context.l1(parent);
+                            double key2 = tmpg + context.l2(parent);
+                            OPENL1.insert(parent, key1);
+                            OPENL2.insert(parent, key2);
                         }
                     }
                 } else if (tmpg < GSCORE_MAP2.get(parent)) {
@@ -185,12 +194,15 @@ public class WhangboFinder extends GeneralPathFinder {
                             m = tmpg + GSCORE_MAP.get(parent);
 
                             if (touch == null) {
-                                separator = parent;
+                                context.separator = parent;
                             }
 
                             touch = parent;
-                            OPENL1.decreasePriority(parent, GSCORE_MAP.get(parent) + l1(parent));
-                            OPENL2.decreasePriority(parent, tmpg + l2(parent));
+                            double key1 = GSCORE_MAP.get(parent)
+                                          + context.l1(parent);
+                            double key2 = tmpg + context.l2(parent);
+                            OPENL1.decreasePriority(parent, key1);
+                            OPENL2.decreasePriority(parent, key2);
                         }
                     }
                 }
@@ -206,61 +218,215 @@ public class WhangboFinder extends GeneralPathFinder {
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
 
-    private double l1(DirectedGraphNode node) {
-        CoordinateMap cm = h.getCoordinateMap();
-        double[] s = cm.get(source);
-        double[] p = cm.get(separator);
-        double[] x = cm.get(node);
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        DirectedGraphNode sourceNode = graph.getNode(source);
+        DirectedGraphNode targetNode = graph.getNode(target);
+        WhangboContext context = (WhangboContext) context();
+        HeuristicFunction h = context.heuristic(this.h);
+        HeuristicFunction h2 = context.heuristic(this.h2);
+
+        final int n = graph.size();
+        IndexedBinaryHeap open = new IndexedBinaryHeap(n);
+        IndexedBinaryHeap open2 = new IndexedBinaryHeap(n);
+        IndexedBinaryHeap openL1 = new IndexedBinaryHeap(n);
+        IndexedBinaryHeap openL2 = new IndexedBinaryHeap(n);
+        boolean[] closed = new boolean[n];
+        boolean[] closed2 = new boolean[n];
+        double[] g = new double[n];
+        double[] g2 = new double[n];
+        int[] parents = new int[n];
+        int[] parents2 = new int[n];
+
+        int touch = CompactDirectedGraph.NO_NODE;
+        context.start(h, h2, sourceNode, targetNode);
+
+        h.setTarget(graph, target);
+        h2.setTarget(graph, source);
+
+        open.insert(source, h.get(graph, source));
+        parents[source] = CompactDirectedGraph.NO_NODE;
+
+        open2.insert(target, h2.get(graph, target));
+        parents2[target] = CompactDirectedGraph.NO_NODE;
+
+        double m = Double.POSITIVE_INFINITY;
 
-        for (int i = 0; i < x.length; ++i) {
-            x[i] -= p[i];
-        }
+        while ((open.isEmpty() == false) && (open2.isEmpty() == false)) {
 
-        for (int i = 0; i < s.length; ++i) {
-            s[i] -= p[i];
-        }
+            if (touch != CompactDirectedGraph.NO_NODE) {
+                if (g[touch] <= openL1.minPriority()
+                        && g2[touch] <= openL2.minPriority()) {
+                    return tracebackPathBidirectional(touch,
+                                                      parents,
+                                                      parents2);
+                }
+            }
 
-        double dotProduct = 0.0;
+            int current = open.extractMinimum();
+            closed[current] = true;
 
-        for (int i = 0; i < s.length; ++i) {
-            dotProduct += x[i] * s[i];
-        }
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (closed[child]) {
+                    continue;
+                }
+
+                double tmpg = g[current] + graph.getWeight(a);
+
+                if (open.contains(child) == false) {
+                    open.insert(child, tmpg);
+                } else if (tmpg < g[child]) {
+                    open.decreasePriority(child, tmpg);
+                } else {
+                    continue;
+                }
+
+                g[child] = tmpg;
+                parents[child] = current;
+
+                if (closed2[child] && m > tmpg + g2[child]) {
+                    m = tmpg + g2[child];
+                    DirectedGraphNode node = graph.getNode(child);
+
+                    if (touch == CompactDirectedGraph.NO_NODE) {
+                        context.separator = node;
+                    }
+
+                    touch = child;
+                    double key1 = tmpg + context.l1(node);
+                    double key2 = g2[child] + context.l2(node);
+                    // Inserts a new node, or improves a present one.
+                    openL1.insert(child, key1);
+                    openL1.decreasePriority(child, key1);
+                    openL2.insert(child, key2);
+                    openL2.decreasePriority(child, key2);
+                }
+            }
+
+            current = open2.extractMinimum();
+            closed2[current] = true;
+
+            for (int i = graph.inBegin(current);
+                     i < graph.inEnd(current);
+                     ++i) {
+                int parent = graph.getSource(i);
+
+                if (closed2[parent]) {
+                    continue;
+                }
+
+                double tmpg = g2[current] + graph.getInWeight(i);
 
-        double len = 0.0;
+                if (open2.contains(parent) == false) {
+                    open2.insert(parent, tmpg);
+                } else if (tmpg < g2[parent]) {
+                    open2.decreasePriority(parent, tmpg);
+                } else {
+                    continue;
+                }
+
+                g2[parent] = tmpg;
+                parents2[parent] = current;
+
+                if (closed[parent] && m > tmpg + g[parent]) {
+                    m = tmpg + g[parent];
+                    DirectedGraphNode node = graph.getNode(parent);
+
+                    if (touch == CompactDirectedGraph.NO_NODE) {
+                        context.separator = node;
+                    }
+
+                    touch = parent;
+                    double key1 = g[parent] + context.l1(node);
+                    double key2 = tmpg + context.l2(node);
+                    openL1.insert(parent, key1);
+                    openL1.decreasePriority(parent, key1);
+                    openL2.insert(parent, key2);
+                    openL2.decreasePriority(parent, key2);
+                }
+            }
+        }
 
-        for (int i = 0; i < s.length; ++i) {
-            len += s[i] * s[i];
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
         }
 
-        return dotProduct / Math.sqrt(len);
+        return tracebackPathBidirectional(touch, parents, parents2);
     }
 
-    private double l2(DirectedGraphNode node) {
-        CoordinateMap cm = h2.getCoordinateMap();
-        double[] t = cm.get(target);
-        double[] p = cm.get(separator);
-        double[] x = cm.get(node);
+    /**
+     * This class adds the state specific to Whangbo's algorithm to the
+     * search context.
+     */
+    private static final class WhangboContext extends SearchContext {
+
+        final PriorityQueue<DirectedGraphNode, Double> OPENL1;
+        final PriorityQueue<DirectedGraphNode, Double> OPENL2;
+        private HeuristicFunction h;
+        private HeuristicFunction h2;
+        private DirectedGraphNode source;
+        private DirectedGraphNode target;
+        DirectedGraphNode separator;
+
+        WhangboContext(PriorityQueue<DirectedGraphNode, Double> prototype) {
+            super(prototype);
+            this.OPENL1 = prototype.newInstance();
+            this.OPENL2 = prototype.newInstance();
+        }
 
-        for (int i = 0; i < x.length; ++i) {
-            x[i] -= p[i];
+        @Override
+        public void clear() {
+            super.clear();
+            OPENL1.clear();
+            OPENL2.clear();
         }
 
-        for (int i = 0; i < t.length; ++i) {
-            t[i] -= p[i];
+        void start(HeuristicFunction h,
+                   HeuristicFunction h2,
+                   DirectedGraphNode source,
+                   DirectedGraphNode target) {
+            this.h = h;
+            this.h2 = h2;
+            this.source = source;
+            this.target = target;
+            this.separator = null;
         }
 
-        double dotProduct = 0.0;
+        double l1(DirectedGraphNode node) {
+            return project(h.getCoordinateMap(), source, node);
+        }
 
-        for (int i = 0; i < t.length; ++i) {
-            dotProduct += x[i] * t[i];
+        double l2(DirectedGraphNode node) {
+            return project(h2.getCoordinateMap(), target, node);
         }
 
-        double len = 0.0;
+        /**
+         * Returns the scalar projection of the vector from the separator to
+         * <code>node</code> onto the vector from the separator to
+         * <code>end</code>. The coordinate map may be shared by several
+         * threads, so its vectors are only read.
+         */
+        private double project(CoordinateMap cm,
+                               DirectedGraphNode end,
+                               DirectedGraphNode node) {
+            double[] e = cm.get(end);
+            double[] p = cm.get(separator);
+            double[] x = cm.get(node);
+            double dotProduct = 0.0;
+            double len = 0.0;
+
+            for (int i = 0; i < e.length; ++i) {
+                double dx = x[i] - p[i];
+                double de = e[i] - p[i];
+                dotProduct += dx * de;
+                len += de * de;
+            }
 
-        for (int i = 0; i < t.length; ++i) {
-            len += t[i] * t[i];
+            return dotProduct / Math.sqrt(len);
         }
-
-        return dotProduct / Math.sqrt(len);
     }
 }
@@ -7,6 +7,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
@@ -26,6 +28,13 @@ implements UniformCostPathFinder {
     private Map<DirectedGraphNode, DirectedGraphNode> parentMapB =
             new HashMap<DirectedGraphNode, DirectedGraphNode>();
 
+    /**
+     * The states of the searches over graph snapshots, reused while large
+     * enough.
+     */
+    private CompactSearchState stateA;
+    private CompactSearchState stateB;
+
     public List<DirectedGraphNode>
             find(DirectedGraphNode source, DirectedGraphNode target) {
         clear();
@@ -75,6 +84,72 @@ implements UniformCostPathFinder {
         return Collections.<DirectedGraphNode>emptyList();
     }
 
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        stateA = CompactSearchState.reuse(stateA, graph);
+        stateB = CompactSearchState.reuse(stateB, graph);
+        int[] queueA = stateA.getQueue();
+        int[] queueB = stateB.getQueue();
+        int[] parentsA = stateA.getParents();
+        int[] parentsB = stateB.getParents();
+        int headA = 0;
+        int tailA = 0;
+        int headB = 0;
+        int tailB = 0;
+
+        queueA[tailA++] = source;
+        queueB[tailB++] = target;
+        stateA.reach(source);
+        stateB.reach(target);
+        parentsA[source] = CompactDirectedGraph.NO_NODE;
+        parentsB[target] = CompactDirectedGraph.NO_NODE;
+
+        while (headA < tailA && headB < tailB) {
+            int A = queueA[headA++];
+
+            for (int a = graph.outBegin(A); a < graph.outEnd(A); ++a) {
+                int child = graph.getTarget(a);
+
+                if (stateA.isReached(child) == false) {
+                    stateA.reach(child);
+                    parentsA[child] = A;
+                    queueA[tailA++] = child;
+
+                    if (stateB.isReached(child)) {
+                        return tracebackPathBidirectional(child,
+                                                          parentsA,
+                                                          parentsB);
+                    }
+                }
+            }
+
+            // Expand the backwards search.
+            int B = queueB[headB++];
+
+            for (int i = graph.inBegin(B); i < graph.inEnd(B); ++i) {
+                int parent = graph.getSource(i);
+
+                if (stateB.isReached(parent) == false) {
+                    stateB.reach(parent);
+                    parentsB[parent] = B;
+                    queueB[tailB++] = parent;
+
+                    if (stateA.isReached(parent)) {
+                        return tracebackPathBidirectional(parent,
+                                                          parentsA,
+                                                          parentsB);
+                    }
+                }
+            }
+        }
+
+        return new int[0];
+    }
+
     private void clear() {
         parentMapA.clear();
         parentMapB.clear();
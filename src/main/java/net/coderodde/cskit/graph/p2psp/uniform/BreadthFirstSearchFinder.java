@@ -10,6 +10,8 @@ import java.util.Set;
 
 import static net.coderodde.cskit.Utilities.tracebackPath;
 
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
@@ -23,6 +25,12 @@ public class BreadthFirstSearchFinder implements UniformCostPathFinder {
     private final Map<DirectedGraphNode, DirectedGraphNode> parentMap =
           new HashMap<DirectedGraphNode, DirectedGraphNode>();
 
+    /**
+     * The state of the searches over graph snapshots, reused while large
+     * enough.
+     */
+    private CompactSearchState state;
+
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target) {
@@ -52,4 +60,39 @@ public class BreadthFirstSearchFinder implements UniformCostPathFinder {
         return java.util.Collections.<DirectedGraphNode>emptyList();
     }
 
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        state = CompactSearchState.reuse(state, graph);
+        int[] queue = state.getQueue();
+        int[] parents = state.getParents();
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = source;
+        state.reach(source);
+        parents[source] = CompactDirectedGraph.NO_NODE;
+
+        while (head < tail) {
+            int current = queue[head++];
+
+            if (current == target) {
+                return tracebackPath(target, parents);
+            }
+
+            for (int a = graph.outBegin(current);
+                     a < graph.outEnd(current);
+                     ++a) {
+                int child = graph.getTarget(a);
+
+                if (state.isReached(child) == false) {
+                    state.reach(child);
+                    parents[child] = current;
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        // No path found.
+        return new int[0];
+    }
 }
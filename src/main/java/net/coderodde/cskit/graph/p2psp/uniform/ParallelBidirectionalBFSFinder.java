@@ -8,13 +8,30 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static net.coderodde.cskit.Utilities.checkNotNull;
 import static net.coderodde.cskit.Utilities.findTouchNode;
 import static net.coderodde.cskit.Utilities.tracebackPathBidirectional;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.CompactSearchState;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
  * This class implement parallel bidirectional breadth-first search algorithm.
+ * <p>
+ * The searches over graph snapshots reuse their state from query to query:
+ * the visited marks, parents and queues are kept in
+ * {@link CompactSearchState}s, and the levels the two searches read from
+ * each other in atomic arrays told valid by an epoch stamp. The backward
+ * search runs on a helper thread of an executor, which is reused as well.
+ * Like the other uniform cost finders, an instance is used by one thread at
+ * a time.
  *
  * @author Rodion Efremov
  * @version 1.61 (8.12.2013)
@@ -39,6 +56,56 @@ public class ParallelBidirectionalBFSFinder implements UniformCostPathFinder {
     private Map<DirectedGraphNode, Integer> distanceMapB =
             new HashMap<DirectedGraphNode, Integer>();
 
+    /**
+     * Creates the daemon threads of the executors owned by the finders.
+     */
+    private static final ThreadFactory HELPER_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bidirectional-bfs-helper");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private CompactSearchState stateA;
+    private CompactSearchState stateB;
+    private SharedLevels levelsA;
+    private SharedLevels levelsB;
+
+    /**
+     * Constructs a finder running the backward searches over graph
+     * snapshots on a daemon thread of its own, reused from query to query.
+     */
+    public ParallelBidirectionalBFSFinder() {
+        this.executor = Executors.newCachedThreadPool(HELPER_FACTORY);
+        this.ownsExecutor = true;
+    }
+
+    /**
+     * Constructs a finder running the backward searches over graph
+     * snapshots on <code>executor</code>.
+     *
+     * @param executor the executor of the backward searches.
+     */
+    public ParallelBidirectionalBFSFinder(ExecutorService executor) {
+        checkNotNull(executor, "'executor' is null.");
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+
+    /**
+     * Shuts down the helper threads if this finder created them. An
+     * executor passed by the caller is left to the caller.
+     */
+    public void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source, DirectedGraphNode target) {
         clear();
@@ -63,8 +130,9 @@ public class ParallelBidirectionalBFSFinder implements UniformCostPathFinder {
         try {
             threadA.join();
         } catch (InterruptedException e) {
-            e.printStackTrace(System.err);
-            return null;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while searching for a path.");
         }
 
         DirectedGraphNode touch = findTouchNode(levelA,
@@ -77,6 +145,248 @@ public class ParallelBidirectionalBFSFinder implements UniformCostPathFinder {
         return tracebackPathBidirectional(touch, parentMapA, parentMapB);
     }
 
+    @Override
+    public int[] find(CompactDirectedGraph graph, int source, int target) {
+        if (source == target) {
+            return new int[]{ source };
+        }
+
+        stateA = CompactSearchState.reuse(stateA, graph);
+        stateB = CompactSearchState.reuse(stateB, graph);
+        levelsA = SharedLevels.reuse(levelsA, graph.size());
+        levelsB = SharedLevels.reuse(levelsB, graph.size());
+
+        CompactSearch searchA = new CompactSearch(graph,
+                                                  source,
+                                                  true,
+                                                  stateA,
+                                                  levelsA,
+                                                  levelsB);
+        CompactSearch searchB = new CompactSearch(graph,
+                                                  target,
+                                                  false,
+                                                  stateB,
+                                                  levelsB,
+                                                  levelsA);
+        searchA.setBrother(searchB);
+        searchB.setBrother(searchA);
+        runBoth(searchB, searchA);
+
+        int touch = CompactDirectedGraph.NO_NODE;
+        int minDistance = Integer.MAX_VALUE;
+
+        for (CompactSearch search : new CompactSearch[]{ searchA, searchB }) {
+            for (int i = search.levelBegin; i < search.levelEnd; ++i) {
+                int u = search.queue[i];
+                int distanceA = levelsA.get(u);
+                int distanceB = levelsB.get(u);
+
+                if (distanceA > 0 && distanceB > 0
+                        && minDistance > distanceA + distanceB) {
+                    minDistance = distanceA + distanceB;
+                    touch = u;
+                }
+            }
+        }
+
+        if (touch == CompactDirectedGraph.NO_NODE) {
+            return new int[0];
+        }
+
+        return tracebackPathBidirectional(touch,
+                                          stateA.getParents(),
+                                          stateB.getParents());
+    }
+
+    /**
+     * Runs <code>helper</code> on the executor and <code>own</code> on the
+     * calling thread, and waits for both. The search state is reused by the
+     * next query, so the helper is waited for even if <code>own</code>
+     * fails; a failed search stops its brother.
+     */
+    private void runBoth(CompactSearch helper, CompactSearch own) {
+        Future<?> future = executor.submit(helper);
+        boolean interrupted = false;
+
+        try {
+            own.run();
+        } finally {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while searching for a path.");
+        }
+    }
+
+    /**
+     * This class holds the levels of a search over a graph snapshot in
+     * atomic arrays, so that the brother may read them. A level is stored
+     * as <code>distance + 1</code> and is valid if its stamp equals the
+     * current epoch; otherwise the node is not visited, which reads as zero.
+     */
+    private static final class SharedLevels {
+
+        private final AtomicIntegerArray levels;
+        private final AtomicIntegerArray stamps;
+        private int epoch;
+
+        SharedLevels(int capacity) {
+            this.levels = new AtomicIntegerArray(capacity);
+            this.stamps = new AtomicIntegerArray(capacity);
+            this.epoch = 1;
+        }
+
+        static SharedLevels reuse(SharedLevels levels, int size) {
+            if (levels == null || levels.stamps.length() < size) {
+                return new SharedLevels(size);
+            }
+
+            if (++levels.epoch == Integer.MAX_VALUE) {
+                for (int i = 0; i < levels.stamps.length(); ++i) {
+                    levels.stamps.set(i, 0);
+                }
+
+                levels.epoch = 1;
+            }
+
+            return levels;
+        }
+
+        int get(int u) {
+            return stamps.get(u) == epoch ? levels.get(u) : 0;
+        }
+
+        void set(int u, int level) {
+            levels.set(u, level);
+            stamps.set(u, epoch);
+        }
+    }
+
+    /**
+     * This class implements a level-synchronous search on a compact graph
+     * snapshot. The levels are consecutive runs of the queue of its search
+     * state; once the search is over, the last completed level is
+     * <code>queue[levelBegin], ..., queue[levelEnd - 1]</code>.
+     */
+    private static final class CompactSearch implements Runnable {
+
+        private final CompactDirectedGraph graph;
+        private final boolean forward;
+        private final CompactSearchState state;
+        private final SharedLevels levels;
+        private final SharedLevels otherLevels;
+        private CompactSearch brother;
+        private volatile boolean doRun = true;
+
+        final int[] queue;
+        int levelBegin;
+        int levelEnd;
+
+        CompactSearch(CompactDirectedGraph graph,
+                      int node,
+                      boolean forward,
+                      CompactSearchState state,
+                      SharedLevels levels,
+                      SharedLevels otherLevels) {
+            this.graph = graph;
+            this.forward = forward;
+            this.state = state;
+            this.levels = levels;
+            this.otherLevels = otherLevels;
+            this.queue = state.getQueue();
+            this.queue[0] = node;
+            this.levelBegin = 0;
+            this.levelEnd = 1;
+
+            state.reach(node);
+            state.getParents()[node] = CompactDirectedGraph.NO_NODE;
+            levels.set(node, 1);
+        }
+
+        void setBrother(CompactSearch brother) {
+            this.brother = brother;
+        }
+
+        void stopRunning() {
+            doRun = false;
+        }
+
+        @Override
+        public void run() {
+            try {
+                search();
+            } finally {
+                brother.stopRunning();
+            }
+        }
+
+        private void search() {
+            int[] parents = state.getParents();
+            int level = 1;
+            int tail = levelEnd;
+
+            while (levelBegin < levelEnd && doRun) {
+                ++level;
+
+                for (int i = levelBegin; i < levelEnd; ++i) {
+                    int current = queue[i];
+                    int begin = forward ? graph.outBegin(current)
+                                        : graph.inBegin(current);
+                    int end = forward ? graph.outEnd(current)
+                                      : graph.inEnd(current);
+
+                    for (int j = begin; j < end; ++j) {
+                        int u = forward ? graph.getTarget(j)
+                                        : graph.getSource(j);
+
+                        if (state.isReached(u) == false) {
+                            state.reach(u);
+                            parents[u] = current;
+                            levels.set(u, level);
+                            queue[tail++] = u;
+                        }
+                    }
+                }
+
+                if (tail == levelEnd) {
+                    // The search space is exhausted, so no path exists.
+                    return;
+                }
+
+                levelBegin = levelEnd;
+                levelEnd = tail;
+
+                for (int i = levelBegin; i < levelEnd; ++i) {
+                    if (otherLevels.get(queue[i]) > 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * This class implements the forward search.
      */
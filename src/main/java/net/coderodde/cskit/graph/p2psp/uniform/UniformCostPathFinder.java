@@ -1,6 +1,7 @@
 package net.coderodde.cskit.graph.p2psp.uniform;
 
 import java.util.List;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
 import net.coderodde.cskit.graph.DirectedGraphNode;
 
 /**
@@ -13,4 +14,16 @@ import net.coderodde.cskit.graph.DirectedGraphNode;
 public interface UniformCostPathFinder {
     public List<DirectedGraphNode> find(DirectedGraphNode source,
                                         DirectedGraphNode target);
+
+    /**
+     * Searches for a path with the least amount of arcs in a compact graph
+     * snapshot.
+     *
+     * @param graph the graph snapshot.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the path of node ids, or an empty array if <code>target</code>
+     * is not reachable from <code>source</code>.
+     */
+    public int[] find(CompactDirectedGraph graph, int source, int target);
 }
@@ -0,0 +1,116 @@
+package net.coderodde.cskit.ds.map;
+
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.PackedDirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.PackedUndirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.UndirectedGraphNode;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>LongDoubleHashMap</code> and the weight functions
+ * built upon it.
+ *
+ * @author Rodion Efremov
+ */
+public class LongDoubleHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongDoubleHashMap map = new LongDoubleHashMap(1);
+        long[] extremes = { 0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE + 1, 7L,
+                            (7L << 32) | 7L };
+
+        for (int i = 0; i < extremes.length; ++i) {
+            map.put(extremes[i], i);
+        }
+
+        // Grows the table several times.
+        for (long key = 1; key <= 1000; ++key) {
+            map.put(key << 32, -key);
+        }
+
+        map.put(0L, 100.0);
+
+        assertEquals(1000 + extremes.length, map.size());
+        assertEquals(100.0, map.get(0L, -1.0), 0.0);
+
+        for (int i = 1; i < extremes.length; ++i) {
+            assertEquals(i, map.get(extremes[i], -1.0), 0.0);
+        }
+
+        // Removing every other key must keep the rest reachable past the
+        // slots freed in their probe sequences.
+        for (long key = 2; key <= 1000; key += 2) {
+            assertTrue(map.remove(key << 32));
+            assertFalse(map.remove(key << 32));
+        }
+
+        for (long key = 2; key <= 1000; ++key) {
+            double expected = key % 2 == 0 ? -1.0 : -key;
+            assertEquals(expected, map.get(key << 32, -1.0), 0.0);
+            assertEquals(key % 2 == 1, map.containsKey(key << 32));
+        }
+
+        int count = 0;
+
+        for (int slot = 0; slot < map.slotCount(); ++slot) {
+            if (map.keyAt(slot) != LongDoubleHashMap.EMPTY_KEY) {
+                assertEquals(map.get(map.keyAt(slot), Double.NaN),
+                             map.valueAt(slot),
+                             0.0);
+                ++count;
+            }
+        }
+
+        assertEquals(map.size(), count);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(Long.MAX_VALUE));
+        assertEquals(-1.0, map.get(0L, -1.0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReservedKeyThrows() {
+        new LongDoubleHashMap().put(LongDoubleHashMap.EMPTY_KEY, 1.0);
+    }
+
+    @Test
+    public void testThrowsOnHugeExpectedSize() {
+        int[] sizes = { LongDoubleHashMap.MAXIMUM_SIZE + 1, Integer.MAX_VALUE };
+
+        for (int size : sizes) {
+            try {
+                new LongDoubleHashMap(size);
+                fail("Accepted the expected size " + size + ".");
+            } catch (IllegalArgumentException e) {
+            }
+        }
+    }
+
+    @Test
+    public void testPackedWeightFunctions() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        PackedDirectedGraphWeightFunction w =
+                new PackedDirectedGraphWeightFunction();
+
+        w.put(a, b, 3.0);
+        assertEquals(3.0, w.get(a, b), 0.0);
+        assertEquals(0.0, w.get(b, a), 0.0);
+        w.put(a, b, 4.0);
+        assertEquals(4.0, w.get(a, b), 0.0);
+        assertEquals(1, w.size());
+
+        UndirectedGraphNode c = new UndirectedGraphNode("c");
+        UndirectedGraphNode d = new UndirectedGraphNode("d");
+        PackedUndirectedGraphWeightFunction u =
+                new PackedUndirectedGraphWeightFunction();
+
+        u.put(d, c, 2.5);
+        assertEquals(2.5, u.get(c, d), 0.0);
+        assertEquals(2.5, u.get(d, c), 0.0);
+        assertEquals(1, u.size());
+    }
+}
@@ -0,0 +1,249 @@
+package net.coderodde.cskit.ds.pq.support;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.IndexedRadixHeap;
+import net.coderodde.cskit.ds.pq.RadixHeap;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.UndirectedGraphNode;
+import net.coderodde.cskit.graph.UndirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.mst.PrimMSTFinder;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>RadixHeap</code> and <code>IndexedRadixHeap</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class RadixHeapTest {
+
+    @Test
+    public void testExtremePriorities() {
+        RadixHeap<String> heap = new RadixHeap<String>();
+        String[] order = { "zero", "negative zero", "tiny", "one", "huge",
+                           "infinite" };
+        double[] priorities = { 0.0, -0.0, Double.MIN_VALUE, 1.0,
+                                Double.MAX_VALUE, Double.POSITIVE_INFINITY };
+
+        for (int i = priorities.length - 1; i >= 0; --i) {
+            heap.insert(order[i], priorities[i]);
+        }
+
+        // Both zeros come first, in either order.
+        assertTrue(heap.extractMinimum().contains("zero"));
+        assertTrue(heap.extractMinimum().contains("zero"));
+
+        for (int i = 2; i < order.length; ++i) {
+            assertEquals(priorities[i], heap.getPriority(heap.min()), 0.0);
+            assertEquals(order[i], heap.extractMinimum());
+        }
+
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testManyTies() {
+        // Far more equal keys than a bucket holds initially.
+        RadixHeap<Integer> heap = new RadixHeap<Integer>();
+        boolean[] extracted = new boolean[1500];
+
+        for (int e = 0; e < 1000; ++e) {
+            heap.insert(e, 42.0);
+        }
+
+        assertEquals(1000, heap.size());
+
+        for (int i = 0; i < 500; ++i) {
+            int e = heap.extractMinimum();
+
+            assertFalse(extracted[e]);
+            extracted[e] = true;
+        }
+
+        // Exactly at the last minimum, which is bucket zero again.
+        for (int e = 1000; e < 1500; ++e) {
+            heap.insert(e, 42.0);
+        }
+
+        for (int i = 0; i < 1000; ++i) {
+            int e = heap.extractMinimum();
+
+            assertFalse(extracted[e]);
+            extracted[e] = true;
+        }
+
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testPriorityBelowLastMinimum() {
+        RadixHeap<String> heap = new RadixHeap<String>();
+        heap.insert("a", 5.0);
+        heap.insert("b", 7.0);
+        heap.insert("c", 9.0);
+
+        assertEquals("a", heap.extractMinimum());
+
+        heap.insert("d", 1.0);
+        heap.decreasePriority("c", 2.0);
+
+        assertEquals("d", heap.extractMinimum());
+        assertEquals("c", heap.extractMinimum());
+        assertEquals("b", heap.extractMinimum());
+        assertTrue(heap.isEmpty());
+
+        heap.insert("e", 0.0);
+        heap.clear();
+
+        assertFalse(heap.contains("e"));
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testThrowsOnBadPriority() {
+        RadixHeap<Integer> heap = new RadixHeap<Integer>();
+        double[] priorities = { -1.0, -Double.MIN_VALUE, Double.NaN,
+                                Double.NEGATIVE_INFINITY };
+
+        for (double priority : priorities) {
+            try {
+                heap.insert(1, priority);
+                fail("Accepted the priority " + priority + ".");
+            } catch (IllegalArgumentException e) {
+            }
+        }
+
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThrowsOnEmpty() {
+        new IndexedRadixHeap(4).extractMinimum();
+    }
+
+    @Test
+    public void testIndexedHeapExtremePriorities() {
+        IndexedRadixHeap heap = new IndexedRadixHeap(4);
+
+        heap.insert(0, Long.MAX_VALUE);
+        heap.insert(1, 0L);
+        heap.insert(2, Long.MAX_VALUE - 1);
+        heap.insert(3, 0L);
+
+        assertEquals(0L, heap.minPriority());
+        assertTrue(heap.extractMinimum() % 2 == 1);
+        assertTrue(heap.extractMinimum() % 2 == 1);
+        assertEquals(2, heap.extractMinimum());
+
+        heap.decreasePriority(0, Long.MAX_VALUE - 1);
+
+        assertEquals(Long.MAX_VALUE - 1, heap.minPriority());
+        assertEquals(0, heap.extractMinimum());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testIndexedHeapSorts() {
+        // Priorities at and around each power of two up to 2^40, so that
+        // every bucket boundary is crossed, inserted in descending order.
+        IndexedRadixHeap heap = new IndexedRadixHeap(123);
+        long[] priorities = new long[123];
+
+        for (int e = 122; e >= 0; --e) {
+            priorities[e] = (1L << (e / 3)) + e % 3 - 1;
+            heap.insert(e, priorities[e]);
+        }
+
+        for (int e = 0; e < 123; e += 3) {
+            priorities[e] /= 2;
+            heap.decreasePriority(e, priorities[e]);
+        }
+
+        long previous = -1L;
+        int extracted = 0;
+
+        while (heap.isEmpty() == false) {
+            long p = heap.minPriority();
+            int e = heap.extractMinimum();
+
+            assertEquals(priorities[e], p);
+            assertTrue(previous <= p);
+            previous = p;
+
+            if (++extracted < 60) {
+                // Reinsert at and above the minimum, as Dijkstra's
+                // algorithm does.
+                priorities[e] = p + (extracted % 2 == 0
+                                     ? 0L
+                                     : 1L << (extracted % 41));
+                heap.insert(e, priorities[e]);
+            }
+        }
+
+        assertEquals(123 + 59, extracted);
+
+        heap.insert(3, 10L);
+        heap.insert(4, 5L);
+        heap.clear();
+
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+    }
+
+    @Test
+    public void testFindersAcceptRadixHeap() {
+        // From node 0, node 1 is cheaper through node 2, node 4 is reached
+        // through a zero arc, and node 5 at cost 7 in two ways.
+        DirectedGraphNode[] nodes = new DirectedGraphNode[6];
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        int[][] arcs = { { 0, 1, 4 }, { 0, 2, 1 }, { 2, 1, 2 }, { 1, 3, 1 },
+                         { 2, 3, 5 }, { 3, 4, 0 }, { 4, 5, 3 }, { 2, 5, 6 } };
+        double[] costs = { 0.0, 3.0, 1.0, 4.0, 4.0, 7.0 };
+
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        for (int[] arc : arcs) {
+            nodes[arc[0]].addChild(nodes[arc[1]]);
+            w.put(nodes[arc[0]], nodes[arc[1]], arc[2]);
+        }
+
+        DijkstraFinder finder =
+                new DijkstraFinder(new RadixHeap<DirectedGraphNode>());
+
+        for (int t = 0; t < nodes.length; ++t) {
+            List<DirectedGraphNode> path = finder.find(nodes[0], nodes[t], w);
+
+            assertTrue(path.get(0) == nodes[0]);
+            assertTrue(path.get(path.size() - 1) == nodes[t]);
+            assertEquals(costs[t], getPathCost(path, w), 0.0);
+        }
+
+        assertTrue(finder.find(nodes[5], nodes[0], w).isEmpty());
+
+        // The minimum spanning tree is a - b, b - c, b - d and d - e.
+        UndirectedGraphNode[] u = new UndirectedGraphNode[5];
+        UndirectedGraphWeightFunction uw = new UndirectedGraphWeightFunction();
+        int[][] edges = { { 0, 1, 1 }, { 2, 1, 2 }, { 0, 2, 4 }, { 1, 3, 5 },
+                          { 3, 2, 6 }, { 3, 4, 3 }, { 4, 0, 10 } };
+
+        for (int i = 0; i < u.length; ++i) {
+            u[i] = new UndirectedGraphNode("" + (char)('a' + i));
+        }
+
+        for (int[] edge : edges) {
+            u[edge[0]].connect(u[edge[1]]);
+            uw.put(u[edge[0]], u[edge[1]], edge[2]);
+        }
+
+        assertEquals(11.0,
+                     new PrimMSTFinder(new RadixHeap<UndirectedGraphNode>())
+                         .find(java.util.Arrays.asList(u), uw).second,
+                     0.0);
+    }
+}
@@ -0,0 +1,342 @@
+package net.coderodde.cskit.graph;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.Utilities.Triple;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.getRandomFlowNetwork;
+import static net.coderodde.cskit.Utilities.getRandomGraph;
+import static net.coderodde.cskit.Utilities.getWeightedGraph;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.flow.BidirectionalEdmondKarpFlowFinder;
+import net.coderodde.cskit.graph.flow.EdmondKarpFlowFinder;
+import net.coderodde.cskit.graph.mst.KruskalMSTFinder;
+import net.coderodde.cskit.graph.mst.PrimMSTFinder;
+import net.coderodde.cskit.graph.p2psp.general.ARAStarFinder;
+import net.coderodde.cskit.graph.p2psp.general.AStarFinder;
+import net.coderodde.cskit.graph.p2psp.general.BHPAFinder;
+import net.coderodde.cskit.graph.p2psp.general.BidirectionalDijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.GeneralPathFinder;
+import net.coderodde.cskit.graph.p2psp.general.EuclidianMetric;
+import net.coderodde.cskit.graph.p2psp.general.LandmarkHeuristic;
+import net.coderodde.cskit.graph.p2psp.general.Landmarks;
+import net.coderodde.cskit.graph.p2psp.uniform.BidirectionalBFSFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.BreadthFirstSearchFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.ParallelBidirectionalBFSFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>CompactDirectedGraph</code> and the finders running
+ * on it.
+ *
+ * @author Rodion Efremov
+ */
+public class CompactDirectedGraphTest {
+
+    @Test
+    public void testStructure() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphNode C = new DirectedGraphNode("C");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        A.addChild(B);
+        A.addChild(C);
+        B.addChild(C);
+        w.put(A, B, 1.0);
+        w.put(A, C, 5.0);
+        w.put(B, C, 2.0);
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(java.util.Arrays.asList(A, B, C), w);
+
+        assertEquals(3, g.size());
+        assertEquals(3, g.arcCount());
+        assertEquals(2, g.outDegree(0));
+        assertEquals(2, g.inDegree(2));
+        assertEquals(5.0, g.getWeight(g.findArc(0, 2)), 0.001);
+        assertEquals(-1, g.findArc(2, 0));
+
+        for (int i = g.inBegin(2); i < g.inEnd(2); ++i) {
+            int a = g.getInArc(i);
+            assertEquals(2, g.getTarget(a));
+            assertEquals(g.getWeight(a), g.getInWeight(i), 0.001);
+        }
+
+        int[] path = new DijkstraFinder(
+                new BinaryHeap<DirectedGraphNode, Double>()).find(g, 0, 2);
+
+        assertArrayEquals(new int[]{ 0, 1, 2 }, path);
+        assertEquals(3.0, g.getPathCost(path), 0.001);
+        assertEquals(B, g.toNodeList(path).get(1));
+    }
+
+    @Test
+    public void testGeneralFindersAgree() {
+        Random r = new Random(313L);
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                getWeightedGraph(300, 0.02f, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        BidirectionalDijkstraFinder bidir =
+                new BidirectionalDijkstraFinder(
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        for (int i = 0; i < 30; ++i) {
+            int s = r.nextInt(g.size());
+            int t = r.nextInt(g.size());
+
+            if (s == t) {
+                continue;
+            }
+
+            List<DirectedGraphNode> expected =
+                    new DijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>())
+                        .find(data.first.get(s),
+                              data.first.get(t),
+                              data.second);
+            int[] path1 = dijkstra.find(g, s, t);
+            int[] path2 = bidir.find(g, s, t);
+
+            assertTrue(isConnectedPath(g.toNodeList(path1)));
+            assertTrue(isConnectedPath(g.toNodeList(path2)));
+            assertEquals(getPathCost(expected, data.second),
+                         g.getPathCost(path1),
+                         0.001);
+            assertEquals(g.getPathCost(path1), g.getPathCost(path2), 0.001);
+        }
+    }
+
+    @Test
+    public void testHeuristicFindersAgree() {
+        Random r = new Random(314L);
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> data =
+                getRandomGraph(300, 0.02f, r, new EuclidianMetric(null, null));
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        AStarFinder astar =
+                new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                                new EuclidianMetric(data.third, null));
+        BHPAFinder bhpa =
+                new BHPAFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                               new EuclidianMetric(data.third, null),
+                               new EuclidianMetric(data.third, null));
+
+        for (int i = 0; i < 30; ++i) {
+            int s = r.nextInt(g.size());
+            int t = r.nextInt(g.size());
+
+            if (s == t) {
+                continue;
+            }
+
+            double expected = g.getPathCost(dijkstra.find(g, s, t));
+
+            assertEquals(expected, g.getPathCost(astar.find(g, s, t)), 0.001);
+            assertEquals(expected, g.getPathCost(bhpa.find(g, s, t)), 0.001);
+        }
+    }
+
+    @Test
+    public void testUniformFindersAgree() {
+        Random r = new Random(315L);
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                getWeightedGraph(300, 0.01f, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+
+        for (int i = 0; i < 30; ++i) {
+            int s = r.nextInt(g.size());
+            int t = r.nextInt(g.size());
+            int[] path1 = new BreadthFirstSearchFinder().find(g, s, t);
+            int[] path2 = new BidirectionalBFSFinder().find(g, s, t);
+            int[] path3 = new ParallelBidirectionalBFSFinder().find(g, s, t);
+
+            assertTrue(isConnectedPath(g.toNodeList(path2)));
+            assertTrue(isConnectedPath(g.toNodeList(path3)));
+            assertEquals(s, path2[0]);
+            assertEquals(t, path2[path2.length - 1]);
+            assertEquals(s, path3[0]);
+            assertEquals(t, path3[path3.length - 1]);
+            // Bidirectional searches may overshoot by a level.
+            assertTrue(path1.length <= path2.length);
+            assertTrue(path1.length <= path3.length);
+        }
+    }
+
+    @Test
+    public void testParallelBFSReusesState() {
+        // A chain 0 -> 1 -> 2 -> 3 with 4 on its own, and a ring of ten.
+        CompactDirectedGraph chain = new CompactDirectedGraph(
+                5,
+                3,
+                new int[]{ 0, 1, 2 },
+                new int[]{ 1, 2, 3 },
+                new double[]{ 1.0, 1.0, 1.0 },
+                0);
+        int[] sources = new int[10];
+        int[] targets = new int[10];
+
+        for (int i = 0; i < 10; ++i) {
+            sources[i] = i;
+            targets[i] = (i + 1) % 10;
+        }
+
+        CompactDirectedGraph ring = new CompactDirectedGraph(
+                10, 10, sources, targets, new double[10], 0);
+        ParallelBidirectionalBFSFinder finder =
+                new ParallelBidirectionalBFSFinder();
+
+        for (int round = 0; round < 3; ++round) {
+            assertArrayEquals(new int[]{ 0, 1, 2, 3 },
+                              finder.find(chain, 0, 3));
+            assertEquals(0, finder.find(chain, 3, 0).length);
+            assertEquals(0, finder.find(chain, 0, 4).length);
+            assertArrayEquals(new int[]{ 2 }, finder.find(chain, 2, 2));
+            assertEquals(10, finder.find(ring, 0, 9).length);
+            assertArrayEquals(new int[]{ 9, 0, 1 }, finder.find(ring, 9, 1));
+        }
+
+        finder.shutdown();
+    }
+
+    @Test
+    public void testConcurrentNodeMaterialization()
+    throws InterruptedException {
+        final CompactDirectedGraph g = new CompactDirectedGraph(
+                1000, 0, new int[0], new int[0], new double[0], 1);
+        final DirectedGraphNode[][] seen = new DirectedGraphNode[4][1000];
+        Thread[] threads = new Thread[seen.length];
+
+        for (int i = 0; i < threads.length; ++i) {
+            final int thread = i;
+
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // Each thread asks for the nodes in its own order.
+                    for (int j = 0; j < 1000; ++j) {
+                        int id = (j * 7 + thread * 251) % 1000;
+                        seen[thread][id] = g.getNode(id);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int id = 0; id < 1000; ++id) {
+            assertEquals("" + (id + 1), seen[0][id].getName());
+            assertEquals(id, g.getId(seen[0][id]));
+
+            for (int i = 1; i < seen.length; ++i) {
+                assertSame(seen[0][id], seen[i][id]);
+            }
+        }
+    }
+
+    @Test
+    public void testHeuristicSearchesStayOnIds() {
+        // A 5 by 5 grid of unit arcs to the right and down, built from arc
+        // arrays so that its nodes exist only once asked for.
+        int[] sources = new int[40];
+        int[] targets = new int[40];
+        double[] weights = new double[40];
+        int m = 0;
+
+        for (int u = 0; u < 25; ++u) {
+            if (u % 5 < 4) {
+                sources[m] = u;
+                targets[m] = u + 1;
+                weights[m++] = 1.0;
+            }
+
+            if (u < 20) {
+                sources[m] = u;
+                targets[m] = u + 5;
+                weights[m++] = 1.0;
+            }
+        }
+
+        final java.util.concurrent.atomic.AtomicInteger materialized =
+                new java.util.concurrent.atomic.AtomicInteger();
+        CompactDirectedGraph g = new CompactDirectedGraph(
+                25, m, sources, targets, weights, 0) {
+            @Override
+            public DirectedGraphNode getNode(int id) {
+                materialized.incrementAndGet();
+                return super.getNode(id);
+            }
+        };
+        Landmarks landmarks = Landmarks.avoid(g, 2, 1, new Random(318L));
+        LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+        LandmarkHeuristic hb = new LandmarkHeuristic(landmarks, null, true);
+        GeneralPathFinder[] finders = {
+            new AStarFinder(null, h),
+            new BHPAFinder(null, h, hb),
+            new ARAStarFinder(null, h, 2.0, 0.5, 1000L)
+        };
+
+        for (GeneralPathFinder finder : finders) {
+            int[] path = finder.find(g, 0, 24);
+
+            assertEquals(9, path.length);
+            assertEquals(8.0, g.getPathCost(path), 0.0);
+            assertEquals(0, finder.find(g, 24, 0).length);
+        }
+
+        assertEquals(0, materialized.get());
+    }
+
+    @Test
+    public void testFlowFindersAgree() {
+        Random r = new Random(316L);
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                getRandomFlowNetwork(100, 0.1f, r, 10.0);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+
+        double expected = new EdmondKarpFlowFinder()
+                .find(data.first.get(0), data.first.get(99), data.second)
+                .second;
+
+        assertEquals(expected,
+                     new EdmondKarpFlowFinder().find(g, 0, 99).second,
+                     0.001);
+        assertEquals(expected,
+                     new BidirectionalEdmondKarpFlowFinder()
+                        .find(g, 0, 99).second,
+                     0.001);
+    }
+
+    @Test
+    public void testMSTFindersAgree() {
+        Random r = new Random(317L);
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                getWeightedGraph(200, 0.05f, r);
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+
+        Pair<int[], Double> kruskal = new KruskalMSTFinder().find(g);
+        Pair<int[], Double> prim = new PrimMSTFinder().find(g);
+
+        assertEquals(g.size() - 1, kruskal.first.length);
+        assertEquals(g.size() - 1, prim.first.length);
+        assertEquals(kruskal.second, prim.second, 0.001);
+    }
+}
@@ -0,0 +1,253 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.AStarFinder;
+import net.coderodde.cskit.graph.p2psp.general.BHPAFinder;
+import net.coderodde.cskit.graph.p2psp.general.BidirectionalDijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.GeneralPathFinder;
+import net.coderodde.cskit.graph.p2psp.general.LandmarkHeuristic;
+import net.coderodde.cskit.graph.p2psp.general.Landmarks;
+import net.coderodde.cskit.graph.p2psp.uniform.BidirectionalBFSFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.BreadthFirstSearchFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.UniformCostPathFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>CompactSearchState</code> and the finders reusing
+ * it.
+ *
+ * @author Rodion Efremov
+ */
+public class CompactSearchStateTest {
+
+    @Test
+    public void testResetForgetsMarks() {
+        CompactSearchState state = new CompactSearchState(10);
+        state.reach(3);
+        state.close(4);
+        state.getOpen().insert(5, 1.0);
+
+        assertTrue(state.isReached(3));
+        assertTrue(state.isClosed(4));
+        assertFalse(state.isClosed(3));
+
+        state.reset();
+
+        assertFalse(state.isReached(3));
+        assertFalse(state.isClosed(4));
+        assertTrue(state.getOpen().isEmpty());
+        assertEquals(10, state.getQueue().length);
+    }
+
+    @Test
+    public void testReopenKeepsReachedMarks() {
+        CompactSearchState state = new CompactSearchState(3);
+        state.reach(0);
+        state.close(0);
+        state.close(1);
+        state.reopen();
+
+        assertTrue(state.isReached(0));
+        assertFalse(state.isClosed(0));
+        assertFalse(state.isClosed(1));
+
+        state.close(2);
+
+        assertTrue(state.isClosed(2));
+        assertSame(state, CompactSearchState.reuse(state, 0));
+        assertFalse(state.isReached(0));
+        assertFalse(state.isClosed(2));
+    }
+
+    @Test
+    public void testReuse() {
+        CompactDirectedGraph g = chain(40);
+        CompactDirectedGraph h = chain(20);
+        CompactSearchState state = CompactSearchState.reuse(null, h);
+
+        assertEquals(20, state.capacity());
+
+        state.reach(1);
+
+        assertSame(state, CompactSearchState.reuse(state, h));
+        assertFalse(state.isReached(1));
+
+        CompactSearchState larger = CompactSearchState.reuse(state, g);
+
+        assertNotSame(state, larger);
+        assertEquals(40, larger.capacity());
+        assertSame(larger, CompactSearchState.reuse(larger, h));
+    }
+
+    @Test
+    public void testReusingFindersAgreeWithFreshOnes() {
+        CompactDirectedGraph[] graphs = { chain(10), grid(6) };
+        // The corners of the grid.
+        Landmarks landmarks =
+                new Landmarks(graphs[1], new int[]{ 0, 5, 30, 35 }, 1);
+        LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+        LandmarkHeuristic hb = new LandmarkHeuristic(landmarks, null, true);
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(null),
+            new BidirectionalDijkstraFinder(null),
+            new AStarFinder(null, h),
+            new BHPAFinder(null, h, hb)
+        };
+        UniformCostPathFinder[] uniform = {
+            new BreadthFirstSearchFinder(),
+            new BidirectionalBFSFinder()
+        };
+
+        // Alternates between the smaller chain, where only the queries
+        // along it succeed, and the larger grid.
+        for (int s = 0; s < graphs[1].size(); ++s) {
+            for (int t = 0; t < graphs[1].size(); ++t) {
+                for (CompactDirectedGraph g : graphs) {
+                    int u = s % g.size();
+                    int v = t % g.size();
+                    int[] expected = new DijkstraFinder(
+                            new BinaryHeap<DirectedGraphNode, Double>())
+                            .find(g, u, v);
+                    int[] hops = {
+                        new BreadthFirstSearchFinder().find(g, u, v).length,
+                        new BidirectionalBFSFinder().find(g, u, v).length
+                    };
+
+                    for (int f = 0; f < finders.length; ++f) {
+                        if (f >= 2 && g != graphs[1]) {
+                            // The landmarks are of the grid.
+                            continue;
+                        }
+
+                        int[] path = finders[f].find(g, u, v);
+
+                        assertEquals(expected.length == 0,
+                                     path.length == 0);
+                        assertEquals(g.getPathCost(expected),
+                                     g.getPathCost(path),
+                                     0.0);
+                    }
+
+                    for (int f = 0; f < uniform.length; ++f) {
+                        assertEquals(hops[f], uniform[f].find(g, u, v).length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTrivialAndUnreachableQueries() {
+        // a -> b, and c on its own. Each finder runs the queries twice on
+        // the same state, so marks left by an exhausted search would show.
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        w.put(a, b, 1.0);
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(java.util.Arrays.asList(a, b, c), w);
+        int ia = g.getId(a);
+        int ib = g.getId(b);
+        int ic = g.getId(c);
+        Landmarks landmarks = new Landmarks(g, new int[]{ ia, ic }, 1);
+        LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(null),
+            new BidirectionalDijkstraFinder(null),
+            new AStarFinder(null, h),
+            new BHPAFinder(null, h,
+                           new LandmarkHeuristic(landmarks, null, true))
+        };
+        UniformCostPathFinder[] uniform = {
+            new BreadthFirstSearchFinder(),
+            new BidirectionalBFSFinder()
+        };
+
+        for (int round = 0; round < 2; ++round) {
+            for (GeneralPathFinder finder : finders) {
+                assertEquals(0, finder.find(g, ia, ic).length);
+                assertEquals(0, finder.find(g, ib, ia).length);
+                assertArrayEquals(new int[]{ ia }, finder.find(g, ia, ia));
+                assertArrayEquals(new int[]{ ia, ib }, finder.find(g, ia, ib));
+            }
+
+            for (UniformCostPathFinder finder : uniform) {
+                assertEquals(0, finder.find(g, ia, ic).length);
+                assertEquals(0, finder.find(g, ib, ia).length);
+                assertArrayEquals(new int[]{ ia }, finder.find(g, ia, ia));
+                assertArrayEquals(new int[]{ ia, ib }, finder.find(g, ia, ib));
+            }
+        }
+    }
+
+    /**
+     * Returns the one-way chain 0 -> 1 -> ... of <code>n</code> nodes
+     * whose arc into node <code>i</code> weighs <code>i</code>.
+     */
+    private static CompactDirectedGraph chain(int n) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < n; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+
+            if (i > 0) {
+                nodes.get(i - 1).addChild(nodes.get(i));
+                w.put(nodes.get(i - 1), nodes.get(i), i);
+            }
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    /**
+     * Returns a <code>width</code> by <code>width</code> grid whose arcs go
+     * both ways and weigh from 1 to 4, differently in each direction,
+     * followed by a node leading into the grid that no node leads to.
+     */
+    private static CompactDirectedGraph grid(int width) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i <= width * width; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int x = 0; x < width; ++x) {
+            for (int y = 0; y < width; ++y) {
+                int u = x * width + y;
+
+                if (x + 1 < width) {
+                    connect(nodes, w, u, u + width, x + 2 * y);
+                }
+
+                if (y + 1 < width) {
+                    connect(nodes, w, u, u + 1, 3 * x + y);
+                }
+            }
+        }
+
+        nodes.get(width * width).addChild(nodes.get(0));
+        w.put(nodes.get(width * width), nodes.get(0), 1.0);
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static void connect(List<DirectedGraphNode> nodes,
+                                DirectedGraphWeightFunction w,
+                                int u,
+                                int v,
+                                int k) {
+        nodes.get(u).addChild(nodes.get(v));
+        nodes.get(v).addChild(nodes.get(u));
+        w.put(nodes.get(u), nodes.get(v), 1 + k % 4);
+        w.put(nodes.get(v), nodes.get(u), 1 + (k + 1) % 3);
+    }
+}
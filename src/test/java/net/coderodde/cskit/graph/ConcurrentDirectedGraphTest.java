@@ -0,0 +1,163 @@
+package net.coderodde.cskit.graph;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>ConcurrentDirectedGraph</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class ConcurrentDirectedGraphTest {
+
+    @Test
+    public void testBasicOperations() {
+        ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(3);
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphNode C = new DirectedGraphNode("C");
+
+        assertTrue(g.addArc(A, B, 1.0));
+        assertTrue(g.addArc(B, C, 2.0));
+        assertTrue(g.addArc(A, C, 5.0));
+        assertFalse(g.addArc(A, C, 4.0));
+
+        assertEquals(3, g.size());
+        assertEquals(3, g.arcCount());
+        assertEquals(4.0, g.getWeight(A, C), 0.0);
+        assertEquals(0.0, g.getWeight(C, A), 0.0);
+        assertTrue(g.hasArc(A, B));
+        assertEquals(2, g.inDegree(C));
+
+        Iterable<DirectedGraphNode> children = g.children(A);
+        assertTrue(g.removeArc(A, B));
+        assertFalse(g.removeArc(A, B));
+
+        // The view taken before the removal stays intact.
+        Iterator<DirectedGraphNode> it = children.iterator();
+        assertEquals(B, it.next());
+        assertEquals(C, it.next());
+        assertFalse(it.hasNext());
+
+        assertEquals(1, g.outDegree(A));
+        assertEquals(B, g.parents(C).iterator().next());
+
+        CompactDirectedGraph snapshot = g.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals(2, snapshot.arcCount());
+
+        int[] path = new DijkstraFinder(
+                new BinaryHeap<DirectedGraphNode, Double>())
+                .find(snapshot, snapshot.getId(A), snapshot.getId(C));
+
+        assertEquals(4.0, snapshot.getPathCost(path), 0.0);
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws InterruptedException {
+        final int N = 200;
+        final int WRITERS = 4;
+        final int ARCS_PER_WRITER = 2000;
+        final ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(16);
+        final DirectedGraphNode[] nodes = new DirectedGraphNode[N];
+        final AtomicReference<Throwable> error =
+                new AtomicReference<Throwable>();
+
+        for (int i = 0; i < N; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+            g.addNode(nodes[i]);
+        }
+
+        Thread[] writers = new Thread[WRITERS];
+
+        for (int t = 0; t < WRITERS; ++t) {
+            final Random r = new Random(700L + t);
+            writers[t] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < ARCS_PER_WRITER; ++i) {
+                            DirectedGraphNode u = nodes[r.nextInt(N)];
+                            DirectedGraphNode v = nodes[r.nextInt(N)];
+
+                            if (r.nextInt(4) == 0) {
+                                g.removeArc(u, v);
+                            } else {
+                                g.addArc(u, v, r.nextDouble());
+                            }
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+        }
+
+        Thread reader = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 50; ++i) {
+                        for (DirectedGraphNode u : nodes) {
+                            for (DirectedGraphNode v : g.children(u)) {
+                                v.getName();
+                            }
+                        }
+
+                        assertConsistent(g.snapshot());
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        });
+
+        for (Thread writer : writers) {
+            writer.start();
+        }
+
+        reader.start();
+
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        reader.join();
+
+        assertNull(error.get());
+
+        CompactDirectedGraph snapshot = g.snapshot();
+        assertConsistent(snapshot);
+        assertEquals(g.arcCount(), snapshot.arcCount());
+
+        for (int u = 0; u < snapshot.size(); ++u) {
+            DirectedGraphNode node = snapshot.getNode(u);
+            assertEquals(g.outDegree(node), snapshot.outDegree(u));
+            assertEquals(g.inDegree(node), snapshot.inDegree(u));
+
+            for (int a = snapshot.outBegin(u); a < snapshot.outEnd(u); ++a) {
+                assertEquals(g.getWeight(node,
+                                         snapshot.getNode(
+                                             snapshot.getTarget(a))),
+                             snapshot.getWeight(a),
+                             0.0);
+            }
+        }
+    }
+
+    private static void assertConsistent(CompactDirectedGraph snapshot) {
+        for (int u = 0; u < snapshot.size(); ++u) {
+            for (int a = snapshot.outBegin(u); a < snapshot.outEnd(u); ++a) {
+                // No parallel arcs.
+                assertEquals(a, snapshot.findArc(u, snapshot.getTarget(a)));
+            }
+        }
+    }
+}
@@ -3,8 +3,15 @@ package net.coderodde.cskit.graph;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import net.coderodde.cskit.Utilities.Pair;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.getWeightedGraph;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -100,4 +107,220 @@ public class DirectedGraphNodeTest {
         assertFalse(iter.hasNext());
         iter.next(); // this must throw.
     }
+
+    @Test
+    public void testArcCursor() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphNode C = new DirectedGraphNode("C");
+
+        A.addChild(B, 2.0);
+        A.addChild(C);
+        C.addChild(B, 3.0);
+
+        DirectedGraphNode.ArcCursor cursor = A.childCursor();
+
+        assertTrue(cursor.next());
+        assertEquals(B, cursor.getNode());
+        assertEquals(2.0, cursor.getWeight(), 0.0);
+        assertTrue(cursor.next());
+        assertEquals(C, cursor.getNode());
+        assertEquals(0.0, cursor.getWeight(), 0.0);
+        assertFalse(cursor.next());
+
+        cursor.resetToParents(B);
+
+        assertTrue(cursor.next());
+        assertEquals(A, cursor.getNode());
+        assertEquals(2.0, cursor.getWeight(), 0.0);
+        assertTrue(cursor.next());
+        assertEquals(C, cursor.getNode());
+        assertEquals(3.0, cursor.getWeight(), 0.0);
+        assertFalse(cursor.next());
+
+        A.setWeight(C, 7.0);
+        assertEquals(7.0, A.getWeight(C), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetWeightOfMissingArcThrows() {
+        new DirectedGraphNode("A").setWeight(new DirectedGraphNode("B"), 1.0);
+    }
+
+    @Test
+    public void testMissingArcWeighsNaN() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphWeightFunction embedded =
+                new EmbeddedDirectedGraphWeightFunction();
+
+        A.addChild(B);
+
+        assertEquals(0.0, A.getWeight(B), 0.0);
+        assertTrue(Double.isNaN(B.getWeight(A)));
+        assertTrue(Double.isNaN(A.getWeight(A)));
+        assertTrue(Double.isNaN(embedded.get(B, A)));
+
+        // Past the compact threshold, the adjacency list is a hash table.
+        for (int i = 0; i < 2 * DirectedGraphNode.DEFAULT_COMPACT_THRESHOLD;
+                ++i) {
+            A.addChild(new DirectedGraphNode("" + i), i);
+        }
+
+        assertEquals(3.0, A.getWeight(new DirectedGraphNode("3")), 0.0);
+        assertTrue(Double.isNaN(A.getWeight(new DirectedGraphNode("C"))));
+    }
+
+    @Test
+    public void testClearEmbeddedWeights() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphNode C = new DirectedGraphNode("C");
+        DirectedGraphWeightFunction embedded =
+                new EmbeddedDirectedGraphWeightFunction();
+
+        A.addChild(B);
+        A.addChild(C);
+        B.addChild(C);
+        embedded.put(A, B, 2.0);
+        embedded.put(B, C, 3.0);
+
+        embedded.clear();
+
+        assertEquals(0.0, embedded.get(A, B), 0.0);
+        assertEquals(0.0, B.getWeight(C), 0.0);
+        assertTrue(A.hasChild(B));
+        assertTrue(B.hasChild(C));
+
+        DirectedGraphNode.ArcCursor cursor = A.childCursor();
+
+        cursor.resetToParents(C);
+
+        assertTrue(cursor.next());
+        assertEquals(0.0, cursor.getWeight(), 0.0);
+        assertTrue(cursor.next());
+        assertEquals(0.0, cursor.getWeight(), 0.0);
+        assertFalse(cursor.next());
+
+        embedded.put(A, C, 4.0);
+
+        assertEquals(4.0, embedded.get(A, C), 0.0);
+    }
+
+    @Test
+    public void testEmbeddedWeightsMatchWeightFunction() {
+        Random r = new Random(3L);
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                getWeightedGraph(200, 0.03f, r);
+        DirectedGraphWeightFunction embedded =
+                new EmbeddedDirectedGraphWeightFunction();
+
+        for (DirectedGraphNode u : data.first) {
+            for (DirectedGraphNode v : u) {
+                embedded.put(u, v, data.second.get(u, v));
+            }
+        }
+
+        for (int i = 0; i < 20; ++i) {
+            DirectedGraphNode s = data.first.get(r.nextInt(200));
+            DirectedGraphNode t = data.first.get(r.nextInt(200));
+            List<DirectedGraphNode> path1 =
+                    new DijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>())
+                        .find(s, t, data.second);
+            List<DirectedGraphNode> path2 =
+                    new DijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>())
+                        .find(s, t, embedded);
+
+            assertEquals(getPathCost(path1, data.second),
+                         getPathCost(path2, embedded),
+                         0.001);
+        }
+    }
+
+    @Test
+    public void testCompactAdjacencyCrossesThreshold() {
+        final int N = 3 * DirectedGraphNode.DEFAULT_COMPACT_THRESHOLD;
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        DirectedGraphNode[] children = new DirectedGraphNode[N];
+
+        assertTrue(u.isCompact());
+
+        for (int i = 0; i < N; ++i) {
+            children[i] = new DirectedGraphNode("" + i);
+            u.addChild(children[i], i);
+
+            assertEquals(i < DirectedGraphNode.DEFAULT_COMPACT_THRESHOLD,
+                         u.isCompact());
+        }
+
+        assertEquals(N, u.outDegree());
+        assertTrue(children[0].isCompact());
+
+        // Iteration order is insertion order across the switch.
+        int i = 0;
+
+        for (DirectedGraphNode child : u) {
+            assertTrue(child == children[i]);
+            assertTrue(u.hasChild(child));
+            assertEquals(1, child.inDegree());
+            assertEquals((double) i, u.getWeight(child), 0.0);
+            ++i;
+        }
+
+        assertEquals(N, i);
+
+        DirectedGraphNode.ArcCursor cursor = u.childCursor();
+        i = 0;
+
+        while (cursor.next()) {
+            assertTrue(cursor.getNode() == children[i]);
+            assertEquals((double) i, cursor.getWeight(), 0.0);
+            ++i;
+        }
+
+        u.removeChild(children[5]);
+        assertFalse(u.hasChild(children[5]));
+        assertFalse(children[5].parentIterable().iterator().hasNext());
+        assertEquals(N - 1, u.outDegree());
+    }
+
+    @Test
+    public void testCompactIteratorRemove() {
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+
+        u.addChild(a);
+        u.addChild(b);
+        u.addChild(c);
+
+        Iterator<DirectedGraphNode> it = u.iterator();
+
+        assertEquals(a, it.next());
+        assertEquals(b, it.next());
+        it.remove();
+        assertEquals(c, it.next());
+        assertFalse(it.hasNext());
+
+        assertFalse(u.hasChild(b));
+        assertFalse(b.parentIterable().iterator().hasNext());
+        assertEquals(2, u.outDegree());
+
+        it = u.iterator();
+        assertEquals(a, it.next());
+        assertEquals(c, it.next());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testCompactParentIteratorThrowsOnNewParent() {
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        new DirectedGraphNode("a").addChild(u);
+
+        Iterator<DirectedGraphNode> it = u.parentIterable().iterator();
+        new DirectedGraphNode("b").addChild(u);
+        it.next();
+    }
 }
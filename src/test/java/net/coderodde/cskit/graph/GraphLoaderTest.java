@@ -0,0 +1,152 @@
+package net.coderodde.cskit.graph;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import net.coderodde.cskit.Utilities.Triple;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>GraphLoader</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class GraphLoaderTest {
+
+    @Test
+    public void testEdgeList() throws IOException {
+        File file = write("# comment\n"
+                        + "0 1 2.5\n"
+                        + "\n"
+                        + "1\t2\n"
+                        + "% another comment\r\n"
+                        + "2 0 1e1\r\n"
+                        + "0 3 0.125");
+        LoadedGraph g = new GraphLoader(2, 1).loadEdgeList(file);
+
+        assertEquals(4, g.size());
+        assertEquals(4, g.arcCount());
+        assertEquals(0, g.getFirstLabel());
+        assertFalse(g.hasCoordinates());
+
+        int[][] arcs = { { 0, 1 }, { 1, 2 }, { 2, 0 }, { 0, 3 } };
+        double[] weights = { 2.5, 1.0, 10.0, 0.125 };
+
+        for (int a = 0; a < 4; ++a) {
+            assertEquals(arcs[a][0], g.getSource(a));
+            assertEquals(arcs[a][1], g.getTarget(a));
+            assertEquals(weights[a], g.getWeight(a), 0.0);
+        }
+    }
+
+    @Test
+    public void testDimacs() throws IOException {
+        File gr = write("c a tiny graph\n"
+                      + "p sp 3 3\n"
+                      + "a 1 2 7\n"
+                      + "a 2 3 4\n"
+                      + "a 1 3 20\n");
+        File co = write("c coordinates\n"
+                      + "p aux sp co 3\n"
+                      + "v 1 -73530767 41085396\n"
+                      + "v 2 -73530538 41086098\n"
+                      + "v 3 -73519366 41048796\n");
+        LoadedGraph g = new GraphLoader(3, 1).loadDimacs(gr, co);
+
+        assertEquals(3, g.size());
+        assertEquals(3, g.arcCount());
+        assertArrayEquals(new double[]{ -73530538, 41086098 },
+                          g.getCoordinates(1),
+                          0.0);
+
+        CompactDirectedGraph cg = g.toCompactGraph();
+        int[] path = new DijkstraFinder(
+                new BinaryHeap<DirectedGraphNode, Double>()).find(cg, 0, 2);
+
+        assertArrayEquals(new int[]{ 0, 1, 2 }, path);
+        assertEquals(11.0, cg.getPathCost(path), 0.0);
+        assertEquals("2", cg.getNode(1).getName());
+        assertTrue(cg.getNode(1) == cg.getNode(1));
+        assertEquals(2, cg.getId(new DirectedGraphNode("3")));
+
+        Triple<List<DirectedGraphNode>,
+               DirectedGraphWeightFunction,
+               CoordinateMap> objects = g.toNodeGraph();
+        DirectedGraphNode A = objects.first.get(0);
+        DirectedGraphNode C = objects.first.get(2);
+
+        assertEquals("1", A.getName());
+        assertEquals(20.0, objects.second.get(A, C), 0.0);
+        assertEquals(20.0, A.getWeight(C), 0.0);
+        assertArrayEquals(new double[]{ -73519366, 41048796 },
+                          objects.third.get(C),
+                          0.0);
+    }
+
+    @Test
+    public void testChunkingDoesNotChangeResult() throws IOException {
+        // Lines of growing length with comments, blank lines and both line
+        // endings, so that chunk boundaries fall at every position of a
+        // line for some chunk length.
+        int arcs = 300;
+        StringBuilder sb = new StringBuilder("# header\n");
+
+        for (int i = 0; i < arcs; ++i) {
+            sb.append(i).append(i % 3 == 0 ? "\t" : " ")
+              .append((7 * i) % 101).append(' ')
+              .append(i / 4.0)
+              .append(i % 5 == 0 ? "\r\n" : "\n");
+
+            if (i % 17 == 0) {
+                sb.append("% comment\n\n");
+            }
+        }
+
+        File file = write(sb.toString());
+
+        for (long chunk : new long[]{ 1, 2, 3, 7, 97, 1L << 20 }) {
+            for (int threads : new int[]{ 1, 4 }) {
+                LoadedGraph g =
+                        new GraphLoader(threads, chunk).loadEdgeList(file);
+
+                assertEquals(arcs, g.arcCount());
+                assertEquals(arcs, g.size());
+
+                for (int a = 0; a < arcs; ++a) {
+                    assertEquals(a, g.getSource(a));
+                    assertEquals((7 * a) % 101, g.getTarget(a));
+                    assertEquals(a / 4.0, g.getWeight(a), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedLineThrows() throws IOException {
+        new GraphLoader(2, 1).loadDimacs(write("p sp 2 1\na 1 x 3\n"), null);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNodeOutOfRangeThrows() throws IOException {
+        new GraphLoader(2, 1).loadDimacs(write("p sp 2 1\na 1 3 3\n"), null);
+    }
+
+    private static File write(String content) throws IOException {
+        File file = File.createTempFile("cskit", ".txt");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+
+        try {
+            out.write(content.getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,253 @@
+package net.coderodde.cskit.graph;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.AStarFinder;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.EuclidianMetric;
+import net.coderodde.cskit.graph.p2psp.general.GeneralPathFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>MappedDirectedGraph</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class MappedDirectedGraphTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Extreme weights and coordinates, a node without arcs, one without
+        // out-going arcs and names that are not ASCII.
+        String[] names = { "a", "\u00e4", "c", "lonely", "sink" };
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(3);
+
+        for (int i = 0; i < names.length; ++i) {
+            nodes.add(new DirectedGraphNode(names[i]));
+            map.put(nodes.get(i), new double[]{ -i, Double.MAX_VALUE, 0.5 });
+        }
+
+        connect(nodes, w, 0, 1, 0.0);
+        connect(nodes, w, 0, 2, Double.MIN_VALUE);
+        connect(nodes, w, 1, 0, Double.MAX_VALUE);
+        connect(nodes, w, 2, 4, Double.POSITIVE_INFINITY);
+        connect(nodes, w, 1, 4, -1.5);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        MappedDirectedGraph mg = writeAndMap(g, map);
+
+        assertEquals(5, mg.size());
+        assertEquals(5, mg.arcCount());
+        assertEquals(3, mg.getDimensions());
+        assertEquals(0, mg.outDegree(3));
+        assertEquals(0, mg.inDegree(3));
+        assertEquals(0, mg.outDegree(4));
+        assertEquals(2, mg.inDegree(4));
+
+        for (int u = 0; u < g.size(); ++u) {
+            assertEquals(g.outBegin(u), mg.outBegin(u));
+            assertEquals(g.outEnd(u), mg.outEnd(u));
+            assertEquals(g.inBegin(u), mg.inBegin(u));
+            assertEquals(g.inEnd(u), mg.inEnd(u));
+            assertEquals(names[u], mg.getName(u));
+            assertArrayEquals(map.get(nodes.get(u)),
+                              mg.getCoordinateMap().get(mg.getNode(u)),
+                              0.0);
+        }
+
+        for (int a = 0; a < g.arcCount(); ++a) {
+            assertEquals(g.getTarget(a), mg.getTarget(a));
+            assertEquals(g.getWeight(a), mg.getWeight(a), 0.0);
+            assertEquals(g.getSource(a), mg.getSource(a));
+            assertEquals(g.getInWeight(a), mg.getInWeight(a), 0.0);
+            assertEquals(g.getInArc(a), mg.getInArc(a));
+        }
+
+        assertEquals(-1.5, mg.getWeight(mg.findArc(1, 4)), 0.0);
+        assertTrue(mg.getNode(2) == mg.getNode(2));
+        assertEquals(2, mg.getId(mg.getNode(2)));
+        assertEquals(1, mg.getId(new DirectedGraphNode("\u00e4")));
+        assertEquals(CompactDirectedGraph.NO_NODE,
+                     mg.getId(new DirectedGraphNode("no such node")));
+    }
+
+    @Test
+    public void testEmptyGraphWithoutCoordinates() throws IOException {
+        MappedDirectedGraph mg = writeAndMap(
+                new CompactDirectedGraph(new ArrayList<DirectedGraphNode>(),
+                                         new DirectedGraphWeightFunction()),
+                null);
+
+        assertEquals(0, mg.size());
+        assertEquals(0, mg.arcCount());
+        assertEquals(0, mg.getDimensions());
+        assertEquals(CompactDirectedGraph.NO_NODE,
+                     mg.getId(new DirectedGraphNode("a")));
+    }
+
+    @Test
+    public void testFindersRunOnMappedGraph() throws IOException {
+        // A line 0 -> 1 -> 2 -> 3 with a costlier shortcut 0 -> 3 and a
+        // node 4 off the line, placed on the x-axis so that the Euclidian
+        // metric is admissible.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+
+        for (int i = 0; i < 5; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+            map.put(nodes.get(i), new double[]{ i, 0.0 });
+        }
+
+        connect(nodes, w, 0, 1, 1.0);
+        connect(nodes, w, 1, 2, 1.0);
+        connect(nodes, w, 2, 3, 1.0);
+        connect(nodes, w, 0, 3, 3.5);
+
+        MappedDirectedGraph mg =
+                writeAndMap(new CompactDirectedGraph(nodes, w), map);
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        AStarFinder astar =
+                new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                                new EuclidianMetric(mg.getCoordinateMap(),
+                                                    null));
+
+        for (GeneralPathFinder finder :
+                new GeneralPathFinder[]{ dijkstra, astar }) {
+            assertArrayEquals(new int[]{ 0, 1, 2, 3 }, finder.find(mg, 0, 3));
+            assertArrayEquals(new int[]{ 2 }, finder.find(mg, 2, 2));
+            assertEquals(0, finder.find(mg, 3, 0).length);
+            assertEquals(0, finder.find(mg, 0, 4).length);
+        }
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        // Names of several lengths, some sharing hash codes ("Aa" and "BB"),
+        // one not ASCII and one empty.
+        String[] special = { "Aa", "BB", "AaBB", "BBAa", "\u00e4\u20ac", "" };
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+
+        for (String name : special) {
+            nodes.add(new DirectedGraphNode(name));
+        }
+
+        for (int i = 0; i < 500; ++i) {
+            nodes.add(new DirectedGraphNode("node " + i));
+        }
+
+        for (int i = 1; i < nodes.size(); ++i) {
+            nodes.get(i - 1).addChild(nodes.get(i));
+        }
+
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        File file = File.createTempFile("cskit", ".graph");
+        file.deleteOnExit();
+
+        MappedDirectedGraph.write(g, null, file);
+
+        final MappedDirectedGraph mg = new MappedDirectedGraph(file);
+        final int threads = 4;
+        final DirectedGraphNode[][] seen = new DirectedGraphNode[threads][];
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; ++t) {
+            final int index = t;
+
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    DirectedGraphNode[] mine =
+                            new DirectedGraphNode[mg.size()];
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int u = mg.size() - 1; u >= 0; --u) {
+                        DirectedGraphNode node =
+                                new DirectedGraphNode(mg.getName(u));
+
+                        if (mg.getId(node) != u) {
+                            mismatches.incrementAndGet();
+                        }
+
+                        mine[u] = mg.getNode(u);
+                    }
+
+                    seen[index] = mine;
+                }
+            });
+            workers[t].start();
+        }
+
+        start.countDown();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(0, mismatches.get());
+
+        for (int u = 0; u < mg.size(); ++u) {
+            assertEquals(g.getNode(u).getName(), seen[0][u].getName());
+
+            for (int t = 1; t < threads; ++t) {
+                assertTrue(seen[0][u] == seen[t][u]);
+            }
+        }
+
+        assertEquals(CompactDirectedGraph.NO_NODE,
+                     mg.getId(new DirectedGraphNode("node 500")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignFile() throws IOException {
+        File file = File.createTempFile("cskit", ".graph");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+
+        try {
+            out.write(new byte[MappedDirectedGraph.HEADER_SIZE]);
+        } finally {
+            out.close();
+        }
+
+        new MappedDirectedGraph(file);
+    }
+
+    private static void connect(List<DirectedGraphNode> nodes,
+                                DirectedGraphWeightFunction w,
+                                int from,
+                                int to,
+                                double weight) {
+        nodes.get(from).addChild(nodes.get(to));
+        w.put(nodes.get(from), nodes.get(to), weight);
+    }
+
+    private static MappedDirectedGraph writeAndMap(CompactDirectedGraph g,
+                                                   CoordinateMap map)
+            throws IOException {
+        File file = File.createTempFile("cskit", ".graph");
+        file.deleteOnExit();
+
+        MappedDirectedGraph.write(g, map, file);
+        return new MappedDirectedGraph(file);
+    }
+}
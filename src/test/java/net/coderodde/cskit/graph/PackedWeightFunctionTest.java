@@ -0,0 +1,144 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>PackedDirectedGraphWeightFunction</code> and
+ * <code>PackedUndirectedGraphWeightFunction</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class PackedWeightFunctionTest {
+
+    @Test
+    public void testDirectedRoundTrip() {
+        int n = 30;
+        DirectedGraphNode[] nodes = new DirectedGraphNode[n];
+        // Starts small so that the table grows several times.
+        PackedDirectedGraphWeightFunction w =
+                new PackedDirectedGraphWeightFunction(1);
+
+        for (int i = 0; i < n; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        // Stores the arcs (u, v) for u < v only, including zero, negative
+        // and infinite weights, and overwrites some of them.
+        for (int u = 0; u < n; ++u) {
+            for (int v = u + 1; v < n; ++v) {
+                w.put(nodes[u], nodes[v], v % 3 == 0 ? -1.0 : u);
+            }
+        }
+
+        for (int u = 0; u < n; ++u) {
+            for (int v = u + 1; v < n; ++v) {
+                if (v % 3 == 0) {
+                    w.put(nodes[u], nodes[v], Double.POSITIVE_INFINITY);
+                }
+            }
+        }
+
+        for (int u = 0; u < n; ++u) {
+            for (int v = 0; v < n; ++v) {
+                double expected = u >= v ? 0.0
+                                         : v % 3 == 0
+                                           ? Double.POSITIVE_INFINITY
+                                           : u;
+                // A missing arc, including the reverse of a stored one,
+                // weighs 0.0.
+                assertEquals(expected, w.get(nodes[u], nodes[v]), 0.0);
+            }
+        }
+
+        assertEquals(n * (n - 1) / 2, w.size());
+
+        w.clear();
+
+        assertEquals(0, w.size());
+        assertEquals(0.0, w.get(nodes[0], nodes[1]), 0.0);
+    }
+
+    @Test
+    public void testDirectedKeysByName() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode otherA = new DirectedGraphNode("a");
+        PackedDirectedGraphWeightFunction w =
+                new PackedDirectedGraphWeightFunction();
+        DirectedGraphWeightFunction plain = new DirectedGraphWeightFunction();
+
+        for (DirectedGraphWeightFunction f :
+                new DirectedGraphWeightFunction[]{ w, plain }) {
+            f.put(a, b, 3.0);
+            f.put(a, a, 5.0);
+            f.put(otherA, b, 4.0);
+
+            assertEquals(4.0, f.get(a, b), 0.0);
+            assertEquals(4.0, f.get(new DirectedGraphNode("a"), b), 0.0);
+            assertEquals(5.0, f.get(otherA, a), 0.0);
+            assertEquals(0.0, f.get(b, a), 0.0);
+            assertEquals(0.0, f.get(new DirectedGraphNode("c"), b), 0.0);
+        }
+
+        assertEquals(2, w.size());
+
+        w.clear();
+        w.put(otherA, b, 1.0);
+
+        assertEquals(1.0, w.get(a, b), 0.0);
+    }
+
+    @Test
+    public void testUndirectedRoundTrip() {
+        int n = 20;
+        List<UndirectedGraphNode> graph = new ArrayList<UndirectedGraphNode>();
+        UndirectedGraphWeightFunction reference =
+                new UndirectedGraphWeightFunction();
+        PackedUndirectedGraphWeightFunction w =
+                new PackedUndirectedGraphWeightFunction(1);
+
+        for (int i = 0; i < n; ++i) {
+            graph.add(new UndirectedGraphNode("" + i));
+        }
+
+        // A ring with chords from node 0, each stored from either end.
+        for (int i = 0; i < n; ++i) {
+            UndirectedGraphNode u = graph.get(i);
+            UndirectedGraphNode v = graph.get((i + 1) % n);
+
+            u.connect(v);
+            reference.put(u, v, i + 1);
+            w.put(i % 2 == 0 ? v : u, i % 2 == 0 ? u : v, i + 1);
+        }
+
+        for (int i = 2; i < n - 1; ++i) {
+            graph.get(i).connect(graph.get(0));
+            reference.put(graph.get(i), graph.get(0), -i);
+            w.put(graph.get(i), graph.get(0), -i);
+        }
+
+        PackedUndirectedGraphWeightFunction copy =
+                new PackedUndirectedGraphWeightFunction(graph, reference);
+
+        for (int u = 0; u < n; ++u) {
+            for (int v = 0; v < n; ++v) {
+                UndirectedGraphNode a = graph.get(u);
+                UndirectedGraphNode b = graph.get(v);
+                double expected = reference.get(a, b);
+
+                assertEquals(expected, w.get(a, b), 0.0);
+                assertEquals(expected, copy.get(a, b), 0.0);
+                assertEquals(expected,
+                             w.get(new UndirectedGraphNode("" + u),
+                                   new UndirectedGraphNode("" + v)),
+                             0.0);
+            }
+        }
+
+        assertEquals(n + n - 3, w.size());
+        assertEquals(n + n - 3, copy.size());
+    }
+}
@@ -0,0 +1,185 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.BidirectionalDijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>VersionedDirectedGraph</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class VersionedDirectedGraphTest {
+
+    @Test
+    public void testPinnedVersionDoesNotChange() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        DirectedGraphNode C = new DirectedGraphNode("C");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        A.addChild(B);
+        B.addChild(C);
+        A.addChild(C);
+        w.put(A, B, 1.0);
+        w.put(B, C, 1.0);
+        w.put(A, C, 5.0);
+
+        VersionedDirectedGraph g =
+                new VersionedDirectedGraph(java.util.Arrays.asList(A, B, C),
+                                           w);
+        GraphVersion v0 = g.current();
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertArrayEquals(new int[]{ 0, 1, 2 }, finder.find(v0, 0, 2));
+
+        GraphVersion v1 = g.setWeight(B, C, 10.0);
+
+        assertEquals(0L, v0.getNumber());
+        assertEquals(1L, v1.getNumber());
+        assertTrue(g.current() == v1);
+        assertArrayEquals(new int[]{ 0, 1, 2 }, finder.find(v0, 0, 2));
+        assertArrayEquals(new int[]{ 0, 2 }, finder.find(v1, 0, 2));
+        assertEquals(1.0, v0.asWeightFunction().get(B, C), 0.0);
+        assertEquals(10.0, v1.asWeightFunction().get(B, C), 0.0);
+
+        for (int i = v1.inBegin(2); i < v1.inEnd(2); ++i) {
+            assertEquals(v1.getWeight(v1.getInArc(i)),
+                         v1.getInWeight(i),
+                         0.0);
+        }
+    }
+
+    @Test
+    public void testVersionsShareUntouchedChunks() {
+        // A chain whose arcs fill two chunks and part of a third.
+        int n = 2 * GraphVersion.CHUNK_SIZE + 11;
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < n; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int i = 1; i < n; ++i) {
+            nodes.get(i - 1).addChild(nodes.get(i));
+            w.put(nodes.get(i - 1), nodes.get(i), 1.0);
+        }
+
+        VersionedDirectedGraph g = new VersionedDirectedGraph(nodes, w);
+        GraphVersion v0 = g.current();
+        int last = v0.arcCount() - 1;
+
+        assertEquals(3, v0.getChunks().length);
+
+        VersionedDirectedGraph.Update update = g.beginUpdate()
+                                                .setWeight(0, 123.0)
+                                                .setWeight(1, 456.0)
+                                                .setWeight(0, 789.0)
+                                                .setWeight(last, 2.0);
+        GraphVersion v1 = update.commit();
+
+        assertEquals(789.0, v1.getWeight(0), 0.0);
+        assertEquals(456.0, v1.getWeight(1), 0.0);
+        assertEquals(2.0, v1.getWeight(last), 0.0);
+        assertEquals(1.0, v0.getWeight(0), 0.0);
+        assertEquals(1.0, v0.getWeight(last), 0.0);
+        assertTrue(v0.getChunks()[0] != v1.getChunks()[0]);
+        assertTrue(v0.getChunks()[1] == v1.getChunks()[1]);
+        assertTrue(v0.getChunks()[2] != v1.getChunks()[2]);
+        assertEquals(n - 4 + 789.0 + 456.0 + 2.0,
+                     v1.getPathCost(chain(n)),
+                     0.0);
+
+        try {
+            update.commit();
+            fail("Committed an update twice.");
+        } catch (IllegalStateException e) {
+        }
+
+        try {
+            g.beginUpdate().setWeight(last + 1, 1.0);
+            fail("Accepted a missing arc id.");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    @Test
+    public void testFindersOnEveryVersion() {
+        // A chain 0 -> 1 -> 2 -> 3 of unit arcs and a shortcut 0 -> 3 of
+        // weight 5; the updates flip which route is shorter.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 4; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int i = 1; i < 4; ++i) {
+            nodes.get(i - 1).addChild(nodes.get(i));
+            w.put(nodes.get(i - 1), nodes.get(i), 1.0);
+        }
+
+        nodes.get(0).addChild(nodes.get(3));
+        w.put(nodes.get(0), nodes.get(3), 5.0);
+
+        VersionedDirectedGraph g = new VersionedDirectedGraph(nodes, w);
+        GraphVersion[] versions = {
+            g.current(),
+            g.setWeight(nodes.get(1), nodes.get(2), 10.0),
+            g.setWeight(nodes.get(0), nodes.get(3), 20.0)
+        };
+        int[][] paths = { { 0, 1, 2, 3 }, { 0, 3 }, { 0, 1, 2, 3 } };
+        double[] costs = { 3.0, 5.0, 12.0 };
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        BidirectionalDijkstraFinder bidir =
+                new BidirectionalDijkstraFinder(
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        // Every version keeps its answers after the later updates.
+        for (int i = 0; i < versions.length; ++i) {
+            GraphVersion v = versions[i];
+            List<DirectedGraphNode> path =
+                    dijkstra.find(nodes.get(0),
+                                  nodes.get(3),
+                                  v.asWeightFunction());
+
+            assertEquals(i, v.getNumber());
+            assertArrayEquals(paths[i], dijkstra.find(v, 0, 3));
+            assertArrayEquals(paths[i], bidir.find(v, 0, 3));
+            assertEquals(costs[i], v.getPathCost(paths[i]), 0.0);
+            assertEquals(costs[i],
+                         getPathCost(path, v.asWeightFunction()),
+                         0.0);
+            assertEquals(0, bidir.find(v, 3, 0).length);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSettingMissingArcThrows() {
+        DirectedGraphNode A = new DirectedGraphNode("A");
+        DirectedGraphNode B = new DirectedGraphNode("B");
+        A.addChild(B);
+        VersionedDirectedGraph g =
+                new VersionedDirectedGraph(java.util.Arrays.asList(A, B),
+                                           new DirectedGraphWeightFunction());
+        g.setWeight(B, A, 1.0);
+    }
+
+    private static int[] chain(int n) {
+        int[] path = new int[n];
+
+        for (int i = 0; i < n; ++i) {
+            path[i] = i;
+        }
+
+        return path;
+    }
+}
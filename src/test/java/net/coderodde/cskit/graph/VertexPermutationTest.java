@@ -0,0 +1,244 @@
+package net.coderodde.cskit.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.p2psp.general.CoordinateMap;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.BreadthFirstSearchFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>VertexPermutation</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class VertexPermutationTest {
+
+    @Test
+    public void testInverse() {
+        VertexPermutation p = new VertexPermutation(new int[]{ 2, 0, 3, 1 });
+
+        assertEquals(1, p.toNew(0));
+        assertEquals(2, p.toOld(0));
+        assertArrayEquals(new int[]{ 0, 1, 2, 3 },
+                          p.toOld(p.toNew(new int[]{ 0, 1, 2, 3 })));
+        assertEquals(p.toNew(3), p.inverse().toOld(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPermutation() {
+        new VertexPermutation(new int[]{ 0, 2, 2 });
+    }
+
+    @Test
+    public void testOrdersPreserveShortestPaths() {
+        // A 4 x 4 grid with arcs to the right (weight 1) and downwards
+        // (weight 2) only, listed in scrambled order.
+        CoordinateMap map = new CoordinateMap(2);
+        CompactDirectedGraph g = grid(4, map);
+        int corner = g.getId(new DirectedGraphNode("0,0"));
+        int middle = g.getId(new DirectedGraphNode("1,2"));
+        int last = g.getId(new DirectedGraphNode("3,3"));
+        VertexPermutation[] permutations = {
+            VertexPermutation.breadthFirst(g, corner),
+            VertexPermutation.reverseCuthillMcKee(g),
+            VertexPermutation.hilbert(g, map)
+        };
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+
+        for (VertexPermutation p : permutations) {
+            CompactDirectedGraph pg = p.apply(g);
+
+            assertEquals(16, pg.size());
+            assertEquals(24, pg.arcCount());
+
+            for (int u = 0; u < g.size(); ++u) {
+                assertTrue(g.getNode(u) == pg.getNode(p.toNew(u)));
+                assertEquals(g.outDegree(u), pg.outDegree(p.toNew(u)));
+            }
+
+            int[] path = dijkstra.find(pg, p.toNew(corner), p.toNew(last));
+
+            assertEquals(9.0, pg.getPathCost(path), 0.0);
+            assertEquals(7, path.length);
+            assertEquals(pg.toNodeList(path), g.toNodeList(p.toOld(path)));
+
+            path = dijkstra.find(pg, p.toNew(middle), p.toNew(last));
+
+            assertEquals(4.0, pg.getPathCost(path), 0.0);
+            assertEquals(4, new BreadthFirstSearchFinder()
+                                .find(pg, p.toNew(middle), p.toNew(last))
+                                .length);
+            assertEquals(0, dijkstra.find(pg, p.toNew(last),
+                                              p.toNew(corner)).length);
+        }
+
+        // Breadth-first order lists the nodes by hop distance, arc
+        // directions ignored, which is the Manhattan distance on the grid.
+        assertEquals(corner, permutations[0].toOld(0));
+
+        for (int i = 1; i < 16; ++i) {
+            assertTrue(hops(g, permutations[0].toOld(i - 1))
+                    <= hops(g, permutations[0].toOld(i)));
+        }
+
+        // The scrambled order is wide; the grid needs no more than its
+        // width.
+        assertTrue(bandwidth(g) > 4);
+        assertTrue(bandwidth(permutations[1].apply(g)) <= 4);
+
+        // The curve fills each quadrant of the grid before leaving it.
+        for (int i = 0; i < 16; i += 4) {
+            int quadrant = quadrant(map, g, permutations[2].toOld(i));
+
+            for (int j = i + 1; j < i + 4; ++j) {
+                assertEquals(quadrant,
+                             quadrant(map, g, permutations[2].toOld(j)));
+            }
+        }
+    }
+
+    @Test
+    public void testBreadthFirstCoversAllComponents() {
+        // Components {a, b, c}, {d, e} and the isolated f.
+        DirectedGraphNode[] nodes = new DirectedGraphNode[6];
+
+        for (int i = 0; i < 6; ++i) {
+            nodes[i] = new DirectedGraphNode("" + (char)('a' + i));
+        }
+
+        nodes[1].addChild(nodes[0]);
+        nodes[1].addChild(nodes[2]);
+        nodes[4].addChild(nodes[3]);
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(java.util.Arrays.asList(nodes),
+                                         new DirectedGraphWeightFunction());
+        VertexPermutation bfs = VertexPermutation.breadthFirst(g, 2);
+        VertexPermutation rcm = VertexPermutation.reverseCuthillMcKee(g);
+
+        // The component of the root comes first, found through the arc
+        // into the root.
+        assertEquals(2, bfs.toOld(0));
+        assertEquals(1, bfs.toOld(1));
+        assertEquals(0, bfs.toOld(2));
+
+        for (VertexPermutation p : new VertexPermutation[]{ bfs, rcm }) {
+            boolean[] seen = new boolean[6];
+
+            for (int i = 0; i < 6; ++i) {
+                assertEquals(i, p.toNew(p.toOld(i)));
+                seen[p.toOld(i)] = true;
+            }
+
+            for (boolean b : seen) {
+                assertTrue(b);
+            }
+
+            assertTrue(bandwidth(p.apply(g)) <= 2);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHilbertRejectsMissingCoordinates() {
+        CoordinateMap map = new CoordinateMap(2);
+        CompactDirectedGraph g = grid(2, map);
+
+        VertexPermutation.hilbert(g, new CoordinateMap(2));
+    }
+
+    @Test
+    public void testReverseCuthillMcKeeOnPath() {
+        // A path given in scrambled order gets bandwidth 1.
+        int[] labels = { 4, 0, 3, 1, 2 };
+        DirectedGraphNode[] nodes = new DirectedGraphNode[5];
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 5; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        for (int i = 0; i < 4; ++i) {
+            nodes[labels[i]].addChild(nodes[labels[i + 1]]);
+        }
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(java.util.Arrays.asList(nodes), w);
+        CompactDirectedGraph pg =
+                VertexPermutation.reverseCuthillMcKee(g).apply(g);
+
+        for (int u = 0; u < 5; ++u) {
+            for (int a = pg.outBegin(u); a < pg.outEnd(u); ++a) {
+                assertEquals(1, Math.abs(pg.getTarget(a) - u));
+            }
+        }
+    }
+
+    /**
+     * Builds an <code>n</code> x <code>n</code> grid whose node "x,y" has
+     * arcs to "x+1,y" of weight 1 and to "x,y+1" of weight 2, and stores
+     * the coordinates in <code>map</code>. The nodes are listed in the
+     * order of the multiples of 7 modulo <code>n * n</code>.
+     */
+    private static CompactDirectedGraph grid(int n, CoordinateMap map) {
+        DirectedGraphNode[][] cells = new DirectedGraphNode[n][n];
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+
+        for (int x = 0; x < n; ++x) {
+            for (int y = 0; y < n; ++y) {
+                cells[x][y] = new DirectedGraphNode(x + "," + y);
+                map.put(cells[x][y], new double[]{ x, y });
+            }
+        }
+
+        for (int x = 0; x < n; ++x) {
+            for (int y = 0; y < n; ++y) {
+                if (x + 1 < n) {
+                    cells[x][y].addChild(cells[x + 1][y]);
+                    w.put(cells[x][y], cells[x + 1][y], 1.0);
+                }
+
+                if (y + 1 < n) {
+                    cells[x][y].addChild(cells[x][y + 1]);
+                    w.put(cells[x][y], cells[x][y + 1], 2.0);
+                }
+            }
+        }
+
+        for (int i = 0; i < n * n; ++i) {
+            int j = (7 * i) % (n * n);
+            nodes.add(cells[j / n][j % n]);
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static int hops(CompactDirectedGraph g, int u) {
+        String[] xy = g.getNode(u).getName().split(",");
+        return Integer.parseInt(xy[0]) + Integer.parseInt(xy[1]);
+    }
+
+    private static int quadrant(CoordinateMap map,
+                                CompactDirectedGraph g,
+                                int u) {
+        double[] p = map.get(g.getNode(u));
+        return (p[0] < 2 ? 0 : 1) + (p[1] < 2 ? 0 : 2);
+    }
+
+    private static int bandwidth(CompactDirectedGraph g) {
+        int bandwidth = 0;
+
+        for (int u = 0; u < g.size(); ++u) {
+            for (int a = g.outBegin(u); a < g.outEnd(u); ++a) {
+                bandwidth = Math.max(bandwidth,
+                                     Math.abs(g.getTarget(a) - u));
+            }
+        }
+
+        return bandwidth;
+    }
+}
@@ -0,0 +1,335 @@
+package net.coderodde.cskit.graph.grid;
+
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>GridGraph</code>, <code>GridAStarFinder</code> and
+ * <code>JumpPointSearchFinder</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class JumpPointSearchFinderTest {
+
+    @Test
+    public void testKnownCosts() {
+        GridGraph open = new GridGraph(10, 10);
+        double d = GridGraph.DIAGONAL_COST;
+
+        checkCost(open, 0, 0, 9, 9, 9 * d);
+        checkCost(open, 0, 0, 9, 3, 3 * d + 6);
+        checkCost(open, 9, 0, 0, 9, 9 * d);
+
+        // No corner cutting: the diagonal step needs both orthogonal cells.
+        GridGraph corner = new GridGraph(2, 2);
+
+        corner.setBlocked(1, 0, true);
+        checkCost(corner, 0, 0, 1, 1, 2.0);
+        corner.setBlocked(0, 1, true);
+
+        assertEquals(0, new JumpPointSearchFinder()
+                .find(corner, 0, corner.getCell(1, 1)).length);
+        assertEquals(0, new GridAStarFinder()
+                .find(corner, 0, corner.getCell(1, 1)).length);
+    }
+
+    @Test
+    public void testAgreesWithDijkstraOnMazes() {
+        GridGraph walls = new GridGraph(12, 9);
+        GridGraph pillars = new GridGraph(11, 11);
+
+        // Two walls with gaps at opposite ends force a zigzag.
+        for (int y = 0; y < 8; ++y) {
+            walls.setBlocked(4, y, true);
+            walls.setBlocked(8, y + 1, true);
+        }
+
+        for (int y = 1; y < 11; y += 2) {
+            for (int x = 1; x < 11; x += 2) {
+                pillars.setBlocked(x, y, true);
+            }
+        }
+
+        GridAStarFinder astar = new GridAStarFinder();
+        JumpPointSearchFinder jps = new JumpPointSearchFinder();
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+
+        for (GridGraph grid : new GridGraph[]{ walls, pillars }) {
+            DirectedGraphNode[] nodes = new DirectedGraphNode[grid.size()];
+            DirectedGraphWeightFunction w = materialize(grid, nodes);
+            int[] cells = { 0,
+                            grid.size() - 1,
+                            grid.getWidth() - 1,
+                            grid.getCell(0, grid.getHeight() - 1),
+                            grid.getCell(grid.getWidth() / 2 - 1,
+                                         grid.getHeight() / 2 - 1),
+                            grid.getCell(5, 0) };
+
+            for (int s : cells) {
+                for (int t : cells) {
+                    List<DirectedGraphNode> expected =
+                            dijkstra.find(nodes[s], nodes[t], w);
+                    int[] a = astar.find(grid, s, t);
+                    int[] b = jps.find(grid, s, t);
+
+                    checkPath(grid, a, s, t);
+                    checkPath(grid, b, s, t);
+                    assertEquals(getPathCost(expected, w),
+                                 grid.getPathCost(a),
+                                 1e-9);
+                    assertEquals(getPathCost(expected, w),
+                                 grid.getPathCost(b),
+                                 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedFindersAcrossThreads() throws Exception {
+        final int THREADS = 4;
+        final GridGraph small = new GridGraph(12, 9);
+        final GridGraph large = new GridGraph(90, 70);
+
+        // The grids differ in size, so that each thread's state regrows.
+        for (int y = 0; y < 8; ++y) {
+            small.setBlocked(4, y, true);
+            small.setBlocked(8, y + 1, true);
+        }
+
+        for (int y = 0; y < 65; ++y) {
+            large.setBlocked(45, y, true);
+        }
+
+        final GridGraph[] grids = { small, large, small, large };
+        final GridPathFinder[] finders = { new GridAStarFinder(),
+                                           new JumpPointSearchFinder() };
+        final double[][] costs = new double[finders.length][grids.length];
+        final int[][] expansions = new int[finders.length][grids.length];
+
+        for (int f = 0; f < finders.length; ++f) {
+            for (int q = 0; q < grids.length; ++q) {
+                GridPathFinder fresh = f == 0 ? new GridAStarFinder()
+                                              : new JumpPointSearchFinder();
+
+                costs[f][q] = grids[q].getPathCost(
+                        fresh.find(grids[q], 0, target(grids[q], q)));
+                expansions[f][q] = fresh.getExpansions();
+            }
+        }
+
+        final Throwable[] errors = new Throwable[THREADS];
+        Thread[] threads = new Thread[THREADS];
+
+        for (int i = 0; i < THREADS; ++i) {
+            final int thread = i;
+
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int round = 0; round < 50; ++round) {
+                            int q = (round + thread) % grids.length;
+
+                            for (int f = 0; f < finders.length; ++f) {
+                                GridGraph grid = grids[q];
+                                int t = target(grid, q);
+                                int[] path = finders[f].find(grid, 0, t);
+
+                                checkPath(grid, path, 0, t);
+                                assertEquals(costs[f][q],
+                                             grid.getPathCost(path),
+                                             1e-9);
+                                assertEquals(expansions[f][q],
+                                             finders[f].getExpansions());
+                            }
+                        }
+                    } catch (Throwable t) {
+                        errors[thread] = t;
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Throwable error : errors) {
+            assertNull(error);
+        }
+    }
+
+    @Test
+    public void testExpandsFewerCells() {
+        GridGraph grid = new GridGraph(200, 200);
+
+        // A wall with a gap at the bottom.
+        for (int y = 0; y < 190; ++y) {
+            grid.setBlocked(100, y, true);
+        }
+
+        GridAStarFinder astar = new GridAStarFinder();
+        JumpPointSearchFinder jps = new JumpPointSearchFinder();
+        int s = grid.getCell(10, 10);
+        int t = grid.getCell(190, 10);
+        int[] a = astar.find(grid, s, t);
+        int[] b = jps.find(grid, s, t);
+
+        assertEquals(grid.getPathCost(a), grid.getPathCost(b), 0.0001);
+        assertTrue(10 * jps.getExpansions() < astar.getExpansions());
+        assertEquals(10000L, grid.estimateMemoryUsage());
+    }
+
+    @Test
+    public void testBlockedEndpoints() {
+        GridGraph grid = new GridGraph(5, 5);
+
+        grid.setBlocked(2, 2, true);
+
+        assertFalse(grid.isWalkable(2, 2));
+        assertFalse(grid.isWalkable(-1, 0));
+        assertEquals(0, new JumpPointSearchFinder()
+                .find(grid, grid.getCell(2, 2), 0).length);
+
+        grid.setBlocked(2, 2, false);
+
+        assertEquals(3, new JumpPointSearchFinder()
+                .find(grid, grid.getCell(2, 2), 0).length);
+    }
+
+    @Test
+    public void testSourceIsTargetAndWalledTarget() {
+        GridGraph grid = new GridGraph(70, 3);
+        JumpPointSearchFinder jps = new JumpPointSearchFinder();
+        int corner = grid.getCell(69, 2);
+
+        assertArrayEquals(new int[]{ corner }, jps.find(grid, corner, corner));
+
+        // Walls the corner in across the boundary of two row words.
+        grid.setBlocked(68, 2, true);
+        grid.setBlocked(68, 1, true);
+        grid.setBlocked(69, 1, true);
+
+        assertEquals(0, jps.find(grid, 0, corner).length);
+        assertEquals(0, new GridAStarFinder().find(grid, 0, corner).length);
+        assertArrayEquals(new int[]{ corner }, jps.find(grid, corner, corner));
+    }
+
+    @Test
+    public void testCorridorsAcrossWordBoundaries() {
+        GridAStarFinder astar = new GridAStarFinder();
+        JumpPointSearchFinder jps = new JumpPointSearchFinder();
+
+        for (int width : new int[]{ 1, 2, 63, 64, 65, 129 }) {
+            // One row, and a three row grid walled off but for one gap
+            // at the last column.
+            GridGraph row = new GridGraph(width, 1);
+            GridGraph walled = new GridGraph(width, 3);
+
+            for (int x = 0; x < width - 1; ++x) {
+                walled.setBlocked(x, 1, true);
+            }
+
+            for (GridGraph grid : new GridGraph[]{ row, walled }) {
+                int s = grid.getCell(0, 0);
+                int t = grid.getCell(0, grid.getHeight() - 1);
+                int[] a = astar.find(grid, s, t);
+                int[] b = jps.find(grid, s, t);
+
+                checkPath(grid, b, s, t);
+                assertEquals(grid.getPathCost(a), grid.getPathCost(b), 1e-9);
+
+                int[] back = jps.find(grid, t, s);
+
+                checkPath(grid, back, t, s);
+                assertEquals(grid.getPathCost(a),
+                             grid.getPathCost(back),
+                             1e-9);
+            }
+        }
+    }
+
+    /**
+     * Returns the target of the <code>q</code>th query on
+     * <code>grid</code>: the far corner or the one beyond the wall.
+     */
+    private static int target(GridGraph grid, int q) {
+        return q < 2 ? grid.size() - 1
+                     : grid.getCell(grid.getWidth() - 1, 0);
+    }
+
+    private static void checkCost(GridGraph grid,
+                                  int sx,
+                                  int sy,
+                                  int tx,
+                                  int ty,
+                                  double cost) {
+        int s = grid.getCell(sx, sy);
+        int t = grid.getCell(tx, ty);
+        int[] a = new GridAStarFinder().find(grid, s, t);
+        int[] b = new JumpPointSearchFinder().find(grid, s, t);
+
+        checkPath(grid, a, s, t);
+        checkPath(grid, b, s, t);
+        assertEquals(cost, grid.getPathCost(a), 1e-9);
+        assertEquals(cost, grid.getPathCost(b), 1e-9);
+    }
+
+    private static DirectedGraphWeightFunction materialize(
+            GridGraph grid,
+            DirectedGraphNode[] nodes) {
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        int[] neighbors = new int[8];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        for (int i = 0; i < nodes.length; ++i) {
+            if (grid.isWalkable(grid.getX(i), grid.getY(i)) == false) {
+                continue;
+            }
+
+            int size = grid.getNeighbors(i, neighbors);
+
+            for (int k = 0; k < size; ++k) {
+                nodes[i].addChild(nodes[neighbors[k]]);
+                w.put(nodes[i],
+                      nodes[neighbors[k]],
+                      grid.getDistance(i, neighbors[k]));
+            }
+        }
+
+        return w;
+    }
+
+    private static void checkPath(GridGraph grid, int[] path, int s, int t) {
+        assertEquals(s, path[0]);
+        assertEquals(t, path[path.length - 1]);
+
+        int[] neighbors = new int[8];
+
+        for (int i = 1; i < path.length; ++i) {
+            int size = grid.getNeighbors(path[i - 1], neighbors);
+            boolean adjacent = false;
+
+            for (int k = 0; k < size; ++k) {
+                adjacent |= neighbors[k] == path[i];
+            }
+
+            assertTrue(adjacent);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package net.coderodde.cskit.graph.mst;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.cskit.Utilities.Pair;
+import static net.coderodde.cskit.Utilities.isSpanningTree;
+import static net.coderodde.cskit.Utilities.spanningTreesEqual;
+import static net.coderodde.cskit.Utilities.sumEdgeWeights;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.PackedUndirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.UndirectedGraphEdge;
+import net.coderodde.cskit.graph.UndirectedGraphNode;
+import net.coderodde.cskit.graph.UndirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the minimum spanning tree finders on packed weights and
+ * on compact graph snapshots.
+ *
+ * @author Rodion Efremov
+ */
+public class MinimumSpanningTreeFinderTest {
+
+    @Test
+    public void testPackedWeightsGiveSameTrees() {
+        // The minimum spanning tree is a - b, b - c, b - d and d - e, of
+        // weight 11. Some weights are given from the other end of the edge.
+        UndirectedGraphNode[] nodes = new UndirectedGraphNode[5];
+        UndirectedGraphWeightFunction w = new UndirectedGraphWeightFunction();
+
+        for (int i = 0; i < 5; ++i) {
+            nodes[i] = new UndirectedGraphNode("" + (char)('a' + i));
+        }
+
+        int[][] edges = { { 0, 1, 1 }, { 2, 1, 2 }, { 0, 2, 4 }, { 1, 3, 5 },
+                          { 3, 2, 6 }, { 3, 4, 3 }, { 4, 0, 10 } };
+
+        for (int[] edge : edges) {
+            nodes[edge[0]].connect(nodes[edge[1]]);
+            w.put(nodes[edge[0]], nodes[edge[1]], edge[2]);
+        }
+
+        List<UndirectedGraphNode> graph = java.util.Arrays.asList(nodes);
+        PackedUndirectedGraphWeightFunction packed =
+                new PackedUndirectedGraphWeightFunction(graph, w);
+        MinimumSpanningTreeFinder[] finders = { new KruskalMSTFinder(),
+                                                new PrimMSTFinder() };
+        List<UndirectedGraphEdge> expected =
+                new PrimMSTFinder().find(graph, w).first;
+
+        assertEquals(edges.length, packed.size());
+        assertEquals(11.0, sumEdgeWeights(expected), 0.0);
+
+        for (MinimumSpanningTreeFinder finder : finders) {
+            Pair<List<UndirectedGraphEdge>, Double> result =
+                    finder.find(graph, packed);
+
+            assertEquals(4, result.first.size());
+            assertTrue(isSpanningTree(result.first));
+            assertEquals(11.0, result.second, 0.0);
+            assertTrue(spanningTreesEqual(expected, result.first));
+            assertTrue(result.first.contains(
+                    new UndirectedGraphEdge(nodes[1], nodes[3])));
+            assertFalse(result.first.contains(
+                    new UndirectedGraphEdge(nodes[0], nodes[2])));
+        }
+    }
+
+    @Test
+    public void testCompactEmptyGraphAndForest() {
+        CompactDirectedGraph empty = new CompactDirectedGraph(
+                new ArrayList<DirectedGraphNode>(),
+                new DirectedGraphWeightFunction());
+        // Two components, 0 - 1 - 2 and 3 - 4, and an isolated node 5.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 6; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        int[][] arcs = { { 0, 1, 4 }, { 1, 2, 1 }, { 2, 0, 2 }, { 4, 3, 5 } };
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        CompactDirectedGraph forest = new CompactDirectedGraph(nodes, w);
+        MinimumSpanningTreeFinder[] finders = { new KruskalMSTFinder(),
+                                                new PrimMSTFinder() };
+
+        for (MinimumSpanningTreeFinder finder : finders) {
+            Pair<int[], Double> result = finder.find(empty);
+
+            assertEquals(0, result.first.length);
+            assertEquals(0.0, result.second, 0.0);
+
+            result = finder.find(forest);
+
+            assertEquals(3, result.first.length);
+            assertEquals(8.0, result.second, 0.0);
+        }
+    }
+
+    @Test
+    public void testPackedStoresEachEdgeOnce() {
+        UndirectedGraphNode a = new UndirectedGraphNode("a");
+        UndirectedGraphNode b = new UndirectedGraphNode("b");
+        UndirectedGraphNode c = new UndirectedGraphNode("c");
+        UndirectedGraphWeightFunction w = new UndirectedGraphWeightFunction();
+
+        a.connect(b);
+        b.connect(c);
+        w.put(a, b, 2.0);
+        w.put(c, b, 3.0);
+
+        PackedUndirectedGraphWeightFunction packed =
+                new PackedUndirectedGraphWeightFunction(
+                java.util.Arrays.asList(a, b, c), w);
+
+        assertEquals(2, packed.size());
+        assertEquals(3.0, packed.get(b, c), 0.0);
+        assertEquals(3.0, packed.get(c, b), 0.0);
+        assertEquals(5.0,
+                     new PrimMSTFinder().find(java.util.Arrays.asList(c),
+                                              packed).second,
+                     0.0);
+    }
+}
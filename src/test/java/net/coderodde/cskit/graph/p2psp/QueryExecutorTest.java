@@ -0,0 +1,312 @@
+package net.coderodde.cskit.graph.p2psp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.p2psp.general.DijkstraFinder;
+import net.coderodde.cskit.graph.p2psp.uniform.BreadthFirstSearchFinder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>QueryExecutor</code> and
+ * <code>LatencyHistogram</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class QueryExecutorTest {
+
+    @Test
+    public void testSharedGeneralFinder() throws Exception {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = chain(nodes, w);
+        QueryExecutor executor = new QueryExecutor(
+                3,
+                QueryExecutor.shared(QueryExecutor.searcher(
+                        new DijkstraFinder(
+                            new BinaryHeap<DirectedGraphNode, Double>()),
+                        w)));
+        List<DirectedGraphNode> sources = new ArrayList<DirectedGraphNode>();
+        List<DirectedGraphNode> targets = new ArrayList<DirectedGraphNode>();
+        int[] sourceIds = new int[100];
+        int[] targetIds = new int[100];
+
+        queries(nodes, sources, targets);
+
+        for (int i = 0; i < 100; ++i) {
+            sourceIds[i] = g.getId(sources.get(i));
+            targetIds[i] = g.getId(targets.get(i));
+        }
+
+        List<List<DirectedGraphNode>> paths = executor.findAll(sources,
+                                                               targets);
+        int[][] idPaths = executor.findAll(g, sourceIds, targetIds);
+        List<Future<List<DirectedGraphNode>>> futures =
+                new ArrayList<Future<List<DirectedGraphNode>>>();
+
+        for (int i = 0; i < 100; ++i) {
+            futures.add(executor.submit(sources.get(i), targets.get(i)));
+        }
+
+        // Each answer must be in the place of its query.
+        for (int i = 0; i < 100; ++i) {
+            int t = i % 10;
+
+            if (i % 2 == 1 && t > 0) {
+                assertTrue(paths.get(i).isEmpty());
+                assertTrue(futures.get(i).get().isEmpty());
+                assertEquals(0, idPaths[i].length);
+                continue;
+            }
+
+            double expected = t * (t + 1) / 2;
+
+            assertEquals(t + 1, paths.get(i).size());
+            assertEquals(expected, getPathCost(paths.get(i), w), 0.0);
+            assertEquals(expected,
+                         getPathCost(futures.get(i).get(), w),
+                         0.0);
+            assertEquals(expected, g.getPathCost(idPaths[i]), 0.0);
+        }
+
+        assertEquals(300L, executor.getQueryCount());
+        assertEquals(300L, executor.getLatencies().getCount());
+        assertTrue(executor.getThroughput() > 0.0);
+        assertTrue(executor.getLatencyPercentile(50.0)
+                   <= executor.getLatencyPercentile(99.0));
+        assertTrue(executor.getLatencyPercentile(99.0)
+                   <= executor.getLatencies().getMax());
+
+        executor.resetStatistics();
+
+        assertEquals(0L, executor.getQueryCount());
+        assertEquals(0.0, executor.getThroughput(), 0.0);
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testUniformFinderPerWorker() throws Exception {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        final AtomicInteger created = new AtomicInteger();
+        QueryExecutor executor = new QueryExecutor(
+                4,
+                new QueryExecutor.SearcherFactory() {
+            @Override
+            public QueryExecutor.Searcher newSearcher() {
+                created.incrementAndGet();
+                return QueryExecutor.searcher(new BreadthFirstSearchFinder());
+            }
+        });
+        List<DirectedGraphNode> sources = new ArrayList<DirectedGraphNode>();
+        List<DirectedGraphNode> targets = new ArrayList<DirectedGraphNode>();
+
+        chain(nodes, new DirectedGraphWeightFunction());
+        queries(nodes, sources, targets);
+
+        List<List<DirectedGraphNode>> paths = executor.findAll(sources,
+                                                               targets);
+
+        for (int i = 0; i < 100; ++i) {
+            int t = i % 10;
+
+            assertEquals(i % 2 == 1 && t > 0 ? 0 : t + 1,
+                         paths.get(i).size());
+        }
+
+        assertTrue(created.get() >= 1);
+        assertTrue(created.get() <= 4);
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEmptyAndTrivialBatches() {
+        // a -> b, and c on its own.
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        w.put(a, b, 2.0);
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(Arrays.asList(a, b, c), w);
+        QueryExecutor executor = new QueryExecutor(
+                4,
+                QueryExecutor.shared(QueryExecutor.searcher(
+                        new DijkstraFinder(
+                            new BinaryHeap<DirectedGraphNode, Double>()),
+                        w)));
+
+        assertTrue(executor.findAll(new ArrayList<DirectedGraphNode>(),
+                                    new ArrayList<DirectedGraphNode>())
+                           .isEmpty());
+        assertEquals(0, executor.findAll(g, new int[0], new int[0]).length);
+        assertEquals(0L, executor.getQueryCount());
+
+        List<List<DirectedGraphNode>> paths =
+                executor.findAll(Arrays.asList(a, a, c, b),
+                                 Arrays.asList(a, b, a, a));
+
+        assertEquals(Arrays.asList(a), paths.get(0));
+        assertEquals(Arrays.asList(a, b), paths.get(1));
+        assertTrue(paths.get(2).isEmpty());
+        assertTrue(paths.get(3).isEmpty());
+
+        int ia = g.getId(a);
+        int ib = g.getId(b);
+        int ic = g.getId(c);
+        int[][] idPaths = executor.findAll(g,
+                                           new int[]{ ic, ia, ib },
+                                           new int[]{ ic, ib, ia });
+
+        assertArrayEquals(new int[]{ ic }, idPaths[0]);
+        assertArrayEquals(new int[]{ ia, ib }, idPaths[1]);
+        assertEquals(0, idPaths[2].length);
+        assertEquals(7L, executor.getQueryCount());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFailingQueryFailsBatch() {
+        final DirectedGraphNode bad = new DirectedGraphNode("bad");
+        final DirectedGraphNode good = new DirectedGraphNode("good");
+        final IllegalStateException error =
+                new IllegalStateException("Cannot search from 'bad'.");
+        QueryExecutor executor = new QueryExecutor(
+                2,
+                QueryExecutor.shared(new QueryExecutor.Searcher() {
+            @Override
+            public List<DirectedGraphNode> find(DirectedGraphNode source,
+                                                DirectedGraphNode target) {
+                if (source == bad) {
+                    throw error;
+                }
+
+                return Arrays.asList(source);
+            }
+
+            @Override
+            public int[] find(CompactDirectedGraph graph,
+                              int source,
+                              int target) {
+                return new int[]{ source };
+            }
+        }));
+        List<DirectedGraphNode> sources = new ArrayList<DirectedGraphNode>();
+
+        for (int i = 0; i < 50; ++i) {
+            sources.add(i == 25 ? bad : good);
+        }
+
+        try {
+            executor.findAll(sources, sources);
+            fail("Swallowed the failure of a query.");
+        } catch (IllegalStateException e) {
+            assertSame(error, e);
+        }
+
+        // The workers survive the failure.
+        assertEquals(Arrays.asList(good),
+                     executor.findAll(Arrays.asList(good),
+                                      Arrays.asList(good))
+                             .get(0));
+
+        executor.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnMismatchedBatch() {
+        QueryExecutor executor = new QueryExecutor(
+                1,
+                QueryExecutor.shared(QueryExecutor.searcher(
+                        new BreadthFirstSearchFinder())));
+
+        try {
+            executor.findAll(new ArrayList<DirectedGraphNode>(),
+                             Arrays.asList(
+                                 (DirectedGraphNode) null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.getPercentile(50.0));
+
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000L);
+        }
+
+        histogram.record(7L);
+
+        assertEquals(1001L, histogram.getCount());
+        assertEquals(1000000L, histogram.getMax());
+        assertEquals(1000000L, histogram.getPercentile(100.0));
+        assertEquals(7L, histogram.getPercentile(0.0));
+
+        long median = histogram.getPercentile(50.0);
+
+        assertTrue(median >= 500000L);
+        assertTrue(median <= 500000L * 17 / 16);
+
+        long p99 = histogram.getPercentile(99.0);
+
+        assertTrue(p99 >= 990000L);
+        assertTrue(p99 <= 1000000L);
+
+        histogram.clear();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+
+    /**
+     * Adds the chain 0 -> 1 -> ... -> 9 whose arc into node
+     * <code>i</code> weighs <code>i</code>, so the cost from node 0 to
+     * node <code>t</code> is <code>t(t + 1) / 2</code>.
+     */
+    private static CompactDirectedGraph chain(List<DirectedGraphNode> nodes,
+                                              DirectedGraphWeightFunction w) {
+        for (int i = 0; i < 10; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+
+            if (i > 0) {
+                nodes.get(i - 1).addChild(nodes.get(i));
+                w.put(nodes.get(i - 1), nodes.get(i), i);
+            }
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    /**
+     * Adds 100 queries over the chain: the query <code>i</code> goes from
+     * node 0 to node <code>i % 10</code> for even <code>i</code>, and back
+     * the other way, unreachable unless trivial, for odd <code>i</code>.
+     */
+    private static void queries(List<DirectedGraphNode> nodes,
+                                List<DirectedGraphNode> sources,
+                                List<DirectedGraphNode> targets) {
+        for (int i = 0; i < 100; ++i) {
+            DirectedGraphNode u = nodes.get(i % 10);
+
+            sources.add(i % 2 == 0 ? nodes.get(0) : u);
+            targets.add(i % 2 == 0 ? u : nodes.get(0));
+        }
+    }
+}
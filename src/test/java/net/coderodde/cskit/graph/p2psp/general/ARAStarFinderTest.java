@@ -0,0 +1,126 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>ARAStarFinder</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class ARAStarFinderTest {
+
+    @Test
+    public void testBoundsAndConvergence() {
+        // From s at (0, 0) to t at (10, 0), the way through m at (5, 0)
+        // costs 18 and looks best to an inflated heuristic, while the way
+        // through u at (0, 4) costs 14.8. Nothing leads to x.
+        String[] names = { "s", "m", "u", "t", "x" };
+        double[][] points = { { 0, 0 }, { 5, 0 }, { 0, 4 }, { 10, 0 },
+                              { 0, -3 } };
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+
+        for (int i = 0; i < names.length; ++i) {
+            nodes.add(new DirectedGraphNode(names[i]));
+            map.put(nodes.get(i), points[i]);
+        }
+
+        double[][] arcs = { { 0, 1, 9.0 }, { 1, 3, 9.0 }, { 0, 2, 4.0 },
+                            { 2, 3, 10.8 }, { 4, 0, 3.0 } };
+
+        for (double[] arc : arcs) {
+            DirectedGraphNode from = nodes.get((int) arc[0]);
+            DirectedGraphNode to = nodes.get((int) arc[1]);
+
+            from.addChild(to);
+            w.put(from, to, arc[2]);
+        }
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        DirectedGraphNode s = nodes.get(0);
+        DirectedGraphNode t = nodes.get(3);
+        EuclidianMetric h = new EuclidianMetric(map, null);
+        ARAStarFinder anytime = new ARAStarFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), h, 3.0, 0.5,
+                60000L);
+        ARAStarFinder greedy = new ARAStarFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), h, 3.0, 0.5, 0L);
+        ARAStarFinder.Result best = anytime.search(s, t, w);
+        ARAStarFinder.Result first = greedy.search(s, t, w);
+
+        assertEquals(Arrays.asList(s, nodes.get(2), t), best.getPath());
+        assertEquals(1.0, best.getBound(), 0.0);
+        assertEquals(14.8, best.getCost(), 1e-9);
+        assertTrue(best.getIterations() > 1);
+
+        assertEquals(Arrays.asList(s, nodes.get(1), t), first.getPath());
+        assertEquals(1, first.getIterations());
+        assertEquals(18.0, first.getCost(), 0.0);
+        assertTrue(first.getBound() <= 3.0);
+        assertTrue(first.getCost() <= first.getBound() * 14.8 + 1e-9);
+
+        assertArrayEquals(new int[]{ 0, 2, 3 }, anytime.find(g, 0, 3));
+        assertArrayEquals(new int[]{ 0, 1, 3 }, greedy.find(g, 0, 3));
+
+        assertTrue(anytime.search(s, nodes.get(4), w).getPath().isEmpty());
+        assertTrue(greedy.search(s, nodes.get(4), w).getPath().isEmpty());
+        assertEquals(0, anytime.find(g, 0, 4).length);
+        assertEquals(0, greedy.find(g, 0, 4).length);
+    }
+
+    @Test
+    public void testReturnsAtOnceOnZeroCostPaths() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+
+        for (int i = 0; i < 3; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+            map.put(nodes.get(i), new double[]{ 0.0, 0.0 });
+        }
+
+        nodes.get(0).addChild(nodes.get(1));
+        nodes.get(1).addChild(nodes.get(2));
+        w.put(nodes.get(0), nodes.get(1), 0.0);
+        w.put(nodes.get(1), nodes.get(2), 0.0);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        ARAStarFinder finder = new ARAStarFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(),
+                new EuclidianMetric(map, null), 3.0, 0.5, 5000L);
+        long ta = System.currentTimeMillis();
+        ARAStarFinder.Result same =
+                finder.search(nodes.get(1), nodes.get(1), w);
+        ARAStarFinder.Result free =
+                finder.search(nodes.get(0), nodes.get(2), w);
+
+        assertEquals(1, same.getPath().size());
+        assertEquals(1.0, same.getBound(), 0.0);
+        assertEquals(0.0, same.getCost(), 0.0);
+        assertEquals(3, free.getPath().size());
+        assertEquals(1.0, free.getBound(), 0.0);
+        assertArrayEquals(new int[]{ 1 }, finder.find(g, 1, 1));
+        assertArrayEquals(new int[]{ 0, 1, 2 }, finder.find(g, 0, 2));
+
+        // Not the whole budget of 5 seconds per query.
+        assertTrue(System.currentTimeMillis() - ta < 2500L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnDeflatingHeuristic() {
+        new ARAStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                          null,
+                          0.5,
+                          0.5,
+                          100L);
+    }
+}
@@ -0,0 +1,223 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>ContractionHierarchy</code> and
+ * <code>ContractionHierarchyFinder</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class ContractionHierarchyFinderTest {
+
+    @Test
+    public void testOneWayCycleWithChords() {
+        // The cycle 0 -> 1 -> ... -> 9 -> 0 of unit arcs, a chord 0 -> 5
+        // longer than the way around and a chord 7 -> 2 shorter than it.
+        // Node 10 leads into the cycle but nothing leads to it.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 11; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        int[][] arcs = { { 0, 5, 10 }, { 7, 2, 1 }, { 10, 0, 4 } };
+
+        for (int i = 0; i < 10; ++i) {
+            nodes.get(i).addChild(nodes.get((i + 1) % 10));
+            w.put(nodes.get(i), nodes.get((i + 1) % 10), 1.0);
+        }
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        double[][] expected = getDistances(g);
+
+        for (int threads : new int[]{ 1, 4 }) {
+            ContractionHierarchyFinder finder = new ContractionHierarchyFinder(
+                    new ContractionHierarchy(g, threads));
+
+            assertEquals(9.0, cost(finder, g, 0, 9), 0.0);
+            assertEquals(5.0, cost(finder, g, 0, 5), 0.0);
+            assertEquals(3.0, cost(finder, g, 7, 4), 0.0);
+            assertEquals(7.0, cost(finder, g, 10, 3), 0.0);
+
+            for (int s = 0; s < g.size(); ++s) {
+                for (int t = 0; t < g.size(); ++t) {
+                    int[] path = finder.find(g, s, t);
+                    List<DirectedGraphNode> list =
+                            finder.find(g.getNode(s), g.getNode(t), w);
+
+                    if (t == 10 && s != 10) {
+                        assertEquals(0, path.length);
+                        assertTrue(list.isEmpty());
+                        continue;
+                    }
+
+                    assertEquals(s, path[0]);
+                    assertEquals(t, path[path.length - 1]);
+                    assertEquals(expected[s][t], g.getPathCost(path), 0.0);
+                    assertTrue(isConnectedPath(list));
+                    assertEquals(expected[s][t], getPathCost(list, w), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZeroWeightsAndTies() {
+        // A grid of equal and zero weights has many shortest paths of the
+        // same cost, so the witness searches meet ties everywhere.
+        CompactDirectedGraph g = getGrid(6, 4);
+        ContractionHierarchyFinder finder =
+                new ContractionHierarchyFinder(new ContractionHierarchy(g, 1));
+        double[][] expected = getDistances(g);
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                int[] path = finder.find(g, s, t);
+
+                assertEquals(s, path[0]);
+                assertEquals(t, path[path.length - 1]);
+                assertEquals(expected[s][t], g.getPathCost(path), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSourceIsTargetAndUnreachableTarget() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        c.addChild(b);
+        w.put(a, b, 1.0);
+        w.put(c, b, 2.0);
+
+        ContractionHierarchy ch =
+                new ContractionHierarchy(java.util.Arrays.asList(a, b, c), w);
+        ContractionHierarchyFinder finder = new ContractionHierarchyFinder(ch);
+        CompactDirectedGraph g = ch.getGraph();
+
+        assertTrue(finder.find(a, c, w).isEmpty());
+        assertTrue(finder.find(b, a, w).isEmpty());
+        assertEquals(2, finder.find(c, b, w).size());
+        assertEquals(1, finder.find(b, b, w).size());
+        assertArrayEquals(new int[]{ g.getId(a) },
+                          finder.find(g, g.getId(a), g.getId(a)));
+    }
+
+    @Test
+    public void testConcurrentQueries() throws InterruptedException {
+        final CompactDirectedGraph g = getGrid(8, 5);
+        final ContractionHierarchyFinder finder =
+                new ContractionHierarchyFinder(new ContractionHierarchy(g, 2));
+        final double[][] expected = getDistances(g);
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; ++i) {
+            final int offset = i;
+
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int s = 0; s < g.size(); ++s) {
+                        for (int t = 0; t < g.size(); ++t) {
+                            // Each thread walks the targets in its own order.
+                            int v = (t + 17 * offset) % g.size();
+                            int[] path = finder.find(g, s, v);
+
+                            if (path.length == 0
+                                    || g.getPathCost(path) != expected[s][v]) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, mismatches.get());
+    }
+
+    /**
+     * Returns a <code>width</code> by <code>width</code> grid with arcs in
+     * both directions weighing from 0 to <code>maxWeight - 1</code>.
+     */
+    private static CompactDirectedGraph getGrid(int width, int maxWeight) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < width * width; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int x = 0; x < width; ++x) {
+            for (int y = 0; y < width; ++y) {
+                int u = x * width + y;
+
+                if (x + 1 < width) {
+                    connect(nodes, w, u, u + width, (x + 2 * y) % maxWeight);
+                }
+
+                if (y + 1 < width) {
+                    connect(nodes, w, u, u + 1, (3 * x + y) % maxWeight);
+                }
+            }
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static void connect(List<DirectedGraphNode> nodes,
+                                DirectedGraphWeightFunction w,
+                                int u,
+                                int v,
+                                double weight) {
+        nodes.get(u).addChild(nodes.get(v));
+        nodes.get(v).addChild(nodes.get(u));
+        w.put(nodes.get(u), nodes.get(v), weight);
+        w.put(nodes.get(v), nodes.get(u), weight);
+    }
+
+    private static double cost(ContractionHierarchyFinder finder,
+                               CompactDirectedGraph g,
+                               int s,
+                               int t) {
+        return g.getPathCost(finder.find(g, s, t));
+    }
+
+    private static double[][] getDistances(CompactDirectedGraph g) {
+        DijkstraFinder dijkstra = new DijkstraFinder(null);
+        double[][] distances = new double[g.size()][g.size()];
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                distances[s][t] = g.getPathCost(dijkstra.find(g, s, t));
+            }
+        }
+
+        return distances;
+    }
+}
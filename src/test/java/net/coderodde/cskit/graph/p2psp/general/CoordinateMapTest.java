@@ -0,0 +1,262 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.Arrays;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>CoordinateMap</code> and the batch evaluation of
+ * the metrics.
+ *
+ * @author Rodion Efremov
+ */
+public class CoordinateMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        DirectedGraphNode[] nodes = getNodes(100);
+        CoordinateMap map = new CoordinateMap(3, 4);
+
+        for (int i = 50; i < 100; ++i) {
+            map.put(nodes[i], new double[]{ i, -i, 2 * i });
+        }
+
+        for (int i = 49; i >= 0; i -= 2) {
+            map.put(nodes[i], new double[]{ i, -i, 2 * i });
+        }
+
+        assertEquals(75, map.size());
+
+        for (int i = 0; i < 100; ++i) {
+            if (i < 50 && i % 2 == 0) {
+                assertNull(map.get(nodes[i]));
+                assertEquals(-1, map.indexOf(nodes[i]));
+            } else {
+                assertArrayEquals(new double[]{ i, -i, 2 * i },
+                                  map.get(nodes[i]),
+                                  0.0);
+                assertEquals(-i, map.getAxis(1)[map.indexOf(nodes[i])], 0.0);
+            }
+        }
+
+        map.put(nodes[7], new double[]{ 1, 2, 3 });
+        map.get(nodes[7])[0] = 100.0;
+
+        assertEquals(75, map.size());
+        assertArrayEquals(new double[]{ 1, 2, 3 }, map.get(nodes[7]), 0.0);
+        assertNull(map.get(new DirectedGraphNode("other")));
+    }
+
+    @Test
+    public void testKeysByName() {
+        CoordinateMap map = new CoordinateMap(2, 1);
+
+        map.put(new DirectedGraphNode("a"), new double[]{ 1.0, 2.0 });
+        map.put(new DirectedGraphNode("b"), new double[]{ 3.0, 4.0 });
+        map.put(new DirectedGraphNode("a"), new double[]{ 5.0, 6.0 });
+
+        DirectedGraphNode a = new DirectedGraphNode("a");
+
+        assertEquals(2, map.size());
+        assertArrayEquals(new double[]{ 5.0, 6.0 }, map.get(a), 0.0);
+        assertEquals(6.0, map.get(a, 1), 0.0);
+        assertEquals(3.0, map.get(new DirectedGraphNode("b"), 0), 0.0);
+        assertTrue(Double.isNaN(map.get(new DirectedGraphNode("c"), 0)));
+    }
+
+    @Test
+    public void testNoDimensions() {
+        DirectedGraphNode[] nodes = getNodes(3);
+        CoordinateMap map = new CoordinateMap(0);
+
+        for (DirectedGraphNode node : nodes) {
+            map.put(node, new double[0]);
+            map.put(node, new double[0]);
+        }
+
+        assertEquals(3, map.size());
+
+        for (DirectedGraphNode node : nodes) {
+            assertEquals(0, map.get(node).length);
+            assertTrue(map.indexOf(node) >= 0);
+        }
+
+        assertNull(map.get(new DirectedGraphNode("other")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutThrowsOnWrongDimensions() {
+        new CoordinateMap(2).put(new DirectedGraphNode("a"), new double[3]);
+    }
+
+    @Test
+    public void testBoundMapUsesSnapshotIds() {
+        DirectedGraphNode[] nodes = getNodes(4);
+        CompactDirectedGraph graph = getGraph(nodes);
+        CoordinateMap map = new CoordinateMap(2, graph);
+
+        map.put(new DirectedGraphNode("2"), new double[]{ 1.0, 2.0 });
+        map.put(0, new double[]{ 3.0, 4.0 });
+        map.put(nodes[2], new double[]{ 5.0, 6.0 });
+
+        assertSame(graph, map.getGraph());
+        assertEquals(2, map.size());
+        assertEquals(5.0, map.get(2, 0), 0.0);
+        assertEquals(6.0, map.getAxis(1)[2], 0.0);
+        assertEquals(4.0, map.get(nodes[0], 1), 0.0);
+        assertEquals(2, map.indexOf(nodes[2]));
+        assertEquals(-1, map.indexOf(nodes[1]));
+        assertNull(map.get(nodes[3]));
+        assertTrue(Double.isNaN(map.get(1, 0)));
+        assertNull(new CoordinateMap(2).getGraph());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundPutThrowsOnForeignNode() {
+        CoordinateMap map = new CoordinateMap(2, getGraph(getNodes(2)));
+        map.put(new DirectedGraphNode("other"), new double[2]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPutByIdThrowsOnUnboundMap() {
+        new CoordinateMap(2).put(0, new double[2]);
+    }
+
+    @Test
+    public void testBatchOverSnapshot() {
+        DirectedGraphNode[] nodes = getNodes(5);
+        CompactDirectedGraph graph = getGraph(nodes);
+        CoordinateMap map = getMap(graph, new double[][]{
+            { 0, 0 }, { 3, 4 }, { -1, -1 }, { 0, 0 }, { 6, -8 }
+        });
+
+        checkBatch(new EuclidianMetric(map, nodes[0]), graph,
+                   new double[]{ 0, 5, Math.sqrt(2.0), 0, 10 });
+        checkBatch(new ManhattanMetric(map, nodes[0]), graph,
+                   new double[]{ 0, 7, 2, 0, 14 });
+        checkBatch(new ChebyshevMetric<Double>(map, nodes[0]), graph,
+                   new double[]{ Double.MIN_VALUE, 4, 1,
+                                 Double.MIN_VALUE, 8 });
+    }
+
+    @Test
+    public void testBatchInThreeDimensions() {
+        DirectedGraphNode[] nodes = getNodes(3);
+        CompactDirectedGraph graph = getGraph(nodes);
+        CoordinateMap map = getMap(graph, new double[][]{
+            { 1, 1, 1 }, { 3, 4, 7 }, { 1, -1, 1 }
+        });
+
+        checkBatch(new EuclidianMetric(map, nodes[0]), graph,
+                   new double[]{ 0, 7, 2 });
+        checkBatch(new ManhattanMetric(map, nodes[0]), graph,
+                   new double[]{ 0, 11, 2 });
+        checkBatch(new ChebyshevMetric<Double>(map, nodes[0]), graph,
+                   new double[]{ Double.MIN_VALUE, 6, 2 });
+    }
+
+    @Test
+    public void testOtherSnapshotResolvesByName() {
+        DirectedGraphNode[] nodes = getNodes(3);
+        CoordinateMap map = getMap(getGraph(nodes), new double[][]{
+            { 0, 0 }, { 0, 2 }, { 5, 0 }
+        });
+        DirectedGraphNode[] reversed = { nodes[2], nodes[1], nodes[0] };
+        CompactDirectedGraph other = getGraph(reversed);
+        HeuristicFunction h = new ManhattanMetric(map, nodes[0]);
+        double[] out = new double[3];
+
+        h.setTarget(other, 2);
+        h.get(other, new int[]{ 0, 1, 2 }, 3, out);
+
+        assertArrayEquals(new double[]{ 5, 2, 0 }, out, 0.0);
+        assertEquals(2.0, h.get(other, 1), 0.0);
+    }
+
+    @Test
+    public void testFallsBackToGet() {
+        final DirectedGraphNode[] nodes = getNodes(10);
+        CoordinateMap map = new CoordinateMap(2, 0) {
+
+            @Override
+            public double[] get(DirectedGraphNode node) {
+                return new double[]{ node.getId() - nodes[0].getId(), 0.0 };
+            }
+        };
+
+        HeuristicFunction h = new ManhattanMetric(map, nodes[0]);
+        CompactDirectedGraph graph = getGraph(nodes);
+        int[] ids = new int[nodes.length];
+        double[] out = new double[nodes.length];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            ids[i] = i;
+        }
+
+        h.setTarget(graph, 0);
+        h.get(graph, ids, ids.length, out);
+
+        for (int i = 0; i < nodes.length; ++i) {
+            assertEquals(i, h.get(nodes[i]), 0.0);
+            assertEquals(i, out[i], 0.0);
+            assertEquals(i, map.get(nodes[i], 0), 0.0);
+        }
+    }
+
+    /**
+     * Checks that the batch and the single estimates over
+     * <code>graph</code> from every node to the node with id 0 equal
+     * <code>expected</code>, and that the batch writes nothing past its
+     * size.
+     */
+    private static void checkBatch(HeuristicFunction h,
+                                   CompactDirectedGraph graph,
+                                   double[] expected) {
+        int[] ids = new int[expected.length];
+        double[] out = new double[expected.length + 1];
+
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = ids.length - 1 - i;
+        }
+
+        out[expected.length] = -1.0;
+        h.setTarget(graph, 0);
+        h.get(graph, ids, ids.length, out);
+
+        for (int i = 0; i < ids.length; ++i) {
+            assertEquals(expected[ids[i]], out[i], 1e-12);
+            assertEquals(expected[ids[i]], h.get(graph, ids[i]), 1e-12);
+        }
+
+        assertEquals(-1.0, out[expected.length], 0.0);
+    }
+
+    private static CoordinateMap getMap(CompactDirectedGraph graph,
+                                        double[][] points) {
+        CoordinateMap map = new CoordinateMap(points[0].length, graph);
+
+        for (int i = 0; i < points.length; ++i) {
+            map.put(i, points[i]);
+        }
+
+        return map;
+    }
+
+    private static CompactDirectedGraph getGraph(DirectedGraphNode[] nodes) {
+        return new CompactDirectedGraph(Arrays.asList(nodes),
+                                        new DirectedGraphWeightFunction());
+    }
+
+    private static DirectedGraphNode[] getNodes(int size) {
+        DirectedGraphNode[] nodes = new DirectedGraphNode[size];
+
+        for (int i = 0; i < size; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,166 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>DeltaStepping</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class DeltaSteppingTest {
+
+    private static final int NO = CompactDirectedGraph.NO_NODE;
+    private static final double INF = Double.POSITIVE_INFINITY;
+    @Test
+    public void testKnownTree() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = graph(nodes, w);
+        DeltaStepping[] engines = {
+            new DeltaStepping(1),
+            new DeltaStepping(4),
+            new DeltaStepping(3, 0.25),
+            new DeltaStepping(2, 1.0),
+            new DeltaStepping(2, 3.0),
+            new DeltaStepping(2, 1000.0)
+        };
+        double[] distances = { 0.0, 3.0, 1.0, 2.0, 3.0, 3.5, 5.5, 15.5, INF };
+        int[] parents = { NO, 3, 0, 2, 1, 4, 5, 6, NO };
+        double[] fromLast = { 1.0, 4.0, 2.0, 3.0, 4.0, 4.5, 6.5, 16.5, 0.0 };
+
+        for (DeltaStepping engine : engines) {
+            ShortestPathTree tree = engine.compute(g, 0);
+
+            assertEquals(0, tree.getRoot());
+            assertArrayEquals(distances, tree.getDistances(), 0.0);
+            assertArrayEquals(parents, tree.getParents());
+            assertArrayEquals(new int[]{ 0, 2, 3, 1, 4, 5, 6, 7 },
+                              tree.getPath(7));
+            assertArrayEquals(new int[]{ 0 }, tree.getPath(0));
+            assertFalse(tree.isReachable(8));
+            assertEquals(0, tree.getPath(8).length);
+
+            tree = engine.compute(g, 8);
+
+            assertArrayEquals(fromLast, tree.getDistances(), 0.0);
+            assertEquals(8, tree.getParent(0));
+            assertEquals(NO, tree.getParent(8));
+        }
+    }
+
+    @Test
+    public void testNodeList() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        graph(nodes, w);
+
+        ShortestPathTree tree =
+                new DeltaStepping(2).compute(nodes, w, nodes.get(0));
+        List<DirectedGraphNode> path = tree.getPath(nodes.get(7));
+
+        assertEquals(8, path.size());
+        assertTrue(isConnectedPath(path));
+        assertTrue(path.get(0) == nodes.get(0));
+        assertTrue(path.get(7) == nodes.get(7));
+        assertEquals(15.5, getPathCost(path, w), 0.0);
+        assertTrue(tree.getPath(nodes.get(8)).isEmpty());
+    }
+
+    @Test(timeout = 20000)
+    public void testExtremeDeltas() {
+        // A chain with heavy arcs, a shortcut, an arc of infinite weight and
+        // an unreachable node.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        int n = 50;
+
+        for (int i = 0; i <= n; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int i = 0; i + 2 < n; ++i) {
+            connect(nodes, w, i, i + 1, 1e9 + i);
+        }
+
+        connect(nodes, w, 0, n - 2, 1e6);
+        connect(nodes, w, n - 2, n - 1, Double.POSITIVE_INFINITY);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        int source = g.getId(nodes.get(0));
+        double[] expected = new double[g.size()];
+
+        for (int t = 0; t < g.size(); ++t) {
+            int[] path = new DijkstraFinder(null).find(g, source, t);
+            expected[t] = path.length == 0 ? Double.POSITIVE_INFINITY
+                                           : g.getPathCost(path);
+        }
+
+        double[] deltas = { Double.MIN_VALUE, 1e-300, 1e-3, 1e300,
+                            Double.MAX_VALUE };
+
+        for (double delta : deltas) {
+            for (int threads = 1; threads <= 2; ++threads) {
+                ShortestPathTree tree =
+                        new DeltaStepping(threads, delta).compute(g, source);
+
+                assertArrayEquals(expected, tree.getDistances(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testThrowsOnBadDelta() {
+        double[] deltas = { 0.0, -1.0, Double.NaN, Double.POSITIVE_INFINITY };
+
+        for (double delta : deltas) {
+            try {
+                new DeltaStepping(1, delta);
+                fail("Accepted the bucket width " + delta + ".");
+            } catch (IllegalArgumentException e) {
+            }
+        }
+    }
+
+    /**
+     * Adds to <code>nodes</code> and <code>w</code> a graph of nine nodes
+     * and returns its snapshot. From node 0, node 1 is reached through
+     * nodes 2 and 3 cheaper than by its own arc, and node 5 through a
+     * zero arc cheaper than by its own arc, so both get improved. The nodes
+     * 2 to 6 form a cycle, and no node leads to node 8.
+     */
+    private static CompactDirectedGraph graph(List<DirectedGraphNode> nodes,
+                                              DirectedGraphWeightFunction w) {
+        double[][] arcs = { { 0, 1, 5 }, { 0, 2, 1 }, { 2, 3, 1 },
+                            { 3, 1, 1 }, { 1, 4, 0 }, { 4, 5, 0.5 },
+                            { 0, 5, 4 }, { 5, 6, 2 }, { 6, 2, 1 },
+                            { 3, 6, 7 }, { 6, 7, 10 }, { 8, 0, 1 } };
+
+        for (int i = 0; i < 9; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (double[] arc : arcs) {
+            connect(nodes, w, (int) arc[0], (int) arc[1], arc[2]);
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static void connect(List<DirectedGraphNode> nodes,
+                                DirectedGraphWeightFunction w,
+                                int u,
+                                int v,
+                                double weight) {
+        nodes.get(u).addChild(nodes.get(v));
+        w.put(nodes.get(u), nodes.get(v), weight);
+    }
+}
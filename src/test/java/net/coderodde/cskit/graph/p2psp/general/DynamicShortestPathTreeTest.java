@@ -0,0 +1,235 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>DynamicShortestPathTree</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class DynamicShortestPathTreeTest {
+
+    @Test
+    public void testRepairsAgreeWithRecomputation() {
+        // A 3 by 3 grid with the arcs to the right weighing 1 and the arcs
+        // downwards weighing 2; node 3 * row + column.
+        List<DirectedGraphNode> graph = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 9; ++i) {
+            graph.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int i = 0; i < 9; ++i) {
+            if (i % 3 < 2) {
+                graph.get(i).addChild(graph.get(i + 1));
+                w.put(graph.get(i), graph.get(i + 1), 1.0);
+            }
+
+            if (i < 6) {
+                graph.get(i).addChild(graph.get(i + 3));
+                w.put(graph.get(i), graph.get(i + 3), 2.0);
+            }
+        }
+
+        DirectedGraphNode corner = graph.get(8);
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(
+                graph.get(0),
+                w,
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertEquals(9, tree.getLastTouched());
+        assertEquals(6.0, tree.getDistance(corner), 0.0);
+        check(tree, graph, w);
+
+        // An increase and a decrease in one batch move the whole grid
+        // from the first row to the first column.
+        tree.setWeight(graph.get(0), graph.get(1), 10.0);
+        tree.setWeight(graph.get(0), graph.get(3), 0.5);
+        repair(tree, graph, w, 4.5);
+
+        // A shortcut into the middle.
+        tree.insertArc(graph.get(0), graph.get(4), 0.25);
+        repair(tree, graph, w, 3.25);
+
+        // Removing and inserting the same arc in one batch changes
+        // nothing, and a tie keeps the corner at its distance.
+        tree.removeArc(graph.get(0), graph.get(4));
+        tree.insertArc(graph.get(0), graph.get(4), 0.25);
+        tree.setWeight(graph.get(4), graph.get(5), 5.0);
+        repair(tree, graph, w, 3.25);
+
+        assertEquals(5.25, tree.getDistance(graph.get(5)), 0.0);
+
+        // Cut the first column and the shortcut off; the bottom left
+        // nodes become unreachable.
+        tree.removeArc(graph.get(0), graph.get(4));
+        tree.removeArc(graph.get(0), graph.get(3));
+        repair(tree, graph, w, 15.0);
+
+        assertFalse(tree.isReachable(graph.get(3)));
+        assertFalse(tree.isReachable(graph.get(6)));
+
+        tree.setWeight(graph.get(0), graph.get(1), 1.0);
+        repair(tree, graph, w, 6.0);
+    }
+
+    @Test
+    public void testTouchesOnlyAffectedNodes() {
+        DirectedGraphNode[] nodes = new DirectedGraphNode[5];
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+
+        // A chain 0 -> 1 -> 2 -> 3 -> 4 plus a long arc 0 -> 3.
+        for (int i = 0; i < nodes.length - 1; ++i) {
+            nodes[i].addChild(nodes[i + 1]);
+            w.put(nodes[i], nodes[i + 1], 1.0);
+        }
+
+        nodes[0].addChild(nodes[3]);
+        w.put(nodes[0], nodes[3], 10.0);
+
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(
+                nodes[0],
+                w,
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertEquals(3.0, tree.getDistance(nodes[3]), 0.0);
+
+        // Not a tree arc: nothing to repair.
+        tree.setWeight(nodes[0], nodes[3], 20.0);
+
+        assertEquals(0, tree.repair());
+
+        tree.setWeight(nodes[2], nodes[3], 5.0);
+
+        assertEquals(2, tree.repair());
+        assertEquals(7.0, tree.getDistance(nodes[3]), 0.0);
+        assertEquals(nodes[2], tree.getParent(nodes[3]));
+
+        tree.removeArc(nodes[2], nodes[3]);
+
+        assertEquals(20.0, tree.getDistance(nodes[3]), 0.0);
+        assertEquals(nodes[0], tree.getParent(nodes[3]));
+        assertEquals(2, tree.getLastTouched());
+
+        tree.removeArc(nodes[0], nodes[3]);
+
+        assertFalse(tree.isReachable(nodes[4]));
+        assertTrue(tree.getPath(nodes[4]).isEmpty());
+
+        tree.insertArc(nodes[1], nodes[4], 0.5);
+
+        assertEquals(1.5, tree.getDistance(nodes[4]), 0.0);
+        assertEquals(1, tree.getLastTouched());
+        assertEquals(3, tree.getPath(nodes[4]).size());
+    }
+
+    @Test
+    public void testZeroWeightCyclesAndArcsIntoSource() {
+        DirectedGraphNode s = new DirectedGraphNode("s");
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        // s -> a, and a and b on a cycle of zero weight.
+        s.addChild(a);
+        a.addChild(b);
+        b.addChild(a);
+        w.put(s, a, 1.0);
+        w.put(a, b, 0.0);
+        w.put(b, a, 0.0);
+
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(
+                s,
+                w,
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertEquals(1.0, tree.getDistance(b), 0.0);
+        assertEquals(1, tree.getPath(s).size());
+
+        // Arcs into the source, including a loop, never move it.
+        tree.insertArc(b, s, 0.0);
+        tree.insertArc(s, s, 0.0);
+
+        assertEquals(0.0, tree.getDistance(s), 0.0);
+        assertNull(tree.getParent(s));
+
+        tree.removeArc(b, s);
+
+        // a and b must not keep each other reachable through the cycle.
+        tree.removeArc(s, a);
+
+        assertFalse(tree.isReachable(a));
+        assertFalse(tree.isReachable(b));
+        assertEquals(0.0, tree.getDistance(s), 0.0);
+
+        tree.insertArc(s, b, 0.0);
+
+        assertEquals(0.0, tree.getDistance(a), 0.0);
+        assertEquals(3, tree.getPath(a).size());
+        check(tree, Arrays.asList(s, a, b), w);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNegativeWeight() {
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        DirectedGraphNode v = new DirectedGraphNode("v");
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(
+                u,
+                new DirectedGraphWeightFunction(),
+                new BinaryHeap<DirectedGraphNode, Double>());
+
+        tree.insertArc(u, v, -1.0);
+    }
+
+    private static void repair(DynamicShortestPathTree tree,
+                               List<DirectedGraphNode> graph,
+                               DirectedGraphWeightFunction w,
+                               double corner) {
+        int touched = tree.repair();
+
+        assertTrue(touched <= graph.size());
+        assertEquals(touched, tree.getLastTouched());
+        assertEquals(corner,
+                     tree.getDistance(graph.get(graph.size() - 1)),
+                     0.0);
+        check(tree, graph, w);
+    }
+
+    private static void check(DynamicShortestPathTree tree,
+                              List<DirectedGraphNode> graph,
+                              DirectedGraphWeightFunction w) {
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+
+        for (DirectedGraphNode node : graph) {
+            List<DirectedGraphNode> path =
+                    finder.find(tree.getSource(), node, w);
+
+            assertEquals(path.isEmpty(), tree.isReachable(node) == false);
+
+            if (path.isEmpty() == false) {
+                List<DirectedGraphNode> treePath = tree.getPath(node);
+
+                assertEquals(getPathCost(path, w),
+                             tree.getDistance(node),
+                             0.0001);
+                assertEquals(tree.getDistance(node),
+                             getPathCost(treePath, w),
+                             0.0001);
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import net.coderodde.cskit.graph.GraphMask;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>KShortestPathFinder</code> and the masked searches.
+ *
+ * @author Rodion Efremov
+ */
+public class KShortestPathFinderTest {
+
+    @Test
+    public void testAgreesWithEnumeration() {
+        CompactDirectedGraph g = graph(new DirectedGraphWeightFunction());
+        int arcs = g.arcCount();
+        KShortestPathFinder[] finders = {
+            new KShortestPathFinder(new DijkstraFinder(null), 1),
+            new KShortestPathFinder(new DijkstraFinder(null), 3)
+        };
+
+        for (KShortestPathFinder finder : finders) {
+            List<int[]> paths = finder.find(g, 0, 5, 3);
+
+            // Two ways tie at cost 5: through all nodes and skipping 1.
+            assertEquals(5.0, g.getPathCost(paths.get(0)), 0.0);
+            assertEquals(5.0, g.getPathCost(paths.get(1)), 0.0);
+            assertEquals(6.0, g.getPathCost(paths.get(2)), 0.0);
+        }
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                if (s == t) {
+                    continue;
+                }
+
+                List<Double> costs = new ArrayList<Double>();
+                enumerate(g, t, new ArrayList<Integer>(Arrays.asList(s)),
+                          0.0, new boolean[g.size()], costs);
+                Collections.sort(costs);
+
+                for (KShortestPathFinder finder : finders) {
+                    List<int[]> paths = finder.find(g, s, t, 100);
+                    Set<List<Integer>> distinct =
+                            new HashSet<List<Integer>>();
+
+                    assertEquals(costs.size(), paths.size());
+
+                    for (int i = 0; i < paths.size(); ++i) {
+                        int[] path = paths.get(i);
+                        List<Integer> list = new ArrayList<Integer>();
+                        Set<Integer> nodes = new HashSet<Integer>();
+
+                        for (int u : path) {
+                            list.add(u);
+                            nodes.add(u);
+                        }
+
+                        assertEquals(s, path[0]);
+                        assertEquals(t, path[path.length - 1]);
+                        assertEquals(path.length, nodes.size());
+                        assertTrue(distinct.add(list));
+                        assertEquals(costs.get(i), g.getPathCost(path), 0.0);
+                    }
+                }
+            }
+        }
+
+        assertEquals(arcs, g.arcCount());
+    }
+
+    @Test
+    public void testNodePaths() {
+        CompactDirectedGraph g = graph(new DirectedGraphWeightFunction());
+        KShortestPathFinder finder = new KShortestPathFinder(
+                new DijkstraFinder(null), 2);
+        List<int[]> ids = finder.find(g, 0, 5, 5);
+        List<List<DirectedGraphNode>> nodes =
+                finder.find(g, g.getNode(0), g.getNode(5), 5);
+
+        assertEquals(5, ids.size());
+        assertEquals(ids.size(), nodes.size());
+
+        for (int i = 0; i < ids.size(); ++i) {
+            assertEquals(g.toNodeList(ids.get(i)), nodes.get(i));
+        }
+
+        assertEquals(0, finder.find(g, 0, 5, 0).size());
+    }
+
+    @Test
+    public void testMaskedSearch() {
+        CompactDirectedGraph g = graph(new DirectedGraphWeightFunction());
+        DijkstraFinder dijkstra = new DijkstraFinder(null);
+        GraphMask mask = GraphMask.reuse(null, g);
+
+        mask.blockNode(3);
+
+        int[] detour = dijkstra.find(g, 0, 5, mask);
+
+        for (int u : detour) {
+            assertTrue(u != 3);
+        }
+
+        assertEquals(7.0, g.getPathCost(detour), 0.0);
+
+        mask.blockArcs(g, 4, 5);
+
+        assertEquals(0, dijkstra.find(g, 0, 5, mask).length);
+
+        mask.clear();
+
+        assertFalse(mask.isNodeBlocked(3));
+        assertEquals(5.0, g.getPathCost(dijkstra.find(g, 0, 5, mask)), 0.0);
+    }
+
+    @Test
+    public void testSourceIsTargetAndUnreachableTarget() {
+        // 0 -> 1 -> 2 and 0 -> 2; the node 3 is not reachable.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 4; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        int[][] arcs = { { 0, 1, 1 }, { 1, 2, 1 }, { 0, 2, 3 }, { 3, 0, 1 } };
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        KShortestPathFinder finder = new KShortestPathFinder(
+                new DijkstraFinder(null), 2);
+        int s = g.getId(nodes.get(0));
+        int t = g.getId(nodes.get(2));
+        List<int[]> loop = finder.find(g, s, s, 3);
+
+        assertEquals(1, loop.size());
+        assertArrayEquals(new int[]{ s }, loop.get(0));
+        assertEquals(0, finder.find(g, s, g.getId(nodes.get(3)), 3).size());
+
+        List<int[]> paths = finder.find(g, s, t, 5);
+
+        assertEquals(2, paths.size());
+        assertEquals(2.0, g.getPathCost(paths.get(0)), 0.0);
+        assertEquals(3.0, g.getPathCost(paths.get(1)), 0.0);
+
+        finder.shutdown();
+    }
+
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        final CompactDirectedGraph g =
+                graph(new DirectedGraphWeightFunction());
+        final int queries = g.size() * g.size();
+        final int[] sources = new int[queries];
+        final int[] targets = new int[queries];
+        final double[][] expected = new double[queries][];
+        KShortestPathFinder serial = new KShortestPathFinder(
+                new DijkstraFinder(null), 1);
+
+        for (int i = 0; i < queries; ++i) {
+            sources[i] = i / g.size();
+            targets[i] = i % g.size();
+            expected[i] = costs(g, serial.find(g, sources[i], targets[i], 6));
+        }
+
+        // One finder with one pool of threads, shared by all callers.
+        final KShortestPathFinder finder = new KShortestPathFinder(
+                new AStarFinder(null, new LandmarkHeuristic(
+                    new Landmarks(g, new int[]{ 0, 5 }, 1))), 3);
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] callers = new Thread[4];
+
+        for (int c = 0; c < callers.length; ++c) {
+            callers[c] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int round = 0; round < 3; ++round) {
+                        for (int i = 0; i < queries; ++i) {
+                            double[] actual = costs(
+                                    g,
+                                    finder.find(g, sources[i], targets[i], 6));
+
+                            if (Arrays.equals(expected[i], actual) == false) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+            callers[c].start();
+        }
+
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        finder.shutdown();
+        assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    public void testLeavesCallerExecutorRunning() {
+        CompactDirectedGraph g = graph(new DirectedGraphWeightFunction());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        KShortestPathFinder finder = new KShortestPathFinder(
+                new DijkstraFinder(null), 2, executor);
+        KShortestPathFinder serial = new KShortestPathFinder(
+                new DijkstraFinder(null), 1);
+
+        try {
+            for (int i = 0; i < g.size(); ++i) {
+                int t = g.size() - 1 - i;
+
+                assertArrayEquals(costs(g, serial.find(g, i, t, 4)),
+                                  costs(g, finder.find(g, i, t, 4)),
+                                  0.0);
+            }
+
+            finder.shutdown();
+
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNoThreads() {
+        new KShortestPathFinder(new DijkstraFinder(null), 0);
+    }
+
+    private static double[] costs(CompactDirectedGraph g, List<int[]> paths) {
+        double[] costs = new double[paths.size()];
+
+        for (int i = 0; i < costs.length; ++i) {
+            costs[i] = g.getPathCost(paths.get(i));
+        }
+
+        return costs;
+    }
+
+    private static void enumerate(CompactDirectedGraph g,
+                                  int target,
+                                  List<Integer> path,
+                                  double cost,
+                                  boolean[] visited,
+                                  List<Double> costs) {
+        int u = path.get(path.size() - 1);
+
+        if (u == target) {
+            costs.add(cost);
+            return;
+        }
+
+        visited[u] = true;
+
+        for (int a = g.outBegin(u); a < g.outEnd(u); ++a) {
+            int v = g.getTarget(a);
+
+            if (visited[v] == false) {
+                path.add(v);
+                enumerate(g, target, path, cost + g.getWeight(a), visited,
+                          costs);
+                path.remove(path.size() - 1);
+            }
+        }
+
+        visited[u] = false;
+    }
+
+    /**
+     * Returns a snapshot of six nodes in which node 0 reaches node 5 in
+     * many loopless ways, along with the cycles 1 -> 3 -> 1 and back from
+     * node 5 to node 0.
+     */
+    private static CompactDirectedGraph graph(DirectedGraphWeightFunction w) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        int[][] arcs = { { 0, 1, 1 }, { 0, 2, 2 }, { 1, 2, 1 }, { 1, 3, 3 },
+                         { 2, 3, 1 }, { 2, 4, 4 }, { 3, 4, 1 }, { 3, 5, 4 },
+                         { 4, 5, 1 }, { 3, 1, 1 }, { 5, 0, 1 } };
+
+        for (int i = 0; i < 6; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+}
@@ -0,0 +1,286 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>Landmarks</code> and <code>LandmarkHeuristic</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class LandmarkHeuristicTest {
+
+    @Test
+    public void testBoundsAreAdmissible() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        grid("", 5, nodes, w, null);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        double[][] d = getDistances(g);
+
+        // The selection must not depend on the random first landmark.
+        for (int start = 0; start < g.size(); start += 6) {
+            Landmarks[] all = { Landmarks.farthest(g, 4, 3, at(start)),
+                                Landmarks.avoid(g, 4, 3, at(start)) };
+
+            for (Landmarks landmarks : all) {
+                assertEquals(4, landmarks.size());
+
+                LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+                LandmarkHeuristic hb =
+                        new LandmarkHeuristic(landmarks, null, true);
+
+                for (int i = 0; i < 4; ++i) {
+                    int l = landmarks.getLandmark(i);
+
+                    for (int j = 0; j < i; ++j) {
+                        assertTrue(l != landmarks.getLandmark(j));
+                    }
+
+                    assertEquals(0.0, landmarks.getDistanceFrom(i, l), 0.0);
+                    assertEquals(0.0, landmarks.getDistanceTo(i, l), 0.0);
+                }
+
+                for (int t = 0; t < g.size(); ++t) {
+                    h.setTarget(g.getNode(t));
+                    hb.setTarget(g.getNode(t));
+
+                    for (int s = 0; s < g.size(); ++s) {
+                        assertTrue(h.get(g.getNode(s)) <= d[s][t] + 1e-9);
+                        assertTrue(hb.get(g.getNode(s)) <= d[t][s] + 1e-9);
+                    }
+                }
+
+                // Towards a landmark the bound is exact.
+                h.setTarget(g.getNode(landmarks.getLandmark(0)));
+
+                for (int s = 0; s < g.size(); ++s) {
+                    assertEquals(d[s][landmarks.getLandmark(0)],
+                                 h.get(g.getNode(s)),
+                                 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFarthestCoversEachComponent() {
+        // Two grids not connected to each other.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        grid("a", 3, nodes, w, null);
+        grid("b", 3, nodes, w, null);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+
+        for (int start = 0; start < g.size(); ++start) {
+            Landmarks landmarks = Landmarks.farthest(g, 2, 2, at(start));
+
+            assertEquals(start, landmarks.getLandmark(0));
+            assertTrue(landmarks.getLandmark(0) < 9
+                       != landmarks.getLandmark(1) < 9);
+        }
+    }
+
+    @Test
+    public void testFindersUseLandmarks() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+
+        grid("", 5, nodes, w, map);
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        double[][] d = getDistances(g);
+        Landmarks landmarks = Landmarks.avoid(g, 3, 2, at(12));
+        LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+        LandmarkHeuristic hb = new LandmarkHeuristic(landmarks, null, true);
+        LandmarkHeuristic hw = new LandmarkHeuristic(landmarks, map, false);
+        LandmarkHeuristic hwb = new LandmarkHeuristic(landmarks, map, true);
+        AStarFinder astar = new AStarFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), h);
+        BHPAFinder bhpa = new BHPAFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), h, hb);
+        WhangboFinder whangbo = new WhangboFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), hw, hwb);
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                DirectedGraphNode source = g.getNode(s);
+                DirectedGraphNode target = g.getNode(t);
+
+                assertEquals(d[s][t],
+                             getPathCost(astar.find(source, target, w), w),
+                             1e-9);
+                assertEquals(d[s][t],
+                             g.getPathCost(astar.find(g, s, t)),
+                             1e-9);
+
+                if (s == t) {
+                    continue;
+                }
+
+                assertEquals(d[s][t],
+                             getPathCost(bhpa.find(source, target, w), w),
+                             1e-9);
+
+                List<DirectedGraphNode> path =
+                        whangbo.find(source, target, w);
+
+                assertTrue(isConnectedPath(path));
+                assertTrue(path.get(0) == source);
+                assertTrue(path.get(path.size() - 1) == target);
+            }
+        }
+    }
+
+    @Test
+    public void testBoundsOnGraphNotStronglyConnected() {
+        // The landmark 0 and the nodes 1 and 3 are strongly connected; the
+        // nodes 2, 4 and 5 are reachable from them but do not reach back,
+        // and the node 6 is not reachable from the landmark.
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        for (int i = 0; i < 7; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        int[][] arcs = { { 0, 1, 1 }, { 1, 0, 1 }, { 1, 3, 1 }, { 3, 0, 1 },
+                         { 3, 4, 1 }, { 1, 2, 1 }, { 2, 4, 5 }, { 4, 5, 1 },
+                         { 6, 4, 1 } };
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        CompactDirectedGraph g = new CompactDirectedGraph(nodes, w);
+        Landmarks landmarks = new Landmarks(g, new int[]{ 0 }, 1);
+        LandmarkHeuristic h = new LandmarkHeuristic(landmarks);
+        AStarFinder astar = new AStarFinder(
+                new BinaryHeap<DirectedGraphNode, Double>(), h);
+        DijkstraFinder dijkstra =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+
+        // Both distances of node 2 to the target 5 are infinite on one side.
+        assertEquals(2.0, landmarks.getBound(0, 2, 5), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY,
+                     landmarks.getBound(0, 6, 5),
+                     0.0);
+
+        for (int t = 0; t < g.size(); ++t) {
+            h.setTarget(g.getNode(t));
+
+            for (int u = 0; u < g.size(); ++u) {
+                for (int a = g.outBegin(u); a < g.outEnd(u); ++a) {
+                    int v = g.getTarget(a);
+
+                    if (dijkstra.find(g, v, t).length > 0) {
+                        // Consistent on every arc that may lead to t.
+                        assertTrue(h.get(g.getNode(u))
+                                   <= g.getWeight(a)
+                                      + h.get(g.getNode(v)) + 1e-9);
+                    }
+                }
+            }
+
+            for (int s = 0; s < g.size(); ++s) {
+                int[] path = dijkstra.find(g, s, t);
+
+                assertEquals(path.length > 0,
+                             astar.find(g, s, t).length > 0);
+                assertEquals(g.getPathCost(path),
+                             g.getPathCost(astar.find(g, s, t)),
+                             0.0);
+            }
+        }
+    }
+
+    /**
+     * Adds a <code>width</code> by <code>width</code> grid of nodes named
+     * by <code>prefix</code> and their index. The arcs go both ways and
+     * weigh from 1 to 4, differently in each direction, so that the
+     * weights are never below the Euclidian distance of unit cells.
+     */
+    private static void grid(String prefix,
+                             int width,
+                             List<DirectedGraphNode> nodes,
+                             DirectedGraphWeightFunction w,
+                             CoordinateMap map) {
+        DirectedGraphNode[] cells = new DirectedGraphNode[width * width];
+
+        for (int i = 0; i < cells.length; ++i) {
+            cells[i] = new DirectedGraphNode(prefix + i);
+            nodes.add(cells[i]);
+
+            if (map != null) {
+                map.put(cells[i], new double[]{ i / width, i % width });
+            }
+        }
+
+        for (int x = 0; x < width; ++x) {
+            for (int y = 0; y < width; ++y) {
+                int u = x * width + y;
+
+                if (x + 1 < width) {
+                    connect(cells[u], cells[u + width], x + 2 * y, w);
+                }
+
+                if (y + 1 < width) {
+                    connect(cells[u], cells[u + 1], 3 * x + y, w);
+                }
+            }
+        }
+    }
+
+    private static void connect(DirectedGraphNode u,
+                                DirectedGraphNode v,
+                                int k,
+                                DirectedGraphWeightFunction w) {
+        u.addChild(v);
+        v.addChild(u);
+        w.put(u, v, 1 + k % 4);
+        w.put(v, u, 1 + (k + 1) % 3);
+    }
+
+    /**
+     * Returns a source of randomness picking <code>start</code>,
+     * <code>start + 1</code> and so on.
+     */
+    private static Random at(final int start) {
+        return new Random() {
+            private int next = start;
+
+            @Override
+            public int nextInt(int n) {
+                return next++ % n;
+            }
+        };
+    }
+
+    private static double[][] getDistances(CompactDirectedGraph g) {
+        DijkstraFinder dijkstra = new DijkstraFinder(null);
+        double[][] distances = new double[g.size()][g.size()];
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                distances[s][t] = g.getPathCost(dijkstra.find(g, s, t));
+            }
+        }
+
+        return distances;
+    }
+}
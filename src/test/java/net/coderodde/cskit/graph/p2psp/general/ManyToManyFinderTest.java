@@ -0,0 +1,234 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.cskit.Utilities.Pair;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the many-to-many finders.
+ *
+ * @author Rodion Efremov
+ */
+public class ManyToManyFinderTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    // The sources, the targets and the distances between them in the graph
+    // of graph(). The source 0 appears twice and the node 7 is both a
+    // source and a target, reached from no other node.
+    private static final int[] SOURCES = { 0, 5, 0, 7, 3 };
+    private static final int[] TARGETS = { 3, 7, 0, 2, 5 };
+    private static final double[][] DISTANCES = {
+        { 5.0, INF, 0.0, 3.0, 2.0 },
+        { 3.0, INF, 10.0, 1.0, 0.0 },
+        { 5.0, INF, 0.0, 3.0, 2.0 },
+        { 6.0, 0.0, 1.0, 4.0, 3.0 },
+        { 0.0, INF, 7.0, 10.0, 9.0 }
+    };
+
+    @Test
+    public void testKnownDistances() {
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                graph();
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        ContractionHierarchy ch = new ContractionHierarchy(g, 2);
+        ManyToManyFinder[] finders = {
+            new DijkstraManyToManyFinder(1),
+            new DijkstraManyToManyFinder(3),
+            new BucketManyToManyFinder(ch, 1),
+            new BucketManyToManyFinder(ch, 3)
+        };
+
+        for (ManyToManyFinder finder : finders) {
+            double[][] table = finder.find(g, SOURCES, TARGETS);
+
+            assertEquals(SOURCES.length, table.length);
+
+            for (int i = 0; i < SOURCES.length; ++i) {
+                assertArrayEquals(DISTANCES[i], table[i], 0.0);
+            }
+
+            assertEquals(0, finder.find(g, new int[0], TARGETS).length);
+            assertEquals(0, finder.find(g, SOURCES, new int[0])[0].length);
+        }
+    }
+
+    @Test
+    public void testNodeLists() {
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                graph();
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        // Another snapshot of the same nodes, so the ids are looked up by
+        // node.
+        CompactDirectedGraph other =
+                new CompactDirectedGraph(data.first, data.second);
+        ManyToManyFinder[] finders = {
+            new DijkstraManyToManyFinder(2),
+            new BucketManyToManyFinder(new ContractionHierarchy(g, 1), 2)
+        };
+        List<DirectedGraphNode> sources = new ArrayList<DirectedGraphNode>();
+        List<DirectedGraphNode> targets = new ArrayList<DirectedGraphNode>();
+
+        for (int u : SOURCES) {
+            sources.add(data.first.get(u));
+        }
+
+        for (int u : TARGETS) {
+            targets.add(data.first.get(u));
+        }
+
+        for (ManyToManyFinder finder : finders) {
+            double[][] table = finder.find(other, sources, targets);
+
+            for (int i = 0; i < SOURCES.length; ++i) {
+                assertArrayEquals(DISTANCES[i], table[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentTables() throws InterruptedException {
+        final Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                graph();
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        ContractionHierarchy ch = new ContractionHierarchy(g, 1);
+        ManyToManyFinder[] finders = {
+            new DijkstraManyToManyFinder(1),
+            new BucketManyToManyFinder(ch, 1)
+        };
+        final int[] sources = SOURCES;
+        final int[] targetsA = { 3, 2 };
+        int[] targetsB = TARGETS;
+        double[][] expectedA = { { 5.0, 3.0 },
+                                 { 3.0, 1.0 },
+                                 { 5.0, 3.0 },
+                                 { 6.0, 4.0 },
+                                 { 0.0, 10.0 } };
+        double[][] expectedB = DISTANCES;
+
+        for (final ManyToManyFinder finder : finders) {
+            final CountDownLatch paused = new CountDownLatch(1);
+            final CountDownLatch resume = new CountDownLatch(1);
+            final double[][][] tableA = new double[1][][];
+
+            // A snapshot pausing the first row of its table, after the
+            // table is prepared, until another table is computed.
+            final CompactDirectedGraph gated =
+                    new CompactDirectedGraph(data.first, data.second) {
+
+                private int nodeCalls;
+                private boolean held;
+
+                @Override
+                public DirectedGraphNode getNode(int id) {
+                    // The bucket finder translates each target once while
+                    // preparing, then the source of the row.
+                    if (++nodeCalls > targetsA.length) {
+                        hold();
+                    }
+
+                    return super.getNode(id);
+                }
+
+                @Override
+                public int outBegin(int u) {
+                    hold();
+                    return super.outBegin(u);
+                }
+
+                private void hold() {
+                    if (held) {
+                        return;
+                    }
+
+                    held = true;
+                    paused.countDown();
+
+                    try {
+                        resume.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+
+            Thread caller = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    tableA[0] = finder.find(gated, sources, targetsA);
+                }
+            });
+
+            caller.start();
+
+            assertTrue(paused.await(10, TimeUnit.SECONDS));
+            assertTrue(agree(expectedB, finder.find(g, sources, targetsB)));
+
+            resume.countDown();
+            caller.join();
+
+            assertTrue(agree(expectedA, tableA[0]));
+        }
+    }
+
+    private static boolean agree(double[][] expected, double[][] table) {
+        for (int i = 0; i < expected.length; ++i) {
+            for (int j = 0; j < expected[i].length; ++j) {
+                if (Math.abs(expected[i][j] - table[i][j]) > 0.001
+                        && expected[i][j] != table[i][j]) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnBadId() {
+        Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction> data =
+                graph();
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(data.first, data.second);
+        new DijkstraManyToManyFinder(1).find(g,
+                                             new int[]{ 0 },
+                                             new int[]{ 8 });
+    }
+
+    /**
+     * Returns a graph of eight nodes. From node 0, the way to node 2
+     * through nodes 4 and 5 is shorter than the one through node 1, and
+     * node 3 is reached at the same cost through nodes 2 and 6. Only node
+     * 3 leads back to node 0, and no node leads to node 7.
+     */
+    private static Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction>
+            graph() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        int[][] arcs = { { 0, 1, 2 }, { 1, 2, 2 }, { 2, 3, 2 }, { 0, 4, 1 },
+                         { 4, 5, 1 }, { 5, 2, 1 }, { 3, 0, 7 }, { 5, 6, 3 },
+                         { 6, 3, 0 }, { 7, 0, 1 } };
+
+        for (int i = 0; i < 8; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        return new Pair<List<DirectedGraphNode>, DirectedGraphWeightFunction>(
+                nodes, w);
+    }
+}
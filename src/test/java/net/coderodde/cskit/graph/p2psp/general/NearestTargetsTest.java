@@ -0,0 +1,187 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the one-to-many searches of <code>DijkstraFinder</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class NearestTargetsTest {
+
+    @Test
+    public void testToManyKnownCosts() {
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = graph(w);
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        int[] targets = { 3, 7, 1, 6, 2, 0 };
+        List<DirectedGraphNode> targetNodes =
+                new ArrayList<DirectedGraphNode>();
+
+        for (int target : targets) {
+            targetNodes.add(g.getNode(target));
+        }
+
+        NearestTargets ids = finder.findToMany(g, 0, targets);
+        NearestTargets nodes = finder.findToMany(g.getNode(0), targetNodes, w);
+        double[] costs = { 0.0, 2.0, 3.0, 5.0, 5.0 };
+
+        // Node 7 is unreachable; nodes 3 and 6 tie.
+        assertEquals(5, ids.size());
+        assertEquals(5, nodes.size());
+        assertEquals(0, ids.getTargetId(0));
+        assertEquals(1, ids.getTargetId(1));
+        assertEquals(2, ids.getTargetId(2));
+        assertEquals(9, ids.getTargetId(3) + ids.getTargetId(4));
+
+        for (int i = 0; i < ids.size(); ++i) {
+            int[] idPath = ids.getIdPath(i);
+            List<DirectedGraphNode> path = nodes.getPath(i);
+
+            assertEquals(costs[i], ids.getCost(i), 0.0);
+            assertEquals(costs[i], g.getPathCost(idPath), 0.0);
+            assertEquals(0, idPath[0]);
+            assertEquals(ids.getTargetId(i), idPath[idPath.length - 1]);
+            assertEquals(costs[i], nodes.getCost(i), 0.0);
+            assertEquals(costs[i], getPathCost(path, w), 0.0);
+            assertEquals(nodes.getTarget(i), path.get(path.size() - 1));
+        }
+
+        assertArrayEquals(new int[]{ 0, 4, 5, 2 }, ids.getIdPath(2));
+    }
+
+    @Test
+    public void testNearestK() {
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = graph(w);
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        int[] targets = { 3, 7, 1, 6, 2, 5, 4 };
+        double[] costs = { 1.0, 2.0, 2.0, 3.0, 5.0, 5.0 };
+
+        for (int k = 0; k <= targets.length; ++k) {
+            NearestTargets nearest = finder.findNearest(g, 0, targets, k);
+
+            assertEquals(Math.min(k, costs.length), nearest.size());
+
+            for (int i = 0; i < nearest.size(); ++i) {
+                assertEquals(costs[i], nearest.getCost(i), 0.0);
+                assertEquals(nearest.getTarget(i),
+                             g.getNode(nearest.getTargetId(i)));
+            }
+        }
+
+        assertEquals(4, finder.findNearest(g, 0, targets, 1).getTargetId(0));
+    }
+
+    @Test
+    public void testSourceTiesDuplicatesAndUnreachableTargets() {
+        // a -> b and a -> c of equal weight, and d on its own.
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphNode d = new DirectedGraphNode("d");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        a.addChild(c);
+        w.put(a, b, 2.0);
+        w.put(a, c, 2.0);
+
+        CompactDirectedGraph g =
+                new CompactDirectedGraph(Arrays.asList(a, b, c, d), w);
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        int[] targets = {
+            g.getId(d), g.getId(c), g.getId(a), g.getId(b), g.getId(b)
+        };
+        List<DirectedGraphNode> targetNodes = Arrays.asList(d, c, a, b, b);
+        NearestTargets[] results = {
+            finder.findToMany(g, g.getId(a), targets),
+            finder.findToMany(a, targetNodes, w),
+            finder.findNearest(g, g.getId(a), targets, 10),
+            finder.findNearest(a, targetNodes, 10, w)
+        };
+
+        for (NearestTargets result : results) {
+            // The source comes first at no cost, each target is listed
+            // once and d not at all.
+            assertEquals(3, result.size());
+            assertEquals(a, result.getTarget(0));
+            assertEquals(1, result.getPath(0).size());
+            assertEquals(0.0, result.getCost(0), 0.0);
+            assertEquals(2.0, result.getCost(1), 0.0);
+            assertEquals(2.0, result.getCost(2), 0.0);
+            assertFalse(result.getTarget(1).equals(result.getTarget(2)));
+            assertFalse(result.getTarget(1).equals(d));
+            assertFalse(result.getTarget(2).equals(d));
+        }
+
+        assertArrayEquals(new int[]{ g.getId(a) }, results[0].getIdPath(0));
+
+        NearestTargets two = finder.findNearest(g, g.getId(a), targets, 2);
+
+        assertEquals(2, two.size());
+        assertEquals(2.0, two.getCost(1), 0.0);
+        assertEquals(0, finder.findToMany(g, g.getId(a), new int[0]).size());
+        // From d, only d itself is reachable.
+        assertEquals(1, finder.findToMany(g, g.getId(d), targets).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNodeSearchHasNoIds() {
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        DijkstraFinder finder =
+                new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>());
+        NearestTargets result =
+                finder.findToMany(u, Arrays.asList(u), w);
+
+        assertEquals(1, result.size());
+        assertEquals(0.0, result.getCost(0), 0.0);
+        result.getTargetId(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNegativeAmount() {
+        DirectedGraphNode u = new DirectedGraphNode("u");
+        new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>())
+                .findNearest(u,
+                             Arrays.asList(u),
+                             -1,
+                             new DirectedGraphWeightFunction());
+    }
+
+    /**
+     * Returns a snapshot of eight nodes. From node 0, node 2 is cheaper
+     * through nodes 4 and 5 than through node 1, node 3 is reached at the
+     * same cost through nodes 2 and 6, and no node leads to node 7.
+     */
+    private static CompactDirectedGraph graph(DirectedGraphWeightFunction w) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        int[][] arcs = { { 0, 1, 2 }, { 1, 2, 2 }, { 2, 3, 2 }, { 0, 4, 1 },
+                         { 4, 5, 1 }, { 5, 2, 1 }, { 3, 0, 7 }, { 5, 6, 3 },
+                         { 6, 3, 0 }, { 7, 0, 1 } };
+
+        for (int i = 0; i < 8; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+}
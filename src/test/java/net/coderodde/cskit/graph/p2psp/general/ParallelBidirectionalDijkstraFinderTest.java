@@ -0,0 +1,224 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests <code>ParallelBidirectionalDijkstraFinder</code>.
+ *
+ * @author Rodion Efremov
+ */
+public class ParallelBidirectionalDijkstraFinderTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    public void testFrontiersMeetOffTheShortestPath() {
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CompactDirectedGraph g = graph(w);
+        double[][] d = getDistances(g);
+        ParallelBidirectionalDijkstraFinder finder =
+                new ParallelBidirectionalDijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>());
+
+        // Both searches settle node 1 before the shorter way is complete.
+        assertArrayEquals(new int[]{ 0, 2, 3, 4 }, finder.find(g, 0, 4));
+        assertEquals(9.0, d[0][6], 0.0);
+        assertEquals(6.0, d[4][1], 0.0);
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                int[] path = finder.find(g, s, t);
+                DirectedGraphNode source = g.getNode(s);
+                DirectedGraphNode target = g.getNode(t);
+                List<DirectedGraphNode> list = finder.find(source, target, w);
+
+                if (d[s][t] == INF) {
+                    assertEquals(0, path.length);
+                    assertTrue(list.isEmpty());
+                    continue;
+                }
+
+                assertEquals(s, path[0]);
+                assertEquals(t, path[path.length - 1]);
+                assertEquals(d[s][t], g.getPathCost(path), 0.0);
+                assertTrue(list.get(0) == source);
+                assertTrue(list.get(list.size() - 1) == target);
+                assertTrue(isConnectedPath(list));
+                assertEquals(d[s][t], getPathCost(list, w), 0.0);
+            }
+        }
+
+        finder.shutdown();
+    }
+
+    @Test
+    public void testUnreachableTarget() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        c.addChild(b);
+        w.put(a, b, 1.0);
+        w.put(c, b, 2.0);
+
+        ParallelBidirectionalDijkstraFinder finder =
+                new ParallelBidirectionalDijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertTrue(finder.find(a, c, w).isEmpty());
+        assertEquals(2, finder.find(c, b, w).size());
+        assertEquals(1, finder.find(a, a, w).size());
+    }
+
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        final DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        final CompactDirectedGraph g = graph(w);
+        final double[][] d = getDistances(g);
+        final ParallelBidirectionalDijkstraFinder finder =
+                new ParallelBidirectionalDijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>());
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+
+        for (int k = 0; k < threads.length; ++k) {
+            final int offset = k;
+
+            threads[k] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 20; ++i) {
+                        for (int s = 0; s < g.size(); ++s) {
+                            // Each thread walks the targets in its own order.
+                            int t = (s + offset + i) % g.size();
+                            int[] path = finder.find(g, s, t);
+                            List<DirectedGraphNode> list =
+                                    finder.find(g.getNode(s),
+                                                g.getNode(t),
+                                                w);
+
+                            if (path.length == 0 ? d[s][t] < INF
+                                    : g.getPathCost(path) != d[s][t]
+                                      || getPathCost(list, w) != d[s][t]) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            };
+            threads[k].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, mismatches.get());
+        finder.shutdown();
+    }
+
+    @Test
+    public void testRethrowsFailures() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+
+        a.addChild(b);
+        b.addChild(c);
+        w.put(a, b, 1.0);
+        w.put(b, c, 1.0);
+
+        ParallelBidirectionalDijkstraFinder finder =
+                new ParallelBidirectionalDijkstraFinder(
+                        new BinaryHeap<DirectedGraphNode, Double>());
+
+        // The backward search runs on the helper thread. The other search
+        // waits for the failure, so that it cannot finish the path alone.
+        for (final boolean forward : new boolean[]{ false, true }) {
+            final CountDownLatch failed = new CountDownLatch(1);
+            DirectedGraphWeightFunction failing =
+                    new DirectedGraphWeightFunction() {
+                @Override
+                public double get(DirectedGraphNode.ArcCursor cursor) {
+                    if (cursor.isForward() == forward) {
+                        failed.countDown();
+                        throw new IllegalStateException("Broken weight.");
+                    }
+
+                    try {
+                        failed.await(5L, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    return 1.0;
+                }
+            };
+
+            try {
+                finder.find(a, c, failing);
+                fail("The failure of a search was swallowed.");
+            } catch (IllegalStateException e) {
+                assertEquals("Broken weight.", e.getMessage());
+            }
+
+            assertEquals(3, finder.find(a, c, w).size());
+        }
+
+        finder.shutdown();
+    }
+
+    /**
+     * Returns a snapshot of eight nodes. From node 0, node 4 is reached
+     * through node 1 at cost 10 and through nodes 2 and 3 at cost 9. Nodes
+     * 4 to 6 are joined by zero arcs in two ways, node 4 leads back to
+     * node 0, nodes 5 and 6 lead nowhere and no node leads to node 7.
+     */
+    private static CompactDirectedGraph graph(DirectedGraphWeightFunction w) {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        int[][] arcs = { { 0, 1, 5 }, { 1, 4, 5 }, { 0, 2, 3 }, { 2, 3, 3 },
+                         { 3, 4, 3 }, { 4, 5, 0 }, { 5, 6, 0 }, { 4, 6, 0 },
+                         { 4, 0, 1 }, { 7, 0, 1 } };
+
+        for (int i = 0; i < 8; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+
+        for (int[] arc : arcs) {
+            nodes.get(arc[0]).addChild(nodes.get(arc[1]));
+            w.put(nodes.get(arc[0]), nodes.get(arc[1]), arc[2]);
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static double[][] getDistances(CompactDirectedGraph g) {
+        DijkstraFinder dijkstra = new DijkstraFinder(null);
+        double[][] distances = new double[g.size()][g.size()];
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                int[] path = dijkstra.find(g, s, t);
+                distances[s][t] = path.length == 0 ? INF
+                                                   : g.getPathCost(path);
+            }
+        }
+
+        return distances;
+    }
+}
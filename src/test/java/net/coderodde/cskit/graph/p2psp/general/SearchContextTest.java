@@ -0,0 +1,317 @@
+package net.coderodde.cskit.graph.p2psp.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import static net.coderodde.cskit.Utilities.getPathCost;
+import static net.coderodde.cskit.Utilities.isConnectedPath;
+import net.coderodde.cskit.ds.pq.BinaryHeap;
+import net.coderodde.cskit.ds.pq.FibonacciHeap;
+import net.coderodde.cskit.graph.CompactDirectedGraph;
+import net.coderodde.cskit.graph.DirectedGraphNode;
+import net.coderodde.cskit.graph.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * This class tests that finders keep their search state in
+ * <code>SearchContext</code>s, so that they can be reused and shared by
+ * threads.
+ *
+ * @author Rodion Efremov
+ */
+public class SearchContextTest {
+
+    private static final int QUERIES = 40;
+    private static final int THREADS = 4;
+
+    @Test
+    public void testReusedFindersAgreeWithDijkstra() {
+        List<DirectedGraphNode> nodes = new ArrayList<DirectedGraphNode>();
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+        CompactDirectedGraph g = grid(nodes, w, map);
+        double[][] d = getDistances(g);
+        EuclidianMetric h = new EuclidianMetric(map, null);
+        EuclidianMetric hb = new EuclidianMetric(map, null);
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>()),
+            new AStarFinder(new FibonacciHeap<DirectedGraphNode, Double>(),
+                            h),
+            new BidirectionalDijkstraFinder(
+                    new BinaryHeap<DirectedGraphNode, Double>()),
+            new BHPAFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                           h,
+                           hb)
+        };
+
+        // Every finder answers all queries in turn, so each search starts
+        // from the state the previous one left.
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                for (int f = 0; f < finders.length; ++f) {
+                    // The bidirectional finders have never answered s = t.
+                    if (s == t && f >= 2) {
+                        continue;
+                    }
+
+                    List<DirectedGraphNode> path =
+                            finders[f].find(nodes.get(s), nodes.get(t), w);
+
+                    assertTrue(path.get(0) == nodes.get(s));
+                    assertTrue(path.get(path.size() - 1) == nodes.get(t));
+                    assertEquals(d[s][t], getPathCost(path, w), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReuseAfterTrivialAndUnreachableQueries() {
+        // a -> b -> c, and d on its own. A search that exhausts the graph
+        // without reaching its target must leave nothing behind for the
+        // next one.
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        DirectedGraphNode c = new DirectedGraphNode("c");
+        DirectedGraphNode d = new DirectedGraphNode("d");
+        DirectedGraphWeightFunction w = new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+
+        a.addChild(b);
+        b.addChild(c);
+        w.put(a, b, 1.0);
+        w.put(b, c, 1.0);
+        map.put(a, new double[]{ 0.0, 0.0 });
+        map.put(b, new double[]{ 1.0, 0.0 });
+        map.put(c, new double[]{ 2.0, 0.0 });
+        map.put(d, new double[]{ 0.5, 0.0 });
+
+        GeneralPathFinder[] finders = {
+            new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>()),
+            new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                            new EuclidianMetric(map, null)),
+            new BidirectionalDijkstraFinder(
+                    new BinaryHeap<DirectedGraphNode, Double>()),
+            new BHPAFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                           new EuclidianMetric(map, null),
+                           new EuclidianMetric(map, null))
+        };
+
+        for (int f = 0; f < finders.length; ++f) {
+            GeneralPathFinder finder = finders[f];
+
+            for (int round = 0; round < 2; ++round) {
+                assertTrue(finder.find(a, d, w).isEmpty());
+                assertTrue(finder.find(c, a, w).isEmpty());
+
+                // The bidirectional finders have never answered s = t.
+                if (f < 2) {
+                    assertEquals(1, finder.find(d, d, w).size());
+                    assertEquals(1, finder.find(a, a, w).size());
+                }
+
+                List<DirectedGraphNode> path = finder.find(a, c, w);
+
+                assertEquals(3, path.size());
+                assertEquals(2.0, getPathCost(path, w), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSharedFindersAcrossThreads() throws Exception {
+        final List<DirectedGraphNode> nodes =
+                new ArrayList<DirectedGraphNode>();
+        final DirectedGraphWeightFunction w =
+                new DirectedGraphWeightFunction();
+        CoordinateMap map = new CoordinateMap(2);
+        final CompactDirectedGraph g = grid(nodes, w, map);
+        double[][] d = getDistances(g);
+        // The corners of the grid.
+        Landmarks landmarks = new Landmarks(g, new int[]{ 0, 4, 20, 24 }, 1);
+        EuclidianMetric h = new EuclidianMetric(map, null);
+        EuclidianMetric hb = new EuclidianMetric(map, null);
+        final GeneralPathFinder[] finders = {
+            new DijkstraFinder(new BinaryHeap<DirectedGraphNode, Double>()),
+            new AStarFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                            new LandmarkHeuristic(landmarks)),
+            new BidirectionalDijkstraFinder(
+                    new BinaryHeap<DirectedGraphNode, Double>()),
+            new BHPAFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                           h,
+                           hb),
+            new ContractionHierarchyFinder(new ContractionHierarchy(g, 1))
+        };
+        final WhangboFinder whangbo =
+                new WhangboFinder(new BinaryHeap<DirectedGraphNode, Double>(),
+                                  h,
+                                  hb);
+        final DirectedGraphNode[] sources = new DirectedGraphNode[QUERIES];
+        final DirectedGraphNode[] targets = new DirectedGraphNode[QUERIES];
+        final double[] expected = new double[QUERIES];
+
+        // Neighbours, then nodes seven cells apart in the listing.
+        for (int i = 0; i < QUERIES; ++i) {
+            int s = i % g.size();
+            int t = (s + 1 + 7 * (i / g.size())) % g.size();
+
+            sources[i] = nodes.get(s);
+            targets[i] = nodes.get(t);
+            expected[i] = d[s][t];
+        }
+
+        final double[][][] costs =
+                new double[THREADS][finders.length][QUERIES];
+        final boolean[][] connected = new boolean[THREADS][QUERIES];
+        final Throwable[] errors = new Throwable[THREADS];
+        Thread[] threads = new Thread[THREADS];
+
+        for (int i = 0; i < THREADS; ++i) {
+            final int thread = i;
+
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int round = 0; round < 3; ++round) {
+                            // Each thread runs the queries in its own order.
+                            for (int j = 0; j < QUERIES; ++j) {
+                                runQuery((7 * j + 11 * thread + round)
+                                         % QUERIES);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        errors[thread] = t;
+                    }
+                }
+
+                private void runQuery(int q) {
+                    for (int f = 0; f < finders.length; ++f) {
+                        costs[thread][f][q] = (f % 2 == 0)
+                                ? getPathCost(finders[f].find(sources[q],
+                                                              targets[q],
+                                                              w),
+                                              w)
+                                : g.getPathCost(
+                                      finders[f].find(g,
+                                                      g.getId(sources[q]),
+                                                      g.getId(targets[q])));
+                    }
+
+                    List<DirectedGraphNode> path =
+                            whangbo.find(sources[q], targets[q], w);
+                    connected[thread][q] = isConnectedPath(path);
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < THREADS; ++i) {
+            assertNull(errors[i]);
+
+            for (int f = 0; f < finders.length; ++f) {
+                assertArrayEquals(expected, costs[i][f], 0.001);
+            }
+
+            for (int q = 0; q < QUERIES; ++q) {
+                assertTrue(connected[i][q]);
+            }
+        }
+    }
+
+    @Test
+    public void testHeuristicCopiesAreIndependent() {
+        DirectedGraphNode a = new DirectedGraphNode("a");
+        DirectedGraphNode b = new DirectedGraphNode("b");
+        CoordinateMap map = new CoordinateMap(2);
+
+        map.put(a, new double[]{ 0.0, 0.0 });
+        map.put(b, new double[]{ 3.0, 4.0 });
+
+        EuclidianMetric h = new EuclidianMetric(map, null);
+        h.setTarget(a);
+        HeuristicFunction copy = h.newInstance();
+        copy.setTarget(b);
+
+        assertEquals(0.0, h.get(a), 0.0);
+        assertEquals(5.0, h.get(b), 0.0);
+        assertEquals(0.0, copy.get(b), 0.0);
+        assertEquals(5.0, copy.get(a), 0.0);
+        assertSame(h.getCoordinateMap(), copy.getCoordinateMap());
+
+        SearchContext context =
+                new SearchContext(new BinaryHeap<DirectedGraphNode, Double>());
+
+        assertSame(context.heuristic(h), context.heuristic(h));
+        assertNotSame(h, context.heuristic(h));
+        assertSame(context.reverse(), context.reverse());
+
+        context.OPEN.insert(a, 1.0);
+        context.reverse().CLOSED.add(b);
+        context.clear();
+
+        assertFalse(context.OPEN.contains(a));
+        assertTrue(context.reverse().CLOSED.isEmpty());
+    }
+
+    /**
+     * Adds a 5 by 5 grid of unit cells to <code>nodes</code>,
+     * <code>w</code> and <code>map</code>, and returns its snapshot. The
+     * arcs go both ways and weigh from 1 to 4, differently in each
+     * direction, so the Euclidian distance never overestimates.
+     */
+    private static CompactDirectedGraph grid(List<DirectedGraphNode> nodes,
+                                             DirectedGraphWeightFunction w,
+                                             CoordinateMap map) {
+        for (int i = 0; i < 25; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+            map.put(nodes.get(i), new double[]{ i / 5, i % 5 });
+        }
+
+        for (int x = 0; x < 5; ++x) {
+            for (int y = 0; y < 5; ++y) {
+                int u = 5 * x + y;
+
+                if (x + 1 < 5) {
+                    connect(nodes.get(u), nodes.get(u + 5), x + 2 * y, w);
+                }
+
+                if (y + 1 < 5) {
+                    connect(nodes.get(u), nodes.get(u + 1), 3 * x + y, w);
+                }
+            }
+        }
+
+        return new CompactDirectedGraph(nodes, w);
+    }
+
+    private static void connect(DirectedGraphNode u,
+                                DirectedGraphNode v,
+                                int k,
+                                DirectedGraphWeightFunction w) {
+        u.addChild(v);
+        v.addChild(u);
+        w.put(u, v, 1 + k % 4);
+        w.put(v, u, 1 + (k + 1) % 3);
+    }
+
+    private static double[][] getDistances(CompactDirectedGraph g) {
+        DijkstraFinder dijkstra = new DijkstraFinder(null);
+        double[][] distances = new double[g.size()][g.size()];
+
+        for (int s = 0; s < g.size(); ++s) {
+            for (int t = 0; t < g.size(); ++t) {
+                distances[s][t] = g.getPathCost(dijkstra.find(g, s, t));
+            }
+        }
+
+        return distances;
+    }
+}